@@ -0,0 +1,88 @@
+package com.github.chrisblutz.networking.benchmarks;
+
+import com.github.chrisblutz.networking.packets.Packet;
+import com.github.chrisblutz.networking.packets.PacketUtils;
+import com.github.chrisblutz.networking.packets.binary.BinaryOutput;
+import com.github.chrisblutz.networking.packets.binary.BinaryPacketReader;
+import com.github.chrisblutz.networking.packets.binary.BinaryPacketWriter;
+import com.github.chrisblutz.networking.sockets.Connection;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Measures encoding and decoding a {@code Packet} holding a {@code double[]}
+ * and an {@code int[]} with the binary codec
+ *
+ * @author Christopher Lutz
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArrayCodecBenchmark {
+
+    @Param({"100", "10000", "100000"})
+    public int elements;
+
+    private Connection connection;
+    private Packet packet;
+
+    private final BinaryPacketWriter binaryWriter = new BinaryPacketWriter();
+    private final BinaryPacketReader binaryReader = new BinaryPacketReader();
+    private final BinaryOutput output = new BinaryOutput();
+
+    private byte[] frame;
+
+    @Setup
+    public void setup() {
+
+        Random random = new Random(0);
+
+        double[] doubles = new double[elements];
+        int[] ints = new int[elements];
+
+        for (int i = 0; i < elements; i++) {
+
+            doubles[i] = random.nextDouble();
+            ints[i] = random.nextInt();
+        }
+
+        connection = Connection.getUninitializedConnection();
+        packet = new Packet();
+        packet.putData("doubles", doubles);
+        packet.putData("ints", ints);
+
+        frame = binaryWriter.getPacketAsFrame(connection, packet);
+    }
+
+    @Benchmark
+    public int writeBinary() {
+
+        output.reset();
+        binaryWriter.writeFrame(connection, packet, output);
+
+        return output.size();
+    }
+
+    @Benchmark
+    public Packet readBinary() {
+
+        return binaryReader.getPacketFromFrame(connection, frame, PacketUtils.BINARY_FRAME_HEADER_LENGTH,
+                frame.length - PacketUtils.BINARY_FRAME_HEADER_LENGTH);
+    }
+}
@@ -0,0 +1,77 @@
+package com.github.chrisblutz.networking.benchmarks;
+
+import com.github.chrisblutz.networking.packets.Packet;
+
+
+/**
+ * Creates the {@code Packets} used by the benchmarks
+ *
+ * @author Christopher Lutz
+ */
+class BenchmarkPackets {
+
+    /**
+     * A {@code Packet} containing only numbers and booleans
+     */
+    static final String PRIMITIVES = "PRIMITIVES";
+    /**
+     * A {@code Packet} containing only {@code Strings}, some of which need escaping in the text codec
+     */
+    static final String STRINGS = "STRINGS";
+    /**
+     * A {@code Packet} containing an even mix of the other two
+     */
+    static final String MIXED = "MIXED";
+
+    private BenchmarkPackets() {
+
+    }
+
+    /**
+     * Creates a {@code Packet} with the specified number of data pieces
+     *
+     * @param entries The number of data pieces to add
+     * @param mix     The types of data to add ({@code PRIMITIVES}, {@code STRINGS} or {@code MIXED})
+     * @return The new {@code Packet}
+     */
+    static Packet create(int entries, String mix) {
+
+        Packet p = new Packet();
+
+        for (int i = 0; i < entries; i++) {
+
+            boolean string = STRINGS.equals(mix) || (MIXED.equals(mix) && i % 2 == 1);
+
+            if (string) {
+
+                p.putData("string" + i, i % 4 == 1 ? "value=" + i + ":with\nescapes" : "value number " + i);
+
+            } else {
+
+                switch (i % 4) {
+
+                    case 0:
+
+                        p.putData("int" + i, i * 31);
+                        break;
+
+                    case 1:
+
+                        p.putData("long" + i, System.nanoTime());
+                        break;
+
+                    case 2:
+
+                        p.putData("double" + i, i / 7.0);
+                        break;
+
+                    default:
+
+                        p.putData("boolean" + i, i % 8 == 3);
+                }
+            }
+        }
+
+        return p;
+    }
+}
@@ -0,0 +1,133 @@
+package com.github.chrisblutz.networking.benchmarks;
+
+import com.github.chrisblutz.networking.packets.Packet;
+import com.github.chrisblutz.networking.packets.PacketReader;
+import com.github.chrisblutz.networking.packets.PacketUtils;
+import com.github.chrisblutz.networking.packets.PacketWriter;
+import com.github.chrisblutz.networking.packets.binary.BinaryOutput;
+import com.github.chrisblutz.networking.packets.encryption.EncryptedPacketReader;
+import com.github.chrisblutz.networking.packets.encryption.EncryptedPacketWriter;
+import com.github.chrisblutz.networking.packets.encryption.EncryptionKey;
+import com.github.chrisblutz.networking.sockets.Connection;
+import org.apache.commons.codec.binary.Base64;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.Key;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Measures the throughput of encrypting and decrypting a single {@code Packet} with
+ * the {@code EncryptedPacketWriter} and {@code EncryptedPacketReader} in both
+ * {@code EncryptionModes}, compared to creating the {@code Cipher}, key and
+ * {@code Base64} codec again for every {@code Packet}
+ *
+ * @author Christopher Lutz
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EncryptionBenchmark {
+
+    @Param({"4", "32", "256"})
+    public int entries;
+
+    private Connection connection;
+    private Packet packet;
+
+    private final EncryptedPacketWriter writer = new EncryptedPacketWriter();
+    private final EncryptedPacketReader reader = new EncryptedPacketReader();
+
+    private final PacketWriter textWriter = new PacketWriter();
+    private final PacketReader textReader = new PacketReader();
+
+    private final BinaryOutput output = new BinaryOutput();
+
+    private String encrypted;
+    private byte[] frame;
+
+    @Setup
+    public void setup() {
+
+        connection = Connection.getUninitializedConnection();
+        connection.setEncrypted(true, new EncryptionKey("0123456789abcdef", null));
+
+        packet = BenchmarkPackets.create(entries, BenchmarkPackets.MIXED);
+        encrypted = writer.getPacketAsWriteableString(connection, packet);
+
+        writer.writeFrame(connection, packet, output);
+        frame = output.toByteArray();
+    }
+
+    @Benchmark
+    public String encrypt() {
+
+        return writer.getPacketAsWriteableString(connection, packet);
+    }
+
+    @Benchmark
+    public Packet decrypt() {
+
+        return reader.getPacketFromString(connection, encrypted);
+    }
+
+    @Benchmark
+    public int encryptGcm() {
+
+        output.reset();
+        writer.writeFrame(connection, packet, output);
+
+        return output.size();
+    }
+
+    @Benchmark
+    public Packet decryptGcm() {
+
+        return reader.getPacketFromFrame(connection, frame, PacketUtils.BINARY_FRAME_HEADER_LENGTH,
+                frame.length - PacketUtils.BINARY_FRAME_HEADER_LENGTH);
+    }
+
+    @Benchmark
+    public String encryptUncached() throws Exception {
+
+        String writeable = textWriter.getPacketAsWriteableString(connection, packet)
+                .replace(PacketUtils.ENCRYPTED_DATA_PREFIX, PacketUtils.ENCRYPTED_DATA_ESCAPE);
+
+        Key aesKey = new SecretKeySpec(connection.getEncryptionKey().getKey().getBytes(), "AES");
+        Cipher cipher = Cipher.getInstance("AES");
+
+        cipher.init(Cipher.ENCRYPT_MODE, aesKey);
+
+        return PacketUtils.ENCRYPTED_DATA_PREFIX + new String(new Base64().encode(cipher.doFinal(writeable.getBytes())));
+    }
+
+    @Benchmark
+    public Packet decryptUncached() throws Exception {
+
+        String toParse = encrypted.substring(PacketUtils.ENCRYPTED_DATA_PREFIX.length());
+
+        Key aesKey = new SecretKeySpec(connection.getEncryptionKey().getKey().getBytes(), "AES");
+        Cipher cipher = Cipher.getInstance("AES");
+
+        cipher.init(Cipher.DECRYPT_MODE, aesKey);
+        String decrypted = new String(cipher.doFinal(new Base64().decode(toParse.getBytes())))
+                .replace(PacketUtils.ENCRYPTED_DATA_ESCAPE, PacketUtils.ENCRYPTED_DATA_PREFIX);
+
+        return textReader.getPacketFromString(connection, decrypted);
+    }
+}
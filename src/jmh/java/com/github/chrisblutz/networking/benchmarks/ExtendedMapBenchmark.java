@@ -0,0 +1,112 @@
+package com.github.chrisblutz.networking.benchmarks;
+
+import com.github.chrisblutz.networking.utils.ExtendedMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Measures putting values into and getting values out of an {@code ExtendedMap}
+ * holding several types of data
+ *
+ * @author Christopher Lutz
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExtendedMapBenchmark {
+
+    private static final Class<?>[] TYPES = {Integer.class, Long.class, Double.class, String.class};
+
+    @Param({"8", "64", "512"})
+    public int entries;
+
+    private ExtendedMap map;
+    private String[] keys;
+    private Object[] values;
+
+    private int index = 0;
+
+    @Setup
+    public void setup() {
+
+        map = new ExtendedMap();
+        keys = new String[entries];
+        values = new Object[entries];
+
+        for (int i = 0; i < entries; i++) {
+
+            keys[i] = "key" + i;
+
+            switch (i % TYPES.length) {
+
+                case 0:
+
+                    values[i] = i;
+                    break;
+
+                case 1:
+
+                    values[i] = (long) i;
+                    break;
+
+                case 2:
+
+                    values[i] = (double) i;
+                    break;
+
+                default:
+
+                    values[i] = "value" + i;
+            }
+
+            map.put(TYPES[i % TYPES.length], keys[i], values[i]);
+        }
+    }
+
+    private int next() {
+
+        if (++index >= entries) {
+
+            index = 0;
+        }
+
+        return index;
+    }
+
+    @Benchmark
+    public void put() {
+
+        // Replaces an existing value, which is the common case when a Packet is reused
+        int i = next();
+        map.put(TYPES[i % TYPES.length], keys[i], values[i]);
+    }
+
+    @Benchmark
+    public Object get() {
+
+        return map.get(keys[next()]);
+    }
+
+    @Benchmark
+    public Object getTyped() {
+
+        int i = next();
+
+        return map.get(TYPES[i % TYPES.length], keys[i]);
+    }
+}
@@ -0,0 +1,147 @@
+package com.github.chrisblutz.networking.benchmarks;
+
+import com.github.chrisblutz.networking.Client;
+import com.github.chrisblutz.networking.Server;
+import com.github.chrisblutz.networking.listeners.ClientListener;
+import com.github.chrisblutz.networking.listeners.ServerListener;
+import com.github.chrisblutz.networking.packets.Codec;
+import com.github.chrisblutz.networking.packets.Packet;
+import com.github.chrisblutz.networking.sockets.Connection;
+import com.github.chrisblutz.networking.sockets.Transport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Measures the round-trip latency of a {@code Packet} sent by a {@code Client}
+ * and echoed back by a {@code Server} over the loopback interface
+ *
+ * @author Christopher Lutz
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoopbackBenchmark {
+
+    private static final int PORT = 12400;
+
+    @Param({"BLOCKING", "NIO"})
+    public Transport transport;
+
+    @Param({"TEXT", "BINARY"})
+    public Codec codec;
+
+    @Param({"false", "true"})
+    public boolean fullDuplex;
+
+    private Server server;
+    private Client client;
+    private Packet packet;
+
+    private final BlockingQueue<Packet> responses = new ArrayBlockingQueue<Packet>(1);
+
+    @Setup
+    public void setup() throws Exception {
+
+        server = new Server(PORT, "LoopbackBenchmark");
+        server.setTransport(transport);
+        server.setCodec(codec);
+        server.setFullDuplex(fullDuplex);
+        server.addNetworkListener(new ServerListener() {
+
+            @Override
+            public void onReceive(Connection connection, Packet packet) {
+
+                connection.sendPacket(packet, false);
+            }
+
+            @Override
+            public Packet onConnect(Connection c, Packet data) {
+
+                return data;
+            }
+
+            @Override
+            public void onTimeout(Connection connection) {
+
+            }
+
+            @Override
+            public void onClientFailure(Connection c) {
+
+            }
+        });
+
+        final CountDownLatch connected = new CountDownLatch(1);
+
+        client = new Client("0.0.0.0", PORT, "LoopbackBenchmark");
+        client.setTransport(transport);
+        client.setCodec(codec);
+        client.setFullDuplex(fullDuplex);
+        client.addNetworkListener(new ClientListener() {
+
+            @Override
+            public void onReceive(Connection connection, Packet packet) {
+
+                responses.offer(packet);
+            }
+
+            @Override
+            public void onConnect(Packet packet) {
+
+                connected.countDown();
+            }
+
+            @Override
+            public void onTimeout(Connection connection) {
+
+            }
+        });
+
+        server.start();
+        client.connect();
+
+        if (!connected.await(10, TimeUnit.SECONDS)) {
+
+            throw new IllegalStateException("The client did not connect!");
+        }
+
+        packet = BenchmarkPackets.create(8, BenchmarkPackets.MIXED);
+
+        // The first round trip lets the server switch to the codec the client agreed to
+        roundTrip();
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+
+        client.close();
+        server.close();
+    }
+
+    @Benchmark
+    public Packet roundTrip() throws InterruptedException {
+
+        client.sendPacket(packet, false);
+
+        return responses.take();
+    }
+}
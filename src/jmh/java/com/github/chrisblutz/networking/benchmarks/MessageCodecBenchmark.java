@@ -0,0 +1,143 @@
+package com.github.chrisblutz.networking.benchmarks;
+
+import com.github.chrisblutz.networking.messages.Field;
+import com.github.chrisblutz.networking.messages.MessageCodec;
+import com.github.chrisblutz.networking.messages.NetworkMessage;
+import com.github.chrisblutz.networking.messages.NetworkMessages;
+import com.github.chrisblutz.networking.packets.Packet;
+import com.github.chrisblutz.networking.packets.PacketUtils;
+import com.github.chrisblutz.networking.packets.binary.BinaryInput;
+import com.github.chrisblutz.networking.packets.binary.BinaryOutput;
+import com.github.chrisblutz.networking.packets.binary.BinaryPacketReader;
+import com.github.chrisblutz.networking.packets.binary.BinaryPacketWriter;
+import com.github.chrisblutz.networking.sockets.Connection;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Compares encoding and decoding a {@code @NetworkMessage} with its {@code MessageCodec}
+ * against a binary {@code Packet} holding the same values under String keys
+ *
+ * @author Christopher Lutz
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageCodecBenchmark {
+
+    private Connection connection;
+    private Packet packet;
+    private Position message;
+    private MessageCodec<Position> codec;
+
+    private final BinaryPacketWriter binaryWriter = new BinaryPacketWriter();
+    private final BinaryPacketReader binaryReader = new BinaryPacketReader();
+    private final BinaryOutput output = new BinaryOutput();
+    private final BinaryInput input = new BinaryInput(new byte[0]);
+
+    private byte[] packetFrame;
+    private byte[] messageBytes;
+    private Position reused;
+
+    @Setup
+    public void setup() {
+
+        connection = Connection.getUninitializedConnection();
+        codec = NetworkMessages.register(Position.class);
+
+        message = new Position();
+        message.entity = 4711;
+        message.timestamp = 1466000000000L;
+        message.x = 12.5;
+        message.y = -3.25;
+        message.moving = true;
+        message.zone = "overworld";
+
+        packet = new Packet();
+        packet.putInt("entity", message.entity);
+        packet.putLong("timestamp", message.timestamp);
+        packet.putDouble("x", message.x);
+        packet.putDouble("y", message.y);
+        packet.putBoolean("moving", message.moving);
+        packet.putData("zone", message.zone);
+
+        packetFrame = binaryWriter.getPacketAsFrame(connection, packet);
+
+        codec.writeBinary(message, output);
+        messageBytes = output.toByteArray();
+
+        reused = codec.newMessage();
+    }
+
+    @Benchmark
+    public int writePacket() {
+
+        output.reset();
+        binaryWriter.writeFrame(connection, packet, output);
+
+        return output.size();
+    }
+
+    @Benchmark
+    public Packet readPacket() {
+
+        return binaryReader.getPacketFromFrame(connection, packetFrame, PacketUtils.BINARY_FRAME_HEADER_LENGTH,
+                packetFrame.length - PacketUtils.BINARY_FRAME_HEADER_LENGTH);
+    }
+
+    @Benchmark
+    public int writeMessage() {
+
+        output.reset();
+        codec.writeBinary(message, output);
+
+        return output.size();
+    }
+
+    @Benchmark
+    public Position readMessage() {
+
+        input.reset(messageBytes, 0, messageBytes.length);
+
+        return codec.readBinary(input);
+    }
+
+    @Benchmark
+    public Position readMessageReused() {
+
+        input.reset(messageBytes, 0, messageBytes.length);
+
+        return codec.readBinary(input, reused);
+    }
+
+    @NetworkMessage(id = 1)
+    public static class Position {
+
+        @Field(id = 1)
+        int entity;
+        @Field(id = 2)
+        long timestamp;
+        @Field(id = 3)
+        double x;
+        @Field(id = 4)
+        double y;
+        @Field(id = 5)
+        boolean moving;
+        @Field(id = 6)
+        String zone;
+    }
+}
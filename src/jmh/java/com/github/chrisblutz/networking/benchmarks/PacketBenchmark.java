@@ -0,0 +1,124 @@
+package com.github.chrisblutz.networking.benchmarks;
+
+import com.github.chrisblutz.networking.packets.Packet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Measures putting values into and getting values out of a {@code Packet}
+ * holding several types of data, for comparison with {@code ExtendedMapBenchmark}
+ *
+ * @author Christopher Lutz
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PacketBenchmark {
+
+    private static final int TYPES = 4;
+
+    @Param({"8", "64", "512"})
+    public int entries;
+
+    private Packet packet;
+    private String[] keys;
+    private Object[] values;
+
+    private int index = 0;
+
+    @Setup
+    public void setup() {
+
+        packet = new Packet();
+        keys = new String[entries];
+        values = new Object[entries];
+
+        for (int i = 0; i < entries; i++) {
+
+            keys[i] = "key" + i;
+
+            switch (i % TYPES) {
+
+                case 0:
+
+                    values[i] = i;
+                    break;
+
+                case 1:
+
+                    values[i] = (long) i;
+                    break;
+
+                case 2:
+
+                    values[i] = (double) i;
+                    break;
+
+                default:
+
+                    values[i] = "value" + i;
+            }
+
+            packet.putData(keys[i], values[i]);
+        }
+    }
+
+    private int next() {
+
+        if (++index >= entries) {
+
+            index = 0;
+        }
+
+        return index;
+    }
+
+    @Benchmark
+    public void put() {
+
+        // Replaces an existing value, which is the common case when a Packet is reused
+        int i = next();
+        packet.putData(keys[i], values[i]);
+    }
+
+    @Benchmark
+    public Object get() {
+
+        return packet.getData(keys[next()]);
+    }
+
+    @Benchmark
+    public boolean has() {
+
+        return packet.hasData(keys[next()]);
+    }
+
+    @Benchmark
+    public void putInt() {
+
+        int i = next();
+        packet.putInt(keys[i], i);
+    }
+
+    @Benchmark
+    public long getLong() {
+
+        // Numbers of any type are converted, so every key is read through the same primitive path
+        return packet.getLong(keys[next()], -1);
+    }
+}
@@ -0,0 +1,136 @@
+package com.github.chrisblutz.networking.benchmarks;
+
+import com.github.chrisblutz.networking.packets.Packet;
+import com.github.chrisblutz.networking.packets.PacketReader;
+import com.github.chrisblutz.networking.packets.PacketUtils;
+import com.github.chrisblutz.networking.packets.PacketWriter;
+import com.github.chrisblutz.networking.packets.binary.BinaryOutput;
+import com.github.chrisblutz.networking.packets.binary.BinaryPacketReader;
+import com.github.chrisblutz.networking.packets.binary.BinaryPacketWriter;
+import com.github.chrisblutz.networking.packets.binary.KeyDictionary;
+import com.github.chrisblutz.networking.sockets.Connection;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.Charset;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Measures encoding and decoding a single {@code Packet} with the text
+ * ({@code PacketWriter}/{@code PacketReader}) and binary codecs, across several
+ * {@code Packet} sizes and mixes of data types.  The keyed binary benchmarks write
+ * and read frames whose keys are all already in the {@code KeyDictionary}, as on a
+ * {@code Connection} that has sent the same kind of {@code Packet} before.
+ *
+ * @author Christopher Lutz
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PacketCodecBenchmark {
+
+    @Param({"4", "32", "256"})
+    public int entries;
+
+    @Param({BenchmarkPackets.PRIMITIVES, BenchmarkPackets.STRINGS, BenchmarkPackets.MIXED})
+    public String mix;
+
+    private Connection connection;
+    private Packet packet;
+
+    private final PacketWriter textWriter = new PacketWriter();
+    private final PacketReader textReader = new PacketReader();
+    private final BinaryPacketWriter binaryWriter = new BinaryPacketWriter();
+    private final BinaryPacketReader binaryReader = new BinaryPacketReader();
+    private final BinaryPacketWriter keyedWriter = new BinaryPacketWriter();
+    private final BinaryPacketReader keyedReader = new BinaryPacketReader();
+
+    private final StringBuilder text = new StringBuilder();
+    private final BinaryOutput output = new BinaryOutput();
+
+    private byte[] textBytes;
+    private byte[] frame;
+    private byte[] keyedFrame;
+
+    @Setup
+    public void setup() {
+
+        connection = Connection.getUninitializedConnection();
+        packet = BenchmarkPackets.create(entries, mix);
+
+        textWriter.writePacket(connection, packet, text);
+        textBytes = text.toString().getBytes(Charset.forName("UTF-8"));
+
+        frame = binaryWriter.getPacketAsFrame(connection, packet);
+
+        // Keys are defined the second time they are written, so the third frame only holds their ids
+        keyedWriter.setKeyDictionary(new KeyDictionary(Connection.DEFAULT_KEY_DICTIONARY_CAPACITY));
+        keyedReader.setKeyDictionary(new KeyDictionary(Connection.DEFAULT_KEY_DICTIONARY_CAPACITY));
+
+        for (int i = 0; i < 3; i++) {
+
+            keyedFrame = keyedWriter.getPacketAsFrame(connection, packet);
+            readKeyedBinary();
+        }
+    }
+
+    @Benchmark
+    public int writeText() {
+
+        text.setLength(0);
+        textWriter.writePacket(connection, packet, text);
+
+        return text.length();
+    }
+
+    @Benchmark
+    public Packet readText() {
+
+        return textReader.getPacketFromBytes(connection, textBytes, 0, textBytes.length);
+    }
+
+    @Benchmark
+    public int writeBinary() {
+
+        output.reset();
+        binaryWriter.writeFrame(connection, packet, output);
+
+        return output.size();
+    }
+
+    @Benchmark
+    public Packet readBinary() {
+
+        return binaryReader.getPacketFromFrame(connection, frame, PacketUtils.BINARY_FRAME_HEADER_LENGTH,
+                frame.length - PacketUtils.BINARY_FRAME_HEADER_LENGTH);
+    }
+
+    @Benchmark
+    public int writeKeyedBinary() {
+
+        output.reset();
+        keyedWriter.writeFrame(connection, packet, output);
+
+        return output.size();
+    }
+
+    @Benchmark
+    public Packet readKeyedBinary() {
+
+        return keyedReader.getPacketFromKeyedFrame(connection, keyedFrame, PacketUtils.BINARY_FRAME_HEADER_LENGTH,
+                keyedFrame.length - PacketUtils.BINARY_FRAME_HEADER_LENGTH);
+    }
+}
@@ -0,0 +1,162 @@
+package com.github.chrisblutz.networking.benchmarks;
+
+import com.github.chrisblutz.networking.listeners.ClientListener;
+import com.github.chrisblutz.networking.packets.Packet;
+import com.github.chrisblutz.networking.relay.RelayClient;
+import com.github.chrisblutz.networking.relay.RelayServer;
+import com.github.chrisblutz.networking.relay.listeners.RelayListener;
+import com.github.chrisblutz.networking.sockets.Connection;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Measures how many {@code Packets} per second a {@code RelayServer} can forward
+ * from one {@code RelayClient} to every other {@code RelayClient} in its group
+ *
+ * @author Christopher Lutz
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RelayFanOutBenchmark {
+
+    private static final int PORT = 12401;
+    private static final String GROUP = "benchmark";
+
+    @Param({"1", "10", "50"})
+    public int receivers;
+
+    private RelayServer server;
+    private RelayClient sender;
+    private RelayClient[] clients;
+    private Packet packet;
+
+    private final Semaphore received = new Semaphore(0);
+
+    @Setup
+    public void setup() throws Exception {
+
+        server = new RelayServer(PORT, "RelayFanOutBenchmark", receivers + 1);
+        server.setAutomaticForwarding(true);
+        server.addRelayListener(new RelayListener() {
+
+            @Override
+            public void onReceive(RelayServer server, Connection c, Packet data) {
+
+            }
+
+            @Override
+            public void onTimeout(RelayServer server, Connection c) {
+
+            }
+
+            @Override
+            public Packet onConnect(RelayServer server, Connection c, Packet data) {
+
+                if (server.hasGroup(GROUP)) {
+
+                    server.group(server.getGroupForId(GROUP), c);
+
+                } else {
+
+                    server.group(GROUP, c);
+                }
+
+                return data;
+            }
+
+            @Override
+            public void onClientFailure(RelayServer server, Connection c) {
+
+            }
+        });
+
+        server.start();
+
+        CountDownLatch connected = new CountDownLatch(receivers + 1);
+
+        clients = new RelayClient[receivers];
+
+        for (int i = 0; i < receivers; i++) {
+
+            clients[i] = createClient("Receiver" + i, connected);
+            clients[i].connect();
+        }
+
+        sender = createClient("Sender", connected);
+        sender.connect();
+
+        if (!connected.await(30, TimeUnit.SECONDS)) {
+
+            throw new IllegalStateException("Not every client connected!");
+        }
+
+        packet = BenchmarkPackets.create(8, BenchmarkPackets.MIXED);
+    }
+
+    private RelayClient createClient(String name, final CountDownLatch connected) {
+
+        RelayClient client = new RelayClient("0.0.0.0", PORT, name);
+        client.addNetworkListener(new ClientListener() {
+
+            @Override
+            public void onReceive(Connection connection, Packet packet) {
+
+                received.release();
+            }
+
+            @Override
+            public void onConnect(Packet packet) {
+
+                connected.countDown();
+            }
+
+            @Override
+            public void onTimeout(Connection connection) {
+
+            }
+        });
+
+        return client;
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+
+        sender.close();
+
+        for (RelayClient client : clients) {
+
+            client.close();
+        }
+
+        server.close();
+    }
+
+    @Benchmark
+    public void fanOut() throws InterruptedException {
+
+        sender.sendPacket(packet, false);
+
+        // Every receiver has to get the Packet before the next one is sent
+        received.acquire(receivers);
+    }
+}
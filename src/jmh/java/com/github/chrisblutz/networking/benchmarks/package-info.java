@@ -0,0 +1,7 @@
+/**
+ * Contains the JMH benchmarks for the library, such as packet and array encoding and decoding,
+ * encryption, {@code Packet} and {@code ExtendedMap} access, loopback round trips and relay fan-out
+ *
+ * @author Christopher Lutz
+ */
+package com.github.chrisblutz.networking.benchmarks;
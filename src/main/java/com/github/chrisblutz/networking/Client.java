@@ -1,17 +1,22 @@
 package com.github.chrisblutz.networking;
 
 import com.github.chrisblutz.networking.debugging.Debugger;
+import com.github.chrisblutz.networking.messages.NetworkMessages;
 import com.github.chrisblutz.networking.packets.Packet;
 import com.github.chrisblutz.networking.packets.encryption.EncryptionKey;
 import com.github.chrisblutz.networking.query.QueryPolicy;
 import com.github.chrisblutz.networking.query.QueryType;
 import com.github.chrisblutz.networking.sockets.Connection;
+import com.github.chrisblutz.networking.sockets.EventLoopGroup;
+import com.github.chrisblutz.networking.sockets.Transport;
 import com.github.chrisblutz.networking.states.State;
 import com.github.chrisblutz.networking.utils.PacketKeys;
 
 import java.io.IOException;
+import java.net.InetSocketAddress;
 import java.net.Socket;
 import java.net.UnknownHostException;
+import java.nio.channels.SocketChannel;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -36,6 +41,8 @@ public class Client extends ClientListenable {
 
     private boolean open = false;
 
+    private final Object connectLock = new Object();
+
     private Map<QueryType, QueryPolicy> policies = new ConcurrentHashMap<QueryType, QueryPolicy>();
 
     /**
@@ -54,6 +61,8 @@ public class Client extends ClientListenable {
         this.port = port;
         this.clientName = clientName;
 
+        setEventLoopThreads(1);
+
         if (Debugger.isEnabled()) {
 
             Debugger.registerListenable(this);
@@ -166,16 +175,48 @@ public class Client extends ClientListenable {
      */
     public void connect() throws UnknownHostException, IOException {
 
-        socket = new Socket(ip, port);
+        if (getTransport() == Transport.NIO) {
 
-        connection = makeConnection(socket);
+            if (eventLoopGroup == null) {
 
-        if (Debugger.isEnabled()) {
+                eventLoopGroup = new EventLoopGroup(this, "Client '" + getClientName() + "'", getEventLoopThreads());
+            }
 
-            Debugger.updateListenable(this);
+            socket = SocketChannel.open(new InetSocketAddress(ip, port)).socket();
+
+        } else if (getSSLContext() != null) {
+
+            socket = getSSLContext().getSocketFactory().createSocket(ip, port);
+
+        } else {
+
+            socket = new Socket(ip, port);
         }
 
-        open = true;
+        // The Connection starts receiving as soon as it is created, so hold back onConnect() until this Client can send
+        synchronized (connectLock) {
+
+            connection = makeConnection(socket);
+
+            if (Debugger.isEnabled()) {
+
+                Debugger.updateListenable(this);
+            }
+
+            open = true;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void fireListenerOnConnect(Packet packet) {
+
+        synchronized (connectLock) {
+
+            super.fireListenerOnConnect(packet);
+        }
     }
 
     protected Connection makeConnection(Socket socket) {
@@ -234,6 +275,15 @@ public class Client extends ClientListenable {
         }
 
         connection.close();
+
+        if (eventLoopGroup != null) {
+
+            eventLoopGroup.shutdown();
+            eventLoopGroup = null;
+        }
+
+        shutdownTimerWheel();
+        shutdownQueryExecutor();
     }
 
     /**
@@ -264,6 +314,17 @@ public class Client extends ClientListenable {
         }
     }
 
+    /**
+     * Sends a network message across the connection to the server on the
+     * receiving end inside of its own {@code Packet}
+     *
+     * @param message The message to send, whose class must be annotated with {@code @NetworkMessage}
+     */
+    public void sendMessage(Object message) {
+
+        sendPacket(NetworkMessages.toPacket(message), false);
+    }
+
     public static Packet addBranchCommandPacketData(Packet packet, String branchId){
 
         packet.putData(PacketKeys.BRANCH_CONNECTION, branchId);
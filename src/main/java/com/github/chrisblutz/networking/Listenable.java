@@ -3,12 +3,35 @@ package com.github.chrisblutz.networking;
 import com.github.chrisblutz.networking.exceptions.reporters.ErrorReporter;
 import com.github.chrisblutz.networking.listeners.NetworkListener;
 import com.github.chrisblutz.networking.listeners.branching.BranchingServerListener;
+import com.github.chrisblutz.networking.messages.MessageListener;
+import com.github.chrisblutz.networking.packets.Codec;
 import com.github.chrisblutz.networking.packets.Packet;
+import com.github.chrisblutz.networking.packets.PacketStorage;
+import com.github.chrisblutz.networking.packets.encryption.EncryptionMode;
+import com.github.chrisblutz.networking.query.QueryCache;
+import com.github.chrisblutz.networking.query.QueryCachePolicy;
+import com.github.chrisblutz.networking.query.QueryRejectionPolicy;
+import com.github.chrisblutz.networking.query.QueryType;
 import com.github.chrisblutz.networking.sockets.Connection;
+import com.github.chrisblutz.networking.sockets.EventLoopGroup;
+import com.github.chrisblutz.networking.sockets.OverflowPolicy;
+import com.github.chrisblutz.networking.sockets.TimerWheel;
+import com.github.chrisblutz.networking.sockets.Transport;
 import com.github.chrisblutz.networking.states.State;
+import com.github.chrisblutz.networking.utils.VirtualThreads;
 
+import javax.net.ssl.SSLContext;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 
 /**
@@ -21,6 +44,31 @@ public class Listenable {
     protected List<NetworkListener> lists = new ArrayList<NetworkListener>();
     protected List<ErrorReporter> reporters = new ArrayList<ErrorReporter>();
     private State defaultState = null;
+    private Transport transport = Transport.BLOCKING;
+    private int eventLoopThreads = Runtime.getRuntime().availableProcessors();
+    protected EventLoopGroup eventLoopGroup = null;
+    private ThreadFactory threadFactory = null;
+    private boolean virtualThreads = false;
+    private Codec codec = Codec.TEXT;
+    private int keyDictionaryCapacity = Connection.DEFAULT_KEY_DICTIONARY_CAPACITY;
+    private EncryptionMode encryptionMode = EncryptionMode.AES;
+    private boolean fullDuplex = false;
+    private int outboundQueueCapacity = Connection.DEFAULT_QUEUE_CAPACITY;
+    private OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+    private int maxBatchPackets = Connection.DEFAULT_MAX_BATCH_PACKETS;
+    private int maxBatchBytes = Connection.DEFAULT_MAX_BATCH_BYTES;
+    private long maxLinger = 0;
+    private int maxFrameLength = Connection.DEFAULT_MAX_FRAME_LENGTH;
+    private SSLContext sslContext = null;
+    private long queryTimeout = Connection.DEFAULT_QUERY_TIMEOUT;
+    protected TimerWheel timerWheel = null;
+    private int queryThreads = Connection.DEFAULT_QUERY_THREADS;
+    private int queryQueueCapacity = Connection.DEFAULT_QUERY_QUEUE_CAPACITY;
+    private QueryRejectionPolicy queryRejectionPolicy = QueryRejectionPolicy.REJECT;
+    private Executor queryExecutor = null;
+    protected ThreadPoolExecutor queryPool = null;
+    private final ConcurrentMap<QueryType, QueryCache> queryCaches = new ConcurrentHashMap<QueryType, QueryCache>();
+    private final ConcurrentMap<Class<?>, List<MessageListener<?>>> messageListeners = new ConcurrentHashMap<Class<?>, List<MessageListener<?>>>();
 
     /**
      * Sets the default {@code State} to use for {@code Connections} based off
@@ -44,6 +92,630 @@ public class Listenable {
         return defaultState;
     }
 
+    /**
+     * Sets the {@code Transport} to use for {@code Connections} based off this
+     * {@code Listenable}.  This must be set before the {@code Server} is started
+     * or the {@code Client} is connected.
+     *
+     * @param transport The {@code Transport} to use
+     */
+    public void setTransport(Transport transport) {
+
+        this.transport = transport;
+    }
+
+    /**
+     * Gets the {@code Transport} to use for {@code Connections} based off this
+     * {@code Listenable}
+     *
+     * @return The {@code Transport} in use
+     */
+    public Transport getTransport() {
+
+        return transport;
+    }
+
+    /**
+     * Sets the number of {@code EventLoop} threads used to serve all
+     * {@code Connections} of this {@code Listenable} when its {@code Transport} is
+     * {@code NIO}
+     *
+     * @param threads The number of event loop threads
+     */
+    public void setEventLoopThreads(int threads) {
+
+        this.eventLoopThreads = threads;
+    }
+
+    /**
+     * Gets the number of {@code EventLoop} threads used to serve all
+     * {@code Connections} of this {@code Listenable} when its {@code Transport} is
+     * {@code NIO}
+     *
+     * @return The number of event loop threads
+     */
+    public int getEventLoopThreads() {
+
+        return eventLoopThreads;
+    }
+
+    /**
+     * Gets the {@code EventLoopGroup} serving the {@code Connections} of this
+     * {@code Listenable}
+     *
+     * @return The {@code EventLoopGroup}, or {@code null} if the {@code Transport}
+     * is not {@code NIO} or this {@code Listenable} has not been opened
+     */
+    public EventLoopGroup getEventLoopGroup() {
+
+        return eventLoopGroup;
+    }
+
+    /**
+     * Sets whether or not the listener and connection check loops of
+     * {@code Connections} based off this {@code Listenable} should run on virtual
+     * {@code Threads}.  If the running JVM does not support virtual threads,
+     * platform {@code Threads} are used instead.
+     *
+     * @param virtualThreads Whether or not to use virtual {@code Threads}
+     */
+    public void setVirtualThreads(boolean virtualThreads) {
+
+        this.virtualThreads = virtualThreads;
+    }
+
+    /**
+     * Checks whether or not {@code Connections} based off this {@code Listenable}
+     * run their loops on virtual {@code Threads}
+     *
+     * @return Whether or not virtual {@code Threads} are in use (always {@code false} if the running JVM does not support them)
+     */
+    public boolean isUsingVirtualThreads() {
+
+        return virtualThreads && threadFactory == null && VirtualThreads.isSupported();
+    }
+
+    /**
+     * Sets the {@code ThreadFactory} used to create the listener and connection
+     * check {@code Threads} of {@code Connections} based off this
+     * {@code Listenable}.  A custom factory takes priority over
+     * {@code setVirtualThreads()}.
+     *
+     * @param threadFactory The {@code ThreadFactory} to use, or {@code null} to use the default
+     */
+    public void setThreadFactory(ThreadFactory threadFactory) {
+
+        this.threadFactory = threadFactory;
+    }
+
+    /**
+     * Gets the {@code ThreadFactory} used to create the listener and connection
+     * check {@code Threads} of {@code Connections} based off this
+     * {@code Listenable}
+     *
+     * @return The {@code ThreadFactory} to use, or {@code null} if new platform {@code Threads} should be created
+     */
+    public ThreadFactory getThreadFactory() {
+
+        if (threadFactory != null) {
+
+            return threadFactory;
+
+        } else if (virtualThreads) {
+
+            return VirtualThreads.getThreadFactory();
+        }
+
+        return null;
+    }
+
+    /**
+     * Sets the {@code SSLContext} used to run {@code Connections} based off this
+     * {@code Listenable} over TLS.  Both sides of a {@code Connection} must use TLS.
+     * Blocking {@code Connections} use the sockets created by the {@code SSLContext},
+     * while NIO {@code Connections} drive an {@code SSLEngine} from their event loop.
+     * This must be set before the {@code Server} is started or the {@code Client}
+     * connects.
+     *
+     * @param sslContext The {@code SSLContext} to use, or {@code null} to not use TLS
+     */
+    public void setSSLContext(SSLContext sslContext) {
+
+        this.sslContext = sslContext;
+    }
+
+    /**
+     * Gets the {@code SSLContext} used to run {@code Connections} based off this
+     * {@code Listenable} over TLS
+     *
+     * @return The {@code SSLContext} in use, or {@code null} if TLS is not used
+     */
+    public SSLContext getSSLContext() {
+
+        return sslContext;
+    }
+
+    /**
+     * Sets the {@code Codec} that {@code Connections} based off this
+     * {@code Listenable} prefer to write {@code Packets} with.  This is
+     * {@code Codec.TEXT} by default.  The binary {@code Codec} is only used once
+     * the remote side has agreed to it while connecting, so older peers keep using
+     * the text {@code Codec}, although a {@code Server} set to {@code Codec.BINARY}
+     * offers it with a key in the connection packet that older clients receive
+     * as part of their {@code onConnect()} data.
+     *
+     * @param codec The preferred {@code Codec}
+     */
+    public void setCodec(Codec codec) {
+
+        this.codec = codec;
+    }
+
+    /**
+     * Gets the {@code Codec} that {@code Connections} based off this
+     * {@code Listenable} prefer to write {@code Packets} with
+     *
+     * @return The preferred {@code Codec}
+     */
+    public Codec getCodec() {
+
+        return codec;
+    }
+
+    /**
+     * Sets the number of {@code Packet} keys that {@code Connections} based off this
+     * {@code Listenable} give ids to, so that keys they have sent before are written
+     * as a small id instead of their full text.  Keyed frames are only used with
+     * {@code Codec.BINARY}, once the remote side has agreed to them while connecting,
+     * and a capacity of {@code 0} turns them off.  The capacity also limits the keys
+     * the remote side may define, and both sides tell each other their capacity while
+     * connecting, so each writes at most as many keys as the other reads.
+     *
+     * @param capacity The maximum number of keys per {@code Connection}
+     */
+    public void setKeyDictionaryCapacity(int capacity) {
+
+        this.keyDictionaryCapacity = capacity;
+    }
+
+    /**
+     * Gets the number of {@code Packet} keys that {@code Connections} based off this
+     * {@code Listenable} give ids to
+     *
+     * @return The maximum number of keys per {@code Connection}
+     */
+    public int getKeyDictionaryCapacity() {
+
+        return keyDictionaryCapacity;
+    }
+
+    /**
+     * Sets the {@code EncryptionMode} that encrypted {@code Connections} based off
+     * this {@code Listenable} prefer to use.  This is {@code EncryptionMode.AES} by
+     * default.  AES-GCM is only used once the remote side has agreed to it while
+     * connecting, so older peers keep using {@code EncryptionMode.AES}.  AES-GCM
+     * also needs Java 7 or later, and {@code EncryptionMode.AES} is used instead on
+     * older JVMs.
+     *
+     * @param encryptionMode The preferred {@code EncryptionMode}
+     */
+    public void setEncryptionMode(EncryptionMode encryptionMode) {
+
+        this.encryptionMode = encryptionMode;
+    }
+
+    /**
+     * Gets the {@code EncryptionMode} that encrypted {@code Connections} based off
+     * this {@code Listenable} prefer to use
+     *
+     * @return The preferred {@code EncryptionMode}
+     */
+    public EncryptionMode getEncryptionMode() {
+
+        return encryptionMode;
+    }
+
+    /**
+     * Sets whether {@code Connections} based off this {@code Listenable} run in
+     * full-duplex mode.  A full-duplex {@code Connection} writes queued
+     * {@code Packets} as soon as they are sent and reads incoming {@code Packets}
+     * continuously, instead of alternating between the {@code SENDING} and
+     * {@code RECEIVING} states.  The remote side does not need to be full-duplex
+     * itself.  This must be set before the {@code Connections} are created.
+     *
+     * @param fullDuplex Whether or not to use full-duplex {@code Connections}
+     */
+    public void setFullDuplex(boolean fullDuplex) {
+
+        this.fullDuplex = fullDuplex;
+    }
+
+    /**
+     * Gets whether {@code Connections} based off this {@code Listenable} run in
+     * full-duplex mode
+     *
+     * @return Whether or not full-duplex {@code Connections} are used
+     */
+    public boolean isFullDuplex() {
+
+        return fullDuplex;
+    }
+
+    /**
+     * Sets the maximum number of {@code Packets} that each {@code Connection}
+     * based off this {@code Listenable} queues before its {@code OverflowPolicy}
+     * is applied.  Vital {@code Packets} may use 16 more slots before the
+     * policy applies to them.  This must be set before the {@code Connections}
+     * are created.
+     *
+     * @param capacity The capacity of the outbound queue
+     */
+    public void setOutboundQueueCapacity(int capacity) {
+
+        this.outboundQueueCapacity = capacity;
+    }
+
+    /**
+     * Gets the maximum number of {@code Packets} that each {@code Connection}
+     * based off this {@code Listenable} queues before its {@code OverflowPolicy}
+     * is applied
+     *
+     * @return The capacity of the outbound queue
+     */
+    public int getOutboundQueueCapacity() {
+
+        return outboundQueueCapacity;
+    }
+
+    /**
+     * Sets how {@code Connections} based off this {@code Listenable} handle
+     * {@code Packets} sent while their outbound queue is full.  This must be set
+     * before the {@code Connections} are created.
+     *
+     * @param policy The {@code OverflowPolicy} to use
+     */
+    public void setOverflowPolicy(OverflowPolicy policy) {
+
+        this.overflowPolicy = policy;
+    }
+
+    /**
+     * Gets how {@code Connections} based off this {@code Listenable} handle
+     * {@code Packets} sent while their outbound queue is full
+     *
+     * @return The {@code OverflowPolicy} in use
+     */
+    public OverflowPolicy getOverflowPolicy() {
+
+        return overflowPolicy;
+    }
+
+    /**
+     * Sets the maximum number of queued {@code Packets} that {@code Connections}
+     * based off this {@code Listenable} combine into a single write.  Batching
+     * applies to full-duplex {@code Connections} and the NIO transport, since
+     * ping-pong {@code Connections} only send one {@code Packet} per turn.
+     *
+     * @param packets The maximum number of {@code Packets} per write
+     */
+    public void setMaxBatchPackets(int packets) {
+
+        this.maxBatchPackets = packets;
+    }
+
+    /**
+     * Gets the maximum number of queued {@code Packets} that {@code Connections}
+     * based off this {@code Listenable} combine into a single write
+     *
+     * @return The maximum number of {@code Packets} per write
+     */
+    public int getMaxBatchPackets() {
+
+        return maxBatchPackets;
+    }
+
+    /**
+     * Sets the number of bytes after which {@code Connections} based off this
+     * {@code Listenable} stop adding {@code Packets} to a write
+     *
+     * @param bytes The maximum size of a write in bytes
+     */
+    public void setMaxBatchBytes(int bytes) {
+
+        this.maxBatchBytes = bytes;
+    }
+
+    /**
+     * Gets the number of bytes after which {@code Connections} based off this
+     * {@code Listenable} stop adding {@code Packets} to a write
+     *
+     * @return The maximum size of a write in bytes
+     */
+    public int getMaxBatchBytes() {
+
+        return maxBatchBytes;
+    }
+
+    /**
+     * Sets how long a full-duplex {@code Connection} based off this
+     * {@code Listenable} waits for more {@code Packets} to be sent before writing
+     * a batch that is not full.  Waiting trades latency for fewer, larger writes
+     * on connections that send many small {@code Packets}.  The NIO transport
+     * never waits, and writes whatever is queued.
+     *
+     * @param micros The maximum time to wait in microseconds, or {@code 0} to write immediately
+     */
+    public void setMaxLinger(long micros) {
+
+        this.maxLinger = micros;
+    }
+
+    /**
+     * Gets how long a full-duplex {@code Connection} based off this
+     * {@code Listenable} waits for more {@code Packets} before writing a batch
+     * that is not full
+     *
+     * @return The maximum time to wait in microseconds
+     */
+    public long getMaxLinger() {
+
+        return maxLinger;
+    }
+
+    /**
+     * Sets the largest binary frame body or text line that {@code Connections} based
+     * off this {@code Listenable} accept from the remote side.  A {@code Connection}
+     * that receives a longer one reports it as unreadable data and closes, before
+     * making any room for it.
+     *
+     * @param bytes The maximum length in bytes
+     */
+    public void setMaxFrameLength(int bytes) {
+
+        this.maxFrameLength = bytes;
+    }
+
+    /**
+     * Gets the largest binary frame body or text line that {@code Connections} based
+     * off this {@code Listenable} accept from the remote side
+     *
+     * @return The maximum length in bytes
+     */
+    public int getMaxFrameLength() {
+
+        return maxFrameLength;
+    }
+
+    /**
+     * Sets how long {@code Queries} sent by {@code Connections} based off this
+     * {@code Listenable} wait for a response before they time out.  Every
+     * {@code Query} has its own deadline, so a slow {@code Query} never causes
+     * others to time out.  A timeout can also be given to each {@code Query}
+     * when it is sent.
+     *
+     * @param millis The timeout in milliseconds, or {@code 0} to only time out {@code Queries} when the {@code Connection} times out
+     */
+    public void setQueryTimeout(long millis) {
+
+        this.queryTimeout = millis;
+    }
+
+    /**
+     * Gets how long {@code Queries} sent by {@code Connections} based off this
+     * {@code Listenable} wait for a response before they time out
+     *
+     * @return The timeout in milliseconds, or {@code 0} if {@code Queries} only time out with their {@code Connection}
+     */
+    public long getQueryTimeout() {
+
+        return queryTimeout;
+    }
+
+    /**
+     * Gets the {@code TimerWheel} that expires the {@code Queries} of
+     * {@code Connections} based off this {@code Listenable}, starting it if it
+     * is not running yet
+     *
+     * @return The {@code TimerWheel} of this {@code Listenable}
+     */
+    public synchronized TimerWheel getTimerWheel() {
+
+        if (timerWheel == null) {
+
+            timerWheel = new TimerWheel(this, "Timer Wheel: " + getClass().getSimpleName());
+        }
+
+        return timerWheel;
+    }
+
+    /**
+     * Stops the {@code TimerWheel} of this {@code Listenable}, if it was started
+     */
+    protected synchronized void shutdownTimerWheel() {
+
+        if (timerWheel != null) {
+
+            timerWheel.shutdown();
+            timerWheel = null;
+        }
+    }
+
+    /**
+     * Sets the number of worker {@code Threads} that run the {@code QueryListeners} of
+     * {@code Queries} received by {@code Connections} based off this {@code Listenable}.
+     * Full-duplex, NIO and {@code MUTUAL} {@code Connections} keep reading while their
+     * {@code Queries} run and send the results once they are done.  Ping-pong
+     * {@code Connections} have to answer before they can read again, so they always
+     * run {@code QueryListeners} themselves.  This must be set before the first
+     * {@code Query} is received.
+     *
+     * @param threads The number of worker {@code Threads}, or {@code 0} to run {@code QueryListeners} on the {@code Connection}'s own {@code Thread}
+     */
+    public void setQueryThreads(int threads) {
+
+        this.queryThreads = threads;
+    }
+
+    /**
+     * Gets the number of worker {@code Threads} that run {@code QueryListeners} for
+     * {@code Connections} based off this {@code Listenable}
+     *
+     * @return The number of worker {@code Threads}
+     */
+    public int getQueryThreads() {
+
+        return queryThreads;
+    }
+
+    /**
+     * Sets the number of received {@code Queries} that can wait for a worker
+     * {@code Thread} before the {@code QueryRejectionPolicy} is applied.  This must
+     * be set before the first {@code Query} is received.
+     *
+     * @param capacity The number of waiting {@code Queries}
+     */
+    public void setQueryQueueCapacity(int capacity) {
+
+        this.queryQueueCapacity = capacity;
+    }
+
+    /**
+     * Gets the number of received {@code Queries} that can wait for a worker
+     * {@code Thread}
+     *
+     * @return The number of waiting {@code Queries}
+     */
+    public int getQueryQueueCapacity() {
+
+        return queryQueueCapacity;
+    }
+
+    /**
+     * Sets what happens to a received {@code Query} when the query executor cannot
+     * take any more work
+     *
+     * @param policy The {@code QueryRejectionPolicy} to use
+     */
+    public void setQueryRejectionPolicy(QueryRejectionPolicy policy) {
+
+        this.queryRejectionPolicy = policy;
+    }
+
+    /**
+     * Gets what happens to a received {@code Query} when the query executor cannot
+     * take any more work
+     *
+     * @return The {@code QueryRejectionPolicy} in use
+     */
+    public QueryRejectionPolicy getQueryRejectionPolicy() {
+
+        return queryRejectionPolicy;
+    }
+
+    /**
+     * Sets a custom {@code Executor} to run {@code QueryListeners} on instead of the
+     * worker {@code Threads} created by this {@code Listenable}.  If it throws a
+     * {@code RejectedExecutionException}, the {@code QueryRejectionPolicy} is applied.
+     * It is not shut down when this {@code Listenable} closes.
+     *
+     * @param executor The {@code Executor} to use, or {@code null} to use the worker {@code Threads}
+     */
+    public void setQueryExecutor(Executor executor) {
+
+        this.queryExecutor = executor;
+    }
+
+    /**
+     * Gets the {@code Executor} that runs {@code QueryListeners} for {@code Connections}
+     * based off this {@code Listenable}, starting the worker {@code Threads} if they
+     * are not running yet
+     *
+     * @return The {@code Executor} to use, or {@code null} if {@code QueryListeners} run on the {@code Connection}'s own {@code Thread}
+     */
+    public synchronized Executor getQueryExecutor() {
+
+        if (queryExecutor != null) {
+
+            return queryExecutor;
+
+        } else if (queryThreads <= 0) {
+
+            return null;
+        }
+
+        if (queryPool == null) {
+
+            ThreadFactory factory = getThreadFactory();
+
+            if (factory == null) {
+
+                final String name = "Query Worker: " + getClass().getSimpleName() + " ";
+                final AtomicInteger count = new AtomicInteger(0);
+
+                factory = new ThreadFactory() {
+
+                    @Override
+                    public Thread newThread(Runnable r) {
+
+                        Thread thread = new Thread(r, name + count.incrementAndGet());
+                        thread.setDaemon(true);
+
+                        return thread;
+                    }
+                };
+            }
+
+            queryPool = new ThreadPoolExecutor(queryThreads, queryThreads, 0, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<Runnable>(Math.max(1, queryQueueCapacity)), factory);
+        }
+
+        return queryPool;
+    }
+
+    /**
+     * Stops the worker {@code Threads} that run {@code QueryListeners}, if they were started
+     */
+    protected synchronized void shutdownQueryExecutor() {
+
+        if (queryPool != null) {
+
+            queryPool.shutdown();
+            queryPool = null;
+        }
+    }
+
+    /**
+     * Gets the {@code QueryCache} that holds the results of the specified {@code QueryType} for all {@code Connections}
+     * of this {@code Listenable}, creating it the first time results are cached
+     *
+     * @param type The {@code QueryType} to get the cache of
+     * @return The {@code QueryCache} of the {@code QueryType}, or {@code null} if it does not have a {@code QueryCachePolicy}
+     */
+    public QueryCache getQueryCache(QueryType type) {
+
+        QueryCache cache = queryCaches.get(type);
+
+        if (cache == null) {
+
+            QueryCachePolicy policy = type.getCachePolicy();
+
+            if (policy == null) {
+
+                return null;
+            }
+
+            QueryCache created = new QueryCache(policy);
+            cache = queryCaches.putIfAbsent(type, created);
+
+            if (cache == null) {
+
+                cache = created;
+            }
+        }
+
+        return cache;
+    }
+
     /**
      * Attaches an {@code ErrorListener} to this {@code Listenable}
      *
@@ -102,9 +774,50 @@ public class Listenable {
         return lists.toArray(new NetworkListener[]{});
     }
 
+    /**
+     * Attaches a {@code MessageListener} to this {@code Listenable}, which is called for every
+     * network message of the specified class received by its {@code Connections}
+     *
+     * @param type     The class of the network messages
+     * @param listener The listener to add
+     * @param <T>      The class of the network messages
+     */
+    public <T> void addMessageListener(Class<T> type, MessageListener<? super T> listener) {
+
+        List<MessageListener<?>> listeners = messageListeners.get(type);
+
+        if (listeners == null) {
+
+            List<MessageListener<?>> created = new CopyOnWriteArrayList<MessageListener<?>>();
+            listeners = messageListeners.putIfAbsent(type, created);
+
+            if (listeners == null) {
+
+                listeners = created;
+            }
+        }
+
+        listeners.add(listener);
+    }
+
+    /**
+     * Gets all of the {@code MessageListener} objects attached to this {@code Listenable}
+     * for the specified class
+     *
+     * @param type The class of the network messages
+     * @return A {@code MessageListener[]} containing all listeners attached for the class
+     */
+    public MessageListener<?>[] getMessageListeners(Class<?> type) {
+
+        List<MessageListener<?>> listeners = messageListeners.get(type);
+
+        return listeners != null ? listeners.toArray(new MessageListener<?>[]{}) : new MessageListener<?>[0];
+    }
+
     /**
      * Fires the {@code onRecieve()} method in all of the attached
-     * {@code NetworkListener} objects (or the appropriate {@code BranchingServerListener} if the {@code Connection} is server-side and branched)
+     * {@code NetworkListener} objects (or the appropriate {@code BranchingServerListener} if the {@code Connection} is server-side and branched),
+     * then the {@code onMessage()} method in the {@code MessageListeners} attached for any network messages in the {@code Packet}
      *
      * @param connection The {@code Connection} responsible for the {@code Packet}
      * @param packet     The {@code Packet} to pass to the listeners
@@ -127,6 +840,34 @@ public class Listenable {
                 l.onReceive(connection, packet);
             }
         }
+
+        if (!messageListeners.isEmpty()) {
+
+            fireMessageListeners(connection, packet);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void fireMessageListeners(Connection connection, Packet packet) {
+
+        PacketStorage storage = packet.getStorage();
+
+        for (int i = 0; i < storage.size(); i++) {
+
+            if (storage.getTag(i) == PacketStorage.OBJECT) {
+
+                Object value = storage.getValue(i);
+                List<MessageListener<?>> listeners = messageListeners.get(value.getClass());
+
+                if (listeners != null) {
+
+                    for (MessageListener<?> l : listeners) {
+
+                        ((MessageListener<Object>) l).onMessage(connection, value);
+                    }
+                }
+            }
+        }
     }
 
     /**
@@ -2,18 +2,24 @@ package com.github.chrisblutz.networking;
 
 import com.github.chrisblutz.networking.debugging.Debugger;
 import com.github.chrisblutz.networking.exceptions.Errors;
+import com.github.chrisblutz.networking.messages.NetworkMessages;
 import com.github.chrisblutz.networking.packets.Packet;
 import com.github.chrisblutz.networking.packets.encryption.EncryptionKey;
 import com.github.chrisblutz.networking.query.QueryPolicy;
 import com.github.chrisblutz.networking.query.QueryType;
 import com.github.chrisblutz.networking.sockets.Connection;
+import com.github.chrisblutz.networking.sockets.Broadcast;
 import com.github.chrisblutz.networking.sockets.ConnectionBundle;
+import com.github.chrisblutz.networking.sockets.EventLoopGroup;
+import com.github.chrisblutz.networking.sockets.Transport;
 import com.github.chrisblutz.networking.states.State;
 
 import java.io.IOException;
 import java.lang.Thread.UncaughtExceptionHandler;
+import java.net.InetSocketAddress;
 import java.net.ServerSocket;
 import java.net.Socket;
+import java.nio.channels.ServerSocketChannel;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -220,7 +226,23 @@ public class Server extends ServerListenable {
      */
     public void start() throws IOException {
 
-        socket = new ServerSocket(port);
+        if (getTransport() == Transport.NIO) {
+
+            ServerSocketChannel channel = ServerSocketChannel.open();
+            channel.socket().setReuseAddress(true);
+            channel.socket().bind(new InetSocketAddress(port));
+
+            socket = channel.socket();
+            eventLoopGroup = new EventLoopGroup(this, "Server '" + getServerName() + "'", getEventLoopThreads());
+
+        } else if (getSSLContext() != null) {
+
+            socket = getSSLContext().getServerSocketFactory().createServerSocket(port);
+
+        } else {
+
+            socket = new ServerSocket(port);
+        }
 
         incoming = new Thread() {
 
@@ -248,6 +270,12 @@ public class Server extends ServerListenable {
 
                 } catch (Exception e) {
 
+                    // Closing a channel-based server interrupts the pending accept() call
+                    if (!open) {
+
+                        return;
+                    }
+
                     Server.this.report(e);
 
                     failed = true;
@@ -411,6 +439,14 @@ public class Server extends ServerListenable {
 
             c.close();
         }
+
+        if (eventLoopGroup != null) {
+
+            eventLoopGroup.shutdown();
+        }
+
+        shutdownTimerWheel();
+        shutdownQueryExecutor();
     }
 
     /**
@@ -456,13 +492,27 @@ public class Server extends ServerListenable {
 
         if (isOpen() && !hasFailed()) {
 
+            // Encode the Packet once and share it between all Connections that write it the same way
+            Broadcast broadcast = new Broadcast(p);
+
             for (Connection c : connections) {
 
                 if (c != null) {
 
-                    c.sendPacket(p, expectResponse);
+                    broadcast.sendTo(c, expectResponse);
                 }
             }
         }
     }
+
+    /**
+     * Sends a network message across all connections to the clients on the
+     * receiving ends inside of its own {@code Packet}
+     *
+     * @param message The message to send, whose class must be annotated with {@code @NetworkMessage}
+     */
+    public void sendMessage(Object message) {
+
+        sendPacket(NetworkMessages.toPacket(message), false);
+    }
 }
@@ -447,4 +447,66 @@ public class Errors {
 
         return exception;
     }
+
+    public static void outboundQueueFull(Listenable listenable, String ip, int port, Throwable parent) {
+
+        NetworkException ex = getOutboundQueueFull(ip, port, parent);
+
+        if (listenable != null) {
+
+            listenable.report(ex);
+
+        } else {
+
+            throw ex;
+        }
+    }
+
+    public static void outboundQueueFull(String ip, int port, Throwable parent) {
+
+        outboundQueueFull(null, ip, port, parent);
+    }
+
+    public static NetworkException getOutboundQueueFull(String ip, int port, Throwable parent) {
+
+        NetworkException exception = new NetworkException(Localization.getMessage(Localization.OUTBOUND_QUEUE_FULL, ip, Integer.toString(port)) + (parent != null && !parent.getMessage().equals("") ? " (" + Localization.getMessage(Localization.CAUSED_BY, parent.getClass().getName(), parent.getMessage()) + ")" : ""));
+
+        if (parent != null) {
+
+            exception.setStackTrace(parent.getStackTrace());
+        }
+
+        return exception;
+    }
+
+    public static void invalidNetworkMessage(Listenable listenable, String className, String reason, Throwable parent) {
+
+        NetworkException ex = getInvalidNetworkMessage(className, reason, parent);
+
+        if (listenable != null) {
+
+            listenable.report(ex);
+
+        } else {
+
+            throw ex;
+        }
+    }
+
+    public static void invalidNetworkMessage(String className, String reason, Throwable parent) {
+
+        invalidNetworkMessage(null, className, reason, parent);
+    }
+
+    public static NetworkException getInvalidNetworkMessage(String className, String reason, Throwable parent) {
+
+        NetworkException exception = new NetworkException(Localization.getMessage(Localization.INVALID_NETWORK_MESSAGE, className, reason) + (parent != null && parent.getMessage() != null && !parent.getMessage().equals("") ? " (" + Localization.getMessage(Localization.CAUSED_BY, parent.getClass().getName(), parent.getMessage()) + ")" : ""));
+
+        if (parent != null) {
+
+            exception.setStackTrace(parent.getStackTrace());
+        }
+
+        return exception;
+    }
 }
@@ -0,0 +1,31 @@
+package com.github.chrisblutz.networking.messages;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+
+/**
+ * Marks a field of a {@code @NetworkMessage} class to be sent with the message.
+ * Fields of primitive types are written without boxing, and fields of any other
+ * type are written with their {@code DataType}.  Fields cannot be {@code static}
+ * or {@code final}.
+ *
+ * @author Christopher Lutz
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface Field {
+
+    /**
+     * Gets the id of the field, which must be at least {@code 1} and unique within
+     * its message.  Fields with ids the receiving side does not know are skipped, so
+     * fields can be added to a message without breaking older peers.
+     *
+     * @return The field id
+     */
+    int id();
+}
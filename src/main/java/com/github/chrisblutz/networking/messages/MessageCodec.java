@@ -0,0 +1,573 @@
+package com.github.chrisblutz.networking.messages;
+
+import com.github.chrisblutz.networking.exceptions.Errors;
+import com.github.chrisblutz.networking.exceptions.NetworkException;
+import com.github.chrisblutz.networking.packets.binary.BinaryInput;
+import com.github.chrisblutz.networking.packets.binary.BinaryOutput;
+import com.github.chrisblutz.networking.packets.datatypes.DataTypes;
+import com.github.chrisblutz.networking.packets.datatypes.TextInput;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+
+/**
+ * Reads and writes the network messages of one {@code @NetworkMessage} class.  The
+ * fields of the class are looked up once, when the {@code MessageCodec} is created,
+ * so writing and reading a message only visits its {@code @Field} fields in order.<br>
+ * <br>
+ * In the binary form every field that does not hold its default value is written as
+ * a varint key (the field id followed by three bits describing how the value is
+ * written) and its value, and the message ends with a {@code 0} key.  Fields of
+ * primitive types are written as varints or fixed-width values without boxing them,
+ * and fields of any other type as a value tagged with its {@code DataType}.
+ *
+ * @param <T> The class of the network messages
+ * @author Christopher Lutz
+ */
+public final class MessageCodec<T> {
+
+    private static final int VARINT = 0;
+    private static final int FIXED_32 = 1;
+    private static final int FIXED_64 = 2;
+    private static final int VALUE = 3;
+
+    private static final int WIRE_TYPE_BITS = 3;
+    private static final int WIRE_TYPE_MASK = (1 << WIRE_TYPE_BITS) - 1;
+
+    private final Class<T> type;
+    private final int id;
+    private final Constructor<T> constructor;
+
+    // Sorted by id, so a field can be found by a binary search of ids
+    private final MessageField[] fields;
+    private final int[] ids;
+
+    MessageCodec(Class<T> type) {
+
+        NetworkMessage message = type.getAnnotation(NetworkMessage.class);
+
+        if (message == null) {
+
+            throw Errors.getInvalidNetworkMessage(type.getName(), "it is not annotated with @NetworkMessage", null);
+        }
+
+        this.type = type;
+        this.id = message.id();
+
+        try {
+
+            constructor = type.getDeclaredConstructor();
+            constructor.setAccessible(true);
+
+        } catch (NoSuchMethodException e) {
+
+            throw Errors.getInvalidNetworkMessage(type.getName(), "it does not have a constructor without parameters", null);
+        }
+
+        List<MessageField> found = new ArrayList<MessageField>();
+
+        for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+
+            for (java.lang.reflect.Field field : c.getDeclaredFields()) {
+
+                Field annotation = field.getAnnotation(Field.class);
+
+                if (annotation == null) {
+
+                    continue;
+                }
+
+                if ((field.getModifiers() & (Modifier.STATIC | Modifier.FINAL)) != 0) {
+
+                    throw Errors.getInvalidNetworkMessage(type.getName(), "field '" + field.getName() + "' is static or final", null);
+                }
+
+                if (annotation.id() < 1) {
+
+                    throw Errors.getInvalidNetworkMessage(type.getName(), "field '" + field.getName() + "' has an id below 1", null);
+                }
+
+                field.setAccessible(true);
+                found.add(new MessageField(field, annotation.id()));
+            }
+        }
+
+        Collections.sort(found, new Comparator<MessageField>() {
+
+            @Override
+            public int compare(MessageField a, MessageField b) {
+
+                return a.id < b.id ? -1 : (a.id == b.id ? 0 : 1);
+            }
+        });
+
+        fields = found.toArray(new MessageField[found.size()]);
+        ids = new int[fields.length];
+
+        for (int i = 0; i < fields.length; i++) {
+
+            ids[i] = fields[i].id;
+
+            if (i > 0 && ids[i] == ids[i - 1]) {
+
+                throw Errors.getInvalidNetworkMessage(type.getName(), "more than one field has the id " + ids[i], null);
+            }
+        }
+    }
+
+    /**
+     * Gets the class of the network messages read and written by this {@code MessageCodec}
+     *
+     * @return The class of the network messages
+     */
+    public Class<T> getType() {
+
+        return type;
+    }
+
+    /**
+     * Gets the message id of the network messages read and written by this {@code MessageCodec}
+     *
+     * @return The message id
+     */
+    public int getId() {
+
+        return id;
+    }
+
+    /**
+     * Creates a new instance of the message class with all {@code @Field} fields holding their default values
+     *
+     * @return The new message
+     */
+    public T newMessage() {
+
+        T message = create();
+
+        try {
+
+            reset(message);
+
+        } catch (IllegalAccessException e) {
+
+            throw Errors.getInvalidNetworkMessage(type.getName(), "a field could not be written", e);
+        }
+
+        return message;
+    }
+
+    /**
+     * Writes the binary form of the fields of a network message
+     *
+     * @param message The message to write
+     * @param output  The {@code BinaryOutput} to write to
+     */
+    public void writeBinary(T message, BinaryOutput output) {
+
+        try {
+
+            for (MessageField field : fields) {
+
+                field.writeBinary(message, output);
+            }
+
+        } catch (IllegalAccessException e) {
+
+            throw Errors.getInvalidNetworkMessage(type.getName(), "a field could not be read", e);
+        }
+
+        output.writeVarint(0);
+    }
+
+    /**
+     * Reads a network message written by {@code writeBinary()} into a new instance of the message class
+     *
+     * @param input The {@code BinaryInput} to read from
+     * @return The message read
+     */
+    public T readBinary(BinaryInput input) {
+
+        return readBinary(input, create());
+    }
+
+    /**
+     * Reads a network message written by {@code writeBinary()} into an existing instance of the
+     * message class, so that a message can be reused instead of creating one for every frame.
+     * Fields that were not written are set to their default values.
+     *
+     * @param input   The {@code BinaryInput} to read from
+     * @param message The message to read into
+     * @return The message read, which is {@code message}
+     */
+    public T readBinary(BinaryInput input, T message) {
+
+        try {
+
+            reset(message);
+
+            for (long key = input.readVarint(); key != 0; key = input.readVarint()) {
+
+                int wireType = (int) (key & WIRE_TYPE_MASK);
+                MessageField field = getField(key >>> WIRE_TYPE_BITS);
+
+                if (field != null && field.wireType == wireType) {
+
+                    field.readBinary(message, input);
+
+                } else {
+
+                    skip(input, wireType);
+                }
+            }
+
+        } catch (IllegalAccessException e) {
+
+            throw Errors.getInvalidNetworkMessage(type.getName(), "a field could not be written", e);
+
+        } catch (IllegalArgumentException e) {
+
+            throw Errors.getUnreadableData(new NetworkException(e.toString()));
+        }
+
+        return message;
+    }
+
+    /**
+     * Appends the text form of the fields of a network message, with each field id and value prefixed with its length
+     *
+     * @param message The message to append
+     * @param builder The {@code StringBuilder} to append to
+     */
+    public void appendType(T message, StringBuilder builder) {
+
+        try {
+
+            for (MessageField field : fields) {
+
+                Object value = field.field.get(message);
+
+                if (!field.isDefault(value)) {
+
+                    DataTypes.appendString(Integer.toString(field.id), builder);
+                    DataTypes.appendValue(value, builder);
+                }
+            }
+
+        } catch (IllegalAccessException e) {
+
+            throw Errors.getInvalidNetworkMessage(type.getName(), "a field could not be read", e);
+        }
+    }
+
+    /**
+     * Reads the rest of a {@code TextInput}, written by {@code appendType()}, into a new instance of the message class
+     *
+     * @param input The {@code TextInput} to read from
+     * @return The message read
+     */
+    public T readType(TextInput input) {
+
+        T message = newMessage();
+
+        try {
+
+            while (input.hasRemaining()) {
+
+                MessageField field = getField(Long.parseLong(input.readString()));
+                Object value = input.readValue();
+
+                if (field != null) {
+
+                    field.field.set(message, value);
+                }
+            }
+
+        } catch (IllegalAccessException e) {
+
+            throw Errors.getInvalidNetworkMessage(type.getName(), "a field could not be written", e);
+
+        } catch (IllegalArgumentException e) {
+
+            // Also thrown for ids that are not numbers, since NumberFormatException extends it
+            throw Errors.getUnreadableData(new NetworkException(e.toString()));
+        }
+
+        return message;
+    }
+
+    private T create() {
+
+        try {
+
+            return constructor.newInstance();
+
+        } catch (Exception e) {
+
+            throw Errors.getInvalidNetworkMessage(type.getName(), "it could not be created", e);
+        }
+    }
+
+    private MessageField getField(long fieldId) {
+
+        if (fieldId > Integer.MAX_VALUE) {
+
+            return null;
+        }
+
+        int index = Arrays.binarySearch(ids, (int) fieldId);
+
+        return index >= 0 ? fields[index] : null;
+    }
+
+    private void reset(T message) throws IllegalAccessException {
+
+        for (MessageField field : fields) {
+
+            field.reset(message);
+        }
+    }
+
+    private static void skip(BinaryInput input, int wireType) {
+
+        switch (wireType) {
+
+            case VARINT:
+
+                input.readVarint();
+                break;
+
+            case FIXED_32:
+
+                input.skip(4);
+                break;
+
+            case FIXED_64:
+
+                input.skip(8);
+                break;
+
+            case VALUE:
+
+                DataTypes.readBinaryValue(input);
+                break;
+
+            default:
+
+                throw Errors.getUnreadableData(new NetworkException("Unknown wire type " + wireType));
+        }
+    }
+
+    private static final class MessageField {
+
+        private final java.lang.reflect.Field field;
+        private final Class<?> type;
+        private final int id;
+        private final int wireType;
+        private final long key;
+
+        private MessageField(java.lang.reflect.Field field, int id) {
+
+            this.field = field;
+            this.type = field.getType();
+            this.id = id;
+
+            if (type == float.class) {
+
+                wireType = FIXED_32;
+
+            } else if (type == double.class) {
+
+                wireType = FIXED_64;
+
+            } else if (type.isPrimitive()) {
+
+                wireType = VARINT;
+
+            } else {
+
+                wireType = VALUE;
+            }
+
+            this.key = ((long) id << WIRE_TYPE_BITS) | wireType;
+        }
+
+        private void writeBinary(Object message, BinaryOutput output) throws IllegalAccessException {
+
+            // Fields holding their default value are not written, since reading resets them
+            if (type == int.class) {
+
+                int value = field.getInt(message);
+
+                if (value != 0) {
+
+                    output.writeVarint(key);
+                    output.writeSignedVarint(value);
+                }
+
+            } else if (type == long.class) {
+
+                long value = field.getLong(message);
+
+                if (value != 0) {
+
+                    output.writeVarint(key);
+                    output.writeSignedVarint(value);
+                }
+
+            } else if (type == double.class) {
+
+                double value = field.getDouble(message);
+
+                if (Double.doubleToRawLongBits(value) != 0) {
+
+                    output.writeVarint(key);
+                    output.writeDouble(value);
+                }
+
+            } else if (type == float.class) {
+
+                float value = field.getFloat(message);
+
+                if (Float.floatToRawIntBits(value) != 0) {
+
+                    output.writeVarint(key);
+                    output.writeFloat(value);
+                }
+
+            } else if (type == boolean.class) {
+
+                if (field.getBoolean(message)) {
+
+                    output.writeVarint(key);
+                    output.writeVarint(1);
+                }
+
+            } else if (type == short.class || type == byte.class) {
+
+                long value = field.getLong(message);
+
+                if (value != 0) {
+
+                    output.writeVarint(key);
+                    output.writeSignedVarint(value);
+                }
+
+            } else if (type == char.class) {
+
+                char value = field.getChar(message);
+
+                if (value != 0) {
+
+                    output.writeVarint(key);
+                    output.writeVarint(value);
+                }
+
+            } else {
+
+                Object value = field.get(message);
+
+                if (value != null) {
+
+                    output.writeVarint(key);
+                    DataTypes.writeBinaryValue(value, output);
+                }
+            }
+        }
+
+        private void readBinary(Object message, BinaryInput input) throws IllegalAccessException {
+
+            if (type == int.class) {
+
+                field.setInt(message, (int) input.readSignedVarint());
+
+            } else if (type == long.class) {
+
+                field.setLong(message, input.readSignedVarint());
+
+            } else if (type == double.class) {
+
+                field.setDouble(message, input.readDouble());
+
+            } else if (type == float.class) {
+
+                field.setFloat(message, input.readFloat());
+
+            } else if (type == boolean.class) {
+
+                field.setBoolean(message, input.readVarint() != 0);
+
+            } else if (type == short.class) {
+
+                field.setShort(message, (short) input.readSignedVarint());
+
+            } else if (type == byte.class) {
+
+                field.setByte(message, (byte) input.readSignedVarint());
+
+            } else if (type == char.class) {
+
+                field.setChar(message, (char) input.readVarint());
+
+            } else {
+
+                field.set(message, DataTypes.readBinaryValue(input));
+            }
+        }
+
+        private void reset(Object message) throws IllegalAccessException {
+
+            if (type == boolean.class) {
+
+                field.setBoolean(message, false);
+
+            } else if (type == char.class) {
+
+                field.setChar(message, (char) 0);
+
+            } else if (type == float.class) {
+
+                field.setFloat(message, 0);
+
+            } else if (type == double.class) {
+
+                field.setDouble(message, 0);
+
+            } else if (type.isPrimitive()) {
+
+                field.setByte(message, (byte) 0);
+
+            } else {
+
+                field.set(message, null);
+            }
+        }
+
+        private boolean isDefault(Object value) {
+
+            if (!type.isPrimitive()) {
+
+                return value == null;
+
+            } else if (type == boolean.class) {
+
+                return !((Boolean) value);
+
+            } else if (type == char.class) {
+
+                return (Character) value == 0;
+
+            } else if (type == float.class || type == double.class) {
+
+                return Double.doubleToRawLongBits(((Number) value).doubleValue()) == 0;
+            }
+
+            return ((Number) value).longValue() == 0;
+        }
+    }
+}
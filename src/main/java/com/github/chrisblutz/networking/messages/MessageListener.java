@@ -0,0 +1,23 @@
+package com.github.chrisblutz.networking.messages;
+
+import com.github.chrisblutz.networking.sockets.Connection;
+
+
+/**
+ * This interface is used to react to the network messages of one class as they are received
+ *
+ * @param <T> The class of the network messages
+ * @author Christopher Lutz
+ */
+public interface MessageListener<T> {
+
+    /**
+     * This method is called when a {@code Packet} containing a network message of the class
+     * the listener was added for is received, after the {@code NetworkListeners} receive the
+     * {@code Packet}
+     *
+     * @param connection The {@code Connection} that received the message
+     * @param message    The message received
+     */
+    void onMessage(Connection connection, T message);
+}
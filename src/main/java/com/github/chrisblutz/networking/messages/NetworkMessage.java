@@ -0,0 +1,35 @@
+package com.github.chrisblutz.networking.messages;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+
+/**
+ * Marks a class as a network message.  Network messages are sent inside of
+ * {@code Packets} like any other value, but only their numeric message id and
+ * the numeric ids of their {@code @Field} fields are written, instead of a
+ * {@code String} key and data type for every field.<br>
+ * <br>
+ * Notes:<br>
+ * - The class must have a constructor without parameters, which can be private.<br>
+ * - The receiving side must know the class before a message of it arrives, either
+ * by registering it with {@code NetworkMessages.register()} or by sending it once.
+ *
+ * @author Christopher Lutz
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface NetworkMessage {
+
+    /**
+     * Gets the id of the message, which must be the same on every side of a
+     * {@code Connection} and unique among all network messages
+     *
+     * @return The message id
+     */
+    int id();
+}
@@ -0,0 +1,103 @@
+package com.github.chrisblutz.networking.messages;
+
+import com.github.chrisblutz.networking.exceptions.Errors;
+import com.github.chrisblutz.networking.packets.Packet;
+import com.github.chrisblutz.networking.utils.PacketKeys;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+
+/**
+ * A class that deals with registering network messages and their {@code MessageCodecs}
+ *
+ * @author Christopher Lutz
+ */
+public class NetworkMessages {
+
+    private static final ConcurrentMap<Class<?>, MessageCodec<?>> codecsByClass = new ConcurrentHashMap<Class<?>, MessageCodec<?>>();
+    private static final ConcurrentMap<Integer, MessageCodec<?>> codecsById = new ConcurrentHashMap<Integer, MessageCodec<?>>();
+
+    /**
+     * Registers a {@code @NetworkMessage} class, so that messages of it can be read when they
+     * are received.  Registering a class more than once has no effect.
+     *
+     * @param type The class to register
+     * @param <T>  The class of the network messages
+     * @return The {@code MessageCodec} for the class
+     */
+    public static <T> MessageCodec<T> register(Class<T> type) {
+
+        return getCodec(type);
+    }
+
+    /**
+     * Gets the {@code MessageCodec} for a {@code @NetworkMessage} class, registering the class
+     * if it has not been registered yet
+     *
+     * @param type The class to check against
+     * @param <T>  The class of the network messages
+     * @return The {@code MessageCodec} for the class
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> MessageCodec<T> getCodec(Class<T> type) {
+
+        MessageCodec<T> codec = (MessageCodec<T>) codecsByClass.get(type);
+
+        if (codec != null) {
+
+            return codec;
+        }
+
+        synchronized (NetworkMessages.class) {
+
+            codec = (MessageCodec<T>) codecsByClass.get(type);
+
+            if (codec == null) {
+
+                codec = new MessageCodec<T>(type);
+                MessageCodec<?> existing = codecsById.get(codec.getId());
+
+                if (existing != null) {
+
+                    throw Errors.getInvalidNetworkMessage(type.getName(), "its message id " + codec.getId() + " is already used by " + existing.getType().getName(), null);
+                }
+
+                codecsById.put(codec.getId(), codec);
+                codecsByClass.put(type, codec);
+            }
+
+            return codec;
+        }
+    }
+
+    /**
+     * Gets the {@code MessageCodec} registered with the given message id
+     *
+     * @param id The message id to check against
+     * @return The {@code MessageCodec} registered with the id (can be null if no class
+     * has been registered with the id)
+     */
+    public static MessageCodec<?> getCodec(int id) {
+
+        return codecsById.get(id);
+    }
+
+    /**
+     * Creates a {@code Packet} holding a network message, which is how
+     * {@code sendMessage()} sends messages
+     *
+     * @param message The message to send
+     * @return A {@code Packet} containing the message
+     */
+    public static Packet toPacket(Object message) {
+
+        // Checks the class before the Packet is queued, instead of failing when it is written
+        getCodec(message.getClass());
+
+        Packet p = new Packet();
+        p.putData(PacketKeys.MESSAGE, message);
+
+        return p;
+    }
+}
@@ -0,0 +1,7 @@
+/**
+ * Contains the annotations and codecs used to send classes as network messages, which
+ * are written with numeric message and field ids instead of {@code String} keys
+ *
+ * @author Christopher Lutz
+ */
+package com.github.chrisblutz.networking.messages;
@@ -0,0 +1,19 @@
+package com.github.chrisblutz.networking.packets;
+
+/**
+ * The wire formats used by {@code Connections} to write {@code Packets}
+ *
+ * @author Christopher Lutz
+ */
+public enum Codec {
+
+    /**
+     * The pipe-delimited, line-based text format understood by every version of this library
+     */
+    TEXT,
+    /**
+     * The length-prefixed binary format, which is only used once both sides of a
+     * {@code Connection} have agreed on it while connecting
+     */
+    BINARY;
+}
@@ -5,15 +5,14 @@ import com.github.chrisblutz.networking.exceptions.NetworkException;
 import com.github.chrisblutz.networking.packets.datatypes.wrappers.Null;
 import com.github.chrisblutz.networking.utils.ExtendedMap;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 
 /**
  * A class representing a group of data pieces to be sent across a
- * {@code Connection}
+ * {@code Connection}.  A {@code Packet} is not thread-safe, so it should not
+ * be changed while another thread reads it or sends it.
  *
  * @author Christopher Lutz
  */
@@ -69,7 +68,7 @@ public class Packet {
     public static final PacketData EMPTY_PACKET = new PacketData(
             "packet-empty", true);
 
-    private ExtendedMap data = new ExtendedMap();
+    private PacketStorage data = new PacketStorage();
 
     private boolean isVital = false;
 
@@ -115,14 +114,14 @@ public class Packet {
     }
 
     /**
-     * Adds a data piece to this {@code Packet}
+     * Adds a data piece to this {@code Packet}, replacing any data piece with the same key
      *
      * @param key   The key of the data piece
      * @param value The value of the data piece
      */
     public void putData(String key, Object value) {
 
-        data.put(value != null ? value.getClass() : Null.class, key, (value != null ? value : new Null()));
+        data.put(key, value);
     }
 
     /**
@@ -148,6 +147,102 @@ public class Packet {
         }
     }
 
+    /**
+     * Adds an {@code int} data piece to this {@code Packet}, replacing any data piece with
+     * the same key.  The value is kept in a primitive slot, so it is not boxed.
+     *
+     * @param key   The key of the data piece
+     * @param value The value of the data piece
+     */
+    public void putInt(String key, int value) {
+
+        data.putPrimitive(key, PacketStorage.INT, value);
+    }
+
+    /**
+     * Adds a {@code long} data piece to this {@code Packet}, replacing any data piece with
+     * the same key.  The value is kept in a primitive slot, so it is not boxed.
+     *
+     * @param key   The key of the data piece
+     * @param value The value of the data piece
+     */
+    public void putLong(String key, long value) {
+
+        data.putPrimitive(key, PacketStorage.LONG, value);
+    }
+
+    /**
+     * Adds a {@code double} data piece to this {@code Packet}, replacing any data piece with
+     * the same key.  The value is kept in a primitive slot, so it is not boxed.
+     *
+     * @param key   The key of the data piece
+     * @param value The value of the data piece
+     */
+    public void putDouble(String key, double value) {
+
+        data.putPrimitive(key, PacketStorage.DOUBLE, Double.doubleToRawLongBits(value));
+    }
+
+    /**
+     * Adds a {@code boolean} data piece to this {@code Packet}, replacing any data piece with
+     * the same key.  The value is kept in a primitive slot, so it is not boxed.
+     *
+     * @param key   The key of the data piece
+     * @param value The value of the data piece
+     */
+    public void putBoolean(String key, boolean value) {
+
+        data.putPrimitive(key, PacketStorage.BOOLEAN, value ? 1 : 0);
+    }
+
+    /**
+     * Adds a {@code short} data piece to this {@code Packet}, replacing any data piece with
+     * the same key.  The value is kept in a primitive slot, so it is not boxed.
+     *
+     * @param key   The key of the data piece
+     * @param value The value of the data piece
+     */
+    public void putShort(String key, short value) {
+
+        data.putPrimitive(key, PacketStorage.SHORT, value);
+    }
+
+    /**
+     * Adds a {@code float} data piece to this {@code Packet}, replacing any data piece with
+     * the same key.  The value is kept in a primitive slot, so it is not boxed.
+     *
+     * @param key   The key of the data piece
+     * @param value The value of the data piece
+     */
+    public void putFloat(String key, float value) {
+
+        data.putPrimitive(key, PacketStorage.FLOAT, Float.floatToRawIntBits(value));
+    }
+
+    /**
+     * Adds a {@code byte} data piece to this {@code Packet}, replacing any data piece with
+     * the same key.  The value is kept in a primitive slot, so it is not boxed.
+     *
+     * @param key   The key of the data piece
+     * @param value The value of the data piece
+     */
+    public void putByte(String key, byte value) {
+
+        data.putPrimitive(key, PacketStorage.BYTE, value);
+    }
+
+    /**
+     * Adds a {@code char} data piece to this {@code Packet}, replacing any data piece with
+     * the same key.  The value is kept in a primitive slot, so it is not boxed.
+     *
+     * @param key   The key of the data piece
+     * @param value The value of the data piece
+     */
+    public void putChar(String key, char value) {
+
+        data.putPrimitive(key, PacketStorage.CHAR, value);
+    }
+
     /**
      * Gets the value for the specified key
      *
@@ -157,48 +252,189 @@ public class Packet {
      */
     public Object getData(String key) {
 
-        Object o = data.get(key);
-
-        if (o != new Null()) {
+        int position = data.indexOf(key);
 
-            return o;
-
-        } else {
+        if (position < 0) {
 
             return null;
         }
+
+        Object o = data.getValue(position);
+
+        return o instanceof Null ? null : o;
+    }
+
+    /**
+     * Gets the value for the specified key as an {@code int}, converting it if it is
+     * another kind of number.  Values in primitive slots are read without boxing them.
+     *
+     * @param key          The key to check against
+     * @param defaultValue The value to return if the key does not exist or its value is not a number
+     * @return The value attached to the key, or {@code defaultValue}
+     */
+    public int getInt(String key, int defaultValue) {
+
+        int position = data.indexOf(key);
+
+        return position >= 0 && data.isNumber(position) ? (int) data.getLong(position) : defaultValue;
+    }
+
+    /**
+     * Gets the value for the specified key as a {@code long}, converting it if it is
+     * another kind of number.  Values in primitive slots are read without boxing them.
+     *
+     * @param key          The key to check against
+     * @param defaultValue The value to return if the key does not exist or its value is not a number
+     * @return The value attached to the key, or {@code defaultValue}
+     */
+    public long getLong(String key, long defaultValue) {
+
+        int position = data.indexOf(key);
+
+        return position >= 0 && data.isNumber(position) ? data.getLong(position) : defaultValue;
+    }
+
+    /**
+     * Gets the value for the specified key as a {@code double}, converting it if it is
+     * another kind of number.  Values in primitive slots are read without boxing them.
+     *
+     * @param key          The key to check against
+     * @param defaultValue The value to return if the key does not exist or its value is not a number
+     * @return The value attached to the key, or {@code defaultValue}
+     */
+    public double getDouble(String key, double defaultValue) {
+
+        int position = data.indexOf(key);
+
+        return position >= 0 && data.isNumber(position) ? data.getDouble(position) : defaultValue;
+    }
+
+    /**
+     * Gets the value for the specified key as a {@code short}, converting it if it is
+     * another kind of number.  Values in primitive slots are read without boxing them.
+     *
+     * @param key          The key to check against
+     * @param defaultValue The value to return if the key does not exist or its value is not a number
+     * @return The value attached to the key, or {@code defaultValue}
+     */
+    public short getShort(String key, short defaultValue) {
+
+        int position = data.indexOf(key);
+
+        return position >= 0 && data.isNumber(position) ? (short) data.getLong(position) : defaultValue;
+    }
+
+    /**
+     * Gets the value for the specified key as a {@code float}, converting it if it is
+     * another kind of number.  Values in primitive slots are read without boxing them.
+     *
+     * @param key          The key to check against
+     * @param defaultValue The value to return if the key does not exist or its value is not a number
+     * @return The value attached to the key, or {@code defaultValue}
+     */
+    public float getFloat(String key, float defaultValue) {
+
+        int position = data.indexOf(key);
+
+        return position >= 0 && data.isNumber(position) ? (float) data.getDouble(position) : defaultValue;
+    }
+
+    /**
+     * Gets the value for the specified key as a {@code byte}, converting it if it is
+     * another kind of number.  Values in primitive slots are read without boxing them.
+     *
+     * @param key          The key to check against
+     * @param defaultValue The value to return if the key does not exist or its value is not a number
+     * @return The value attached to the key, or {@code defaultValue}
+     */
+    public byte getByte(String key, byte defaultValue) {
+
+        int position = data.indexOf(key);
+
+        return position >= 0 && data.isNumber(position) ? (byte) data.getLong(position) : defaultValue;
+    }
+
+    /**
+     * Gets the value for the specified key as a {@code boolean}.  Values in primitive
+     * slots are read without boxing them.
+     *
+     * @param key          The key to check against
+     * @param defaultValue The value to return if the key does not exist or its value is not a {@code boolean}
+     * @return The value attached to the key, or {@code defaultValue}
+     */
+    public boolean getBoolean(String key, boolean defaultValue) {
+
+        int position = data.indexOf(key);
+
+        return position >= 0 && data.getTag(position) == PacketStorage.BOOLEAN ? data.getPrimitive(position) != 0 : defaultValue;
+    }
+
+    /**
+     * Gets the value for the specified key as a {@code char}.  Values in primitive
+     * slots are read without boxing them.
+     *
+     * @param key          The key to check against
+     * @param defaultValue The value to return if the key does not exist or its value is not a {@code char}
+     * @return The value attached to the key, or {@code defaultValue}
+     */
+    public char getChar(String key, char defaultValue) {
+
+        int position = data.indexOf(key);
+
+        return position >= 0 && data.getTag(position) == PacketStorage.CHAR ? (char) data.getPrimitive(position) : defaultValue;
     }
 
     /**
      * Gets all data pieces attached to this {@code Packet}
      *
      * @return A {@code PacketData[]} containing all data pieces attached to
-     * this {@code Packet}
+     * this {@code Packet}, in the order they were added
      */
     public PacketData[] getData() {
 
-        List<PacketData> packetData = new ArrayList<PacketData>();
+        PacketData[] packetData = new PacketData[data.size()];
 
-        for (Class<?> type : data.typeSet()) {
+        for (int i = 0; i < packetData.length; i++) {
 
-            for (String key : data.keySet(type)) {
+            Object o = data.getValue(i);
 
-                packetData.add(new PacketData(key, getData(key)));
-            }
+            packetData[i] = new PacketData(data.getKey(i), o instanceof Null ? null : o);
         }
 
-        return packetData.toArray(new PacketData[]{});
+        return packetData;
     }
 
     /**
-     * Gets the data in this {@code Packet} as an {@code ExtendedMap}
+     * Gets the storage holding the data pieces of this {@code Packet}.  This is used by
+     * {@code PacketWriters} to visit every data piece without copying them.
      *
-     * @return The {@code ExtendedMap} containing all data from this
+     * @return The {@code PacketStorage} of this {@code Packet}
+     */
+    public PacketStorage getStorage() {
+
+        return data;
+    }
+
+    /**
+     * Gets a copy of the data in this {@code Packet} as an {@code ExtendedMap}.
+     * Changes to the copy do not affect this {@code Packet}.
+     *
+     * @return An {@code ExtendedMap} containing all data from this
      * {@code Packet}
+     * @deprecated {@code Packets} no longer store their data in an {@code ExtendedMap}.
+     * Use {@code getData()}, {@code getAllForType()} or {@code getStorage()} instead.
      */
+    @Deprecated
     public ExtendedMap getDataAsMap() {
 
-        return data;
+        ExtendedMap map = new ExtendedMap();
+
+        for (int i = 0; i < data.size(); i++) {
+
+            map.put(data.getType(i), data.getKey(i), data.getValue(i));
+        }
+
+        return map;
     }
 
     /**
@@ -209,7 +445,17 @@ public class Packet {
      */
     public boolean hasData(String key) {
 
-        return data.containsKey(key);
+        return data.indexOf(key) >= 0;
+    }
+
+    /**
+     * Removes the data piece with the specified key
+     *
+     * @param key The key of the data piece to remove
+     */
+    public void removeData(String key) {
+
+        data.remove(key);
     }
 
     /**
@@ -251,20 +497,13 @@ public class Packet {
      */
     public boolean isEmpty() {
 
-        if (data.isEmpty()) {
+        if (data.size() == 0) {
 
             return true;
 
         } else if (data.size() == 1) {
 
-            if (data.containsKey(Packet.EMPTY_PACKET.getKey())) {
-
-                if (data.get(Packet.EMPTY_PACKET.getKey()) instanceof Boolean
-                        && data.get(Packet.EMPTY_PACKET.getKey()).equals(true)) {
-
-                    return true;
-                }
-            }
+            return Packet.EMPTY_PACKET.getKey().equals(data.getKey(0)) && Boolean.TRUE.equals(data.getValue(0));
         }
 
         return false;
@@ -274,11 +513,27 @@ public class Packet {
      * Gets all of the values of the specified type
      *
      * @param cl The type to retrieve
-     * @return A {@code Map} containing all values of the specified type and their respective keys
+     * @return A {@code Map} containing all values of the specified type and their respective keys, or {@code null}
+     * if there are none
      */
     public Map<String, Object> getAllForType(Class<?> cl) {
 
-        return data.getType(cl);
+        Map<String, Object> d = null;
+
+        for (int i = 0; i < data.size(); i++) {
+
+            if (data.getType(i) == cl) {
+
+                if (d == null) {
+
+                    d = new LinkedHashMap<String, Object>();
+                }
+
+                d.put(data.getKey(i), data.getValue(i));
+            }
+        }
+
+        return d;
     }
 
     /**
@@ -289,16 +544,15 @@ public class Packet {
      */
     public Map<String, Object> getAllForNamePrefix(String prefix) {
 
-        Map<String, Object> d = new HashMap<String, Object>();
+        Map<String, Object> d = new LinkedHashMap<String, Object>();
 
-        for (Class<?> c : data.typeSet()) {
+        for (int i = 0; i < data.size(); i++) {
 
-            for (String name : data.keySet(c)) {
+            String name = data.getKey(i);
 
-                if (name.startsWith(prefix)) {
+            if (name.startsWith(prefix)) {
 
-                    d.put(name.substring(prefix.length()), data.get(c, name));
-                }
+                d.put(name.substring(prefix.length()), data.getValue(i));
             }
         }
 
@@ -312,7 +566,7 @@ public class Packet {
      */
     public void removeAllForType(Class<?> cl) {
 
-        data.clear(cl);
+        data.removeType(cl);
     }
 
     /**
@@ -322,16 +576,7 @@ public class Packet {
      */
     public void removeAllForNamePrefix(String prefix) {
 
-        for (Class<?> c : data.typeSet()) {
-
-            for (String name : data.keySet(c)) {
-
-                if (name.startsWith(prefix)) {
-
-                    data.removeKeyInType(c, name);
-                }
-            }
-        }
+        data.removePrefix(prefix);
     }
 
     /**
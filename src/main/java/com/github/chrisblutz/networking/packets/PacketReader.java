@@ -1,9 +1,12 @@
 package com.github.chrisblutz.networking.packets;
 
+import com.github.chrisblutz.networking.exceptions.Errors;
+import com.github.chrisblutz.networking.exceptions.NetworkException;
 import com.github.chrisblutz.networking.packets.datatypes.DataType;
 import com.github.chrisblutz.networking.packets.datatypes.DataTypes;
 import com.github.chrisblutz.networking.sockets.Connection;
 
+import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -17,8 +20,11 @@ import java.util.List;
  */
 public class PacketReader {
 
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
     private List<Throwable> errors = new ArrayList<Throwable>();
     private PacketHandlerConfiguration config;
+    private StringBuilder builder = new StringBuilder();
 
     /**
      * Creates a {@code PacketReader} that uses the default
@@ -50,26 +56,164 @@ public class PacketReader {
      */
     public Packet getPacketFromString(Connection connection, String toParse) {
 
+        byte[] bytes = toParse.getBytes(UTF_8);
+
+        return getPacketFromBytes(connection, bytes, 0, bytes.length);
+    }
+
+    /**
+     * Turns the UTF-8 bytes of a {@code String} into a {@code Packet} following the
+     * {@code PacketHandlerConfiguration} used by this {@code PacketReader}.  The bytes
+     * are parsed in place, so keys and values are decoded and unescaped in a single pass
+     * without splitting the data into intermediate {@code Strings}.
+     *
+     * @param connection The {@code Connection} that sent the request
+     * @param data       The array containing the bytes to parse
+     * @param offset     The index of the first byte to parse
+     * @param length     The number of bytes to parse
+     * @return The {@code Packet} form of the bytes
+     */
+    public Packet getPacketFromBytes(Connection connection, byte[] data, int offset, int length) {
+
+        errors.clear();
+
         Packet p = new Packet();
 
-        String[] lines = toParse.split("\\|");
+        int end = offset + length;
+        int start = offset;
+
+        while (start < end) {
+
+            int entryEnd = indexOf(data, '|', start, end);
+            int equals = indexOf(data, '=', start, entryEnd);
+            int colon = indexOf(data, ':', start, equals);
+
+            if (equals < entryEnd && colon < equals) {
 
-        for (int i = 0; i < lines.length; i++) {
+                DataType type = DataTypes.getDataType(decode(data, start, colon));
+                String key = decode(data, colon + 1, equals);
 
-            String line = lines[i].replace(PacketUtils.VERTICAL_LINE_ESCAPE, "|");
+                p.putData(key, type.readType(decode(data, equals + 1, entryEnd)));
 
-            DataType type = DataTypes.readType(line);
-            Packet.PacketData data = DataTypes.readValue(type, line);
+            } else {
 
-            if(data != null){
+                NetworkException e = Errors.getUnreadableData(new NetworkException(""));
 
-                p.putData(data);
+                if (config.getIgnoreErrors()) {
+
+                    errors.add(e);
+
+                } else {
+
+                    throw e;
+                }
             }
+
+            start = entryEnd + 1;
         }
 
         return p;
     }
 
+    private static int indexOf(byte[] data, char c, int from, int to) {
+
+        for (int i = from; i < to; i++) {
+
+            if (data[i] == c) {
+
+                return i;
+            }
+        }
+
+        return to;
+    }
+
+    /**
+     * Decodes UTF-8 bytes into a {@code String}, replacing escape sequences as they are found
+     */
+    private String decode(byte[] data, int from, int to) {
+
+        builder.setLength(0);
+
+        int i = from;
+
+        while (i < to) {
+
+            int b = data[i] & 0xFF;
+
+            if (b == '$') {
+
+                if (matches(data, i, to, PacketUtils.VERTICAL_LINE_ESCAPE)) {
+
+                    builder.append('|');
+                    i += PacketUtils.VERTICAL_LINE_ESCAPE.length();
+
+                    continue;
+
+                } else if (matches(data, i, to, PacketUtils.NEW_LINE_ESCAPE)) {
+
+                    builder.append('\n');
+                    i += PacketUtils.NEW_LINE_ESCAPE.length();
+
+                    continue;
+
+                } else if (matches(data, i, to, PacketUtils.CARRIAGE_RETURN_ESCAPE)) {
+
+                    builder.append('\r');
+                    i += PacketUtils.CARRIAGE_RETURN_ESCAPE.length();
+
+                    continue;
+                }
+            }
+
+            if (b < 0x80) {
+
+                builder.append((char) b);
+                i++;
+
+            } else if ((b & 0xE0) == 0xC0 && i + 1 < to) {
+
+                builder.append((char) (((b & 0x1F) << 6) | (data[i + 1] & 0x3F)));
+                i += 2;
+
+            } else if ((b & 0xF0) == 0xE0 && i + 2 < to) {
+
+                builder.append((char) (((b & 0x0F) << 12) | ((data[i + 1] & 0x3F) << 6) | (data[i + 2] & 0x3F)));
+                i += 3;
+
+            } else if ((b & 0xF8) == 0xF0 && i + 3 < to) {
+
+                builder.appendCodePoint(((b & 0x07) << 18) | ((data[i + 1] & 0x3F) << 12) | ((data[i + 2] & 0x3F) << 6) | (data[i + 3] & 0x3F));
+                i += 4;
+
+            } else {
+
+                builder.append('\uFFFD');
+                i++;
+            }
+        }
+
+        return builder.toString();
+    }
+
+    private static boolean matches(byte[] data, int i, int to, String token) {
+
+        if (to - i < token.length()) {
+
+            return false;
+        }
+
+        for (int c = 0; c < token.length(); c++) {
+
+            if (data[i + c] != token.charAt(c)) {
+
+                return false;
+            }
+        }
+
+        return true;
+    }
+
     /**
      * Gets all of the errors thrown during the previous {@code String} to
      * {@code Packet} transformation. This will be empty if {@code ignoreErrors}
@@ -0,0 +1,599 @@
+package com.github.chrisblutz.networking.packets;
+
+import com.github.chrisblutz.networking.packets.datatypes.wrappers.Null;
+
+import java.util.Arrays;
+
+
+/**
+ * The flat storage behind a {@code Packet}.  Data pieces are kept in insertion
+ * order in parallel arrays of keys, type tags and values, and a single
+ * open-addressing index maps keys to their position, so looking up a key takes
+ * one hash probe no matter how many types the {@code Packet} holds.
+ * Values of the primitive wrapper types are kept unboxed in primitive slots.<br>
+ * <br>
+ * Removing a data piece moves the ones after it down and rebuilds the index, so
+ * removal is linear in the number of data pieces.  Like {@code Packet}, this class
+ * is not thread-safe.
+ *
+ * @author Christopher Lutz
+ */
+public final class PacketStorage {
+
+    /**
+     * The tag of a data piece stored as an {@code Object}
+     */
+    public static final byte OBJECT = 0;
+
+    /**
+     * The tag of a data piece stored in a primitive slot as an {@code int}
+     */
+    public static final byte INT = 1;
+
+    /**
+     * The tag of a data piece stored in a primitive slot as a {@code long}
+     */
+    public static final byte LONG = 2;
+
+    /**
+     * The tag of a data piece stored in a primitive slot as a {@code double}
+     */
+    public static final byte DOUBLE = 3;
+
+    /**
+     * The tag of a data piece stored in a primitive slot as a {@code boolean}
+     */
+    public static final byte BOOLEAN = 4;
+
+    /**
+     * The tag of a data piece stored in a primitive slot as a {@code short}
+     */
+    public static final byte SHORT = 5;
+
+    /**
+     * The tag of a data piece stored in a primitive slot as a {@code float}
+     */
+    public static final byte FLOAT = 6;
+
+    /**
+     * The tag of a data piece stored in a primitive slot as a {@code byte}
+     */
+    public static final byte BYTE = 7;
+
+    /**
+     * The tag of a data piece stored in a primitive slot as a {@code char}
+     */
+    public static final byte CHAR = 8;
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    private static final String[] NO_KEYS = new String[0];
+    private static final byte[] NO_TAGS = new byte[0];
+    private static final Object[] NO_VALUES = new Object[0];
+    private static final long[] NO_PRIMITIVES = new long[0];
+    private static final int[] NO_INDEX = new int[0];
+
+    private String[] keys = NO_KEYS;
+    private byte[] tags = NO_TAGS;
+    private Object[] values = NO_VALUES;
+    private long[] primitives = NO_PRIMITIVES;
+
+    // Holds the position of each data piece plus one, so that 0 marks an empty slot
+    private int[] index = NO_INDEX;
+
+    private int size = 0;
+
+    /**
+     * Gets the number of data pieces stored
+     *
+     * @return The number of data pieces
+     */
+    public int size() {
+
+        return size;
+    }
+
+    /**
+     * Gets the position of the data piece with the specified key
+     *
+     * @param key The key to look for
+     * @return The position of the data piece, or {@code -1} if there is none
+     */
+    public int indexOf(String key) {
+
+        if (size == 0 || key == null) {
+
+            return -1;
+        }
+
+        int mask = index.length - 1;
+
+        for (int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+
+            int position = index[slot] - 1;
+
+            if (position < 0) {
+
+                return -1;
+
+            } else if (key.equals(keys[position])) {
+
+                return position;
+            }
+        }
+    }
+
+    /**
+     * Gets the key of the data piece at the specified position
+     *
+     * @param position The position of the data piece
+     * @return The key of the data piece
+     */
+    public String getKey(int position) {
+
+        return keys[position];
+    }
+
+    /**
+     * Gets the tag of the data piece at the specified position
+     *
+     * @param position The position of the data piece
+     * @return {@code OBJECT}, or the tag of the primitive slot holding the value
+     */
+    public byte getTag(int position) {
+
+        return tags[position];
+    }
+
+    /**
+     * Gets the type of the data piece at the specified position.  Values in primitive
+     * slots have the type of their wrapper class, and {@code null} values have the type
+     * {@code Null}.
+     *
+     * @param position The position of the data piece
+     * @return The type of the data piece
+     */
+    public Class<?> getType(int position) {
+
+        switch (tags[position]) {
+
+            case INT:
+
+                return Integer.class;
+
+            case LONG:
+
+                return Long.class;
+
+            case DOUBLE:
+
+                return Double.class;
+
+            case BOOLEAN:
+
+                return Boolean.class;
+
+            case SHORT:
+
+                return Short.class;
+
+            case FLOAT:
+
+                return Float.class;
+
+            case BYTE:
+
+                return Byte.class;
+
+            case CHAR:
+
+                return Character.class;
+
+            default:
+
+                return values[position].getClass();
+        }
+    }
+
+    /**
+     * Gets the value of the data piece at the specified position, boxing it if it is
+     * kept in a primitive slot
+     *
+     * @param position The position of the data piece
+     * @return The value of the data piece, which is a {@code Null} for {@code null} values
+     */
+    public Object getValue(int position) {
+
+        return tags[position] == OBJECT ? values[position] : box(tags[position], primitives[position]);
+    }
+
+    /**
+     * Boxes the contents of a primitive slot
+     *
+     * @param tag       The tag of the primitive slot
+     * @param primitive The contents of the primitive slot, as described by {@code getPrimitive()}
+     * @return The boxed value
+     */
+    public static Object box(byte tag, long primitive) {
+
+        switch (tag) {
+
+            case INT:
+
+                return (int) primitive;
+
+            case DOUBLE:
+
+                return Double.longBitsToDouble(primitive);
+
+            case BOOLEAN:
+
+                return primitive != 0;
+
+            case SHORT:
+
+                return (short) primitive;
+
+            case FLOAT:
+
+                return Float.intBitsToFloat((int) primitive);
+
+            case BYTE:
+
+                return (byte) primitive;
+
+            case CHAR:
+
+                return (char) primitive;
+
+            default:
+
+                return primitive;
+        }
+    }
+
+    /**
+     * Gets the raw primitive slot of the data piece at the specified position.  Integral
+     * values and {@code chars} are stored as is, a {@code double} or {@code float} as its
+     * raw bits and a {@code boolean} as {@code 1} or {@code 0}.
+     *
+     * @param position The position of the data piece
+     * @return The contents of the primitive slot
+     */
+    public long getPrimitive(int position) {
+
+        return primitives[position];
+    }
+
+    /**
+     * Checks whether the data piece at the specified position holds a number, either in
+     * a primitive slot or as a {@code Number}
+     *
+     * @param position The position of the data piece
+     * @return Whether or not the value is a number
+     */
+    public boolean isNumber(int position) {
+
+        switch (tags[position]) {
+
+            case INT:
+            case LONG:
+            case DOUBLE:
+            case SHORT:
+            case FLOAT:
+            case BYTE:
+
+                return true;
+
+            case OBJECT:
+
+                return values[position] instanceof Number;
+
+            default:
+
+                return false;
+        }
+    }
+
+    /**
+     * Gets the number held by the data piece at the specified position as a {@code long},
+     * without boxing it if it is in a primitive slot
+     *
+     * @param position The position of the data piece, which must hold a number
+     * @return The value converted to a {@code long}
+     */
+    public long getLong(int position) {
+
+        switch (tags[position]) {
+
+            case DOUBLE:
+
+                return (long) Double.longBitsToDouble(primitives[position]);
+
+            case FLOAT:
+
+                return (long) Float.intBitsToFloat((int) primitives[position]);
+
+            case OBJECT:
+
+                return ((Number) values[position]).longValue();
+
+            default:
+
+                return primitives[position];
+        }
+    }
+
+    /**
+     * Gets the number held by the data piece at the specified position as a {@code double},
+     * without boxing it if it is in a primitive slot
+     *
+     * @param position The position of the data piece, which must hold a number
+     * @return The value converted to a {@code double}
+     */
+    public double getDouble(int position) {
+
+        switch (tags[position]) {
+
+            case DOUBLE:
+
+                return Double.longBitsToDouble(primitives[position]);
+
+            case FLOAT:
+
+                return Float.intBitsToFloat((int) primitives[position]);
+
+            case OBJECT:
+
+                return ((Number) values[position]).doubleValue();
+
+            default:
+
+                return primitives[position];
+        }
+    }
+
+    /**
+     * Adds a data piece, replacing any data piece with the same key.  Values of the
+     * primitive wrapper types are unboxed into primitive slots.
+     *
+     * @param key   The key of the data piece
+     * @param value The value of the data piece, or {@code null}
+     */
+    public void put(String key, Object value) {
+
+        if (value instanceof Integer) {
+
+            put(key, INT, null, (Integer) value);
+
+        } else if (value instanceof Long) {
+
+            put(key, LONG, null, (Long) value);
+
+        } else if (value instanceof Double) {
+
+            put(key, DOUBLE, null, Double.doubleToRawLongBits((Double) value));
+
+        } else if (value instanceof Boolean) {
+
+            put(key, BOOLEAN, null, (Boolean) value ? 1 : 0);
+
+        } else if (value instanceof Short) {
+
+            put(key, SHORT, null, (Short) value);
+
+        } else if (value instanceof Float) {
+
+            put(key, FLOAT, null, Float.floatToRawIntBits((Float) value));
+
+        } else if (value instanceof Byte) {
+
+            put(key, BYTE, null, (Byte) value);
+
+        } else if (value instanceof Character) {
+
+            put(key, CHAR, null, (Character) value);
+
+        } else {
+
+            put(key, OBJECT, value != null ? value : Null.NULL, 0);
+        }
+    }
+
+    /**
+     * Adds a data piece with a value in a primitive slot, replacing any data piece with
+     * the same key
+     *
+     * @param key       The key of the data piece
+     * @param tag       The tag of the primitive slot
+     * @param primitive The contents of the primitive slot, as described by {@code getPrimitive()}
+     */
+    public void putPrimitive(String key, byte tag, long primitive) {
+
+        put(key, tag, null, primitive);
+    }
+
+    private void put(String key, byte tag, Object value, long primitive) {
+
+        int position = indexOf(key);
+
+        if (position < 0) {
+
+            if (size == keys.length) {
+
+                grow();
+            }
+
+            position = size++;
+            keys[position] = key;
+            insertIndex(position);
+        }
+
+        tags[position] = tag;
+        values[position] = value;
+        primitives[position] = primitive;
+    }
+
+    /**
+     * Removes the data piece at the specified position
+     *
+     * @param position The position of the data piece
+     */
+    public void remove(int position) {
+
+        int moved = size - position - 1;
+
+        if (moved > 0) {
+
+            System.arraycopy(keys, position + 1, keys, position, moved);
+            System.arraycopy(tags, position + 1, tags, position, moved);
+            System.arraycopy(values, position + 1, values, position, moved);
+            System.arraycopy(primitives, position + 1, primitives, position, moved);
+        }
+
+        size--;
+        keys[size] = null;
+        values[size] = null;
+
+        rebuildIndex();
+    }
+
+    /**
+     * Removes the data piece with the specified key
+     *
+     * @param key The key of the data piece
+     * @return Whether or not there was a data piece to remove
+     */
+    public boolean remove(String key) {
+
+        int position = indexOf(key);
+
+        if (position >= 0) {
+
+            remove(position);
+
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Removes all data pieces of the specified type
+     *
+     * @param type The type to remove
+     */
+    public void removeType(Class<?> type) {
+
+        int kept = 0;
+
+        for (int i = 0; i < size; i++) {
+
+            if (getType(i) != type) {
+
+                keys[kept] = keys[i];
+                tags[kept] = tags[i];
+                values[kept] = values[i];
+                primitives[kept] = primitives[i];
+                kept++;
+            }
+        }
+
+        truncate(kept);
+    }
+
+    /**
+     * Removes all data pieces whose keys start with the specified prefix
+     *
+     * @param prefix The prefix to check for
+     */
+    public void removePrefix(String prefix) {
+
+        int kept = 0;
+
+        for (int i = 0; i < size; i++) {
+
+            if (!keys[i].startsWith(prefix)) {
+
+                keys[kept] = keys[i];
+                tags[kept] = tags[i];
+                values[kept] = values[i];
+                primitives[kept] = primitives[i];
+                kept++;
+            }
+        }
+
+        truncate(kept);
+    }
+
+    /**
+     * Removes all data pieces
+     */
+    public void clear() {
+
+        truncate(0);
+    }
+
+    private void truncate(int newSize) {
+
+        if (newSize == size) {
+
+            return;
+        }
+
+        Arrays.fill(keys, newSize, size, null);
+        Arrays.fill(values, newSize, size, null);
+        size = newSize;
+
+        rebuildIndex();
+    }
+
+    private void grow() {
+
+        int capacity = keys.length == 0 ? INITIAL_CAPACITY : keys.length * 2;
+
+        keys = Arrays.copyOf(keys, capacity);
+        tags = Arrays.copyOf(tags, capacity);
+        values = Arrays.copyOf(values, capacity);
+        primitives = Arrays.copyOf(primitives, capacity);
+
+        // The index is kept at most half full so probes stay short
+        index = new int[capacity * 2];
+
+        for (int i = 0; i < size; i++) {
+
+            insertIndex(i);
+        }
+    }
+
+    private void rebuildIndex() {
+
+        Arrays.fill(index, 0);
+
+        for (int i = 0; i < size; i++) {
+
+            insertIndex(i);
+        }
+    }
+
+    private void insertIndex(int position) {
+
+        int mask = index.length - 1;
+        int slot = hash(keys[position]) & mask;
+
+        while (index[slot] != 0) {
+
+            slot = (slot + 1) & mask;
+        }
+
+        index[slot] = position + 1;
+    }
+
+    private static int hash(String key) {
+
+        // Keys such as "key1" and "key10" have nearby hash codes, so they are spread out before probing
+        int h = key.hashCode() * 0x9E3779B9;
+
+        return h ^ (h >>> 16);
+    }
+}
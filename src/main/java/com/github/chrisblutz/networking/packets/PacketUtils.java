@@ -12,4 +12,9 @@ public class PacketUtils {
     public static final String ENCRYPTED_DATA_ESCAPE = "$(enc);";
 
     public static final String ENCRYPTED_DATA_PREFIX = ":ENC:";
+
+    public static final int BINARY_FRAME_MARKER = 0x00;
+    public static final int ENCRYPTED_FRAME_MARKER = 0x01;
+    public static final int KEYED_FRAME_MARKER = 0x02;
+    public static final int BINARY_FRAME_HEADER_LENGTH = 5;
 }
@@ -5,7 +5,6 @@ import com.github.chrisblutz.networking.exceptions.NetworkException;
 import com.github.chrisblutz.networking.packets.datatypes.DataType;
 import com.github.chrisblutz.networking.packets.datatypes.DataTypes;
 import com.github.chrisblutz.networking.sockets.Connection;
-import com.github.chrisblutz.networking.utils.ExtendedMap;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -20,8 +19,11 @@ import java.util.List;
  */
 public class PacketWriter {
 
+    private static final Throwable[] NO_ERRORS = new Throwable[0];
+
     private List<Throwable> errors = new ArrayList<Throwable>();
     private PacketHandlerConfiguration config;
+    private StringBuilder builder = new StringBuilder();
 
     /**
      * Creates a {@code PacketWriter} that uses the default
@@ -53,34 +55,45 @@ public class PacketWriter {
      */
     public String getPacketAsWriteableString(Connection connection, Packet packet) {
 
-        errors.clear();
-
-        ExtendedMap data = packet.getDataAsMap();
+        builder.setLength(0);
+        writePacket(connection, packet, builder);
 
-        String toWrite = "";
+        return builder.toString();
+    }
 
-        for (int typeInt = 0; typeInt < data.typeSet().size(); typeInt++) {
+    /**
+     * Appends the {@code String} form of a {@code Packet} to a {@code StringBuilder}
+     * following the {@code PacketHandlerConfiguration} used by this {@code PacketWriter}.
+     * Each data piece is visited once and written straight into the
+     * {@code StringBuilder}, so reusing it avoids allocating per {@code Packet}.
+     *
+     * @param connection The {@code Connection} that sent the request
+     * @param packet     The {@code Packet} to write
+     * @param builder    The {@code StringBuilder} to append to
+     */
+    public void writePacket(Connection connection, Packet packet, StringBuilder builder) {
 
-            Class<?> type = data.typeSet().toArray(new Class<?>[data.typeSet().size()])[typeInt];
+        errors.clear();
 
-            DataType dataType = DataTypes.getDataType(type);
+        boolean first = true;
 
-            if (dataType != null) {
+        PacketStorage storage = packet.getStorage();
 
-                for (int i = 0; i < data.size(type); i++) {
+        for (int i = 0; i < storage.size(); i++) {
 
-                    String key = data.keySet(type).toArray(new String[]{})[i];
+            Class<?> type = storage.getType(i);
+            DataType dataType = DataTypes.getDataType(type);
 
-                    toWrite += DataTypes.writeType(dataType, key, data.get(key)).replace("|", PacketUtils.VERTICAL_LINE_ESCAPE);
+            if (dataType != null) {
 
-                    if (i < data.keySet(type).size() - 1
-                            || (i == data.keySet(type).size() - 1 && typeInt < data
-                            .typeSet().size() - 1)) {
+                if (!first) {
 
-                        toWrite += "|";
-                    }
+                    builder.append('|');
                 }
 
+                DataTypes.appendType(dataType, storage, i, builder);
+                first = false;
+
             } else {
 
                 NullPointerException e = Errors.getMissingDataType("class", type.getName(), new NetworkException(""));
@@ -95,8 +108,6 @@ public class PacketWriter {
                 }
             }
         }
-
-        return toWrite;
     }
 
     /**
@@ -109,6 +120,6 @@ public class PacketWriter {
      */
     public Throwable[] getErrors() {
 
-        return errors.toArray(new Throwable[]{});
+        return errors.isEmpty() ? NO_ERRORS : errors.toArray(new Throwable[errors.size()]);
     }
 }
@@ -0,0 +1,314 @@
+package com.github.chrisblutz.networking.packets.binary;
+
+import com.github.chrisblutz.networking.exceptions.Errors;
+import com.github.chrisblutz.networking.exceptions.NetworkException;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
+
+/**
+ * A cursor over a region of a byte array, used to read the binary form of {@code Packets}
+ * without copying the region first
+ *
+ * @author Christopher Lutz
+ */
+public class BinaryInput {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private byte[] buffer;
+    private int position, limit;
+
+    /**
+     * Creates a new {@code BinaryInput} over the whole of the specified array
+     *
+     * @param buffer The array to read from
+     */
+    public BinaryInput(byte[] buffer) {
+
+        this(buffer, 0, buffer.length);
+    }
+
+    /**
+     * Creates a new {@code BinaryInput} over a region of the specified array
+     *
+     * @param buffer The array to read from
+     * @param offset The index of the first byte to read
+     * @param length The number of bytes that can be read
+     */
+    public BinaryInput(byte[] buffer, int offset, int length) {
+
+        reset(buffer, offset, length);
+    }
+
+    /**
+     * Points this {@code BinaryInput} at a new region so that it can be reused
+     *
+     * @param buffer The array to read from
+     * @param offset The index of the first byte to read
+     * @param length The number of bytes that can be read
+     */
+    public void reset(byte[] buffer, int offset, int length) {
+
+        this.buffer = buffer;
+        this.position = offset;
+        this.limit = offset + length;
+    }
+
+    public byte[] array() {
+
+        return buffer;
+    }
+
+    public int position() {
+
+        return position;
+    }
+
+    public int remaining() {
+
+        return limit - position;
+    }
+
+    public boolean hasRemaining() {
+
+        return position < limit;
+    }
+
+    /**
+     * Moves the read position forward, so that the skipped bytes can be read directly through {@code array()}
+     *
+     * @param length The number of bytes to skip
+     * @return The position of the first skipped byte
+     */
+    public int skip(int length) {
+
+        require(length);
+
+        int start = position;
+        position += length;
+
+        return start;
+    }
+
+    public int readByte() {
+
+        require(1);
+
+        return buffer[position++];
+    }
+
+    public int readUnsignedByte() {
+
+        return readByte() & 0xFF;
+    }
+
+    public boolean readBoolean() {
+
+        return readByte() != 0;
+    }
+
+    public void readBytes(byte[] bytes, int offset, int length) {
+
+        require(length);
+        System.arraycopy(buffer, position, bytes, offset, length);
+        position += length;
+    }
+
+    /**
+     * Reads an unsigned variable-length integer written by {@code BinaryOutput.writeVarint()}
+     *
+     * @return The value read
+     */
+    public long readVarint() {
+
+        long value = 0;
+
+        for (int shift = 0; shift < 64; shift += 7) {
+
+            int b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+
+            if ((b & 0x80) == 0) {
+
+                return value;
+            }
+        }
+
+        throw Errors.getUnreadableData(new NetworkException("Malformed varint"));
+    }
+
+    /**
+     * Reads a varint that is used as a length, making sure it fits in the remaining bytes
+     *
+     * @return The length read
+     */
+    public int readLength() {
+
+        long length = readVarint();
+
+        if (length < 0 || length > remaining()) {
+
+            throw Errors.getUnreadableData(new NetworkException("Length " + length + " exceeds the remaining " + remaining() + " bytes"));
+        }
+
+        return (int) length;
+    }
+
+    /**
+     * Reads a varint that is used as the number of elements of an array, making sure the
+     * elements fit in the remaining bytes
+     *
+     * @param elementSize The number of bytes taken by each element
+     * @return The number of elements read
+     */
+    public int readLength(int elementSize) {
+
+        long length = readVarint();
+
+        if (length < 0 || length * elementSize > remaining()) {
+
+            throw Errors.getUnreadableData(new NetworkException("Length " + length + " exceeds the remaining " + remaining() + " bytes"));
+        }
+
+        return (int) length;
+    }
+
+    /**
+     * Reads a signed variable-length integer written by {@code BinaryOutput.writeSignedVarint()}
+     *
+     * @return The value read
+     */
+    public long readSignedVarint() {
+
+        long value = readVarint();
+
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    public short readShort() {
+
+        require(2);
+
+        return (short) (((buffer[position++] & 0xFF) << 8) | (buffer[position++] & 0xFF));
+    }
+
+    public int readInt() {
+
+        require(4);
+
+        return ((buffer[position++] & 0xFF) << 24) | ((buffer[position++] & 0xFF) << 16)
+                | ((buffer[position++] & 0xFF) << 8) | (buffer[position++] & 0xFF);
+    }
+
+    public long readLong() {
+
+        return ((long) readInt() << 32) | (readInt() & 0xFFFFFFFFL);
+    }
+
+    public float readFloat() {
+
+        return Float.intBitsToFloat(readInt());
+    }
+
+    public double readDouble() {
+
+        return Double.longBitsToDouble(readLong());
+    }
+
+    /**
+     * Reads elements written by {@code BinaryOutput.writeInts()} into part of a {@code int[]},
+     * copying them in bulk through a {@code ByteBuffer} view of the buffer
+     *
+     * @param values The array to read into
+     * @param offset The index of the first element to read
+     * @param length The number of elements to read
+     */
+    public void readInts(int[] values, int offset, int length) {
+
+        require(length * 4);
+        ByteBuffer.wrap(buffer, position, length * 4).asIntBuffer().get(values, offset, length);
+        position += length * 4;
+    }
+
+    /**
+     * Reads elements written by {@code BinaryOutput.writeLongs()} into part of a {@code long[]},
+     * copying them in bulk through a {@code ByteBuffer} view of the buffer
+     *
+     * @param values The array to read into
+     * @param offset The index of the first element to read
+     * @param length The number of elements to read
+     */
+    public void readLongs(long[] values, int offset, int length) {
+
+        require(length * 8);
+        ByteBuffer.wrap(buffer, position, length * 8).asLongBuffer().get(values, offset, length);
+        position += length * 8;
+    }
+
+    /**
+     * Reads elements written by {@code BinaryOutput.writeFloats()} into part of a {@code float[]},
+     * copying them in bulk through a {@code ByteBuffer} view of the buffer
+     *
+     * @param values The array to read into
+     * @param offset The index of the first element to read
+     * @param length The number of elements to read
+     */
+    public void readFloats(float[] values, int offset, int length) {
+
+        require(length * 4);
+        ByteBuffer.wrap(buffer, position, length * 4).asFloatBuffer().get(values, offset, length);
+        position += length * 4;
+    }
+
+    /**
+     * Reads elements written by {@code BinaryOutput.writeDoubles()} into part of a {@code double[]},
+     * copying them in bulk through a {@code ByteBuffer} view of the buffer
+     *
+     * @param values The array to read into
+     * @param offset The index of the first element to read
+     * @param length The number of elements to read
+     */
+    public void readDoubles(double[] values, int offset, int length) {
+
+        require(length * 8);
+        ByteBuffer.wrap(buffer, position, length * 8).asDoubleBuffer().get(values, offset, length);
+        position += length * 8;
+    }
+
+    /**
+     * Reads a {@code String} written by {@code BinaryOutput.writeString()}
+     *
+     * @return The {@code String} read
+     */
+    public String readString() {
+
+        return readUtf8(readLength());
+    }
+
+    /**
+     * Reads a {@code String} from UTF-8 bytes written by {@code BinaryOutput.writeUtf8()}
+     *
+     * @param length The number of bytes to read
+     * @return The {@code String} read
+     */
+    public String readUtf8(int length) {
+
+        require(length);
+
+        String s = new String(buffer, position, length, UTF_8);
+
+        position += length;
+
+        return s;
+    }
+
+    private void require(int length) {
+
+        if (length < 0 || length > limit - position) {
+
+            throw Errors.getUnreadableData(new NetworkException("Unexpected end of data"));
+        }
+    }
+}
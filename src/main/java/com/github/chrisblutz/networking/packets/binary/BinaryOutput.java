@@ -0,0 +1,344 @@
+package com.github.chrisblutz.networking.packets.binary;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A growable byte buffer used to write the binary form of {@code Packets}.  The
+ * buffer can be reset and reused so that steady-state writes do not allocate.
+ *
+ * @author Christopher Lutz
+ */
+public class BinaryOutput {
+
+    private byte[] buffer;
+    private int position = 0;
+
+    /**
+     * Creates a new {@code BinaryOutput} with the default initial capacity
+     */
+    public BinaryOutput() {
+
+        this(256);
+    }
+
+    /**
+     * Creates a new {@code BinaryOutput} with the specified initial capacity
+     *
+     * @param capacity The initial capacity in bytes
+     */
+    public BinaryOutput(int capacity) {
+
+        buffer = new byte[Math.max(16, capacity)];
+    }
+
+    /**
+     * Clears all bytes written to this {@code BinaryOutput} while keeping its backing array
+     */
+    public void reset() {
+
+        position = 0;
+    }
+
+    /**
+     * Discards all bytes written after the specified position
+     *
+     * @param size The number of bytes to keep
+     */
+    public void truncate(int size) {
+
+        position = Math.max(0, Math.min(position, size));
+    }
+
+    /**
+     * Gets the number of bytes written to this {@code BinaryOutput}
+     *
+     * @return The number of bytes written
+     */
+    public int size() {
+
+        return position;
+    }
+
+    /**
+     * Gets the backing array of this {@code BinaryOutput}.  Only the first {@code size()} bytes are valid.
+     *
+     * @return The backing array
+     */
+    public byte[] array() {
+
+        return buffer;
+    }
+
+    /**
+     * Copies the bytes written to this {@code BinaryOutput} into a new array
+     *
+     * @return A new array containing all written bytes
+     */
+    public byte[] toByteArray() {
+
+        byte[] bytes = new byte[position];
+        System.arraycopy(buffer, 0, bytes, 0, position);
+
+        return bytes;
+    }
+
+    /**
+     * Makes sure that the specified number of bytes can be written without growing the buffer again
+     *
+     * @param length The number of bytes that will be written
+     */
+    public void ensureCapacity(int length) {
+
+        if (position + length > buffer.length) {
+
+            byte[] larger = new byte[Math.max(buffer.length * 2, position + length)];
+            System.arraycopy(buffer, 0, larger, 0, position);
+            buffer = larger;
+        }
+    }
+
+    /**
+     * Moves the write position forward, leaving the skipped bytes to be filled in directly through {@code array()}
+     *
+     * @param length The number of bytes to skip
+     * @return The position of the first skipped byte
+     */
+    public int skip(int length) {
+
+        ensureCapacity(length);
+
+        int start = position;
+        position += length;
+
+        return start;
+    }
+
+    public void writeByte(int b) {
+
+        ensureCapacity(1);
+        buffer[position++] = (byte) b;
+    }
+
+    public void writeBoolean(boolean b) {
+
+        writeByte(b ? 1 : 0);
+    }
+
+    public void writeBytes(byte[] bytes, int offset, int length) {
+
+        ensureCapacity(length);
+        System.arraycopy(bytes, offset, buffer, position, length);
+        position += length;
+    }
+
+    /**
+     * Writes an unsigned variable-length integer (7 bits per byte, least significant group first)
+     *
+     * @param value The value to write
+     */
+    public void writeVarint(long value) {
+
+        ensureCapacity(10);
+
+        while ((value & ~0x7FL) != 0) {
+
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+
+        buffer[position++] = (byte) value;
+    }
+
+    /**
+     * Writes a signed variable-length integer using zig-zag encoding, so that small negative values stay small
+     *
+     * @param value The value to write
+     */
+    public void writeSignedVarint(long value) {
+
+        writeVarint((value << 1) ^ (value >> 63));
+    }
+
+    public void writeShort(short value) {
+
+        ensureCapacity(2);
+        buffer[position++] = (byte) (value >> 8);
+        buffer[position++] = (byte) value;
+    }
+
+    public void writeInt(int value) {
+
+        ensureCapacity(4);
+        buffer[position++] = (byte) (value >> 24);
+        buffer[position++] = (byte) (value >> 16);
+        buffer[position++] = (byte) (value >> 8);
+        buffer[position++] = (byte) value;
+    }
+
+    public void writeLong(long value) {
+
+        writeInt((int) (value >> 32));
+        writeInt((int) value);
+    }
+
+    public void writeFloat(float value) {
+
+        writeInt(Float.floatToIntBits(value));
+    }
+
+    public void writeDouble(double value) {
+
+        writeLong(Double.doubleToLongBits(value));
+    }
+
+    /**
+     * Writes part of {@code int[]} in the same form as {@code writeInt()} for every element,
+     * copying it in bulk through a {@code ByteBuffer} view of the buffer
+     *
+     * @param values The array to write from
+     * @param offset The index of the first element to write
+     * @param length The number of elements to write
+     */
+    public void writeInts(int[] values, int offset, int length) {
+
+        ensureCapacity(length * 4);
+        ByteBuffer.wrap(buffer, position, length * 4).asIntBuffer().put(values, offset, length);
+        position += length * 4;
+    }
+
+    /**
+     * Writes part of {@code long[]} in the same form as {@code writeLong()} for every element,
+     * copying it in bulk through a {@code ByteBuffer} view of the buffer
+     *
+     * @param values The array to write from
+     * @param offset The index of the first element to write
+     * @param length The number of elements to write
+     */
+    public void writeLongs(long[] values, int offset, int length) {
+
+        ensureCapacity(length * 8);
+        ByteBuffer.wrap(buffer, position, length * 8).asLongBuffer().put(values, offset, length);
+        position += length * 8;
+    }
+
+    /**
+     * Writes part of {@code float[]} in the same form as {@code writeFloat()} for every element,
+     * copying it in bulk through a {@code ByteBuffer} view of the buffer
+     *
+     * @param values The array to write from
+     * @param offset The index of the first element to write
+     * @param length The number of elements to write
+     */
+    public void writeFloats(float[] values, int offset, int length) {
+
+        ensureCapacity(length * 4);
+        ByteBuffer.wrap(buffer, position, length * 4).asFloatBuffer().put(values, offset, length);
+        position += length * 4;
+    }
+
+    /**
+     * Writes part of {@code double[]} in the same form as {@code writeDouble()} for every element,
+     * copying it in bulk through a {@code ByteBuffer} view of the buffer
+     *
+     * @param values The array to write from
+     * @param offset The index of the first element to write
+     * @param length The number of elements to write
+     */
+    public void writeDoubles(double[] values, int offset, int length) {
+
+        ensureCapacity(length * 8);
+        ByteBuffer.wrap(buffer, position, length * 8).asDoubleBuffer().put(values, offset, length);
+        position += length * 8;
+    }
+
+    /**
+     * Writes a {@code String} as a varint byte length followed by its UTF-8 bytes
+     *
+     * @param s The {@code String} to write
+     */
+    public void writeString(String s) {
+
+        writeVarint(getUtf8Length(s));
+        writeUtf8(s);
+    }
+
+    /**
+     * Writes the UTF-8 bytes of a sequence of characters without a length.  The characters
+     * are encoded directly into the buffer without creating an intermediate array.
+     *
+     * @param s The characters to write
+     */
+    public void writeUtf8(CharSequence s) {
+
+        int length = s.length();
+
+        ensureCapacity(getUtf8Length(s));
+
+        for (int i = 0; i < length; i++) {
+
+            char c = s.charAt(i);
+
+            if (c < 0x80) {
+
+                buffer[position++] = (byte) c;
+
+            } else if (c < 0x800) {
+
+                buffer[position++] = (byte) (0xC0 | (c >> 6));
+                buffer[position++] = (byte) (0x80 | (c & 0x3F));
+
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(s.charAt(i + 1))) {
+
+                int codePoint = Character.toCodePoint(c, s.charAt(++i));
+
+                buffer[position++] = (byte) (0xF0 | (codePoint >> 18));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                buffer[position++] = (byte) (0x80 | (codePoint & 0x3F));
+
+            } else {
+
+                buffer[position++] = (byte) (0xE0 | (c >> 12));
+                buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buffer[position++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+    }
+
+    /**
+     * Gets the number of bytes needed to encode a sequence of characters as UTF-8
+     *
+     * @param s The characters to measure
+     * @return The UTF-8 length in bytes
+     */
+    public static int getUtf8Length(CharSequence s) {
+
+        int length = s.length();
+        int utfLength = 0;
+
+        for (int i = 0; i < length; i++) {
+
+            char c = s.charAt(i);
+
+            if (c < 0x80) {
+
+                utfLength++;
+
+            } else if (c < 0x800) {
+
+                utfLength += 2;
+
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(s.charAt(i + 1))) {
+
+                utfLength += 4;
+                i++;
+
+            } else {
+
+                utfLength += 3;
+            }
+        }
+
+        return utfLength;
+    }
+}
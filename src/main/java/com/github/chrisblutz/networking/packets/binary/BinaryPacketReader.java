@@ -0,0 +1,137 @@
+package com.github.chrisblutz.networking.packets.binary;
+
+import com.github.chrisblutz.networking.exceptions.Errors;
+import com.github.chrisblutz.networking.exceptions.NetworkException;
+import com.github.chrisblutz.networking.packets.Packet;
+import com.github.chrisblutz.networking.packets.PacketHandlerConfiguration;
+import com.github.chrisblutz.networking.packets.datatypes.DataTypes;
+import com.github.chrisblutz.networking.sockets.Connection;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * A class that allows the transformation of binary frames into
+ * {@code Packets}. This can be configured using a
+ * {@code PacketHandlerConfiguration}.
+ *
+ * @author Christopher Lutz
+ */
+public class BinaryPacketReader {
+
+    private List<Throwable> errors = new ArrayList<Throwable>();
+    private PacketHandlerConfiguration config;
+    private KeyDictionary keys = null;
+
+    /**
+     * Creates a {@code BinaryPacketReader} that uses the default
+     * {@code PacketHandlerConfiguration}
+     */
+    public BinaryPacketReader() {
+
+        this(PacketHandlerConfiguration.getDefaultConfiguration());
+    }
+
+    /**
+     * Creates a {@code BinaryPacketReader} that uses a custom
+     * {@code PacketHandlerConfiguration}
+     *
+     * @param config The {@code PacketHandlerConfiguration} that should be used
+     */
+    public BinaryPacketReader(PacketHandlerConfiguration config) {
+
+        this.config = config;
+    }
+
+    /**
+     * Turns the body of a binary frame into a {@code Packet} following the
+     * {@code PacketHandlerConfiguration} used by this {@code BinaryPacketReader}
+     *
+     * @param connection The {@code Connection} that sent the request
+     * @param frame      The array containing the frame body
+     * @param offset     The index of the first byte of the frame body
+     * @param length     The length of the frame body
+     * @return The {@code Packet} form of the frame
+     */
+    public Packet getPacketFromFrame(Connection connection, byte[] frame, int offset, int length) {
+
+        errors.clear();
+
+        Packet p = new Packet();
+        BinaryInput input = new BinaryInput(frame, offset, length);
+
+        while (input.hasRemaining()) {
+
+            DataTypes.readBinary(input, p.getStorage());
+        }
+
+        return p;
+    }
+
+    /**
+     * Turns the body of a keyed binary frame, written by a {@code BinaryPacketWriter}
+     * with a {@code KeyDictionary}, into a {@code Packet}.  Keyed frames must be read
+     * in the order they were written, since each one can define keys used by the next,
+     * and only once a {@code KeyDictionary} has been set with {@code setKeyDictionary()}.
+     *
+     * @param connection The {@code Connection} that sent the request
+     * @param frame      The array containing the frame body
+     * @param offset     The index of the first byte of the frame body
+     * @param length     The length of the frame body
+     * @return The {@code Packet} form of the frame
+     */
+    public Packet getPacketFromKeyedFrame(Connection connection, byte[] frame, int offset, int length) {
+
+        errors.clear();
+
+        if (keys == null) {
+
+            throw Errors.getUnreadableData(new NetworkException("A keyed frame was read without a key dictionary"));
+        }
+
+        Packet p = new Packet();
+        BinaryInput input = new BinaryInput(frame, offset, length);
+
+        while (input.hasRemaining()) {
+
+            DataTypes.readBinary(input, keys, p.getStorage());
+        }
+
+        return p;
+    }
+
+    /**
+     * Sets the {@code KeyDictionary} that keyed frames are read with.  Its capacity is the
+     * number of keys the writing side may define, and frames that define more are rejected.
+     *
+     * @param keys The {@code KeyDictionary} to use, or {@code null} to reject keyed frames
+     */
+    public void setKeyDictionary(KeyDictionary keys) {
+
+        this.keys = keys;
+    }
+
+    /**
+     * Gets the {@code KeyDictionary} holding the keys defined by the keyed frames read so far
+     *
+     * @return The {@code KeyDictionary} in use (can be null if keyed frames are not read)
+     */
+    public KeyDictionary getKeyDictionary() {
+
+        return keys;
+    }
+
+    /**
+     * Gets all of the errors thrown during the previous frame to
+     * {@code Packet} transformation. This will be empty if {@code ignoreErrors}
+     * flag in the {@code PacketHandlerConfiguration} is {@code false}.
+     *
+     * @return A {@code Throwable[]} containing all errors thrown during the
+     * previous transformation
+     */
+    public Throwable[] getErrors() {
+
+        return errors.toArray(new Throwable[]{});
+    }
+}
@@ -0,0 +1,173 @@
+package com.github.chrisblutz.networking.packets.binary;
+
+import com.github.chrisblutz.networking.exceptions.Errors;
+import com.github.chrisblutz.networking.exceptions.NetworkException;
+import com.github.chrisblutz.networking.packets.Packet;
+import com.github.chrisblutz.networking.packets.PacketHandlerConfiguration;
+import com.github.chrisblutz.networking.packets.PacketStorage;
+import com.github.chrisblutz.networking.packets.PacketUtils;
+import com.github.chrisblutz.networking.packets.datatypes.DataType;
+import com.github.chrisblutz.networking.packets.datatypes.DataTypes;
+import com.github.chrisblutz.networking.sockets.Connection;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * A class that allows the transformation of {@code Packets} into
+ * length-prefixed binary frames. This can be configured using a
+ * {@code PacketHandlerConfiguration}.<br>
+ * <br>
+ * A frame consists of the {@code BINARY_FRAME_MARKER} byte, the length of the
+ * frame body as a 4-byte integer, and then each data piece written by
+ * {@code DataTypes.writeBinary()}.  If the {@code BinaryPacketWriter} has a
+ * {@code KeyDictionary}, it writes keyed frames instead, which start with the
+ * {@code KEYED_FRAME_MARKER} byte and write their keys through the dictionary.
+ *
+ * @author Christopher Lutz
+ */
+public class BinaryPacketWriter {
+
+    private static final Throwable[] NO_ERRORS = new Throwable[0];
+
+    private List<Throwable> errors = new ArrayList<Throwable>();
+    private PacketHandlerConfiguration config;
+    private KeyDictionary keys = null;
+
+    /**
+     * Creates a {@code BinaryPacketWriter} that uses the default
+     * {@code PacketHandlerConfiguration}
+     */
+    public BinaryPacketWriter() {
+
+        this(PacketHandlerConfiguration.getDefaultConfiguration());
+    }
+
+    /**
+     * Creates a {@code BinaryPacketWriter} that uses a custom
+     * {@code PacketHandlerConfiguration}
+     *
+     * @param config The {@code PacketHandlerConfiguration} that should be used
+     */
+    public BinaryPacketWriter(PacketHandlerConfiguration config) {
+
+        this.config = config;
+    }
+
+    /**
+     * Sets the {@code KeyDictionary} that this {@code BinaryPacketWriter} writes keys with.
+     * Frames written with a {@code KeyDictionary} can only be read by a
+     * {@code BinaryPacketReader} that has read every earlier frame written with it.
+     *
+     * @param keys The {@code KeyDictionary} to use, or {@code null} to write keys as raw UTF-8
+     */
+    public void setKeyDictionary(KeyDictionary keys) {
+
+        this.keys = keys;
+    }
+
+    /**
+     * Gets the {@code KeyDictionary} that this {@code BinaryPacketWriter} writes keys with
+     *
+     * @return The {@code KeyDictionary} in use (can be null if keys are written as raw UTF-8)
+     */
+    public KeyDictionary getKeyDictionary() {
+
+        return keys;
+    }
+
+    /**
+     * Turns a {@code Packet} into a binary frame following the
+     * {@code PacketHandlerConfiguration} used by this {@code BinaryPacketWriter}
+     *
+     * @param connection The {@code Connection} that sent the request
+     * @param packet     The {@code Packet} to turn into a binary frame
+     * @return The binary frame of the {@code Packet}
+     */
+    public byte[] getPacketAsFrame(Connection connection, Packet packet) {
+
+        BinaryOutput output = new BinaryOutput();
+        writeFrame(connection, packet, output);
+
+        return output.toByteArray();
+    }
+
+    /**
+     * Writes a {@code Packet} as a binary frame to the end of a {@code BinaryOutput}
+     * following the {@code PacketHandlerConfiguration} used by this {@code BinaryPacketWriter}
+     *
+     * @param connection The {@code Connection} that sent the request
+     * @param packet     The {@code Packet} to write
+     * @param output     The {@code BinaryOutput} to write the frame to
+     */
+    public void writeFrame(Connection connection, Packet packet, BinaryOutput output) {
+
+        errors.clear();
+
+        KeyDictionary keys = this.keys;
+        int definedKeys = keys != null ? keys.size() : 0;
+        int header = output.skip(PacketUtils.BINARY_FRAME_HEADER_LENGTH);
+
+        PacketStorage storage = packet.getStorage();
+
+        try {
+
+            for (int i = 0; i < storage.size(); i++) {
+
+                Class<?> type = storage.getType(i);
+                DataType dataType = DataTypes.getDataType(type);
+
+                if (dataType != null) {
+
+                    DataTypes.writeBinary(dataType, storage, i, keys, output);
+
+                } else {
+
+                    NullPointerException e = Errors.getMissingDataType("class", type.getName(), new NetworkException(""));
+
+                    if (config.getIgnoreErrors()) {
+
+                        errors.add(e);
+
+                    } else {
+
+                        throw e;
+                    }
+                }
+            }
+
+        } catch (RuntimeException e) {
+
+            // The frame is never sent, so the keys it defined must be forgotten as well
+            if (keys != null) {
+
+                keys.truncate(definedKeys);
+            }
+
+            throw e;
+        }
+
+        int length = output.size() - header - PacketUtils.BINARY_FRAME_HEADER_LENGTH;
+        byte[] array = output.array();
+
+        array[header] = (byte) (keys != null ? PacketUtils.KEYED_FRAME_MARKER : PacketUtils.BINARY_FRAME_MARKER);
+        array[header + 1] = (byte) (length >> 24);
+        array[header + 2] = (byte) (length >> 16);
+        array[header + 3] = (byte) (length >> 8);
+        array[header + 4] = (byte) length;
+    }
+
+    /**
+     * Gets all of the errors thrown during the previous {@code Packet} to
+     * frame transformation. This will be empty if {@code ignoreErrors}
+     * flag in the {@code PacketHandlerConfiguration} is {@code false}.
+     *
+     * @return A {@code Throwable[]} containing all errors thrown during the
+     * previous transformation
+     */
+    public Throwable[] getErrors() {
+
+        return errors.isEmpty() ? NO_ERRORS : errors.toArray(new Throwable[errors.size()]);
+    }
+}
@@ -0,0 +1,219 @@
+package com.github.chrisblutz.networking.packets.binary;
+
+import com.github.chrisblutz.networking.exceptions.Errors;
+import com.github.chrisblutz.networking.exceptions.NetworkException;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+
+/**
+ * A table of the {@code Packet} keys sent in one direction of a {@code Connection},
+ * which lets keyed binary frames send a small id in place of a key that was sent before.
+ * The writing side and the reading side each keep their own {@code KeyDictionary}, and
+ * both add keys in the order in which frames are written, so no ids are ever sent on
+ * their own.<br>
+ * <br>
+ * Every key starts with a varint header.  If its lowest bit is {@code 0}, the rest of
+ * the header is the id of a key that was defined before.  Otherwise the header is
+ * followed by the UTF-8 bytes of the key, the rest of the header holds their length,
+ * and the second bit marks whether the key is defined as the next id.  A key is only
+ * defined the second time it is written, so keys that are only used once, such as the
+ * correlation ids of {@code Queries}, do not fill the dictionary.<br>
+ * <br>
+ * The capacity bounds both sides: a writing {@code KeyDictionary} defines at most that
+ * many keys, and a reading one rejects data that defines more, so the writing side must
+ * never be given a larger capacity than the reading side.  Keys longer than
+ * {@code MAX_KEY_LENGTH} bytes are always written in full and never defined.<br>
+ * <br>
+ * Keys read from the dictionary are interned, so every use of a key returns the same
+ * {@code String}.  A {@code KeyDictionary} is not thread-safe, since frames of one
+ * direction are written and read in order by a single {@code Thread} at a time.
+ *
+ * @author Christopher Lutz
+ */
+public class KeyDictionary {
+
+    /**
+     * The largest number of keys a {@code KeyDictionary} holds, which bounds the memory
+     * the remote side of a {@code Connection} can make it use
+     */
+    public static final int MAX_CAPACITY = 65536;
+
+    /**
+     * The largest key, in UTF-8 bytes, that a {@code KeyDictionary} defines
+     */
+    public static final int MAX_KEY_LENGTH = 256;
+
+    // Keys written once are remembered up to this many times the capacity, before they are forgotten all at once
+    private static final int SEEN_KEYS_PER_ENTRY = 4;
+    private static final int MIN_SEEN_KEYS = 64;
+
+    private static final int LITERAL = 1;
+    private static final int DEFINITION = 3;
+
+    private final int capacity;
+    private final Map<String, Integer> ids = new HashMap<String, Integer>();
+    private final Set<String> seen = new HashSet<String>();
+    private String[] keys = new String[16];
+    private int size = 0;
+
+    /**
+     * Creates a {@code KeyDictionary} that defines at most the specified number of keys
+     *
+     * @param capacity The maximum number of keys to define when writing, or accept when reading
+     */
+    public KeyDictionary(int capacity) {
+
+        this.capacity = Math.max(0, Math.min(capacity, MAX_CAPACITY));
+    }
+
+    /**
+     * Gets the maximum number of keys this {@code KeyDictionary} defines when writing or accepts when reading
+     *
+     * @return The capacity of the dictionary
+     */
+    public int getCapacity() {
+
+        return capacity;
+    }
+
+    /**
+     * Gets the number of keys currently defined
+     *
+     * @return The number of keys
+     */
+    public int size() {
+
+        return size;
+    }
+
+    /**
+     * Writes a key, as its id if it has been defined and as its UTF-8 bytes otherwise
+     *
+     * @param key    The key to write
+     * @param output The {@code BinaryOutput} to write to
+     */
+    public void writeKey(String key, BinaryOutput output) {
+
+        Integer id = ids.get(key);
+
+        if (id != null) {
+
+            output.writeVarint((long) id << 1);
+
+            return;
+        }
+
+        int flags = LITERAL;
+        int length = BinaryOutput.getUtf8Length(key);
+
+        if (size < capacity && length <= MAX_KEY_LENGTH) {
+
+            if (seen.remove(key)) {
+
+                define(key);
+                flags = DEFINITION;
+
+            } else {
+
+                if (seen.size() >= Math.max(MIN_SEEN_KEYS, capacity * SEEN_KEYS_PER_ENTRY)) {
+
+                    seen.clear();
+                }
+
+                seen.add(key);
+            }
+        }
+
+        output.writeVarint(((long) length << 2) | flags);
+        output.writeUtf8(key);
+    }
+
+    /**
+     * Reads a key written by {@code writeKey()}, defining it if the writing side did.  Data that
+     * defines more keys than the capacity of this {@code KeyDictionary}, or keys longer than
+     * {@code MAX_KEY_LENGTH}, is rejected.
+     *
+     * @param input The {@code BinaryInput} to read from
+     * @return The key read
+     */
+    public String readKey(BinaryInput input) {
+
+        long header = input.readVarint();
+
+        if ((header & 1) == 0) {
+
+            long id = header >>> 1;
+
+            if (id >= size) {
+
+                throw Errors.getUnreadableData(new NetworkException("Unknown key id " + id));
+            }
+
+            return keys[(int) id];
+        }
+
+        long length = header >>> 2;
+
+        if (length > input.remaining()) {
+
+            throw Errors.getUnreadableData(new NetworkException("Length " + length + " exceeds the remaining " + input.remaining() + " bytes"));
+        }
+
+        boolean definition = (header & DEFINITION) == DEFINITION;
+
+        if (definition) {
+
+            if (size >= capacity) {
+
+                throw Errors.getUnreadableData(new NetworkException("More than " + capacity + " keys were defined"));
+            }
+
+            if (length > MAX_KEY_LENGTH) {
+
+                throw Errors.getUnreadableData(new NetworkException("Defined key length " + length + " exceeds the maximum of " + MAX_KEY_LENGTH + " bytes"));
+            }
+        }
+
+        String key = input.readUtf8((int) length);
+
+        if (definition) {
+
+            key = key.intern();
+            define(key);
+        }
+
+        return key;
+    }
+
+    /**
+     * Removes every key defined after the specified number of keys, so that a frame that
+     * could not be written completely does not leave keys the reading side never saw
+     *
+     * @param size The number of keys to keep
+     */
+    public void truncate(int size) {
+
+        while (this.size > size) {
+
+            ids.remove(keys[--this.size]);
+            keys[this.size] = null;
+        }
+    }
+
+    private void define(String key) {
+
+        if (size == keys.length) {
+
+            String[] newKeys = new String[keys.length * 2];
+            System.arraycopy(keys, 0, newKeys, 0, size);
+            keys = newKeys;
+        }
+
+        ids.put(key, size);
+        keys[size++] = key;
+    }
+}
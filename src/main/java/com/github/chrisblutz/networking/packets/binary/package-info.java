@@ -0,0 +1,6 @@
+/**
+ * Contains the {@code BinaryPacketReader} and {@code BinaryPacketWriter} for formatting {@code Packets} into and from length-prefixed binary frames
+ *
+ * @author Christopher Lutz
+ */
+package com.github.chrisblutz.networking.packets.binary;
\ No newline at end of file
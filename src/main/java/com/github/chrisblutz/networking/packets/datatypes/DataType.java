@@ -1,5 +1,10 @@
 package com.github.chrisblutz.networking.packets.datatypes;
 
+import com.github.chrisblutz.networking.packets.PacketStorage;
+import com.github.chrisblutz.networking.packets.binary.BinaryInput;
+import com.github.chrisblutz.networking.packets.binary.BinaryOutput;
+
+
 /**
  * A class used to read and write objects from {@code Strings}
  *
@@ -43,6 +48,101 @@ public abstract class DataType {
      */
     public abstract String writeType(Object toWrite);
 
+    /**
+     * Appends the string form of the object to a {@code StringBuilder}<br>
+     * <br>
+     * Notes:<br>
+     * - By default this appends the result of {@code writeType()}.  Override
+     * this to append the object without creating an intermediate
+     * {@code String}.
+     *
+     * @param toWrite The {@code Object} to append
+     * @param builder The {@code StringBuilder} to append to
+     */
+    public void appendType(Object toWrite, StringBuilder builder) {
+
+        builder.append(writeType(toWrite));
+    }
+
+    /**
+     * Appends the string form of a value kept unboxed in a primitive slot of
+     * a {@code PacketStorage}<br>
+     * <br>
+     * Notes:<br>
+     * - By default this boxes the value and calls {@code appendType()}.
+     * Override this to append the value without boxing it.
+     *
+     * @param tag       The tag of the primitive slot
+     * @param primitive The contents of the primitive slot
+     * @param builder   The {@code StringBuilder} to append to
+     */
+    public void appendPrimitive(byte tag, long primitive, StringBuilder builder) {
+
+        appendType(PacketStorage.box(tag, primitive), builder);
+    }
+
+    /**
+     * Writes the binary form of the object<br>
+     * <br>
+     * Notes:<br>
+     * - By default this writes the result of {@code writeType()} as a UTF-8
+     * {@code String}, so custom {@code DataTypes} work with the binary codec
+     * without any changes.  Override this together with {@code readBinary()}
+     * to use a more compact form.
+     *
+     * @param toWrite The {@code Object} to write
+     * @param output  The {@code BinaryOutput} to write to
+     */
+    public void writeBinary(Object toWrite, BinaryOutput output) {
+
+        output.writeString(writeType(toWrite));
+    }
+
+    /**
+     * Writes the binary form of a value kept unboxed in a primitive slot of
+     * a {@code PacketStorage}<br>
+     * <br>
+     * Notes:<br>
+     * - By default this boxes the value and calls {@code writeBinary()}.
+     * Override this to write the value without boxing it.
+     *
+     * @param tag       The tag of the primitive slot
+     * @param primitive The contents of the primitive slot
+     * @param output    The {@code BinaryOutput} to write to
+     */
+    public void writeBinaryPrimitive(byte tag, long primitive, BinaryOutput output) {
+
+        writeBinary(PacketStorage.box(tag, primitive), output);
+    }
+
+    /**
+     * Reads an object written by {@code writeBinary()}
+     *
+     * @param input The {@code BinaryInput} to read from
+     * @return The {@code Object} parsed by this {@code DataType}
+     */
+    public Object readBinary(BinaryInput input) {
+
+        return readType(input.readString());
+    }
+
+    /**
+     * Reads an object written by {@code writeBinary()} straight into a
+     * {@code PacketStorage}<br>
+     * <br>
+     * Notes:<br>
+     * - By default this stores the result of {@code readBinary()}.  Override
+     * this to store the value in a primitive slot without boxing it.
+     *
+     * @param input   The {@code BinaryInput} to read from
+     * @param key     The key of the data piece
+     * @param storage The {@code PacketStorage} to store the data piece in
+     */
+    public void readBinary(BinaryInput input, String key, PacketStorage storage) {
+
+        storage.put(key, readBinary(input));
+    }
+
     static {
 
         DataTypes.registerDefaults();
@@ -3,11 +3,21 @@ package com.github.chrisblutz.networking.packets.datatypes;
 import com.github.chrisblutz.networking.exceptions.Errors;
 import com.github.chrisblutz.networking.exceptions.NetworkException;
 import com.github.chrisblutz.networking.packets.Packet;
+import com.github.chrisblutz.networking.packets.PacketStorage;
 import com.github.chrisblutz.networking.packets.PacketUtils;
+import com.github.chrisblutz.networking.packets.binary.BinaryInput;
+import com.github.chrisblutz.networking.packets.binary.BinaryOutput;
+import com.github.chrisblutz.networking.packets.binary.KeyDictionary;
 import com.github.chrisblutz.networking.packets.datatypes.defaults.*;
+import com.github.chrisblutz.networking.packets.datatypes.wrappers.Null;
 
+import java.lang.annotation.Annotation;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 
 /**
@@ -17,16 +27,64 @@ import java.util.Map;
  */
 public class DataTypes {
 
-    private static Map<Class<?>, DataType> dataTypes = new HashMap<Class<?>, DataType>();
+    /**
+     * The binary type tag that is followed by the abbreviation of a
+     * {@code DataType} that does not have a shared id
+     */
+    public static final int ABBREVIATION_TAG = 0xFF;
+
+    // Created first, since creating a DataType may register the defaults
+    private static volatile Registry registry = new Registry();
+
+    // Used for values of classes without a registered data type
+    private static final DataType FALLBACK = new StringType();
 
     /**
-     * Registers a data type to the DataType registry
+     * Registers a data type to the DataType registry.  A data type registered
+     * for a class that already has one replaces it and keeps its id.
      *
      * @param type The data type to register
      */
     public static void registerDataType(DataType type) {
 
-        dataTypes.put(type.getTypeClass(), type);
+        synchronized (DataTypes.class) {
+
+            registry = new Registry(registry, type);
+        }
+    }
+
+    /**
+     * Gets the numeric id of a registered data type.  Ids are assigned in
+     * registration order, and the ids of the default data types are the same
+     * on every side of a connection.
+     *
+     * @param type The data type to check against
+     * @return The id of the data type, or {@code -1} if it is not registered
+     */
+    public static int getDataTypeId(DataType type) {
+
+        Integer id = registry.idsByClass.get(type.getTypeClass());
+
+        return id != null ? id : -1;
+    }
+
+    /**
+     * Gets the data type registered with the given numeric id
+     *
+     * @param id The id to check against
+     * @return The DataType registered with the id (can be null if there is no
+     * registered data type with the id)
+     */
+    public static DataType getDataType(int id) {
+
+        DataType[] ids = registry.ids;
+
+        if (id >= 0 && id < ids.length) {
+
+            return ids[id];
+        }
+
+        return null;
     }
 
     /**
@@ -36,34 +94,47 @@ public class DataTypes {
      */
     public static DataType[] getDataTypes() {
 
-        return dataTypes.values().toArray(new DataType[]{});
+        return registry.byClass.values().toArray(new DataType[]{});
     }
 
     /**
-     * Returns the data type associated with the given class (null if there
-     * isn't one)
+     * Returns the data type associated with the given class.  If the class
+     * does not have a data type of its own, the data type registered for one
+     * of its annotations or for its closest superclass or interface is used,
+     * and if there is none the value is written as a {@code String}.  The
+     * result is cached for each class.
      *
      * @param c The class to check against
-     * @return The DataType registered for the class (can be null if there is no
-     * registered data type for the class)
+     * @return The DataType registered for the class (can be null if the class
+     * is null)
      */
     public static DataType getDataType(Class<?> c) {
 
         if (c == null) {
 
-            return dataTypes.get(null);
+            return null;
         }
 
-        if (dataTypes.containsKey(c)) {
+        Registry current = registry;
+        DataType type = current.byClass.get(c);
 
-            return dataTypes.get(c);
+        if (type == null) {
+
+            type = current.resolved.get(c);
+
+            if (type == null) {
+
+                type = current.resolve(c);
+                current.resolved.put(c, type);
+            }
         }
 
-        return new StringType();
+        return type;
     }
 
     /**
-     * Gets the data type for the given abbreviation (null if there isn't one)
+     * Gets the data type for the given abbreviation, ignoring case (null if
+     * there isn't one)
      *
      * @param abbrev The abbreviation to check against
      * @return The DataType registered for the abbreviation (can be null if
@@ -71,15 +142,16 @@ public class DataTypes {
      */
     public static DataType getDataType(String abbrev) {
 
-        for (DataType type : dataTypes.values()) {
+        if (abbrev == null) {
 
-            if (type.getAbbreviation().equalsIgnoreCase(abbrev)) {
-
-                return type;
-            }
+            return null;
         }
 
-        return new StringType();
+        Map<String, DataType> byAbbreviation = registry.byAbbreviation;
+        DataType type = byAbbreviation.get(abbrev);
+
+        // Abbreviations are written in upper case, so they are almost always found without folding
+        return type != null ? type : byAbbreviation.get(abbrev.toLowerCase(Locale.ENGLISH));
     }
 
     public static String writeType(DataType type, String key, Object value) {
@@ -95,6 +167,131 @@ public class DataTypes {
                 .replace("\r", PacketUtils.CARRIAGE_RETURN_ESCAPE);
     }
 
+    /**
+     * Appends the string form of a data piece to a {@code StringBuilder}.
+     * This produces the same text as {@code writeType()} with vertical lines
+     * escaped, but escapes in place instead of creating intermediate
+     * {@code Strings}.
+     *
+     * @param type    The data type of the value
+     * @param key     The key of the data piece
+     * @param value   The value of the data piece
+     * @param builder The {@code StringBuilder} to append to
+     */
+    public static void appendType(DataType type, String key, Object value, StringBuilder builder) {
+
+        int start = appendDeclaration(type, key, builder);
+        type.appendType(value, builder);
+        escape(builder, start);
+    }
+
+    /**
+     * Appends the string form of the data piece at a position of a
+     * {@code PacketStorage} to a {@code StringBuilder}, like
+     * {@code appendType()}.  Values in primitive slots are appended with
+     * {@code DataType.appendPrimitive()}, so they are not boxed.
+     *
+     * @param type     The data type of the value
+     * @param storage  The {@code PacketStorage} holding the data piece
+     * @param position The position of the data piece
+     * @param builder  The {@code StringBuilder} to append to
+     */
+    public static void appendType(DataType type, PacketStorage storage, int position, StringBuilder builder) {
+
+        int start = appendDeclaration(type, storage.getKey(position), builder);
+        byte tag = storage.getTag(position);
+
+        if (tag == PacketStorage.OBJECT) {
+
+            type.appendType(storage.getValue(position), builder);
+
+        } else {
+
+            type.appendPrimitive(tag, storage.getPrimitive(position), builder);
+        }
+
+        escape(builder, start);
+    }
+
+    /**
+     * Appends the text form of a value without a key, as its data type
+     * abbreviation, the length of its string form and the string form itself.
+     * This lets a {@code DataType} nest a value of any type inside its own
+     * text form without escaping it, to be read back by
+     * {@code TextInput.readValue()}.
+     *
+     * @param value   The value to append, which can be {@code null}
+     * @param builder The {@code StringBuilder} to append to
+     */
+    public static void appendValue(Object value, StringBuilder builder) {
+
+        DataType type = getDataType(value != null ? value.getClass() : Null.class);
+
+        for (int i = 0; i < type.getAbbreviation().length(); i++) {
+
+            builder.append(Character.toUpperCase(type.getAbbreviation().charAt(i)));
+        }
+
+        builder.append(':');
+        appendString(type.writeType(value != null ? value : new Null()), builder);
+    }
+
+    /**
+     * Appends a {@code String} prefixed with its length, to be read back by
+     * {@code TextInput.readString()}
+     *
+     * @param s       The {@code String} to append
+     * @param builder The {@code StringBuilder} to append to
+     */
+    public static void appendString(String s, StringBuilder builder) {
+
+        builder.append(s.length()).append(':').append(s);
+    }
+
+    private static int appendDeclaration(DataType type, String key, StringBuilder builder) {
+
+        int start = builder.length();
+
+        String abbreviation = type.getAbbreviation();
+
+        for (int i = 0; i < abbreviation.length(); i++) {
+
+            builder.append(Character.toUpperCase(abbreviation.charAt(i)));
+        }
+
+        builder.append(':').append(key).append('=');
+
+        return start;
+    }
+
+    private static void escape(StringBuilder builder, int start) {
+
+        for (int i = start; i < builder.length(); i++) {
+
+            char c = builder.charAt(i);
+            String escape = null;
+
+            if (c == '\n') {
+
+                escape = PacketUtils.NEW_LINE_ESCAPE;
+
+            } else if (c == '\r') {
+
+                escape = PacketUtils.CARRIAGE_RETURN_ESCAPE;
+
+            } else if (c == '|') {
+
+                escape = PacketUtils.VERTICAL_LINE_ESCAPE;
+            }
+
+            if (escape != null) {
+
+                builder.replace(i, i + 1, escape);
+                i += escape.length() - 1;
+            }
+        }
+    }
+
     public static DataType readType(String line) {
 
         if (line.contains("=")) {
@@ -180,6 +377,181 @@ public class DataTypes {
         return null;
     }
 
+    /**
+     * Writes the binary form of a data piece.  The data type is written as a
+     * one-byte id if it is a default data type, otherwise as
+     * {@code ABBREVIATION_TAG} followed by its abbreviation.  The key is
+     * written as raw UTF-8, so no escaping is needed.
+     *
+     * @param type   The data type of the value
+     * @param key    The key of the data piece
+     * @param value  The value of the data piece
+     * @param output The {@code BinaryOutput} to write to
+     */
+    public static void writeBinary(DataType type, String key, Object value, BinaryOutput output) {
+
+        writeTag(type, output);
+        output.writeString(key);
+        type.writeBinary(value, output);
+    }
+
+    /**
+     * Writes the binary form of the data piece at a position of a
+     * {@code PacketStorage}, like {@code writeBinary()}.  Values in primitive
+     * slots are written with {@code DataType.writeBinaryPrimitive()}, so they
+     * are not boxed.
+     *
+     * @param type     The data type of the value
+     * @param storage  The {@code PacketStorage} holding the data piece
+     * @param position The position of the data piece
+     * @param output   The {@code BinaryOutput} to write to
+     */
+    public static void writeBinary(DataType type, PacketStorage storage, int position, BinaryOutput output) {
+
+        writeBinary(type, storage, position, null, output);
+    }
+
+    /**
+     * Writes the binary form of the data piece at a position of a
+     * {@code PacketStorage}, like {@code writeBinary()}, but with its key
+     * written through a {@code KeyDictionary}
+     *
+     * @param type     The data type of the value
+     * @param storage  The {@code PacketStorage} holding the data piece
+     * @param position The position of the data piece
+     * @param keys     The {@code KeyDictionary} to write the key with, or {@code null} to write it as raw UTF-8
+     * @param output   The {@code BinaryOutput} to write to
+     */
+    public static void writeBinary(DataType type, PacketStorage storage, int position, KeyDictionary keys, BinaryOutput output) {
+
+        writeTag(type, output);
+
+        if (keys != null) {
+
+            keys.writeKey(storage.getKey(position), output);
+
+        } else {
+
+            output.writeString(storage.getKey(position));
+        }
+
+        byte tag = storage.getTag(position);
+
+        if (tag == PacketStorage.OBJECT) {
+
+            type.writeBinary(storage.getValue(position), output);
+
+        } else {
+
+            type.writeBinaryPrimitive(tag, storage.getPrimitive(position), output);
+        }
+    }
+
+    /**
+     * Writes the binary form of a value without a key, tagged with its data
+     * type in the same way as {@code writeBinary()}.  This lets a
+     * {@code DataType} nest a value of any type inside its own binary form.
+     *
+     * @param value  The value to write, which can be {@code null}
+     * @param output The {@code BinaryOutput} to write to
+     */
+    public static void writeBinaryValue(Object value, BinaryOutput output) {
+
+        DataType type = getDataType(value != null ? value.getClass() : Null.class);
+
+        writeTag(type, output);
+        type.writeBinary(value != null ? value : new Null(), output);
+    }
+
+    private static void writeTag(DataType type, BinaryOutput output) {
+
+        Registry current = registry;
+        int id = getDataTypeId(type);
+
+        if (id >= 0 && id < current.sharedIds && current.ids[id].getClass() == type.getClass()) {
+
+            output.writeByte(id);
+
+        } else {
+
+            output.writeByte(ABBREVIATION_TAG);
+            output.writeString(type.getAbbreviation());
+        }
+    }
+
+    /**
+     * Reads a data piece written by {@code writeBinary()}
+     *
+     * @param input The {@code BinaryInput} to read from
+     * @return The data piece read
+     */
+    public static Packet.PacketData readBinary(BinaryInput input) {
+
+        DataType type = readTag(input);
+        String key = input.readString();
+
+        return new Packet.PacketData(key, type.readBinary(input));
+    }
+
+    /**
+     * Reads a data piece written by {@code writeBinary()} into a
+     * {@code PacketStorage}, using {@code DataType.readBinary(BinaryInput, String, PacketStorage)}
+     * so primitive values are not boxed
+     *
+     * @param input   The {@code BinaryInput} to read from
+     * @param storage The {@code PacketStorage} to store the data piece in
+     */
+    public static void readBinary(BinaryInput input, PacketStorage storage) {
+
+        readBinary(input, null, storage);
+    }
+
+    /**
+     * Reads a data piece written by {@code writeBinary()} with a
+     * {@code KeyDictionary} into a {@code PacketStorage}
+     *
+     * @param input   The {@code BinaryInput} to read from
+     * @param keys    The {@code KeyDictionary} to read the key with, or {@code null} if it was written as raw UTF-8
+     * @param storage The {@code PacketStorage} to store the data piece in
+     */
+    public static void readBinary(BinaryInput input, KeyDictionary keys, PacketStorage storage) {
+
+        DataType type = readTag(input);
+        String key = keys != null ? keys.readKey(input) : input.readString();
+
+        type.readBinary(input, key, storage);
+    }
+
+    /**
+     * Reads a value written by {@code writeBinaryValue()}
+     *
+     * @param input The {@code BinaryInput} to read from
+     * @return The value read, which can be {@code null}
+     */
+    public static Object readBinaryValue(BinaryInput input) {
+
+        return readTag(input).readBinary(input);
+    }
+
+    private static DataType readTag(BinaryInput input) {
+
+        int tag = input.readUnsignedByte();
+
+        if (tag == ABBREVIATION_TAG) {
+
+            return getDataType(input.readString());
+        }
+
+        DataType type = tag < registry.sharedIds ? getDataType(tag) : null;
+
+        if (type == null) {
+
+            throw Errors.getMissingDataType("data type id", Integer.toString(tag), new NetworkException(""));
+        }
+
+        return type;
+    }
+
     /**
      * Register default data types
      */
@@ -197,6 +569,153 @@ public class DataTypes {
         DataTypes.registerDataType(new NullType());
         DataTypes.registerDataType(new StringArrayType());
         DataTypes.registerDataType(new QueryDataType());
+        DataTypes.registerDataType(new QueryResponseDataType());
+        DataTypes.registerDataType(new ByteArrayType());
+        DataTypes.registerDataType(new IntArrayType());
+        DataTypes.registerDataType(new LongArrayType());
+        DataTypes.registerDataType(new FloatArrayType());
+        DataTypes.registerDataType(new DoubleArrayType());
+        DataTypes.registerDataType(new PacketType());
+        DataTypes.registerDataType(new MapType());
+        DataTypes.registerDataType(new ListType());
+        DataTypes.registerDataType(new MessageDataType());
+
+        synchronized (DataTypes.class) {
+
+            if (registry.sharedIds == 0) {
+
+                registry = registry.share();
+            }
+        }
+    }
+
+    /**
+     * An immutable snapshot of the registered data types.  Registering a data
+     * type publishes a new snapshot, so lookups never see a half-built table.
+     */
+    private static final class Registry {
+
+        private final Map<Class<?>, DataType> byClass;
+        private final Map<String, DataType> byAbbreviation;
+        private final Map<Class<?>, Integer> idsByClass;
+        private final DataType[] ids;
+        private final int sharedIds;
+
+        // Caches getDataType() for classes without a data type of their own
+        private final ConcurrentMap<Class<?>, DataType> resolved = new ConcurrentHashMap<Class<?>, DataType>();
+
+        private Registry() {
+
+            this.byClass = new HashMap<Class<?>, DataType>();
+            this.byAbbreviation = new HashMap<String, DataType>();
+            this.idsByClass = new HashMap<Class<?>, Integer>();
+            this.ids = new DataType[0];
+            this.sharedIds = 0;
+        }
+
+        private Registry(Registry previous, DataType type) {
+
+            this.byClass = new HashMap<Class<?>, DataType>(previous.byClass);
+            this.byClass.put(type.getTypeClass(), type);
+
+            this.idsByClass = new HashMap<Class<?>, Integer>(previous.idsByClass);
+            Integer id = idsByClass.get(type.getTypeClass());
+
+            if (id != null) {
+
+                this.ids = previous.ids.clone();
+
+            } else {
+
+                id = previous.ids.length;
+                this.ids = Arrays.copyOf(previous.ids, id + 1);
+                this.idsByClass.put(type.getTypeClass(), id);
+            }
+
+            this.ids[id] = type;
+            this.sharedIds = previous.sharedIds;
+
+            // Rebuilt from byClass so a replaced data type does not leave its abbreviation behind
+            this.byAbbreviation = new HashMap<String, DataType>();
+
+            for (DataType registered : byClass.values()) {
+
+                String abbreviation = registered.getAbbreviation();
+
+                byAbbreviation.put(abbreviation.toLowerCase(Locale.ENGLISH), registered);
+                byAbbreviation.put(abbreviation.toUpperCase(Locale.ENGLISH), registered);
+            }
+        }
+
+        private Registry(Registry previous, int sharedIds) {
+
+            this.byClass = previous.byClass;
+            this.byAbbreviation = previous.byAbbreviation;
+            this.idsByClass = previous.idsByClass;
+            this.ids = previous.ids;
+            this.sharedIds = sharedIds;
+        }
+
+        private Registry share() {
+
+            return new Registry(this, ids.length);
+        }
+
+        private DataType resolve(Class<?> c) {
+
+            // Lets one DataType stand for every class with a particular annotation, such as @NetworkMessage
+            for (Annotation annotation : c.getAnnotations()) {
+
+                DataType type = byClass.get(annotation.annotationType());
+
+                if (type != null) {
+
+                    return type;
+                }
+            }
+
+            for (Class<?> current = c.getSuperclass(); current != null; current = current.getSuperclass()) {
+
+                DataType type = byClass.get(current);
+
+                if (type != null) {
+
+                    return type;
+                }
+            }
+
+            for (Class<?> current = c; current != null; current = current.getSuperclass()) {
+
+                DataType type = resolveInterfaces(current.getInterfaces());
+
+                if (type != null) {
+
+                    return type;
+                }
+            }
+
+            return FALLBACK;
+        }
+
+        private DataType resolveInterfaces(Class<?>[] interfaces) {
+
+            for (Class<?> i : interfaces) {
+
+                DataType type = byClass.get(i);
+
+                if (type == null) {
+
+                    type = resolveInterfaces(i.getInterfaces());
+                }
+
+                if (type != null) {
+
+                    return type;
+                }
+            }
+
+            return null;
+        }
     }
 
     static {
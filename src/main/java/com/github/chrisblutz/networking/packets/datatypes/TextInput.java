@@ -0,0 +1,140 @@
+package com.github.chrisblutz.networking.packets.datatypes;
+
+import com.github.chrisblutz.networking.exceptions.Errors;
+import com.github.chrisblutz.networking.exceptions.NetworkException;
+
+
+/**
+ * A cursor over the text form of a structured value, such as a nested {@code Packet},
+ * {@code Map} or {@code List}.  Strings are written by {@code DataTypes.appendString()}
+ * and values by {@code DataTypes.appendValue()}, both prefixed with their length, so
+ * nested values are read back without any escaping.
+ *
+ * @author Christopher Lutz
+ */
+public class TextInput {
+
+    private final String text;
+    private int position = 0;
+
+    /**
+     * Creates a new {@code TextInput} over the specified text
+     *
+     * @param text The text to read from
+     */
+    public TextInput(String text) {
+
+        this.text = text;
+    }
+
+    /**
+     * Checks whether there is anything left to read
+     *
+     * @return Whether or not the end of the text has been reached
+     */
+    public boolean hasRemaining() {
+
+        return position < text.length();
+    }
+
+    /**
+     * Reads a {@code String} written by {@code DataTypes.appendString()}
+     *
+     * @return The {@code String} read
+     */
+    public String readString() {
+
+        int length = readLength();
+        String s = text.substring(position, position + length);
+
+        position += length;
+
+        return s;
+    }
+
+    /**
+     * Reads a decimal number followed by a {@code ':'}
+     *
+     * @return The number read
+     */
+    public long readLong() {
+
+        try {
+
+            return Long.parseLong(readUntil(':'));
+
+        } catch (NumberFormatException e) {
+
+            throw Errors.getUnreadableData(e);
+        }
+    }
+
+    /**
+     * Reads everything that has not been read yet
+     *
+     * @return The rest of the text
+     */
+    public String readRemaining() {
+
+        String s = text.substring(position);
+
+        position = text.length();
+
+        return s;
+    }
+
+    /**
+     * Reads a value written by {@code DataTypes.appendValue()}
+     *
+     * @return The value read, which can be {@code null}
+     */
+    public Object readValue() {
+
+        String abbreviation = readUntil(':');
+        DataType type = DataTypes.getDataType(abbreviation);
+
+        if (type == null) {
+
+            throw Errors.getMissingDataType("data type abbreviation", abbreviation, new NetworkException(""));
+        }
+
+        return type.readType(readString());
+    }
+
+    private int readLength() {
+
+        int length;
+
+        try {
+
+            length = Integer.parseInt(readUntil(':'));
+
+        } catch (NumberFormatException e) {
+
+            throw Errors.getUnreadableData(e);
+        }
+
+        if (length < 0 || length > text.length() - position) {
+
+            throw Errors.getUnreadableData(new NetworkException("Length " + length + " exceeds the remaining " + (text.length() - position) + " characters"));
+        }
+
+        return length;
+    }
+
+    private String readUntil(char separator) {
+
+        int end = text.indexOf(separator, position);
+
+        if (end < 0) {
+
+            throw Errors.getUnreadableData(new NetworkException("Unexpected end of data"));
+        }
+
+        String s = text.substring(position, end);
+
+        position = end + 1;
+
+        return s;
+    }
+}
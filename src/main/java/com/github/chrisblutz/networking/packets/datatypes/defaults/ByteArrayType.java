@@ -0,0 +1,76 @@
+package com.github.chrisblutz.networking.packets.datatypes.defaults;
+
+import com.github.chrisblutz.networking.packets.binary.BinaryInput;
+import com.github.chrisblutz.networking.packets.binary.BinaryOutput;
+import com.github.chrisblutz.networking.packets.datatypes.DataType;
+import org.apache.commons.codec.binary.Base64;
+
+
+/**
+ * A {@code DataType} representing a {@code byte[]}.  The text form is Base64,
+ * and the binary form is the length of the array followed by its raw bytes.
+ *
+ * @author Christopher Lutz
+ */
+public class ByteArrayType extends DataType {
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Class<?> getTypeClass() {
+
+        return byte[].class;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getAbbreviation() {
+
+        return "bytearr";
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object readType(String toRead) {
+
+        return Base64.decodeBase64(toRead);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String writeType(Object toWrite) {
+
+        return Base64.encodeBase64String((byte[]) toWrite);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void writeBinary(Object toWrite, BinaryOutput output) {
+
+        byte[] writing = (byte[]) toWrite;
+
+        output.writeVarint(writing.length);
+        output.writeBytes(writing, 0, writing.length);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object readBinary(BinaryInput input) {
+
+        byte[] reading = new byte[input.readLength()];
+        input.readBytes(reading, 0, reading.length);
+
+        return reading;
+    }
+}
@@ -1,5 +1,8 @@
 package com.github.chrisblutz.networking.packets.datatypes.defaults;
 
+import com.github.chrisblutz.networking.packets.PacketStorage;
+import com.github.chrisblutz.networking.packets.binary.BinaryInput;
+import com.github.chrisblutz.networking.packets.binary.BinaryOutput;
 import com.github.chrisblutz.networking.packets.datatypes.DataType;
 
 
@@ -52,4 +55,58 @@ public class ByteType extends DataType {
 
         return toWrite.toString();
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void appendType(Object toWrite, StringBuilder builder) {
+
+        builder.append(((Byte) toWrite).byteValue());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void appendPrimitive(byte tag, long primitive, StringBuilder builder) {
+
+        builder.append((byte) primitive);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void writeBinary(Object toWrite, BinaryOutput output) {
+
+        output.writeByte((Byte) toWrite);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void writeBinaryPrimitive(byte tag, long primitive, BinaryOutput output) {
+
+        output.writeByte((byte) primitive);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object readBinary(BinaryInput input) {
+
+        return (byte) input.readByte();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void readBinary(BinaryInput input, String key, PacketStorage storage) {
+
+        storage.putPrimitive(key, PacketStorage.BYTE, (byte) input.readByte());
+    }
 }
@@ -1,5 +1,8 @@
 package com.github.chrisblutz.networking.packets.datatypes.defaults;
 
+import com.github.chrisblutz.networking.packets.PacketStorage;
+import com.github.chrisblutz.networking.packets.binary.BinaryInput;
+import com.github.chrisblutz.networking.packets.binary.BinaryOutput;
 import com.github.chrisblutz.networking.packets.datatypes.DataType;
 
 
@@ -52,4 +55,58 @@ public class CharType extends DataType {
 
         return toWrite.toString();
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void appendType(Object toWrite, StringBuilder builder) {
+
+        builder.append(((Character) toWrite).charValue());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void appendPrimitive(byte tag, long primitive, StringBuilder builder) {
+
+        builder.append((char) primitive);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void writeBinary(Object toWrite, BinaryOutput output) {
+
+        output.writeVarint((Character) toWrite);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void writeBinaryPrimitive(byte tag, long primitive, BinaryOutput output) {
+
+        output.writeVarint((char) primitive);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object readBinary(BinaryInput input) {
+
+        return (char) input.readVarint();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void readBinary(BinaryInput input, String key, PacketStorage storage) {
+
+        storage.putPrimitive(key, PacketStorage.CHAR, (char) input.readVarint());
+    }
 }
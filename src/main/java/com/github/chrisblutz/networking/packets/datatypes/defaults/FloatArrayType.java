@@ -0,0 +1,115 @@
+package com.github.chrisblutz.networking.packets.datatypes.defaults;
+
+import com.github.chrisblutz.networking.packets.binary.BinaryInput;
+import com.github.chrisblutz.networking.packets.binary.BinaryOutput;
+import com.github.chrisblutz.networking.packets.datatypes.DataType;
+
+
+/**
+ * A {@code DataType} representing a {@code float[]}.  The text form is a list of
+ * values separated by commas, and the binary form is the number of values
+ * followed by the values themselves, copied in bulk.
+ *
+ * @author Christopher Lutz
+ */
+public class FloatArrayType extends DataType {
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Class<?> getTypeClass() {
+
+        return float[].class;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getAbbreviation() {
+
+        return "fltarr";
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object readType(String toRead) {
+
+        try {
+
+            float[] reading = new float[NumberArrays.count(toRead)];
+
+            for (int i = 0, start = 0; i < reading.length; i++) {
+
+                int end = NumberArrays.end(toRead, start);
+
+                reading[i] = Float.parseFloat(toRead.substring(start, end));
+                start = end + 1;
+            }
+
+            return reading;
+
+        } catch (Exception e) {
+
+            return new float[0];
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String writeType(Object toWrite) {
+
+        StringBuilder builder = new StringBuilder();
+        appendType(toWrite, builder);
+
+        return builder.toString();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void appendType(Object toWrite, StringBuilder builder) {
+
+        float[] writing = (float[]) toWrite;
+
+        for (int i = 0; i < writing.length; i++) {
+
+            if (i > 0) {
+
+                builder.append(',');
+            }
+
+            builder.append(writing[i]);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void writeBinary(Object toWrite, BinaryOutput output) {
+
+        float[] writing = (float[]) toWrite;
+
+        output.writeVarint(writing.length);
+        output.writeFloats(writing, 0, writing.length);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object readBinary(BinaryInput input) {
+
+        float[] reading = new float[input.readLength(4)];
+        input.readFloats(reading, 0, reading.length);
+
+        return reading;
+    }
+}
@@ -1,5 +1,8 @@
 package com.github.chrisblutz.networking.packets.datatypes.defaults;
 
+import com.github.chrisblutz.networking.packets.PacketStorage;
+import com.github.chrisblutz.networking.packets.binary.BinaryInput;
+import com.github.chrisblutz.networking.packets.binary.BinaryOutput;
 import com.github.chrisblutz.networking.packets.datatypes.DataType;
 
 
@@ -52,4 +55,58 @@ public class FloatType extends DataType {
 
         return toWrite.toString();
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void appendType(Object toWrite, StringBuilder builder) {
+
+        builder.append(((Float) toWrite).floatValue());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void appendPrimitive(byte tag, long primitive, StringBuilder builder) {
+
+        builder.append(Float.intBitsToFloat((int) primitive));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void writeBinary(Object toWrite, BinaryOutput output) {
+
+        output.writeFloat((Float) toWrite);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void writeBinaryPrimitive(byte tag, long primitive, BinaryOutput output) {
+
+        output.writeFloat(Float.intBitsToFloat((int) primitive));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object readBinary(BinaryInput input) {
+
+        return input.readFloat();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void readBinary(BinaryInput input, String key, PacketStorage storage) {
+
+        storage.putPrimitive(key, PacketStorage.FLOAT, Float.floatToRawIntBits(input.readFloat()));
+    }
 }
@@ -0,0 +1,105 @@
+package com.github.chrisblutz.networking.packets.datatypes.defaults;
+
+import com.github.chrisblutz.networking.packets.binary.BinaryInput;
+import com.github.chrisblutz.networking.packets.binary.BinaryOutput;
+import com.github.chrisblutz.networking.packets.datatypes.DataType;
+import com.github.chrisblutz.networking.packets.datatypes.DataTypes;
+import com.github.chrisblutz.networking.packets.datatypes.TextInput;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * A {@code DataType} representing a {@code List}.  Elements can be of any type,
+ * including other {@code Lists}, {@code Maps} and {@code Packets}.  {@code Lists}
+ * are read back as {@code ArrayLists}.
+ *
+ * @author Christopher Lutz
+ */
+public class ListType extends DataType {
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Class<?> getTypeClass() {
+
+        return List.class;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getAbbreviation() {
+
+        return "list";
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object readType(String toRead) {
+
+        List<Object> reading = new ArrayList<Object>();
+        TextInput input = new TextInput(toRead);
+
+        while (input.hasRemaining()) {
+
+            reading.add(input.readValue());
+        }
+
+        return reading;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String writeType(Object toWrite) {
+
+        StringBuilder builder = new StringBuilder();
+
+        for (Object element : (List<?>) toWrite) {
+
+            DataTypes.appendValue(element, builder);
+        }
+
+        return builder.toString();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void writeBinary(Object toWrite, BinaryOutput output) {
+
+        List<?> writing = (List<?>) toWrite;
+
+        output.writeVarint(writing.size());
+
+        for (Object element : writing) {
+
+            DataTypes.writeBinaryValue(element, output);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object readBinary(BinaryInput input) {
+
+        int count = input.readLength();
+        List<Object> reading = new ArrayList<Object>(count);
+
+        for (int i = 0; i < count; i++) {
+
+            reading.add(DataTypes.readBinaryValue(input));
+        }
+
+        return reading;
+    }
+}
@@ -0,0 +1,108 @@
+package com.github.chrisblutz.networking.packets.datatypes.defaults;
+
+import com.github.chrisblutz.networking.packets.binary.BinaryInput;
+import com.github.chrisblutz.networking.packets.binary.BinaryOutput;
+import com.github.chrisblutz.networking.packets.datatypes.DataType;
+import com.github.chrisblutz.networking.packets.datatypes.DataTypes;
+import com.github.chrisblutz.networking.packets.datatypes.TextInput;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+
+/**
+ * A {@code DataType} representing a {@code Map} with {@code String} keys.  Keys
+ * that are not {@code Strings} are written as their string form, and values can
+ * be of any type, including other {@code Maps}, {@code Lists} and {@code Packets}.
+ * {@code Maps} are read back as {@code LinkedHashMaps}.
+ *
+ * @author Christopher Lutz
+ */
+public class MapType extends DataType {
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Class<?> getTypeClass() {
+
+        return Map.class;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getAbbreviation() {
+
+        return "map";
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object readType(String toRead) {
+
+        Map<String, Object> reading = new LinkedHashMap<String, Object>();
+        TextInput input = new TextInput(toRead);
+
+        while (input.hasRemaining()) {
+
+            reading.put(input.readString(), input.readValue());
+        }
+
+        return reading;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String writeType(Object toWrite) {
+
+        StringBuilder builder = new StringBuilder();
+
+        for (Map.Entry<?, ?> entry : ((Map<?, ?>) toWrite).entrySet()) {
+
+            DataTypes.appendString(String.valueOf(entry.getKey()), builder);
+            DataTypes.appendValue(entry.getValue(), builder);
+        }
+
+        return builder.toString();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void writeBinary(Object toWrite, BinaryOutput output) {
+
+        Map<?, ?> writing = (Map<?, ?>) toWrite;
+
+        output.writeVarint(writing.size());
+
+        for (Map.Entry<?, ?> entry : writing.entrySet()) {
+
+            output.writeString(String.valueOf(entry.getKey()));
+            DataTypes.writeBinaryValue(entry.getValue(), output);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object readBinary(BinaryInput input) {
+
+        int count = input.readLength();
+        Map<String, Object> reading = new LinkedHashMap<String, Object>();
+
+        for (int i = 0; i < count; i++) {
+
+            reading.put(input.readString(), DataTypes.readBinaryValue(input));
+        }
+
+        return reading;
+    }
+}
@@ -0,0 +1,113 @@
+package com.github.chrisblutz.networking.packets.datatypes.defaults;
+
+import com.github.chrisblutz.networking.exceptions.Errors;
+import com.github.chrisblutz.networking.exceptions.NetworkException;
+import com.github.chrisblutz.networking.messages.MessageCodec;
+import com.github.chrisblutz.networking.messages.NetworkMessage;
+import com.github.chrisblutz.networking.messages.NetworkMessages;
+import com.github.chrisblutz.networking.packets.binary.BinaryInput;
+import com.github.chrisblutz.networking.packets.binary.BinaryOutput;
+import com.github.chrisblutz.networking.packets.datatypes.DataType;
+import com.github.chrisblutz.networking.packets.datatypes.DataTypes;
+import com.github.chrisblutz.networking.packets.datatypes.TextInput;
+
+
+/**
+ * A {@code DataType} representing any class annotated with {@code @NetworkMessage}.
+ * It is registered for the annotation itself, which {@code DataTypes} uses for every
+ * annotated class.  A message is written as its message id followed by its fields,
+ * as written by the {@code MessageCodec} of its class.
+ *
+ * @author Christopher Lutz
+ */
+public class MessageDataType extends DataType {
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Class<?> getTypeClass() {
+
+        return NetworkMessage.class;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getAbbreviation() {
+
+        return "msg";
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object readType(String toRead) {
+
+        TextInput input = new TextInput(toRead);
+        String id = input.readString();
+
+        try {
+
+            return getCodec(Integer.parseInt(id)).readType(input);
+
+        } catch (NumberFormatException e) {
+
+            throw Errors.getUnreadableData(e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public String writeType(Object toWrite) {
+
+        MessageCodec<Object> codec = (MessageCodec<Object>) NetworkMessages.getCodec(toWrite.getClass());
+        StringBuilder builder = new StringBuilder();
+
+        DataTypes.appendString(Integer.toString(codec.getId()), builder);
+        codec.appendType(toWrite, builder);
+
+        return builder.toString();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void writeBinary(Object toWrite, BinaryOutput output) {
+
+        MessageCodec<Object> codec = (MessageCodec<Object>) NetworkMessages.getCodec(toWrite.getClass());
+
+        output.writeVarint(codec.getId());
+        codec.writeBinary(toWrite, output);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object readBinary(BinaryInput input) {
+
+        long id = input.readVarint();
+
+        return getCodec(id).readBinary(input);
+    }
+
+    private static MessageCodec<?> getCodec(long id) {
+
+        MessageCodec<?> codec = id <= Integer.MAX_VALUE ? NetworkMessages.getCodec((int) id) : null;
+
+        if (codec == null) {
+
+            throw Errors.getMissingDataType("network message id", Long.toString(id), new NetworkException(""));
+        }
+
+        return codec;
+    }
+}
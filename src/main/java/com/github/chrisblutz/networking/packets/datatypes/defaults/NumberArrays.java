@@ -0,0 +1,54 @@
+package com.github.chrisblutz.networking.packets.datatypes.defaults;
+
+/**
+ * Helps the number array {@code DataTypes} read their text form, a list of
+ * values separated by commas
+ *
+ * @author Christopher Lutz
+ */
+final class NumberArrays {
+
+    private NumberArrays() {
+
+    }
+
+    /**
+     * Counts the values in a list
+     *
+     * @param list The list to count
+     * @return The number of values, which is {@code 0} for an empty list
+     */
+    static int count(String list) {
+
+        if (list.isEmpty()) {
+
+            return 0;
+        }
+
+        int count = 1;
+
+        for (int i = 0; i < list.length(); i++) {
+
+            if (list.charAt(i) == ',') {
+
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Finds the end of the value starting at the specified index
+     *
+     * @param list  The list to search
+     * @param start The index the value starts at
+     * @return The index of the comma after the value, or the length of the list
+     */
+    static int end(String list, int start) {
+
+        int end = list.indexOf(',', start);
+
+        return end >= 0 ? end : list.length();
+    }
+}
@@ -0,0 +1,106 @@
+package com.github.chrisblutz.networking.packets.datatypes.defaults;
+
+import com.github.chrisblutz.networking.packets.Packet;
+import com.github.chrisblutz.networking.packets.PacketStorage;
+import com.github.chrisblutz.networking.packets.binary.BinaryInput;
+import com.github.chrisblutz.networking.packets.binary.BinaryOutput;
+import com.github.chrisblutz.networking.packets.datatypes.DataType;
+import com.github.chrisblutz.networking.packets.datatypes.DataTypes;
+import com.github.chrisblutz.networking.packets.datatypes.TextInput;
+
+
+/**
+ * A {@code DataType} representing a {@code Packet} nested inside of another
+ * {@code Packet}.  Each data piece is written with its own length, so nested
+ * data is never escaped a second time.
+ *
+ * @author Christopher Lutz
+ */
+public class PacketType extends DataType {
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Class<?> getTypeClass() {
+
+        return Packet.class;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getAbbreviation() {
+
+        return "pkt";
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object readType(String toRead) {
+
+        Packet reading = new Packet();
+        TextInput input = new TextInput(toRead);
+
+        while (input.hasRemaining()) {
+
+            reading.putData(input.readString(), input.readValue());
+        }
+
+        return reading;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String writeType(Object toWrite) {
+
+        StringBuilder builder = new StringBuilder();
+        PacketStorage storage = ((Packet) toWrite).getStorage();
+
+        for (int i = 0; i < storage.size(); i++) {
+
+            DataTypes.appendString(storage.getKey(i), builder);
+            DataTypes.appendValue(storage.getValue(i), builder);
+        }
+
+        return builder.toString();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void writeBinary(Object toWrite, BinaryOutput output) {
+
+        PacketStorage storage = ((Packet) toWrite).getStorage();
+
+        output.writeVarint(storage.size());
+
+        for (int i = 0; i < storage.size(); i++) {
+
+            DataTypes.writeBinary(DataTypes.getDataType(storage.getType(i)), storage, i, output);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object readBinary(BinaryInput input) {
+
+        int count = input.readLength();
+        Packet reading = new Packet();
+
+        for (int i = 0; i < count; i++) {
+
+            DataTypes.readBinary(input, reading.getStorage());
+        }
+
+        return reading;
+    }
+}
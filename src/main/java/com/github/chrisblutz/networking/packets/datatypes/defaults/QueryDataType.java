@@ -1,12 +1,14 @@
 package com.github.chrisblutz.networking.packets.datatypes.defaults;
 
+import com.github.chrisblutz.networking.packets.binary.BinaryInput;
+import com.github.chrisblutz.networking.packets.binary.BinaryOutput;
 import com.github.chrisblutz.networking.packets.datatypes.DataType;
 import com.github.chrisblutz.networking.query.Query;
 import com.github.chrisblutz.networking.query.QueryPacketHandler;
 
 
 /**
- * A {@code DataType} representing a {@code QueryRequest} object
+ * A {@code DataType} representing the request of a {@code Query} object
  *
  * @author Christopher Lutz
  */
@@ -49,4 +51,22 @@ public class QueryDataType extends DataType {
 
         return QueryPacketHandler.write(q);
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void writeBinary(Object toWrite, BinaryOutput output) {
+
+        QueryPacketHandler.writeBinary((Query) toWrite, output);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object readBinary(BinaryInput input) {
+
+        return QueryPacketHandler.readBinary(input);
+    }
 }
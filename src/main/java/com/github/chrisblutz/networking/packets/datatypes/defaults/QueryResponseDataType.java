@@ -0,0 +1,118 @@
+package com.github.chrisblutz.networking.packets.datatypes.defaults;
+
+import com.github.chrisblutz.networking.packets.Packet;
+import com.github.chrisblutz.networking.packets.binary.BinaryInput;
+import com.github.chrisblutz.networking.packets.binary.BinaryOutput;
+import com.github.chrisblutz.networking.packets.datatypes.DataType;
+import com.github.chrisblutz.networking.packets.datatypes.DataTypes;
+import com.github.chrisblutz.networking.packets.datatypes.TextInput;
+import com.github.chrisblutz.networking.packets.datatypes.wrappers.Null;
+import com.github.chrisblutz.networking.query.QueryResponse;
+
+
+/**
+ * A {@code DataType} representing a {@code QueryResponse} object.  The correlation id
+ * comes first, in decimal in the text form and as a varint in the binary form, and the
+ * result is written with its own {@code DataType}, so it can be of any registered type.
+ *
+ * @author Christopher Lutz
+ */
+public class QueryResponseDataType extends DataType {
+
+    private static final char VALUE = 'V', REJECTED = 'R';
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Class<?> getTypeClass() {
+
+        return QueryResponse.class;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getAbbreviation() {
+
+        return "qrs";
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object readType(String toRead) {
+
+        TextInput input = new TextInput(toRead);
+        long correlationId = input.readLong();
+        String rest = input.readRemaining();
+
+        if (rest.length() > 0 && rest.charAt(0) == REJECTED) {
+
+            return QueryResponse.rejected(rest.substring(1)).withCorrelationId(correlationId);
+        }
+
+        String line = rest.length() > 0 ? rest.substring(1) : rest;
+        Packet.PacketData data = DataTypes.readValue(DataTypes.readType(line), line);
+
+        return new QueryResponse(data != null ? data.getValue() : null).withCorrelationId(correlationId);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String writeType(Object toWrite) {
+
+        QueryResponse response = (QueryResponse) toWrite;
+        String correlationId = response.getCorrelationId() + ":";
+
+        if (response.isRejected()) {
+
+            return correlationId + REJECTED + response.getRejectionMessage();
+        }
+
+        Object value = response.getValue();
+
+        return correlationId + VALUE + DataTypes.writeType(DataTypes.getDataType(value != null ? value.getClass() : Null.class), "", value != null ? value : new Null());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void writeBinary(Object toWrite, BinaryOutput output) {
+
+        QueryResponse response = (QueryResponse) toWrite;
+
+        output.writeVarint(response.getCorrelationId());
+        output.writeBoolean(response.isRejected());
+
+        if (response.isRejected()) {
+
+            output.writeString(response.getRejectionMessage());
+
+        } else {
+
+            DataTypes.writeBinaryValue(response.getValue(), output);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object readBinary(BinaryInput input) {
+
+        long correlationId = input.readVarint();
+
+        if (input.readBoolean()) {
+
+            return QueryResponse.rejected(input.readString()).withCorrelationId(correlationId);
+        }
+
+        return new QueryResponse(DataTypes.readBinaryValue(input)).withCorrelationId(correlationId);
+    }
+}
@@ -1,6 +1,8 @@
 package com.github.chrisblutz.networking.packets.datatypes.defaults;
 
 import com.github.chrisblutz.networking.packets.PacketUtils;
+import com.github.chrisblutz.networking.packets.binary.BinaryInput;
+import com.github.chrisblutz.networking.packets.binary.BinaryOutput;
 import com.github.chrisblutz.networking.packets.datatypes.DataType;
 
 import java.util.ArrayList;
@@ -70,4 +72,70 @@ public class StringArrayType extends DataType {
 
         return writable;
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void appendType(Object toWrite, StringBuilder builder) {
+
+        String[] writing = (String[]) toWrite;
+
+        for (int i = 0; i < writing.length; i++) {
+
+            String str = writing[i];
+
+            for (int c = 0; c < str.length(); c++) {
+
+                char ch = str.charAt(c);
+
+                if (ch == ',') {
+
+                    builder.append(PacketUtils.COMMA_ESCAPE);
+
+                } else {
+
+                    builder.append(ch);
+                }
+            }
+
+            if (i < writing.length - 1) {
+
+                builder.append(',');
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void writeBinary(Object toWrite, BinaryOutput output) {
+
+        String[] writing = (String[]) toWrite;
+
+        output.writeVarint(writing.length);
+
+        for (String s : writing) {
+
+            output.writeString(s);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object readBinary(BinaryInput input) {
+
+        int length = input.readLength();
+        String[] reading = new String[length];
+
+        for (int i = 0; i < length; i++) {
+
+            reading[i] = input.readString();
+        }
+
+        return reading;
+    }
 }
@@ -1,5 +1,5 @@
 /**
- * Contains {@code DataType} classes for primitive types, the {@code String} class, and {@code null}
+ * Contains {@code DataType} classes for primitive types, primitive arrays, the {@code String} class, nested {@code Packets}, {@code Maps} and {@code Lists}, and {@code null}
  *
  * @author Christopher Lutz
  */
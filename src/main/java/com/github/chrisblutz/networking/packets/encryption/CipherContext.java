@@ -0,0 +1,77 @@
+package com.github.chrisblutz.networking.packets.encryption;
+
+import org.apache.commons.codec.binary.Base64;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.GeneralSecurityException;
+
+
+/**
+ * Holds the {@code Cipher} and key used by an {@code EncryptedPacketWriter} or
+ * {@code EncryptedPacketReader}, so that they are only created again when the
+ * {@code EncryptionKey} changes instead of once for every {@code Packet}.  A
+ * {@code CipherContext} is not thread-safe and should only be used by the
+ * {@code Thread} that owns its writer or reader.
+ *
+ * @author Christopher Lutz
+ */
+class CipherContext {
+
+    private final int mode;
+    private final Base64 base64 = new Base64();
+
+    private EncryptionKey encryptionKey = null;
+    private int version = -1;
+    private SecretKeySpec keySpec = null;
+    private Cipher cipher = null;
+
+    /**
+     * Creates a new {@code CipherContext}
+     *
+     * @param mode {@code Cipher.ENCRYPT_MODE} or {@code Cipher.DECRYPT_MODE}
+     */
+    CipherContext(int mode) {
+
+        this.mode = mode;
+    }
+
+    /**
+     * Gets a {@code Cipher} that is ready to encrypt or decrypt a single {@code Packet}
+     * with the specified {@code EncryptionKey}, creating it again only if the key has
+     * changed or been reset since the last call
+     *
+     * @param encryptionKey The {@code EncryptionKey} to use
+     * @return The initialized {@code Cipher}
+     * @throws GeneralSecurityException If the {@code Cipher} could not be created
+     */
+    Cipher getCipher(EncryptionKey encryptionKey) throws GeneralSecurityException {
+
+        if (cipher == null || encryptionKey != this.encryptionKey || encryptionKey.getVersion() != version) {
+
+            // Clear the old Cipher first so a failed rebuild is retried for the next Packet
+            cipher = null;
+
+            keySpec = new SecretKeySpec(encryptionKey.getKey().getBytes(), "AES");
+
+            Cipher c = Cipher.getInstance("AES");
+            c.init(mode, keySpec);
+
+            this.encryptionKey = encryptionKey;
+            this.version = encryptionKey.getVersion();
+            this.cipher = c;
+        }
+
+        return cipher;
+    }
+
+    /**
+     * Gets the {@code Base64} codec used with this {@code CipherContext}
+     *
+     * @return The {@code Base64} codec
+     */
+    Base64 getBase64() {
+
+        return base64;
+    }
+}
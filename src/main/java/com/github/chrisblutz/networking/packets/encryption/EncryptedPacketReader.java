@@ -1,17 +1,17 @@
 package com.github.chrisblutz.networking.packets.encryption;
 
 import com.github.chrisblutz.networking.Listenable;
+import com.github.chrisblutz.networking.exceptions.Errors;
+import com.github.chrisblutz.networking.exceptions.NetworkException;
 import com.github.chrisblutz.networking.packets.Packet;
 import com.github.chrisblutz.networking.packets.PacketHandlerConfiguration;
 import com.github.chrisblutz.networking.packets.PacketReader;
 import com.github.chrisblutz.networking.packets.PacketUtils;
+import com.github.chrisblutz.networking.packets.binary.BinaryPacketReader;
 import com.github.chrisblutz.networking.properties.Localization;
 import com.github.chrisblutz.networking.sockets.Connection;
-import org.apache.commons.codec.binary.Base64;
 
 import javax.crypto.Cipher;
-import javax.crypto.spec.SecretKeySpec;
-import java.security.Key;
 
 
 /**
@@ -24,6 +24,13 @@ import java.security.Key;
 public class EncryptedPacketReader extends PacketReader {
 
     private Listenable listenable = null;
+    private final CipherContext context = new CipherContext(Cipher.DECRYPT_MODE);
+    private GcmCipherContext gcmContext = null;
+
+    private final BinaryPacketReader binaryReader;
+    private final byte[] header = new byte[PacketUtils.BINARY_FRAME_HEADER_LENGTH];
+    private byte[] plaintext = new byte[256];
+    private boolean readFrame = false;
 
     /**
      * Creates an {@code EncryptedPacketReader} that uses the default
@@ -32,6 +39,8 @@ public class EncryptedPacketReader extends PacketReader {
     public EncryptedPacketReader() {
 
         super();
+
+        binaryReader = new BinaryPacketReader();
     }
 
     /**
@@ -43,6 +52,8 @@ public class EncryptedPacketReader extends PacketReader {
     public EncryptedPacketReader(PacketHandlerConfiguration config) {
 
         super(config);
+
+        binaryReader = new BinaryPacketReader(config);
     }
 
     /**
@@ -76,6 +87,8 @@ public class EncryptedPacketReader extends PacketReader {
     @Override
     public Packet getPacketFromString(Connection connection, String toParse) {
 
+        readFrame = false;
+
         if (toParse.startsWith(PacketUtils.ENCRYPTED_DATA_PREFIX)) {
 
             toParse = toParse.substring(PacketUtils.ENCRYPTED_DATA_PREFIX.length());
@@ -89,13 +102,9 @@ public class EncryptedPacketReader extends PacketReader {
                     throw new NullPointerException(Localization.getMessage(Localization.ENCRYPTION_KEY_NULL));
                 }
 
-                Key aesKey = new SecretKeySpec(encryptionKey.getKey().getBytes(), "AES");
-                Cipher cipher = Cipher.getInstance("AES");
-
-
-                cipher.init(Cipher.DECRYPT_MODE, aesKey);
+                Cipher cipher = context.getCipher(encryptionKey);
                 String decrypted = new String(
-                        cipher.doFinal(new Base64().decode(toParse.getBytes())))
+                        cipher.doFinal(context.getBase64().decode(toParse.getBytes())))
                         .replace(PacketUtils.ENCRYPTED_DATA_ESCAPE, PacketUtils.ENCRYPTED_DATA_PREFIX);
 
                 Packet p = super.getPacketFromString(connection, decrypted);
@@ -115,4 +124,83 @@ public class EncryptedPacketReader extends PacketReader {
             return super.getPacketFromString(connection, toParse);
         }
     }
+
+    /**
+     * Turns the body of an AES-GCM encrypted frame into a {@code Packet} following the
+     * {@code PacketHandlerConfiguration} used by this {@code EncryptedPacketReader}.
+     * Frames that were changed after they were encrypted are rejected.
+     *
+     * @param connection The {@code Connection} that sent the request
+     * @param frame      The array containing the frame body
+     * @param offset     The index of the first byte of the frame body
+     * @param length     The length of the frame body
+     * @return The {@code Packet} form of the frame
+     */
+    public Packet getPacketFromFrame(Connection connection, byte[] frame, int offset, int length) {
+
+        readFrame = true;
+
+        try {
+
+            EncryptionKey encryptionKey = connection.getEncryptionKey();
+
+            if (encryptionKey == null || encryptionKey.getKey() == null) {
+
+                throw new NullPointerException(Localization.getMessage(Localization.ENCRYPTION_KEY_NULL));
+            }
+
+            // The AES-GCM classes are only loaded once the running JVM is known to provide them
+            if (gcmContext == null) {
+
+                if (!EncryptionMode.AES_GCM.isSupported()) {
+
+                    throw new NetworkException(GcmCipherContext.TRANSFORMATION + " is not available in this JVM");
+                }
+
+                gcmContext = new GcmCipherContext(Cipher.DECRYPT_MODE);
+            }
+
+            int plaintextLength = length - GcmCipherContext.NONCE_LENGTH - GcmCipherContext.TAG_LENGTH;
+
+            if (plaintextLength < 0) {
+
+                throw new NetworkException("Invalid encrypted frame length " + length);
+            }
+
+            if (plaintext.length < plaintextLength) {
+
+                plaintext = new byte[Math.max(plaintext.length * 2, plaintextLength)];
+            }
+
+            header[0] = (byte) PacketUtils.ENCRYPTED_FRAME_MARKER;
+            header[1] = (byte) (length >> 24);
+            header[2] = (byte) (length >> 16);
+            header[3] = (byte) (length >> 8);
+            header[4] = (byte) length;
+
+            int decrypted = gcmContext.decrypt(encryptionKey, header, 0, header.length, frame, offset, length, plaintext);
+
+            return binaryReader.getPacketFromFrame(connection, plaintext, 0, decrypted);
+
+        } catch (Exception e) {
+
+            Errors.decryptionFailed(listenable, GcmCipherContext.TRANSFORMATION, e);
+
+            return new Packet();
+        }
+    }
+
+    /**
+     * Gets all of the errors thrown during the previous {@code String} or frame to
+     * {@code Packet} transformation. This will be empty if {@code ignoreErrors}
+     * flag in the {@code PacketHandlerConfiguration} is {@code false}.
+     *
+     * @return A {@code Throwable[]} containing all errors thrown during the
+     * previous transformation
+     */
+    @Override
+    public Throwable[] getErrors() {
+
+        return readFrame ? binaryReader.getErrors() : super.getErrors();
+    }
 }
@@ -2,17 +2,17 @@ package com.github.chrisblutz.networking.packets.encryption;
 
 import com.github.chrisblutz.networking.Listenable;
 import com.github.chrisblutz.networking.exceptions.Errors;
+import com.github.chrisblutz.networking.exceptions.NetworkException;
 import com.github.chrisblutz.networking.packets.Packet;
 import com.github.chrisblutz.networking.packets.PacketHandlerConfiguration;
 import com.github.chrisblutz.networking.packets.PacketUtils;
 import com.github.chrisblutz.networking.packets.PacketWriter;
+import com.github.chrisblutz.networking.packets.binary.BinaryOutput;
+import com.github.chrisblutz.networking.packets.binary.BinaryPacketWriter;
 import com.github.chrisblutz.networking.properties.Localization;
 import com.github.chrisblutz.networking.sockets.Connection;
-import org.apache.commons.codec.binary.Base64;
 
 import javax.crypto.Cipher;
-import javax.crypto.spec.SecretKeySpec;
-import java.security.Key;
 
 
 /**
@@ -25,6 +25,12 @@ import java.security.Key;
 public class EncryptedPacketWriter extends PacketWriter {
 
     private Listenable listenable = null;
+    private final CipherContext context = new CipherContext(Cipher.ENCRYPT_MODE);
+    private GcmCipherContext gcmContext = null;
+
+    private final BinaryPacketWriter binaryWriter;
+    private final BinaryOutput plaintext = new BinaryOutput();
+    private boolean wroteFrame = false;
 
     /**
      * Creates an {@code EncryptedPacketWriter} that uses the default
@@ -33,6 +39,8 @@ public class EncryptedPacketWriter extends PacketWriter {
     public EncryptedPacketWriter() {
 
         super();
+
+        binaryWriter = new BinaryPacketWriter();
     }
 
     /**
@@ -44,6 +52,8 @@ public class EncryptedPacketWriter extends PacketWriter {
     public EncryptedPacketWriter(PacketHandlerConfiguration config) {
 
         super(config);
+
+        binaryWriter = new BinaryPacketWriter(config);
     }
 
     /**
@@ -77,6 +87,8 @@ public class EncryptedPacketWriter extends PacketWriter {
     @Override
     public String getPacketAsWriteableString(Connection connection, Packet packet) {
 
+        wroteFrame = false;
+
         try {
 
             EncryptionKey encryptionKey = connection.getEncryptionKey();
@@ -88,13 +100,10 @@ public class EncryptedPacketWriter extends PacketWriter {
 
             String writeable = super.getPacketAsWriteableString(connection, packet).replace(PacketUtils.ENCRYPTED_DATA_PREFIX, PacketUtils.ENCRYPTED_DATA_ESCAPE);
 
-            Key aesKey = new SecretKeySpec(encryptionKey.getKey().getBytes(), "AES");
-            Cipher cipher = Cipher.getInstance("AES");
-
-            cipher.init(Cipher.ENCRYPT_MODE, aesKey);
+            Cipher cipher = context.getCipher(encryptionKey);
             byte[] encrypted = cipher.doFinal(writeable.getBytes());
 
-            return PacketUtils.ENCRYPTED_DATA_PREFIX + new String(new Base64().encode(encrypted));
+            return PacketUtils.ENCRYPTED_DATA_PREFIX + new String(context.getBase64().encode(encrypted));
 
         } catch (Exception e) {
 
@@ -103,4 +112,87 @@ public class EncryptedPacketWriter extends PacketWriter {
             return super.getPacketAsWriteableString(connection, new Packet());
         }
     }
+
+    /**
+     * Writes a {@code Packet} to the end of a {@code BinaryOutput} as an AES-GCM
+     * encrypted frame, following the {@code PacketHandlerConfiguration} used by this
+     * {@code EncryptedPacketWriter}.  The frame consists of the
+     * {@code ENCRYPTED_FRAME_MARKER} byte, the length of the rest of the frame as a
+     * 4-byte integer, the nonce, and the encrypted binary form of the {@code Packet}
+     * followed by its authentication tag.
+     *
+     * @param connection The {@code Connection} that sent the request
+     * @param packet     The {@code Packet} to write
+     * @param output     The {@code BinaryOutput} to write the frame to
+     */
+    public void writeFrame(Connection connection, Packet packet, BinaryOutput output) {
+
+        wroteFrame = true;
+
+        int start = output.size();
+
+        try {
+
+            EncryptionKey encryptionKey = connection.getEncryptionKey();
+
+            if (encryptionKey == null || encryptionKey.getKey() == null) {
+
+                throw new NullPointerException(Localization.getMessage(Localization.ENCRYPTION_KEY_NULL));
+            }
+
+            // The AES-GCM classes are only loaded once the running JVM is known to provide them
+            if (gcmContext == null) {
+
+                if (!EncryptionMode.AES_GCM.isSupported()) {
+
+                    throw new NetworkException(GcmCipherContext.TRANSFORMATION + " is not available in this JVM");
+                }
+
+                gcmContext = new GcmCipherContext(Cipher.ENCRYPT_MODE);
+            }
+
+            plaintext.reset();
+            binaryWriter.writeFrame(connection, packet, plaintext);
+
+            int plaintextLength = plaintext.size() - PacketUtils.BINARY_FRAME_HEADER_LENGTH;
+            int length = GcmCipherContext.NONCE_LENGTH + plaintextLength + GcmCipherContext.TAG_LENGTH;
+
+            output.skip(PacketUtils.BINARY_FRAME_HEADER_LENGTH + length);
+            byte[] array = output.array();
+
+            array[start] = (byte) PacketUtils.ENCRYPTED_FRAME_MARKER;
+            array[start + 1] = (byte) (length >> 24);
+            array[start + 2] = (byte) (length >> 16);
+            array[start + 3] = (byte) (length >> 8);
+            array[start + 4] = (byte) length;
+
+            // The header is authenticated as well, so the frame length cannot be changed
+            gcmContext.encrypt(encryptionKey, array, start, PacketUtils.BINARY_FRAME_HEADER_LENGTH,
+                    plaintext.array(), PacketUtils.BINARY_FRAME_HEADER_LENGTH, plaintextLength,
+                    array, start + PacketUtils.BINARY_FRAME_HEADER_LENGTH);
+
+        } catch (Exception e) {
+
+            Errors.encryptionFailed(listenable, GcmCipherContext.TRANSFORMATION, e);
+
+            output.truncate(start);
+            output.writeUtf8(super.getPacketAsWriteableString(connection, new Packet()));
+            output.writeByte('\n');
+        }
+    }
+
+    /**
+     * Gets all of the errors thrown during the previous {@code Packet} to
+     * {@code String} or frame transformation. This will be empty if
+     * {@code ignoreErrors} flag in the {@code PacketHandlerConfiguration} is
+     * {@code false}.
+     *
+     * @return A {@code Throwable[]} containing all errors thrown during the
+     * previous transformation
+     */
+    @Override
+    public Throwable[] getErrors() {
+
+        return wroteFrame ? binaryWriter.getErrors() : super.getErrors();
+    }
 }
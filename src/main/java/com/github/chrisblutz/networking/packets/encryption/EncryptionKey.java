@@ -2,11 +2,14 @@ package com.github.chrisblutz.networking.packets.encryption;
 
 
 import com.github.chrisblutz.networking.query.Query;
+import com.github.chrisblutz.networking.query.QueryCallback;
+import com.github.chrisblutz.networking.query.QueryFuture;
 import com.github.chrisblutz.networking.query.QueryStatus;
 import com.github.chrisblutz.networking.query.QueryType;
 import com.github.chrisblutz.networking.sockets.Connection;
 
 import java.util.HashMap;
+import java.util.concurrent.ExecutionException;
 
 
 /**
@@ -16,6 +19,7 @@ public class EncryptionKey {
 
     private String key = null;
     private EncryptionKeyResetListener resetListener = null;
+    private volatile int version = 0;
 
     /**
      * Creates a new {@code EncryptionKey} object using the specified key
@@ -39,6 +43,8 @@ public class EncryptionKey {
 
         this.key = key;
         this.resetListener = resetListener;
+
+        version++;
     }
 
     /**
@@ -60,51 +66,82 @@ public class EncryptionKey {
 
         if (resetListener != null) {
 
-            return resetListener.resetKey();
+            boolean reset = resetListener.resetKey();
+
+            // Ciphers created with the old key are rebuilt before the next Packet
+            version++;
+
+            return reset;
         }
 
         return false;
     }
 
     /**
-     * Queries a {@code Connection} to reset its {@code EncryptionKey} (calls the {@code resetKey()} method of the remote {@code EncryptionKey})
+     * Gets the number of times the key has been changed or reset, which is used to
+     * tell when a cached {@code Cipher} has to be created again
+     *
+     * @return The version of the key
+     */
+    int getVersion() {
+
+        return version;
+    }
+
+    /**
+     * Queries a {@code Connection} to reset its {@code EncryptionKey} (calls the {@code resetKey()} method of the remote {@code EncryptionKey}).
+     * This waits for the response without spinning, so it must not be called from the thread that reads from the {@code Connection}.
      *
      * @param c The {@code Connection} to query
      * @return Whether or not the reset was successful
      */
     public static boolean resetEncryptionKey(Connection c) {
 
-        Query query = c.query("reset-enc", QueryType.RESET_ENCRYPTION_KEY, new HashMap<String, Object>());
+        try {
 
-        while (query.isWorking()) ;
+            return Boolean.TRUE.equals(resetEncryptionKeyAsync(c).get());
 
-        if (query.getStatus() == QueryStatus.Status.SUCCESSFUL) {
+        } catch (InterruptedException e) {
 
-            Object obj = query.getValue();
+            Thread.currentThread().interrupt();
 
-            if (obj instanceof Boolean) {
+            return false;
+
+        } catch (ExecutionException e) {
 
-                boolean b = (Boolean) obj;
+            return false;
+        }
+    }
 
-                if (b && c.getEncryptionKey() != null) {
+    /**
+     * Queries a {@code Connection} to reset its {@code EncryptionKey} without waiting for the response.  Once the remote
+     * side has reset its key, the local {@code EncryptionKey} is reset as well and the returned {@code QueryFuture}
+     * completes with {@code true}.
+     *
+     * @param c The {@code Connection} to query
+     * @return A {@code QueryFuture} for the result of the reset query
+     */
+    public static QueryFuture resetEncryptionKeyAsync(final Connection c) {
 
-                    c.getEncryptionKey().resetKey();
+        return c.queryAsync("reset-enc", QueryType.RESET_ENCRYPTION_KEY, new HashMap<String, Object>(), new QueryCallback() {
 
-                    return true;
+            @Override
+            public void onComplete(Query query) {
 
-                } else {
+                Object obj = query.getValue();
 
-                    return false;
-                }
+                if (query.getStatus() == QueryStatus.Status.SUCCESSFUL && Boolean.TRUE.equals(obj)) {
 
-            } else {
+                    if (c.getEncryptionKey() != null) {
 
-                return false;
-            }
+                        c.getEncryptionKey().resetKey();
 
-        } else {
+                    } else {
 
-            return false;
-        }
+                        query.setValue(false);
+                    }
+                }
+            }
+        });
     }
 }
@@ -0,0 +1,66 @@
+package com.github.chrisblutz.networking.packets.encryption;
+
+import javax.crypto.Cipher;
+import java.security.GeneralSecurityException;
+
+
+/**
+ * The ways encrypted {@code Connections} can encrypt {@code Packets}
+ *
+ * @author Christopher Lutz
+ */
+public enum EncryptionMode {
+
+    /**
+     * AES using the provider's default mode, written as a Base64 line of text prefixed
+     * with {@code :ENC:}.  This is understood by every version of this library.
+     */
+    AES,
+    /**
+     * Authenticated AES-GCM with a new nonce for every frame, written as raw ciphertext
+     * in a length-prefixed binary frame.  This is only used once both sides of a
+     * {@code Connection} have agreed on it while connecting.  This needs Java 7 or later;
+     * on older JVMs {@link #isSupported()} returns {@code false} and {@code Connections}
+     * neither offer nor accept it, so they keep using {@code AES}.
+     */
+    AES_GCM;
+
+    private static final boolean GCM_SUPPORTED = checkGcm();
+
+    /**
+     * Checks whether or not this {@code EncryptionMode} is available in the running JVM
+     *
+     * @return Whether or not {@code Packets} can be encrypted with this {@code EncryptionMode}
+     */
+    public boolean isSupported() {
+
+        return this == AES || GCM_SUPPORTED;
+    }
+
+    /**
+     * Checks once whether the running JVM provides AES-GCM, which needs both the
+     * {@code GCMParameterSpec} class and the cipher added in Java 7
+     */
+    private static boolean checkGcm() {
+
+        try {
+
+            Class.forName("javax.crypto.spec.GCMParameterSpec");
+            Cipher.getInstance(GcmCipherContext.TRANSFORMATION);
+
+            return true;
+
+        } catch (ClassNotFoundException e) {
+
+            return false;
+
+        } catch (GeneralSecurityException e) {
+
+            return false;
+
+        } catch (LinkageError e) {
+
+            return false;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.github.chrisblutz.networking.packets.encryption;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+
+
+/**
+ * Holds the AES-GCM {@code Cipher} and key used by an {@code EncryptedPacketWriter}
+ * or {@code EncryptedPacketReader}, creating them again only when the
+ * {@code EncryptionKey} changes.  Every frame is encrypted with its own nonce, made
+ * by combining a random value chosen along with the key with a frame counter, so a
+ * nonce is never used twice with the same key.  A {@code GcmCipherContext} is not
+ * thread-safe and should only be used by the {@code Thread} that owns its writer or
+ * reader.  AES-GCM needs Java 7 or later, so this class is only used once
+ * {@code EncryptionMode.AES_GCM.isSupported()} has returned {@code true}.
+ *
+ * @author Christopher Lutz
+ */
+class GcmCipherContext {
+
+    static final String TRANSFORMATION = "AES/GCM/NoPadding";
+
+    static final int NONCE_LENGTH = 12;
+    static final int TAG_LENGTH = 16;
+
+    private final int mode;
+    private final byte[] nonceBase = new byte[NONCE_LENGTH];
+    private final byte[] nonce = new byte[NONCE_LENGTH];
+
+    private EncryptionKey encryptionKey = null;
+    private int version = -1;
+    private SecretKeySpec keySpec = null;
+    private Cipher cipher = null;
+    private long counter = 0;
+
+    /**
+     * Creates a new {@code GcmCipherContext}
+     *
+     * @param mode {@code Cipher.ENCRYPT_MODE} or {@code Cipher.DECRYPT_MODE}
+     */
+    GcmCipherContext(int mode) {
+
+        this.mode = mode;
+    }
+
+    private void update(EncryptionKey encryptionKey) throws GeneralSecurityException {
+
+        if (cipher == null || encryptionKey != this.encryptionKey || encryptionKey.getVersion() != version) {
+
+            cipher = null;
+
+            keySpec = new SecretKeySpec(encryptionKey.getKey().getBytes(), "AES");
+            Cipher c = Cipher.getInstance(TRANSFORMATION);
+
+            if (mode == Cipher.ENCRYPT_MODE) {
+
+                // A new key starts a new sequence of nonces
+                new SecureRandom().nextBytes(nonceBase);
+                counter = 0;
+            }
+
+            this.encryptionKey = encryptionKey;
+            this.version = encryptionKey.getVersion();
+            this.cipher = c;
+        }
+    }
+
+    /**
+     * Encrypts data, writing the nonce followed by the ciphertext and tag
+     *
+     * @param encryptionKey The {@code EncryptionKey} to use
+     * @param aad           The array containing the additional data to authenticate along with the ciphertext
+     * @param aadOffset     The index of the first byte of additional data
+     * @param aadLength     The number of bytes of additional data
+     * @param in            The array containing the data to encrypt
+     * @param inOffset      The index of the first byte to encrypt
+     * @param inLength      The number of bytes to encrypt
+     * @param out           The array to write to, which must have room for
+     *                      {@code NONCE_LENGTH + inLength + TAG_LENGTH} bytes
+     * @param outOffset     The index to start writing at
+     * @throws GeneralSecurityException If the data could not be encrypted
+     */
+    void encrypt(EncryptionKey encryptionKey, byte[] aad, int aadOffset, int aadLength, byte[] in, int inOffset, int inLength, byte[] out, int outOffset) throws GeneralSecurityException {
+
+        update(encryptionKey);
+
+        long count = counter++;
+
+        System.arraycopy(nonceBase, 0, nonce, 0, NONCE_LENGTH);
+
+        for (int i = 0; i < 8; i++) {
+
+            nonce[NONCE_LENGTH - 1 - i] ^= (byte) (count >>> (i * 8));
+        }
+
+        System.arraycopy(nonce, 0, out, outOffset, NONCE_LENGTH);
+
+        cipher.init(Cipher.ENCRYPT_MODE, keySpec, new GCMParameterSpec(TAG_LENGTH * 8, nonce));
+        cipher.updateAAD(aad, aadOffset, aadLength);
+        cipher.doFinal(in, inOffset, inLength, out, outOffset + NONCE_LENGTH);
+    }
+
+    /**
+     * Decrypts data written by {@code encrypt()}, checking that neither the data nor
+     * the additional data was changed
+     *
+     * @param encryptionKey The {@code EncryptionKey} to use
+     * @param aad           The array containing the additional data that was authenticated along with the ciphertext
+     * @param aadOffset     The index of the first byte of additional data
+     * @param aadLength     The number of bytes of additional data
+     * @param in            The array containing the nonce, ciphertext and tag
+     * @param inOffset      The index of the nonce
+     * @param inLength      The combined length of the nonce, ciphertext and tag
+     * @param out           The array to write to, which must have room for
+     *                      {@code inLength - NONCE_LENGTH - TAG_LENGTH} bytes
+     * @return The number of bytes written to {@code out}
+     * @throws GeneralSecurityException If the data could not be decrypted or was not authentic
+     */
+    int decrypt(EncryptionKey encryptionKey, byte[] aad, int aadOffset, int aadLength, byte[] in, int inOffset, int inLength, byte[] out) throws GeneralSecurityException {
+
+        update(encryptionKey);
+
+        cipher.init(Cipher.DECRYPT_MODE, keySpec, new GCMParameterSpec(TAG_LENGTH * 8, in, inOffset, NONCE_LENGTH));
+        cipher.updateAAD(aad, aadOffset, aadLength);
+
+        return cipher.doFinal(in, inOffset + NONCE_LENGTH, inLength - NONCE_LENGTH, out, 0);
+    }
+}
@@ -30,6 +30,8 @@ public class Localization {
     public static final String GENERIC_FATAL_CONNECTION = "generic_fatal_connection";
     public static final String BRANCHING_NOT_SERVER_SIDE = "branching_not_server_side";
     public static final String BRANCHING_FAILED = "branching_failed";
+    public static final String OUTBOUND_QUEUE_FULL = "outbound_queue_full";
+    public static final String INVALID_NETWORK_MESSAGE = "invalid_network_message";
 
     private static boolean loaded = false;
     private static String locale = null;
@@ -1,6 +1,11 @@
 package com.github.chrisblutz.networking.query;
 
+import com.github.chrisblutz.networking.Listenable;
+
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
 
 
 /**
@@ -10,15 +15,37 @@ import java.util.Map;
  */
 public class Query {
 
-    private QueryStatus.Status status;
-    private String statusMessage;
-    private Object value;
+    private volatile QueryStatus.Status status;
+    private volatile String statusMessage;
+    private volatile Object value;
     private String id;
+    private volatile long correlationId = -1;
     private QueryType type;
     private Map<String, Object> params;
+    private long timeout = 0;
+    private volatile Listenable listenable = null;
+
+    private final CountDownLatch completion = new CountDownLatch(1);
+    private final List<QueryCallback> callbacks = new ArrayList<QueryCallback>();
+    private QueryFuture future = null;
+    private boolean completed = false;
 
     /**
-     * Creates a new {@code Query} of the specified {@code QueryType} using the specified id
+     * Creates a new {@code Query} of the specified {@code QueryType} without an id.  Its id is the
+     * correlation id it is given by the {@code Connection} that sends it.
+     *
+     * @param type   The {@code QueryType} of this query
+     * @param params The parameters for the query
+     */
+    public Query(QueryType type, Map<String, Object> params) {
+
+        this(null, type, params);
+    }
+
+    /**
+     * Creates a new {@code Query} of the specified {@code QueryType} using the specified id.  The id is
+     * only a label for the caller and does not need to be unique, since responses are matched by the
+     * correlation id the {@code Connection} assigns.
      *
      * @param id     The id of the query
      * @param type   The {@code QueryType} of this query
@@ -45,13 +72,118 @@ public class Query {
 
     /**
      * Sets the status of this {@code Query}.  Usually this should be left alone.  It is set by the {@code Connection} when the {@code Query} is completed.
+     * Setting any status other than {@code WORKING} completes the {@code Query}, which releases threads waiting on its {@code QueryFuture} and calls its
+     * {@code QueryCallbacks}.  A {@code Query} can only be completed once.
      *
      * @param status The status to set
      */
     public void setStatus(QueryStatus status) {
 
-        this.status = status.getStatus();
-        this.statusMessage = status.getMessage();
+        List<QueryCallback> toCall;
+
+        synchronized (callbacks) {
+
+            if (completed) {
+
+                return;
+            }
+
+            this.statusMessage = status.getMessage();
+            this.status = status.getStatus();
+
+            if (isWorking()) {
+
+                return;
+            }
+
+            completed = true;
+
+            toCall = new ArrayList<QueryCallback>(callbacks);
+            callbacks.clear();
+        }
+
+        RuntimeException failure = null;
+
+        // Each callback runs on its own, so one that throws cannot stop the others, such as a deadline being cancelled
+        for (QueryCallback callback : toCall) {
+
+            try {
+
+                callback.onComplete(this);
+
+            } catch (RuntimeException e) {
+
+                if (listenable != null) {
+
+                    listenable.report(e);
+
+                } else if (failure == null) {
+
+                    failure = e;
+                }
+            }
+        }
+
+        // Waiting threads see the result after the callbacks have had a chance to act on it
+        completion.countDown();
+
+        // Without a Listenable to report to, the first failure goes to the caller once every callback has run
+        if (failure != null) {
+
+            throw failure;
+        }
+    }
+
+    /**
+     * Gets whether or not this {@code Query} has completed, meaning it succeeded, was rejected or timed out
+     *
+     * @return Whether or not this {@code Query} is complete
+     */
+    public boolean isDone() {
+
+        return completion.getCount() == 0;
+    }
+
+    /**
+     * Adds a {@code QueryCallback} to call when this {@code Query} completes.  If it has already completed, the callback is
+     * called immediately on this thread.  Otherwise it is called by the {@code Connection} thread that completes the
+     * {@code Query}, so it should not block.
+     *
+     * @param callback The {@code QueryCallback} to add
+     */
+    public void addCallback(QueryCallback callback) {
+
+        synchronized (callbacks) {
+
+            if (!completed) {
+
+                callbacks.add(callback);
+
+                return;
+            }
+        }
+
+        callback.onComplete(this);
+    }
+
+    /**
+     * Gets a {@code QueryFuture} that completes along with this {@code Query}
+     *
+     * @return The {@code QueryFuture} for this {@code Query}
+     */
+    public synchronized QueryFuture getFuture() {
+
+        if (future == null) {
+
+            future = new QueryFuture(this);
+        }
+
+        return future;
+    }
+
+    CountDownLatch getCompletion() {
+
+        return completion;
     }
 
     /**
@@ -97,11 +229,44 @@ public class Query {
     /**
      * Gets the id of this {@code Query}
      *
-     * @return The id of this {@code Query}
+     * @return The id this {@code Query} was created with, or its correlation id if it was created without one
      */
     public String getId() {
 
-        return id;
+        return id != null ? id : Long.toString(correlationId);
+    }
+
+    /**
+     * Gets the correlation id of this {@code Query}, which the {@code Connection} uses to match the response
+     * to it.  Correlation ids are unique among the {@code Queries} sent by one {@code Connection}.
+     *
+     * @return The correlation id, or {@code -1} if this {@code Query} has not been sent or received yet
+     */
+    public long getCorrelationId() {
+
+        return correlationId;
+    }
+
+    /**
+     * Sets the correlation id of this {@code Query}.  This is set by the {@code Connection} when the
+     * {@code Query} is sent or received.
+     *
+     * @param correlationId The correlation id to set
+     */
+    public void setCorrelationId(long correlationId) {
+
+        this.correlationId = correlationId;
+    }
+
+    /**
+     * Sets the {@code Listenable} that errors thrown by the {@code QueryCallbacks} of this {@code Query} are
+     * reported to.  This is set by the {@code Connection} when the {@code Query} is sent.
+     *
+     * @param listenable The {@code Listenable} to report errors to
+     */
+    public void setListenable(Listenable listenable) {
+
+        this.listenable = listenable;
     }
 
     /**
@@ -114,6 +279,26 @@ public class Query {
         return type;
     }
 
+    /**
+     * Sets how long this {@code Query} waits for a response before it times out.  This is set by the {@code Connection} when the {@code Query} is sent.
+     *
+     * @param timeout The timeout in milliseconds, or {@code 0} if the {@code Query} only times out along with its {@code Connection}
+     */
+    public void setTimeout(long timeout) {
+
+        this.timeout = timeout;
+    }
+
+    /**
+     * Gets how long this {@code Query} waits for a response before it times out
+     *
+     * @return The timeout in milliseconds, or {@code 0} if the {@code Query} only times out along with its {@code Connection}
+     */
+    public long getTimeout() {
+
+        return timeout;
+    }
+
     public Map<String, Object> getParameters() {
 
         return params;
@@ -0,0 +1,187 @@
+package com.github.chrisblutz.networking.query;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * Caches the responses of one {@code QueryType} following its {@code QueryCachePolicy}.
+ * Responses expire once they are older than the time to live of the policy, and the
+ * least recently used response is evicted once the cache holds the maximum number of
+ * entries.  A {@code Server} or {@code Client} keeps a {@code QueryCache} for each cached
+ * {@code QueryType}, shared by all of its {@code Connections}.
+ *
+ * @author Christopher Lutz
+ */
+public class QueryCache {
+
+    private final QueryCachePolicy policy;
+    private final long ttlNanos;
+
+    private final Map<Object, CachedResponse> entries;
+
+    private final AtomicLong hits = new AtomicLong(0);
+    private final AtomicLong misses = new AtomicLong(0);
+
+    /**
+     * Creates a new, empty {@code QueryCache} following the specified {@code QueryCachePolicy}
+     *
+     * @param policy The {@code QueryCachePolicy} to follow
+     */
+    public QueryCache(QueryCachePolicy policy) {
+
+        this.policy = policy;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(policy.getTimeToLive());
+        this.entries = new LruMap(policy.getMaxEntries());
+    }
+
+    /**
+     * Gets the {@code QueryCachePolicy} followed by this {@code QueryCache}
+     *
+     * @return The {@code QueryCachePolicy} of this cache
+     */
+    public QueryCachePolicy getPolicy() {
+
+        return policy;
+    }
+
+    /**
+     * Gets the key that the result of a {@code Query} with the specified parameters is cached under
+     *
+     * @param params The parameters of the {@code Query}
+     * @return The key created by the {@code KeyGenerator} of the policy
+     */
+    public Object getKey(Map<String, Object> params) {
+
+        return policy.getKeyGenerator().getKey(params);
+    }
+
+    /**
+     * Gets a cached response, counting a hit if there is one that has not expired and a miss otherwise
+     *
+     * @param key The key the response was cached under
+     * @return The cached {@code QueryResponse}, or {@code null} if there is none
+     */
+    public QueryResponse get(Object key) {
+
+        CachedResponse entry;
+
+        synchronized (entries) {
+
+            entry = entries.get(key);
+
+            if (entry != null && ttlNanos > 0 && System.nanoTime() - entry.created >= ttlNanos) {
+
+                entries.remove(key);
+                entry = null;
+            }
+        }
+
+        if (entry == null) {
+
+            misses.incrementAndGet();
+
+            return null;
+        }
+
+        hits.incrementAndGet();
+
+        return entry.response;
+    }
+
+    /**
+     * Caches a response, evicting the least recently used one if the cache is full
+     *
+     * @param key      The key to cache the response under
+     * @param response The {@code QueryResponse} to cache
+     */
+    public void put(Object key, QueryResponse response) {
+
+        synchronized (entries) {
+
+            entries.put(key, new CachedResponse(response, System.nanoTime()));
+        }
+    }
+
+    /**
+     * Removes all cached responses
+     */
+    public void clear() {
+
+        synchronized (entries) {
+
+            entries.clear();
+        }
+    }
+
+    /**
+     * Gets the number of cached responses, including ones that have expired but have not been looked up since
+     *
+     * @return The number of cached responses
+     */
+    public int size() {
+
+        synchronized (entries) {
+
+            return entries.size();
+        }
+    }
+
+    /**
+     * Gets the number of {@code Queries} that were answered from this cache
+     *
+     * @return The number of cache hits
+     */
+    public long getHitCount() {
+
+        return hits.get();
+    }
+
+    /**
+     * Gets the number of {@code Queries} that had to run the {@code QueryListener}
+     *
+     * @return The number of cache misses
+     */
+    public long getMissCount() {
+
+        return misses.get();
+    }
+
+    /**
+     * A {@code LinkedHashMap} in access order, which keeps the least recently used entry first
+     * and evicts it once the map holds more than the maximum number of entries
+     */
+    private static final class LruMap extends LinkedHashMap<Object, CachedResponse> {
+
+        private static final long serialVersionUID = -6413785127630584291L;
+
+        private final int maxEntries;
+
+        private LruMap(int maxEntries) {
+
+            super(16, 0.75f, true);
+
+            this.maxEntries = maxEntries;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Object, CachedResponse> eldest) {
+
+            return size() > maxEntries;
+        }
+    }
+
+    private static final class CachedResponse {
+
+        private final QueryResponse response;
+        private final long created;
+
+        private CachedResponse(QueryResponse response, long created) {
+
+            this.response = response;
+            this.created = created;
+        }
+    }
+}
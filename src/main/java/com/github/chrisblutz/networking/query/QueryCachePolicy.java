@@ -0,0 +1,183 @@
+package com.github.chrisblutz.networking.query;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * The {@code QueryCachePolicy} class allows the results of a {@code QueryType} to be cached,
+ * so {@code Queries} with the same parameters are answered without running its
+ * {@code QueryListener} again.  This should only be used for {@code QueryTypes} whose results
+ * do not depend on which {@code Connection} asked and can be slightly out of date.
+ *
+ * @author Christopher Lutz
+ */
+public class QueryCachePolicy {
+
+    /**
+     * This interface is used to turn the parameters of a {@code Query} into the key its result is cached under
+     */
+    public interface KeyGenerator {
+
+        /**
+         * This method is called when a {@code Query} is received to decide which cached result answers it
+         *
+         * @param params The parameters of the {@code Query}
+         * @return The key to cache the result under, which must implement {@code equals()} and {@code hashCode()}
+         */
+        Object getKey(Map<String, Object> params);
+    }
+
+    /**
+     * This {@code KeyGenerator} caches a result for every distinct set of parameters.  Array values, including primitive
+     * arrays and arrays inside {@code Lists} and {@code Maps}, are compared by their contents.
+     */
+    public static final KeyGenerator PARAMETERS = new KeyGenerator() {
+
+        @Override
+        public Object getKey(Map<String, Object> params) {
+
+            Map<String, Object> key = new HashMap<String, Object>();
+
+            if (params != null) {
+
+                for (Map.Entry<String, Object> param : params.entrySet()) {
+
+                    key.put(param.getKey(), toKey(param.getValue()));
+                }
+            }
+
+            return key;
+        }
+    };
+
+    private long ttl;
+    private int maxEntries;
+    private KeyGenerator generator;
+
+    /**
+     * Creates a new {@code QueryCachePolicy} that caches a result for every distinct set of parameters
+     *
+     * @param ttl        The number of milliseconds a result is served for, or {@code 0} to keep it until it is evicted
+     * @param maxEntries The number of results to keep before the least recently used one is evicted
+     */
+    public QueryCachePolicy(long ttl, int maxEntries) {
+
+        this(ttl, maxEntries, PARAMETERS);
+    }
+
+    /**
+     * Creates a new {@code QueryCachePolicy} that caches results under the keys created by a {@code KeyGenerator}
+     *
+     * @param ttl        The number of milliseconds a result is served for, or {@code 0} to keep it until it is evicted
+     * @param maxEntries The number of results to keep before the least recently used one is evicted
+     * @param generator  The {@code KeyGenerator} to use to decide which cached result answers a {@code Query}
+     */
+    public QueryCachePolicy(long ttl, int maxEntries, KeyGenerator generator) {
+
+        this.ttl = Math.max(0, ttl);
+        this.maxEntries = Math.max(1, maxEntries);
+        this.generator = generator != null ? generator : PARAMETERS;
+    }
+
+    /**
+     * Retrieves the number of milliseconds a result is served for
+     *
+     * @return The time to live of cached results, or {@code 0} if they are kept until they are evicted
+     */
+    public long getTimeToLive() {
+
+        return ttl;
+    }
+
+    /**
+     * Retrieves the number of results kept before the least recently used one is evicted
+     *
+     * @return The maximum number of cached results
+     */
+    public int getMaxEntries() {
+
+        return maxEntries;
+    }
+
+    /**
+     * Retrieves the {@code KeyGenerator} used to decide which cached result answers a {@code Query}
+     *
+     * @return The {@code KeyGenerator} associated with this {@code QueryCachePolicy}
+     */
+    public KeyGenerator getKeyGenerator() {
+
+        return generator;
+    }
+
+    /**
+     * Turns a parameter value into one that is equal to every value with the same contents, since arrays
+     * (including those inside {@code Lists} and {@code Maps}) are otherwise only equal to themselves
+     */
+    private static Object toKey(Object value) {
+
+        if (value == null) {
+
+            return null;
+
+        } else if (value.getClass().isArray()) {
+
+            return new ArrayKey(value);
+
+        } else if (value instanceof List) {
+
+            List<Object> list = new ArrayList<Object>();
+
+            for (Object o : (List<?>) value) {
+
+                list.add(toKey(o));
+            }
+
+            return list;
+
+        } else if (value instanceof Map) {
+
+            Map<Object, Object> map = new HashMap<Object, Object>();
+
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+
+                map.put(entry.getKey(), toKey(entry.getValue()));
+            }
+
+            return map;
+        }
+
+        return value;
+    }
+
+    /**
+     * Wraps an array of any type so that it is compared by its contents, following {@code Arrays.deepEquals()}
+     */
+    private static final class ArrayKey {
+
+        private final Object[] array;
+        private final int hash;
+
+        private ArrayKey(Object array) {
+
+            // Wrapping lets deepEquals() and deepHashCode() handle primitive arrays as well
+            this.array = new Object[]{array};
+            this.hash = Arrays.deepHashCode(this.array);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+
+            return o instanceof ArrayKey && Arrays.deepEquals(array, ((ArrayKey) o).array);
+        }
+
+        @Override
+        public int hashCode() {
+
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.github.chrisblutz.networking.query;
+
+/**
+ * A listener interface for reacting to a {@code Query} completing, without waiting for it
+ *
+ * @author Christopher Lutz
+ */
+public interface QueryCallback {
+
+    /**
+     * Called once the {@code Query} has succeeded, been rejected or timed out.  Its status, status message
+     * and value can be read from the {@code Query}.
+     *
+     * @param query The {@code Query} that completed
+     */
+    void onComplete(Query query);
+}
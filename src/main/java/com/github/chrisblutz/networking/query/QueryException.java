@@ -0,0 +1,39 @@
+package com.github.chrisblutz.networking.query;
+
+import com.github.chrisblutz.networking.exceptions.NetworkException;
+
+
+/**
+ * Thrown (as the cause of an {@code ExecutionException}) by a {@code QueryFuture}
+ * whose {@code Query} was rejected or timed out
+ *
+ * @author Christopher Lutz
+ */
+public class QueryException extends NetworkException {
+
+    private static final long serialVersionUID = 4186903524451870326L;
+
+    private final transient Query query;
+
+    /**
+     * Creates a new {@code QueryException} for the specified {@code Query}
+     *
+     * @param query The {@code Query} that failed
+     */
+    public QueryException(Query query) {
+
+        super("Query '" + query.getId() + "' " + (query.getStatus() == QueryStatus.Status.REJECTED ? "was rejected" : "timed out") + ": " + query.getStatusMessage());
+
+        this.query = query;
+    }
+
+    /**
+     * Gets the {@code Query} that failed
+     *
+     * @return The failed {@code Query}
+     */
+    public Query getQuery() {
+
+        return query;
+    }
+}
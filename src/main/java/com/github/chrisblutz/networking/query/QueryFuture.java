@@ -0,0 +1,121 @@
+package com.github.chrisblutz.networking.query;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+
+/**
+ * A {@code Future} for the result of a {@code Query}.  Threads waiting on it are
+ * released by the {@code Connection} as soon as the response arrives, the
+ * {@code Query} is rejected, or it times out, so waiting never spins.
+ * {@code QueryCallbacks} can be added to react to the result without waiting at all.
+ *
+ * @author Christopher Lutz
+ */
+public class QueryFuture implements Future<Object> {
+
+    private final Query query;
+
+    QueryFuture(Query query) {
+
+        this.query = query;
+    }
+
+    /**
+     * Gets the {@code Query} this {@code QueryFuture} completes with
+     *
+     * @return The {@code Query}
+     */
+    public Query getQuery() {
+
+        return query;
+    }
+
+    /**
+     * Adds a {@code QueryCallback} to call when the {@code Query} completes
+     *
+     * @param callback The {@code QueryCallback} to add
+     * @return This {@code QueryFuture}
+     * @see Query#addCallback(QueryCallback)
+     */
+    public QueryFuture addCallback(QueryCallback callback) {
+
+        query.addCallback(callback);
+
+        return this;
+    }
+
+    /**
+     * A {@code Query} cannot be withdrawn once it has been queued, so this always returns {@code false}
+     *
+     * @param mayInterruptIfRunning Ignored
+     * @return {@code false}
+     */
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+
+        return false;
+    }
+
+    @Override
+    public boolean isCancelled() {
+
+        return false;
+    }
+
+    @Override
+    public boolean isDone() {
+
+        return query.isDone();
+    }
+
+    /**
+     * Waits for the {@code Query} to complete and returns its value
+     *
+     * @return The value of the {@code Query}
+     * @throws InterruptedException If the thread was interrupted while waiting
+     * @throws ExecutionException   If the {@code Query} was rejected or timed out, with a {@code QueryException} as its cause
+     */
+    @Override
+    public Object get() throws InterruptedException, ExecutionException {
+
+        query.getCompletion().await();
+
+        return getValue();
+    }
+
+    /**
+     * Waits up to the specified time for the {@code Query} to complete and returns its value
+     *
+     * @param timeout The maximum time to wait
+     * @param unit    The unit of the timeout
+     * @return The value of the {@code Query}
+     * @throws InterruptedException If the thread was interrupted while waiting
+     * @throws ExecutionException   If the {@code Query} was rejected or timed out, with a {@code QueryException} as its cause
+     * @throws TimeoutException     If the {@code Query} did not complete in time
+     */
+    @Override
+    public Object get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+
+        if (!query.getCompletion().await(timeout, unit)) {
+
+            throw new TimeoutException("Query '" + query.getId() + "' did not complete in time!");
+        }
+
+        return getValue();
+    }
+
+    private Object getValue() throws ExecutionException {
+
+        if (query.getStatus() == QueryStatus.Status.SUCCESSFUL) {
+
+            return query.getValue();
+
+        } else {
+
+            throw new ExecutionException(new QueryException(query));
+        }
+    }
+}
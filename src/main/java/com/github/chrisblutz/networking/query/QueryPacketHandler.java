@@ -3,84 +3,146 @@ package com.github.chrisblutz.networking.query;
 import com.github.chrisblutz.networking.exceptions.Errors;
 import com.github.chrisblutz.networking.exceptions.NetworkException;
 import com.github.chrisblutz.networking.packets.Packet;
-import com.github.chrisblutz.networking.packets.PacketUtils;
-import com.github.chrisblutz.networking.packets.datatypes.DataType;
+import com.github.chrisblutz.networking.packets.binary.BinaryInput;
+import com.github.chrisblutz.networking.packets.binary.BinaryOutput;
 import com.github.chrisblutz.networking.packets.datatypes.DataTypes;
+import com.github.chrisblutz.networking.packets.datatypes.TextInput;
+import com.github.chrisblutz.networking.packets.datatypes.wrappers.Null;
 
 import java.util.HashMap;
 import java.util.Map;
 
 
 /**
+ * Reads and writes the requests of {@code Queries}.  A request only holds the correlation id,
+ * {@code QueryType} and parameters of its {@code Query}.
+ *
  * @author Christopher Lutz
  */
 public class QueryPacketHandler {
 
+    /**
+     * Writes the text form of the request of a {@code Query}.  The correlation id is
+     * written in decimal followed by a {@code ':'}, the {@code QueryType} id and the parameter keys are prefixed with their length and the parameter values
+     * are written by {@code DataTypes.appendValue()}, so values of any type, including
+     * nested {@code Maps} and {@code Lists}, are written without escaping.
+     *
+     * @param query The {@code Query} to write
+     * @return The text form of the request
+     */
     public static String write(Query query) {
 
-        String queryString = query.getId().replace(",", PacketUtils.COMMA_ESCAPE) + "," + query.getType().getId().replace(",", PacketUtils.COMMA_ESCAPE);
-
+        StringBuilder builder = new StringBuilder();
         Map<String, Object> params = query.getParameters();
 
-        for (int i = 0; i < params.keySet().size(); i++) {
-
-            String key = params.keySet().toArray(new String[params.keySet().size()])[i];
-            Object value = params.get(key);
-
-            DataType type = DataTypes.getDataType(value.getClass());
-
-            if (type != null) {
+        builder.append(query.getCorrelationId()).append(':');
+        DataTypes.appendString(query.getType().getId(), builder);
 
-                queryString += "," + DataTypes.writeType(type, key, value);
+        if (params != null) {
 
-            } else {
+            for (Map.Entry<String, Object> param : params.entrySet()) {
 
-                Errors.missingDataType("class", value.getClass().getName(), new NetworkException(""));
+                DataTypes.appendString(param.getKey(), builder);
+                DataTypes.appendValue(param.getValue(), builder);
             }
         }
 
-        return queryString;
+        return builder.toString();
     }
 
+    /**
+     * Reads a request written by {@code write()}
+     *
+     * @param queryStr The text form of the request
+     * @return The {@code Query} read, or {@code null} if its {@code QueryType} is unknown
+     */
     public static Query read(String queryStr) {
 
+        TextInput input = new TextInput(queryStr);
+
+        long correlationId = input.readLong();
+        String typeId = input.readString();
+        QueryType type = QueryType.getType(typeId);
+
         Map<String, Object> params = new HashMap<String, Object>();
 
-        String[] lines = queryStr.split(",");
+        while (input.hasRemaining()) {
 
-        if (lines.length >= 2) {
+            params.put(input.readString(), input.readValue());
+        }
 
-            String queryId = lines[0].replace(PacketUtils.COMMA_ESCAPE, ",");
-            String typeId = lines[1].replace(PacketUtils.COMMA_ESCAPE, ",");
-            QueryType type = QueryType.getType(typeId);
+        if (type == null) {
 
-            if (!queryId.contentEquals("") && QueryType.getType(typeId) != null) {
+            Errors.malformedQuery(Long.toString(correlationId), typeId, new NetworkException(""));
 
-                for (int i = 2; i < lines.length; i++) {
+            return null;
+        }
+
+        return readQuery(type, params, correlationId);
+    }
 
-                    String line = lines[i].replace(PacketUtils.COMMA_ESCAPE, ",");
+    /**
+     * Writes the binary form of the request of a {@code Query}, starting with its correlation id as a varint
+     *
+     * @param query  The {@code Query} to write
+     * @param output The {@code BinaryOutput} to write to
+     */
+    public static void writeBinary(Query query, BinaryOutput output) {
 
-                    DataType dataType = DataTypes.readType(line);
-                    Packet.PacketData data = DataTypes.readValue(dataType, line);
+        Map<String, Object> params = query.getParameters();
 
-                    if (data != null) {
+        output.writeVarint(query.getCorrelationId());
+        output.writeString(query.getType().getId());
+        output.writeVarint(params != null ? params.size() : 0);
 
-                        params.put(data.getKey(), data.getValue());
-                    }
-                }
+        if (params != null) {
 
-                return new Query(queryId, type, params);
+            for (Map.Entry<String, Object> param : params.entrySet()) {
 
-            } else {
+                Object value = param.getValue();
 
-                Errors.malformedQuery(queryId, (type != null ? type.getId() : "null"), new NetworkException(""));
+                DataTypes.writeBinary(DataTypes.getDataType(value != null ? value.getClass() : Null.class), param.getKey(), value != null ? value : new Null(), output);
             }
+        }
+    }
 
-        } else {
+    /**
+     * Reads a request written by {@code writeBinary()}
+     *
+     * @param input The {@code BinaryInput} to read from
+     * @return The {@code Query} read, or {@code null} if its {@code QueryType} is unknown
+     */
+    public static Query readBinary(BinaryInput input) {
 
-            Errors.malformedQuery("null", "null", new NetworkException(""));
+        long correlationId = input.readVarint();
+        String typeId = input.readString();
+        QueryType type = QueryType.getType(typeId);
+
+        int count = input.readLength();
+        Map<String, Object> params = new HashMap<String, Object>();
+
+        for (int i = 0; i < count; i++) {
+
+            Packet.PacketData data = DataTypes.readBinary(input);
+
+            params.put(data.getKey(), data.getValue());
         }
 
-        return null;
+        if (type == null) {
+
+            Errors.malformedQuery(Long.toString(correlationId), typeId, new NetworkException(""));
+
+            return null;
+        }
+
+        return readQuery(type, params, correlationId);
+    }
+
+    private static Query readQuery(QueryType type, Map<String, Object> params, long correlationId) {
+
+        Query q = new Query(type, params);
+        q.setCorrelationId(correlationId);
+
+        return q;
     }
 }
@@ -0,0 +1,22 @@
+package com.github.chrisblutz.networking.query;
+
+/**
+ * The ways a {@code Connection} can handle a {@code Query} it receives while the
+ * query executor of its {@code Server} or {@code Client} cannot take any more work
+ *
+ * @author Christopher Lutz
+ */
+public enum QueryRejectionPolicy {
+
+    /**
+     * The policy used to answer the {@code Query} as rejected straight away, so the
+     * remote side gets a {@code REJECTED} status instead of waiting
+     */
+    REJECT,
+    /**
+     * The policy used to run the {@code QueryListener} on the {@code Thread} that
+     * received the {@code Query}, which stops the {@code Connection} from reading
+     * until it finishes
+     */
+    CALLER_RUNS;
+}
@@ -0,0 +1,96 @@
+package com.github.chrisblutz.networking.query;
+
+/**
+ * The response to a {@code Query}, sent back across a {@code Connection} along with the
+ * correlation id of the {@code Query}.  A response either carries the result of the
+ * {@code QueryListener} or the reason the {@code Query} was rejected.
+ *
+ * @author Christopher Lutz
+ */
+public final class QueryResponse {
+
+    private final Object value;
+    private final String rejectionMessage;
+    private final long correlationId;
+
+    /**
+     * Creates a new {@code QueryResponse} carrying the result of a {@code Query}
+     *
+     * @param value The result of the {@code Query}
+     */
+    public QueryResponse(Object value) {
+
+        this(value, null, -1);
+    }
+
+    private QueryResponse(Object value, String rejectionMessage, long correlationId) {
+
+        this.value = value;
+        this.rejectionMessage = rejectionMessage;
+        this.correlationId = correlationId;
+    }
+
+    /**
+     * Creates a new {@code QueryResponse} that rejects a {@code Query}
+     *
+     * @param message The reason the {@code Query} was rejected
+     * @return The {@code QueryResponse} rejecting the {@code Query}
+     */
+    public static QueryResponse rejected(String message) {
+
+        return new QueryResponse(null, message != null ? message : "", -1);
+    }
+
+    /**
+     * Creates a copy of this {@code QueryResponse} that answers the {@code Query} with the
+     * specified correlation id.  {@code QueryResponses} are never changed, so the same one can
+     * be cached and sent to many {@code Queries}.
+     *
+     * @param correlationId The correlation id of the {@code Query} being answered
+     * @return The {@code QueryResponse} for that {@code Query}
+     */
+    public QueryResponse withCorrelationId(long correlationId) {
+
+        return new QueryResponse(value, rejectionMessage, correlationId);
+    }
+
+    /**
+     * Gets the correlation id of the {@code Query} this {@code QueryResponse} answers
+     *
+     * @return The correlation id, or {@code -1} if it has not been set
+     */
+    public long getCorrelationId() {
+
+        return correlationId;
+    }
+
+    /**
+     * Gets whether or not this {@code QueryResponse} rejects the {@code Query}
+     *
+     * @return Whether or not the {@code Query} was rejected
+     */
+    public boolean isRejected() {
+
+        return rejectionMessage != null;
+    }
+
+    /**
+     * Gets the result of the {@code Query}
+     *
+     * @return The result, or {@code null} if the {@code Query} was rejected
+     */
+    public Object getValue() {
+
+        return value;
+    }
+
+    /**
+     * Gets the reason the {@code Query} was rejected
+     *
+     * @return The rejection message, or {@code null} if the {@code Query} was not rejected
+     */
+    public String getRejectionMessage() {
+
+        return rejectionMessage;
+    }
+}
@@ -100,11 +100,13 @@ public class QueryType {
 
     private String id;
     private QueryListener listener;
+    private volatile QueryCachePolicy cachePolicy;
 
-    private QueryType(String id, QueryListener listener) {
+    private QueryType(String id, QueryListener listener, QueryCachePolicy cachePolicy) {
 
         this.id = id;
         this.listener = listener;
+        this.cachePolicy = cachePolicy;
     }
 
     /**
@@ -117,6 +119,28 @@ public class QueryType {
         return id;
     }
 
+    /**
+     * Gets the {@code QueryCachePolicy} of this {@code QueryType}
+     *
+     * @return The {@code QueryCachePolicy} used to cache results, or {@code null} if results are not cached
+     */
+    public QueryCachePolicy getCachePolicy() {
+
+        return cachePolicy;
+    }
+
+    /**
+     * Sets the {@code QueryCachePolicy} of this {@code QueryType}.  This allows the results of existing {@code QueryTypes},
+     * such as {@code CONNECTED_IPS}, to be cached.  {@code Servers} and {@code Clients} that already cached results of this
+     * {@code QueryType} keep using the policy they started with.
+     *
+     * @param cachePolicy The {@code QueryCachePolicy} to use, or {@code null} to stop caching results
+     */
+    public void setCachePolicy(QueryCachePolicy cachePolicy) {
+
+        this.cachePolicy = cachePolicy;
+    }
+
     /**
      * Executes a query on this {@code QueryType}
      *
@@ -139,11 +163,26 @@ public class QueryType {
      */
     public static QueryType createQueryType(String id, QueryListener listener) {
 
+        return createQueryType(id, listener, null);
+    }
+
+    /**
+     * Creates a new {@code QueryType} with the specified ID and {@code QueryListener} whose results are cached following
+     * the specified {@code QueryCachePolicy}.  Cached results are sent by the {@code Connection} without calling the
+     * {@code QueryListener}.
+     *
+     * @param id          The ID to use for this {@code QueryType}
+     * @param listener    The {@code QueryListener} to use when a {@code Connection} receives a query for this {@code QueryType}
+     * @param cachePolicy The {@code QueryCachePolicy} to use, or {@code null} to not cache results
+     * @return The {@code QueryType} created with the specified ID and {@code QueryListener}
+     */
+    public static QueryType createQueryType(String id, QueryListener listener, QueryCachePolicy cachePolicy) {
+
         if (!types.
                 containsKey(
                         id)) {
 
-            types.put(id, new QueryType(id, listener));
+            types.put(id, new QueryType(id, listener, cachePolicy));
         }
 
         return types.get(id);
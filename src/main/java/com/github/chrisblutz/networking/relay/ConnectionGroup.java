@@ -1,6 +1,7 @@
 package com.github.chrisblutz.networking.relay;
 
 import com.github.chrisblutz.networking.packets.Packet;
+import com.github.chrisblutz.networking.sockets.Broadcast;
 import com.github.chrisblutz.networking.sockets.Connection;
 
 import java.util.ArrayList;
@@ -103,11 +104,23 @@ public class ConnectionGroup implements Iterable<Connection> {
      */
     public void sendPacket(Connection sender, Packet data) {
 
+        sendPacket(sender, new Broadcast(data));
+    }
+
+    /**
+     * Sends a {@code Broadcast} to all {@code Connections} in the group except
+     * the sender, encoding its {@code Packet} once for all of them
+     *
+     * @param sender    The {@code Connection} that sent this {@code Packet}
+     * @param broadcast The {@code Broadcast} to send
+     */
+    public void sendPacket(Connection sender, Broadcast broadcast) {
+
         for (Connection c : connections) {
 
             if (c != sender) {
 
-                c.sendPacket(data, false);
+                broadcast.sendTo(c, false);
             }
         }
     }
@@ -134,13 +147,15 @@ public class ConnectionGroup implements Iterable<Connection> {
     public static void sendPacket(Connection sender, Packet data,
                                   ConnectionGroup[] groups) {
 
+        Broadcast broadcast = new Broadcast(data);
+
         for (ConnectionGroup g : groups) {
 
             if (g != null) {
 
                 if (g.containsConnection(sender)) {
 
-                    g.sendPacket(sender, data);
+                    g.sendPacket(sender, broadcast);
                 }
             }
         }
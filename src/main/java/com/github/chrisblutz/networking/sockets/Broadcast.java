@@ -0,0 +1,113 @@
+package com.github.chrisblutz.networking.sockets;
+
+import com.github.chrisblutz.networking.packets.Codec;
+import com.github.chrisblutz.networking.packets.Packet;
+import com.github.chrisblutz.networking.packets.PacketWriter;
+import com.github.chrisblutz.networking.packets.binary.BinaryOutput;
+import com.github.chrisblutz.networking.packets.binary.BinaryPacketWriter;
+import com.github.chrisblutz.networking.packets.encryption.EncryptedPacketWriter;
+import com.github.chrisblutz.networking.packets.encryption.EncryptionMode;
+
+import java.util.HashMap;
+import java.util.Map;
+
+
+/**
+ * A {@code Packet} that is sent to many {@code Connections} at once.  Instead of
+ * every {@code Connection} encoding the {@code Packet} again, it is encoded once
+ * for each form it takes on the wire (text, binary, or encrypted with a particular
+ * key and {@code EncryptionMode}), and the resulting frame is shared by all
+ * {@code Connections} using that form.
+ *
+ * @author Christopher Lutz
+ */
+public class Broadcast {
+
+    private final Packet packet;
+
+    private final Map<String, EncodedPacket> frames = new HashMap<String, EncodedPacket>();
+
+    private final BinaryOutput output = new BinaryOutput();
+    private final StringBuilder text = new StringBuilder();
+    private final PacketWriter packetWriter = new PacketWriter();
+    private final BinaryPacketWriter binaryWriter = new BinaryPacketWriter();
+    private final EncryptedPacketWriter encryptedWriter = new EncryptedPacketWriter();
+
+    /**
+     * Creates a new {@code Broadcast} of the specified {@code Packet}.  The
+     * {@code Packet} should not be changed while it is being sent.
+     *
+     * @param packet The {@code Packet} to send
+     */
+    public Broadcast(Packet packet) {
+
+        if (packet.isEmpty()) {
+
+            packet.putData(Packet.EMPTY_PACKET);
+        }
+
+        this.packet = packet;
+    }
+
+    /**
+     * Gets the {@code Packet} sent by this {@code Broadcast}
+     *
+     * @return The {@code Packet} being sent
+     */
+    public Packet getPacket() {
+
+        return packet;
+    }
+
+    /**
+     * Queues this {@code Broadcast} on a {@code Connection}, encoding it only if no
+     * other {@code Connection} has needed the same form yet
+     *
+     * @param connection     The {@code Connection} to send the {@code Packet} across
+     * @param expectResponse Whether or not the {@code Connection} should wait for a
+     *                       response
+     */
+    public void sendTo(Connection connection, boolean expectResponse) {
+
+        connection.sendEncodedPacket(getFrame(connection), expectResponse);
+    }
+
+    /**
+     * Gets the number of different frames this {@code Broadcast} has been encoded into
+     *
+     * @return The number of times the {@code Packet} was encoded
+     */
+    public synchronized int getEncodeCount() {
+
+        return frames.size();
+    }
+
+    private synchronized EncodedPacket getFrame(Connection connection) {
+
+        String form;
+        Codec codec = connection.getCodec();
+        EncryptionMode encryptionMode = connection.getEncryptionMode();
+
+        if (connection.getEncrypted()) {
+
+            form = ":ENC:" + encryptionMode.name() + ":" + (connection.getEncryptionKey() != null ? connection.getEncryptionKey().getKey() : null);
+
+        } else {
+
+            form = codec.name();
+        }
+
+        EncodedPacket frame = frames.get(form);
+
+        if (frame == null) {
+
+            output.reset();
+            connection.encodePacket(packet, codec, encryptionMode, output, text, packetWriter, binaryWriter, encryptedWriter);
+
+            frame = new EncodedPacket(output.toByteArray());
+            frames.put(form, frame);
+        }
+
+        return frame;
+    }
+}
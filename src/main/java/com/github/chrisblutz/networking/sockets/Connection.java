@@ -1,5 +1,6 @@
 package com.github.chrisblutz.networking.sockets;
 
+import com.github.chrisblutz.networking.Client;
 import com.github.chrisblutz.networking.ClientListenable;
 import com.github.chrisblutz.networking.Listenable;
 import com.github.chrisblutz.networking.Server;
@@ -8,30 +9,58 @@ import com.github.chrisblutz.networking.exceptions.Errors;
 import com.github.chrisblutz.networking.exceptions.NetworkException;
 import com.github.chrisblutz.networking.listeners.branching.BranchRegistry;
 import com.github.chrisblutz.networking.listeners.branching.BranchingServerListener;
+import com.github.chrisblutz.networking.messages.NetworkMessages;
+import com.github.chrisblutz.networking.packets.Codec;
 import com.github.chrisblutz.networking.packets.Packet;
 import com.github.chrisblutz.networking.packets.PacketReader;
 import com.github.chrisblutz.networking.packets.PacketUtils;
 import com.github.chrisblutz.networking.packets.PacketWriter;
+import com.github.chrisblutz.networking.packets.binary.BinaryOutput;
+import com.github.chrisblutz.networking.packets.binary.BinaryPacketReader;
+import com.github.chrisblutz.networking.packets.binary.BinaryPacketWriter;
+import com.github.chrisblutz.networking.packets.binary.KeyDictionary;
 import com.github.chrisblutz.networking.packets.encryption.EncryptedPacketReader;
 import com.github.chrisblutz.networking.packets.encryption.EncryptedPacketWriter;
 import com.github.chrisblutz.networking.packets.encryption.EncryptionKey;
+import com.github.chrisblutz.networking.packets.encryption.EncryptionMode;
 import com.github.chrisblutz.networking.query.Query;
+import com.github.chrisblutz.networking.query.QueryCache;
+import com.github.chrisblutz.networking.query.QueryCallback;
+import com.github.chrisblutz.networking.query.QueryFuture;
 import com.github.chrisblutz.networking.query.QueryPolicy;
+import com.github.chrisblutz.networking.query.QueryRejectionPolicy;
+import com.github.chrisblutz.networking.query.QueryResponse;
 import com.github.chrisblutz.networking.query.QueryStatus;
 import com.github.chrisblutz.networking.query.QueryType;
 import com.github.chrisblutz.networking.states.State;
 import com.github.chrisblutz.networking.utils.PacketKeys;
 
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLSession;
+import javax.net.ssl.SSLSocket;
 import java.io.*;
 import java.lang.Thread.UncaughtExceptionHandler;
 import java.net.InetAddress;
 import java.net.Socket;
 import java.net.SocketException;
 import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.Charset;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 
 /**
@@ -41,24 +70,89 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 public class Connection {
 
+    /**
+     * The number of {@code Packets} a {@code Connection} queues by default before its {@code OverflowPolicy} is applied
+     */
+    public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+
+    /**
+     * The number of queued {@code Packets} a {@code Connection} combines into a single write by default
+     */
+    public static final int DEFAULT_MAX_BATCH_PACKETS = 256;
+
+    /**
+     * The number of bytes after which a {@code Connection} stops adding {@code Packets} to a write by default
+     */
+    public static final int DEFAULT_MAX_BATCH_BYTES = 65536;
+
+    /**
+     * The number of milliseconds a {@code Query} waits for a response by default before it times out
+     */
+    public static final long DEFAULT_QUERY_TIMEOUT = 8000;
+
+    /**
+     * The number of worker {@code Threads} that run received {@code Queries} by default
+     */
+    public static final int DEFAULT_QUERY_THREADS = 4;
+
+    /**
+     * The number of received {@code Queries} that can wait for a worker {@code Thread} by default
+     */
+    public static final int DEFAULT_QUERY_QUEUE_CAPACITY = 1024;
+
+    /**
+     * The number of {@code Packet} keys a {@code Connection} gives ids to in its {@code KeyDictionary} by default
+     */
+    public static final int DEFAULT_KEY_DICTIONARY_CAPACITY = 1024;
+
+    /**
+     * The largest binary frame body or text line, in bytes, a {@code Connection} accepts by default
+     */
+    public static final int DEFAULT_MAX_FRAME_LENGTH = 16 * 1024 * 1024;
+
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final int BUFFER_SIZE = 8192;
+
+    // How often a full-duplex reader wakes up to check whether an expected response is overdue
+    private static final int DEADLINE_CHECK_INTERVAL = 100;
+
     private Listenable listenable;
 
     private Socket socket;
 
-    private Thread listener, connCheck;
+    private SocketChannel channel = null;
+    private EventLoop eventLoop = null;
 
-    private State mainState, state, nextState = null;
+    // Set while this Connection is waiting in its EventLoop's flush queue, so it is queued at most once
+    final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+    private SelectionKey selectionKey = null;
+    private ByteBuffer writeBuffer = null;
+    private TlsSession tls = null;
+    private long responseDeadline = 0;
+
+    private FrameDecoder decoder = new FrameDecoder(BUFFER_SIZE, DEFAULT_MAX_FRAME_LENGTH);
+    private BinaryOutput frameOutput = new BinaryOutput();
+    private StringBuilder textBuffer = new StringBuilder();
 
-    private List<Packet> dropped = new ArrayList<Packet>();
+    private Thread listener, writer, connCheck;
 
-    private List<Packet> vitalDropped = new ArrayList<Packet>();
+    private boolean duplex = false;
+    private int maxBatchPackets = DEFAULT_MAX_BATCH_PACKETS, maxBatchBytes = DEFAULT_MAX_BATCH_BYTES;
+    private long maxLinger = 0;
+
+    private State mainState, state, nextState = null;
 
-    private Packet waiting = null;
+    private OutboundQueue outbound;
 
     private long ping = -1, pingStart = 0, pingTotal = 0, pingTimes = 0;
 
     private boolean encrypted = false, allowSettingState = true, running = false, serverSide = false, firstReceive = true,
-            firstSend = true, shouldRespond = false, pingShouldRespond = false, remoteClosed = false, initialized = false, qrySent = false;
+            firstSend = true, shouldRespond = false, pingShouldRespond = false, remoteClosed = false, initialized = false;
+
+    // Set while connecting by one Thread and read by the other, so they are kept visible to both
+    private volatile boolean binaryOffered = false, keyDictionaryOffered = false, gcmOffered = false, announceKeyDictionary = false;
 
     private int readTimeout = 8000;
 
@@ -66,12 +160,19 @@ public class Connection {
     private PacketWriter packetWriter;
     private EncryptedPacketReader encryptedReader;
     private EncryptedPacketWriter encryptedWriter;
+    private BinaryPacketReader binaryReader;
+    private BinaryPacketWriter binaryWriter;
+
+    private volatile Codec codec = Codec.TEXT;
+    private volatile EncryptionMode encryptionMode = EncryptionMode.AES;
+    private volatile KeyDictionary keyDictionary = null;
 
     private Map<QueryType, QueryPolicy> policies = new ConcurrentHashMap<QueryType, QueryPolicy>();
 
-    private Map<String, Query> toQuery = new ConcurrentHashMap<String, Query>();
-    private Map<String, Query> queries = new ConcurrentHashMap<String, Query>();
-    private Map<String, Object> completedQueries = new ConcurrentHashMap<String, Object>();
+    private final AtomicLong nextCorrelationId = new AtomicLong(0);
+    private ConcurrentMap<Long, Query> toQuery = new ConcurrentHashMap<Long, Query>();
+    private ConcurrentMap<Long, Query> queries = new ConcurrentHashMap<Long, Query>();
+    private Map<Long, QueryResponse> completedQueries = new ConcurrentHashMap<Long, QueryResponse>();
 
     private EncryptionKey encryptionKey = null;
 
@@ -150,6 +251,12 @@ public class Connection {
         this.state = state;
         this.serverSide = serverSide;
         this.allowSettingState = allowSettingState;
+        this.duplex = listenable.isFullDuplex();
+        this.outbound = new OutboundQueue(listenable.getOutboundQueueCapacity(), listenable.getOverflowPolicy());
+        this.maxBatchPackets = Math.max(1, listenable.getMaxBatchPackets());
+        this.maxBatchBytes = Math.max(1, listenable.getMaxBatchBytes());
+        this.maxLinger = Math.max(0, listenable.getMaxLinger()) * 1000;
+        this.decoder.setMaxFrameLength(listenable.getMaxFrameLength());
 
         packetReader = new PacketReader();
         packetWriter = new PacketWriter();
@@ -157,15 +264,79 @@ public class Connection {
         encryptedReader.setListenable(listenable);
         encryptedWriter = new EncryptedPacketWriter();
         encryptedWriter.setListenable(listenable);
+        binaryReader = new BinaryPacketReader();
+        binaryWriter = new BinaryPacketWriter();
+
+        // Packets can be written as soon as the Connection starts, so it has to know its encryption already
+        if (listenable instanceof Server && (((Server) listenable).isEncrypted() || ((Server) listenable).getEncryptionKey() != null)) {
+
+            setEncrypted(((Server) listenable).isEncrypted(), ((Server) listenable).getEncryptionKey());
+
+        } else if (listenable instanceof Client && (((Client) listenable).isEncrypted() || ((Client) listenable).getEncryptionKey() != null)) {
+
+            setEncrypted(((Client) listenable).isEncrypted(), ((Client) listenable).getEncryptionKey());
+        }
+
+        running = true;
+        shouldRespond = !serverSide;
+
+        if (socket != null && socket.getChannel() != null && listenable.getTransport() == Transport.NIO && listenable.getEventLoopGroup() != null) {
+
+            startEventLoop();
+
+        } else {
+
+            startThreads();
+        }
+    }
+
+    private void startEventLoop() {
+
+        channel = socket.getChannel();
+        writeBuffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+        SSLContext sslContext = listenable.getSSLContext();
+
+        if (sslContext != null) {
+
+            // Passing the remote address lets clients resume earlier sessions with the same server
+            SSLEngine engine = serverSide ? sslContext.createSSLEngine() : sslContext.createSSLEngine(getIp(), getPort());
+            engine.setUseClientMode(!serverSide);
+
+            try {
+
+                tls = new TlsSession(engine, channel);
+
+            } catch (IOException e) {
+
+                listenable.report(e);
+                channelFailed(e);
+
+                return;
+            }
+        }
+
+        eventLoop = listenable.getEventLoopGroup().next();
+        eventLoop.register(this);
+    }
 
-        listener = new Thread() {
+    private void startThreads() {
+
+        listener = newThread(new Runnable() {
 
             @Override
             public void run() {
 
-                listenerRun();
+                if (duplex) {
+
+                    readerRun();
+
+                } else {
+
+                    listenerRun();
+                }
             }
-        };
+        });
         listener.setUncaughtExceptionHandler(new UncaughtExceptionHandler() {
 
             @Override
@@ -176,7 +347,29 @@ public class Connection {
         });
         listener.setName("Packet Listener: "
                 + (serverSide ? "Server" : "Client") + " on IP " + getIp());
-        connCheck = new Thread() {
+
+        if (duplex) {
+
+            writer = newThread(new Runnable() {
+
+                @Override
+                public void run() {
+
+                    writerRun();
+                }
+            });
+            writer.setUncaughtExceptionHandler(new UncaughtExceptionHandler() {
+
+                @Override
+                public void uncaughtException(Thread t, Throwable e) {
+
+                    Errors.threadErrored(t.getName(), Connection.this.listenable, e);
+                }
+            });
+            writer.setName("Packet Writer: " + (serverSide ? "Server" : "Client") + " on IP " + getIp());
+        }
+
+        connCheck = newThread(new Runnable() {
 
             @Override
             public void run() {
@@ -196,7 +389,7 @@ public class Connection {
 
                             } catch (Exception e) {
 
-                                Errors.genericFatalConnection(listenable, getIp(), getPort(), e);
+                                Errors.genericFatalConnection(Connection.this.listenable, getIp(), getPort(), e);
                             }
                         }
                     }
@@ -211,7 +404,7 @@ public class Connection {
                     }
                 }
             }
-        };
+        });
         connCheck.setUncaughtExceptionHandler(new UncaughtExceptionHandler() {
 
             @Override
@@ -221,12 +414,23 @@ public class Connection {
             }
         });
         connCheck.setName("Connection Check: " + (serverSide ? "Server" : "Client") + " on IP " + getIp());
-        running = true;
-        shouldRespond = !serverSide;
         listener.start();
+
+        if (writer != null) {
+
+            writer.start();
+        }
+
         connCheck.start();
     }
 
+    private Thread newThread(Runnable runnable) {
+
+        ThreadFactory factory = listenable.getThreadFactory();
+
+        return factory != null ? factory.newThread(runnable) : new Thread(runnable);
+    }
+
     /**
      * Creates an uninitialized Connection with default values<br><br>
      * <p>
@@ -243,6 +447,7 @@ public class Connection {
         this.mainState = State.MUTUAL;
         this.state = State.MUTUAL;
         this.serverSide = false;
+        this.outbound = new OutboundQueue(DEFAULT_QUEUE_CAPACITY, OverflowPolicy.BLOCK);
     }
 
     /**
@@ -287,34 +492,132 @@ public class Connection {
      */
     public void sendPacket(Packet p, boolean expectResponse) {
 
-        if (waiting != null) {
+        if (p.isEmpty()) {
+
+            p.putData(Packet.EMPTY_PACKET);
+        }
+
+        if (expectResponse) {
+
+            shouldRespond = true;
+        }
+
+        queueOutgoingPacket(p);
+    }
+
+    /**
+     * Sends a network message across the connection inside of its own {@code Packet}
+     *
+     * @param message The message to send, whose class must be annotated with {@code @NetworkMessage}
+     */
+    public void sendMessage(Object message) {
+
+        sendPacket(NetworkMessages.toPacket(message), false);
+    }
+
+    /**
+     * Queues a {@code Packet} that has already been encoded, such as one shared by a {@code Broadcast}
+     */
+    void sendEncodedPacket(EncodedPacket p, boolean expectResponse) {
+
+        if (expectResponse) {
 
-            dropped.add(waiting);
+            shouldRespond = true;
+        }
+
+        queueOutgoingPacket(p);
+    }
+
+    /**
+     * Adds a {@code Packet} to the outbound queue, applying the {@code OverflowPolicy} if the queue is full
+     */
+    private void queueOutgoingPacket(Packet p) {
+
+        if (!outbound.offer(p, !isWritingThread())) {
 
-            if (waiting.isVital()) {
+            if (outbound.getPolicy() == OverflowPolicy.FAIL) {
 
-                vitalDropped.add(waiting);
+                throw Errors.getOutboundQueueFull(getIp(), getPort(), null);
+
+            } else if (outbound.getPolicy() == OverflowPolicy.BLOCK && running) {
+
+                Errors.outboundQueueFull(listenable, getIp(), getPort(), null);
             }
         }
 
-        if (p.isEmpty()) {
+        if (eventLoop != null) {
 
-            p.putData(Packet.EMPTY_PACKET);
+            eventLoop.flush(this);
+        }
+    }
+
+    /**
+     * Checks whether this {@code Connection} runs in full-duplex mode, writing queued {@code Packets} and reading
+     * incoming ones at the same time instead of alternating between sending and receiving
+     *
+     * @return Whether or not this {@code Connection} is full-duplex
+     */
+    public boolean isFullDuplex() {
+
+        return duplex;
+    }
+
+    /**
+     * Checks whether the calling {@code Thread} is the one that writes this {@code Connection}'s {@code Packets},
+     * which cannot wait for room in the outbound queue
+     */
+    private boolean isWritingThread() {
+
+        if (eventLoop != null) {
+
+            return eventLoop.inEventLoop();
         }
 
-        waiting = p;
-        this.shouldRespond = expectResponse;
-        qrySent = false;
+        return Thread.currentThread() == (duplex ? writer : listener);
+    }
+
+    /**
+     * Gets the number of {@code Packets} waiting in the outbound queue of this {@code Connection}
+     *
+     * @return The depth of the outbound queue
+     */
+    public int getOutboundQueueDepth() {
+
+        return outbound.size();
+    }
+
+    /**
+     * Gets the maximum number of {@code Packets} this {@code Connection} queues before its {@code OverflowPolicy}
+     * is applied
+     *
+     * @return The capacity of the outbound queue
+     */
+    public int getOutboundQueueCapacity() {
+
+        return outbound.getCapacity();
+    }
+
+    /**
+     * Gets the number of {@code Packets} this {@code Connection} has dropped because its outbound queue was full
+     *
+     * @return The number of dropped {@code Packets}
+     */
+    public long getDroppedPacketCount() {
+
+        return outbound.getDroppedCount();
     }
 
     /**
      * Gets all {@code Packets} dropped by this {@code Connection}
      *
-     * @return A {@code Packet[]} containing all dropped {@code Packets}
+     * @return An empty {@code Packet[]}, since dropped {@code Packets} are no longer kept
+     * @deprecated {@code Packets} are now queued instead of replacing each other, and the ones dropped by the
+     * {@code OverflowPolicy} are not kept.  Use {@code getDroppedPacketCount()} instead.
      */
+    @Deprecated
     public Packet[] getDroppedPackets() {
 
-        return dropped.toArray(new Packet[]{});
+        return new Packet[0];
     }
 
     /**
@@ -472,8 +775,43 @@ public class Connection {
     public void close(boolean socketClosed) throws IOException {
 
         running = false;
-        listener.interrupt();
-        connCheck.interrupt();
+
+        outbound.close();
+
+        // No response can arrive anymore, so nothing waiting on a query should wait forever
+        failQueries("Connection closed!", true);
+
+        if (listener != null) {
+
+            listener.interrupt();
+        }
+
+        if (writer != null) {
+
+            writer.interrupt();
+        }
+
+        if (connCheck != null) {
+
+            connCheck.interrupt();
+        }
+
+        if (tls != null && eventLoop.inEventLoop() && channel.isOpen()) {
+
+            try {
+
+                tls.close();
+
+            } catch (IOException e) {
+
+                // The remote side may already be gone, which is fine while closing
+            }
+        }
+
+        if (selectionKey != null) {
+
+            selectionKey.cancel();
+        }
 
         if (socket != null && !socket.isClosed() && !socketClosed) {
 
@@ -530,6 +868,71 @@ public class Connection {
         return encrypted;
     }
 
+    /**
+     * Checks whether or not this {@code Connection} runs over TLS
+     *
+     * @return Whether or not this {@code Connection} is secured with TLS
+     */
+    public boolean isSecure() {
+
+        return tls != null || socket instanceof SSLSocket;
+    }
+
+    /**
+     * Gets the TLS session of this {@code Connection}, which describes the protocol and cipher suite the
+     * two sides agreed on.  For the blocking {@code Transport} this waits for the handshake to finish if
+     * it has not already.
+     *
+     * @return The {@code SSLSession} in use, or {@code null} if this {@code Connection} does not run over TLS
+     */
+    public SSLSession getSSLSession() {
+
+        if (tls != null) {
+
+            return tls.getSession();
+
+        } else if (socket instanceof SSLSocket) {
+
+            return ((SSLSocket) socket).getSession();
+        }
+
+        return null;
+    }
+
+    /**
+     * Gets the {@code EncryptionMode} this {@code Connection} currently encrypts {@code Packets} with
+     * while it is encrypted.  This is {@code EncryptionMode.AES} until both sides have agreed to use
+     * {@code EncryptionMode.AES_GCM}.
+     *
+     * @return The {@code EncryptionMode} in use
+     */
+    public EncryptionMode getEncryptionMode() {
+
+        return encryptionMode;
+    }
+
+    /**
+     * Gets the {@code Codec} this {@code Connection} currently writes {@code Packets} with.
+     * This is {@code Codec.TEXT} until both sides have agreed to use {@code Codec.BINARY}.
+     *
+     * @return The {@code Codec} in use
+     */
+    public Codec getCodec() {
+
+        return codec;
+    }
+
+    /**
+     * Gets the {@code KeyDictionary} this {@code Connection} writes the keys of binary {@code Packets} with.
+     * This is {@code null} until both sides have agreed to use keyed frames, which requires {@code Codec.BINARY}.
+     *
+     * @return The {@code KeyDictionary} in use (can be null if keys are written as raw UTF-8)
+     */
+    public KeyDictionary getKeyDictionary() {
+
+        return keyDictionary;
+    }
+
     /**
      * Gets the {@code EncryptionKey} used to encrypt this {@code Connection}
      *
@@ -615,13 +1018,12 @@ public class Connection {
                         state = State.SENDING;
 
                         // Check if there are packets waiting to be read
-                    } else if (new InputStreamReader(
-                            socket.getInputStream()).ready()) {
+                    } else if (decoder.hasRemaining() || socket.getInputStream().available() > 0) {
 
                         state = State.RECEIVING;
 
                         // Check if there are packets waiting to be written
-                    } else if (waiting != null) {
+                    } else if (!outbound.isEmpty()) {
 
                         state = State.SENDING;
 
@@ -634,378 +1036,1125 @@ public class Connection {
 
                 if (state == State.SENDING && socket != null && !socket.isOutputShutdown()) {
 
-                    // Add a delay between attempts to send packages to avoid locking the thread
-                    if (!(firstSend && serverSide) && waiting == null && vitalDropped.size() == 0) {
-
-                        // Wait until there is a waiting packet (there cannot be any vital dropped packets until there is a waiting one, which is why this check is all we need)
-                        while (waiting == null) {
-
-                            try {
-
-                                Thread.sleep(100);
+                    Packet p = takeOutgoingPacket();
 
-                            } catch (InterruptedException e) {
+                    if (p == null) {
 
-                                // Ignore sleep interruptions
-                            }
-                        }
-                    }
-
-                    Packet p = new Packet();
-                    boolean skip = false;
+                        try {
 
-                    if (firstSend && serverSide) {
+                            // Wait until there is a waiting packet
+                            p = outbound.take();
 
-                        if (listenable instanceof Server) {
+                        } catch (InterruptedException e) {
 
-                            p = ((Server) listenable).getInformationPacket();
+                            // The loop condition decides whether or not to keep going
+                            continue;
                         }
 
-                        p = ((ServerListenable) listenable).fireListenerOnConnect(this, p);
-
-                        if (p == null) {
+                        if (p != null && isSpentQueryCarrier(p)) {
 
-                            p = new Packet();
+                            continue;
                         }
+                    }
 
-                        firstSend = false;
-
-                    } else if (waiting != null) {
-
-                        p = waiting;
-                        waiting = null;
-
-                    } else if (vitalDropped.size() > 0) {
-
-                        p = vitalDropped.get(0);
-                        vitalDropped.remove(0);
+                    // Check to make sure that there was a packet to send
+                    if (p != null) {
 
-                    } else {
+                        frameOutput.reset();
+                        encodeOutgoingPacket(p, frameOutput);
+                        send(frameOutput);
 
-                        skip = true;
+                        packetSent();
 
                         if (nextState != null) {
 
                             state = nextState;
                             nextState = null;
+
+                        } else {
+
+                            state = State.RECEIVING;
                         }
-                    }
 
-                    // Check to make sure that one of the above conditions was true
-                    if (!skip) {
+                    } else if (nextState != null) {
 
-                        if (p.isEmpty()) {
+                        state = nextState;
+                        nextState = null;
+                    }
 
-                            p.putData(Packet.EMPTY_PACKET);
-                        }
+                } else if (state == State.RECEIVING && socket != null && !socket.isInputShutdown()) {
 
-                        String toWrite;
-                        Throwable[] errors;
+                    Packet received = null;
 
-                        p = handleQueries(p);
+                    try {
 
-                        if (getEncrypted()) {
+                        if (shouldRespond) {
 
-                            toWrite = encryptedWriter.getPacketAsWriteableString(this, p);
-                            errors = encryptedWriter.getErrors();
+                            shouldRespond = false;
+                            socket.setSoTimeout(readTimeout);
 
                         } else {
 
-                            toWrite = packetWriter.getPacketAsWriteableString(this, p);
-                            errors = packetWriter.getErrors();
+                            socket.setSoTimeout(0);
                         }
 
-                        send(toWrite);
+                        received = readPacket();
 
-                        if (qrySent) {
+                        updatePing();
 
-                            qrySent = false;
-                        }
+                    } catch (Exception e) {
 
-                        if (shouldRespond) {
+                        if (e instanceof SocketTimeoutException) {
 
-                            pingStart = System.currentTimeMillis();
-                            pingShouldRespond = true;
-                        }
+                            timeoutQueries();
+                            listenable.fireListenerOnTimeout(this);
 
-                        for (Throwable t : errors) {
+                        } else if (!(e instanceof SocketException)) {
 
-                            listenable.report(t);
+                            listenable.report(e);
                         }
+                    }
 
-                        if (nextState != null) {
-
-                            state = nextState;
-                            nextState = null;
+                    if (received != null) {
 
-                        } else {
+                        receivePacket(received);
+                    }
+                }
+            }
 
-                            state = State.RECEIVING;
-                        }
+            close();
+
+        } catch (Exception e) {
+
+            loopFailed(e);
+        }
+    }
+
+    /**
+     * Reads incoming {@code Packets} continuously for a full-duplex {@code Connection}, while the writer
+     * {@code Thread} sends queued {@code Packets} independently
+     */
+    private void readerRun() {
+
+        try {
+
+            // Wake up regularly so that overdue responses are noticed even while no data arrives
+            socket.setSoTimeout(DEADLINE_CHECK_INTERVAL);
+
+            if (shouldRespond) {
+
+                shouldRespond = false;
+                responseDeadline = System.currentTimeMillis() + readTimeout;
+            }
+
+            while (running && socket != null && socket.isConnected() && !socket.isClosed() && !remoteClosed) {
+
+                Packet received;
+
+                try {
+
+                    received = readPacket();
+
+                } catch (SocketTimeoutException e) {
+
+                    checkResponseTimeout(System.currentTimeMillis());
+
+                    continue;
+
+                } catch (SocketException e) {
+
+                    // The socket was closed, either locally or by the remote side
+                    if (!socket.isClosed()) {
+
+                        remoteClosed = true;
+                    }
+
+                    continue;
+
+                } catch (IOException e) {
+
+                    // SSLSockets report a local close as an SSLException instead
+                    if (socket.isClosed()) {
+
+                        continue;
+                    }
+
+                    throw e;
+                }
+
+                responseDeadline = 0;
+                updatePing();
+
+                if (received != null) {
+
+                    receivePacket(received);
+                }
+            }
+
+            close();
+
+        } catch (Exception e) {
+
+            loopFailed(e);
+        }
+    }
+
+    /**
+     * Writes queued {@code Packets} for a full-duplex {@code Connection} as soon as they are sent, combining
+     * all {@code Packets} that are queued at the same time into a single write
+     */
+    private void writerRun() {
+
+        try {
+
+            while (running && socket != null && !socket.isClosed() && !socket.isOutputShutdown() && !remoteClosed) {
+
+                Packet p = takeOutgoingPacket();
+
+                if (p == null) {
+
+                    // Block until a Packet is queued, rather than checking for one in a loop
+                    p = outbound.take();
+
+                    if (p == null) {
+
+                        break;
+                    }
+                }
+
+                long lingerDeadline = maxLinger > 0 ? System.nanoTime() + maxLinger : 0;
+                int batched = 0;
+
+                frameOutput.reset();
+
+                while (p != null) {
+
+                    encodeOutgoingPacket(p, frameOutput);
+                    batched++;
+
+                    if (batched >= maxBatchPackets || frameOutput.size() >= maxBatchBytes) {
+
+                        break;
+                    }
+
+                    p = outbound.poll();
+
+                    if (p == null && lingerDeadline > 0) {
+
+                        p = outbound.poll(lingerDeadline - System.nanoTime());
+                    }
+                }
+
+                send(frameOutput);
+
+                packetSent();
+
+                if (shouldRespond) {
+
+                    shouldRespond = false;
+                    responseDeadline = System.currentTimeMillis() + readTimeout;
+                }
+            }
+
+        } catch (InterruptedException e) {
+
+            // The Connection is closing
+
+        } catch (Exception e) {
+
+            if (running && !socket.isClosed()) {
+
+                loopFailed(e);
+            }
+        }
+    }
+
+    private void loopFailed(Exception e) {
+
+        boolean close = false;
+
+        if (e instanceof SocketException) {
+
+            if (socket.isClosed() || e.getMessage().equalsIgnoreCase("socket closed")) {
+
+                close = true;
+            }
+
+        } else if (e instanceof IOException) {
+
+            if (socket.isClosed() || e.getMessage().equalsIgnoreCase("socket closed")) {
+
+                close = true;
+
+            } else {
+
+                remoteClosed = true;
+            }
+        }
+
+        listenable.report(e);
+
+        try {
+
+            close(close);
+
+        } catch (Exception e1) {
+
+            listenable.report(e1);
+        }
+    }
+
+    /**
+     * Takes the next {@code Packet} that should be written to the remote side, or {@code null} if there is none
+     */
+    private Packet takeOutgoingPacket() {
+
+        Packet p = null;
+
+        if (firstSend && serverSide) {
+
+            p = new Packet();
+
+            if (listenable instanceof Server) {
+
+                p = ((Server) listenable).getInformationPacket();
+            }
+
+            p = ((ServerListenable) listenable).fireListenerOnConnect(this, p);
+
+            if (p == null) {
+
+                p = new Packet();
+            }
+
+            // Offer the binary codec to the client, which switches to it if it is understood and preferred
+            if (listenable.getCodec() == Codec.BINARY && !getEncrypted()) {
+
+                p.putData(PacketKeys.CODEC, Codec.BINARY.name());
+                binaryOffered = true;
+
+                // Keyed frames are offered the same way, along with the number of keys the server reads,
+                // and are only written once the client has sent one
+                if (listenable.getKeyDictionaryCapacity() > 0) {
+
+                    p.putInt(PacketKeys.KEY_DICTIONARY, listenable.getKeyDictionaryCapacity());
+                    keyDictionaryOffered = true;
+                }
+            }
+
+            // Encrypted Connections offer AES-GCM the same way
+            if (getEncrypted() && listenable.getEncryptionMode() == EncryptionMode.AES_GCM && EncryptionMode.AES_GCM.isSupported()) {
+
+                p.putData(PacketKeys.ENCRYPTION_MODE, EncryptionMode.AES_GCM.name());
+                gcmOffered = true;
+            }
+
+            firstSend = false;
+
+        } else {
+
+            p = outbound.poll();
+
+            while (p != null && isSpentQueryCarrier(p)) {
+
+                p = outbound.poll();
+            }
+
+            // Queries normally leave with the next Packet, but pre-encoded Packets cannot carry them
+            if (p == null && (!toQuery.isEmpty() || !completedQueries.isEmpty())) {
+
+                p = createQueryCarrier();
+            }
+        }
+
+        return p;
+    }
+
+    /**
+     * Encodes a {@code Packet} with the {@code Codec} in use and appends it to the specified {@code BinaryOutput}
+     */
+    private void encodeOutgoingPacket(Packet p, BinaryOutput output) {
+
+        if (p instanceof EncodedPacket) {
+
+            byte[] frame = ((EncodedPacket) p).getFrame();
+            output.writeBytes(frame, 0, frame.length);
+
+            return;
+        }
+
+        if (p.isEmpty()) {
+
+            p.putData(Packet.EMPTY_PACKET);
+        }
+
+        p = handleQueries(p);
+
+        KeyDictionary keys = keyDictionary;
+
+        // The first keyed frame a client writes tells the server how many keys the client reads
+        if (keys != null && announceKeyDictionary) {
+
+            p.putInt(PacketKeys.KEY_DICTIONARY, listenable.getKeyDictionaryCapacity());
+            announceKeyDictionary = false;
+        }
+
+        binaryWriter.setKeyDictionary(keys);
+
+        encodePacket(p, codec, encryptionMode, output, textBuffer, packetWriter, binaryWriter, encryptedWriter);
+    }
+
+    /**
+     * Encodes a {@code Packet} the way this {@code Connection} writes it, using the specified writers so that
+     * {@code Packets} can also be encoded outside of the {@code Thread} that writes to the socket
+     */
+    void encodePacket(Packet p, Codec codec, EncryptionMode encryptionMode, BinaryOutput output, StringBuilder text, PacketWriter packetWriter, BinaryPacketWriter binaryWriter, EncryptedPacketWriter encryptedWriter) {
+
+        Throwable[] errors;
+
+        if (getEncrypted()) {
+
+            encryptedWriter.setListenable(listenable);
+
+            if (encryptionMode == EncryptionMode.AES_GCM) {
+
+                encryptedWriter.writeFrame(this, p, output);
+
+            } else {
+
+                output.writeUtf8(encryptedWriter.getPacketAsWriteableString(this, p));
+                output.writeByte('\n');
+            }
+
+            errors = encryptedWriter.getErrors();
+
+        } else if (codec == Codec.BINARY) {
+
+            binaryWriter.writeFrame(this, p, output);
+            errors = binaryWriter.getErrors();
+
+        } else {
+
+            text.setLength(0);
+            packetWriter.writePacket(this, p, text);
+
+            output.writeUtf8(text);
+            output.writeByte('\n');
+            errors = packetWriter.getErrors();
+        }
+
+        for (Throwable t : errors) {
+
+            listenable.report(t);
+        }
+    }
+
+    private void packetSent() {
+
+        if (shouldRespond) {
+
+            pingStart = System.currentTimeMillis();
+            pingShouldRespond = true;
+        }
+    }
+
+    private void updatePing() {
+
+        if (pingShouldRespond) {
+
+            ping = System.currentTimeMillis() - pingStart;
+            pingTotal += ping;
+            pingTimes++;
+        }
+    }
+
+    /**
+     * Reads the next {@code Packet} from the socket, which can be either a line of text or a binary frame
+     *
+     * @return The {@code Packet} read, or {@code null} if an empty line was read or the remote side closed
+     */
+    private Packet readPacket() throws IOException {
+
+        InputStream in = socket.getInputStream();
+
+        try {
+
+            while (!decoder.next()) {
+
+                if (decoder.read(in) < 0) {
+
+                    remoteClosed = true;
+
+                    return null;
+                }
+            }
+
+        } catch (NetworkException e) {
+
+            // The stream cannot be followed past a frame that is too long, so the Connection is closed
+            remoteClosed = true;
+
+            throw e;
+        }
+
+        return decodeCurrentFrame();
+    }
+
+    /**
+     * Decodes the frame the {@code FrameDecoder} is currently positioned at
+     *
+     * @return The {@code Packet} decoded, or {@code null} if the frame was an empty line
+     */
+    private Packet decodeCurrentFrame() {
+
+        if (decoder.isEncrypted()) {
+
+            return decodeEncryptedFrame(decoder.array(), decoder.offset(), decoder.length());
+
+        } else if (decoder.isBinary()) {
+
+            return decodeFrame(decoder.array(), decoder.offset(), decoder.length(), decoder.isKeyed());
+
+        } else if (decoder.length() > 0) {
+
+            return decodeLine(decoder.array(), decoder.offset(), decoder.length());
+        }
+
+        return null;
+    }
+
+    private Packet decodeLine(byte[] line, int offset, int length) {
+
+        Packet p;
+        Throwable[] errors;
+
+        if (startsWith(line, offset, length, PacketUtils.ENCRYPTED_DATA_PREFIX)) {
+
+            p = encryptedReader.getPacketFromString(this, new String(line, offset, length, UTF_8));
+            errors = encryptedReader.getErrors();
+
+        } else {
+
+            p = packetReader.getPacketFromBytes(this, line, offset, length);
+            errors = packetReader.getErrors();
+        }
+
+        for (Throwable t : errors) {
+
+            listenable.report(t);
+        }
+
+        return p;
+    }
+
+    private static boolean startsWith(byte[] data, int offset, int length, String prefix) {
+
+        if (length < prefix.length()) {
+
+            return false;
+        }
+
+        for (int i = 0; i < prefix.length(); i++) {
+
+            if (data[offset + i] != prefix.charAt(i)) {
+
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private Packet decodeFrame(byte[] frame, int offset, int length, boolean keyed) {
+
+        // Keyed frames are only read once the server has offered them, and never define more keys than it agreed to
+        if (serverSide && keyed && keyDictionaryOffered && binaryReader.getKeyDictionary() == null) {
+
+            binaryReader.setKeyDictionary(new KeyDictionary(listenable.getKeyDictionaryCapacity()));
+        }
+
+        Packet p = keyed ? binaryReader.getPacketFromKeyedFrame(this, frame, offset, length) : binaryReader.getPacketFromFrame(this, frame, offset, length);
+
+        for (Throwable t : binaryReader.getErrors()) {
+
+            listenable.report(t);
+        }
+
+        // The client only sends binary frames once it has accepted the codec offered in the first packet,
+        // and the server only answers with them if it made that offer
+        if (serverSide && codec != Codec.BINARY && binaryOffered) {
+
+            codec = Codec.BINARY;
+        }
+
+        // The same goes for keyed frames, which the client can only read after it has sent one itself, and
+        // which never define more keys than the client said it reads
+        if (serverSide && keyed && keyDictionary == null && keyDictionaryOffered && p.hasData(PacketKeys.KEY_DICTIONARY)) {
+
+            int remoteCapacity = p.getInt(PacketKeys.KEY_DICTIONARY, 0);
+
+            if (codec == Codec.BINARY && remoteCapacity > 0) {
+
+                keyDictionary = new KeyDictionary(Math.min(listenable.getKeyDictionaryCapacity(), remoteCapacity));
+            }
+
+            p.removeData(PacketKeys.KEY_DICTIONARY);
+        }
+
+        return p;
+    }
+
+    private Packet decodeEncryptedFrame(byte[] frame, int offset, int length) {
+
+        Packet p = encryptedReader.getPacketFromFrame(this, frame, offset, length);
+
+        for (Throwable t : encryptedReader.getErrors()) {
+
+            listenable.report(t);
+        }
+
+        // The client only sends AES-GCM frames once it has accepted the mode offered in the first packet
+        if (serverSide && encryptionMode != EncryptionMode.AES_GCM && gcmOffered) {
+
+            encryptionMode = EncryptionMode.AES_GCM;
+        }
+
+        return p;
+    }
+
+    private void receivePacket(Packet p) {
+
+        if (p.getData().length == 1 && p.getData()[0] == Packet.EMPTY_PACKET) {
+
+            p.clearData();
+        }
+
+        // Handle branching requests
+        if (p.hasData(PacketKeys.BRANCH_CONNECTION)) {
+
+            branchConnection(p.getData(PacketKeys.BRANCH_CONNECTION).toString());
+        }
+
+        // Handle queries, which are only sent under a reserved key so that they never replace the Packet's own data
+        Object queryData = p.getData(PacketKeys.QUERIES);
+        List<?> queryValues = queryData instanceof List ? (List<?>) queryData : Collections.emptyList();
+
+        p.removeData(PacketKeys.QUERIES);
+
+        for (Object value : queryValues) {
+
+            if (!(value instanceof Query)) {
+
+                continue;
+            }
+
+            Query q = (Query) value;
+            long id = q.getCorrelationId();
+
+            if (id < 0) {
+
+                Errors.malformedQuery(listenable, Long.toString(id), q.getType().getId(), new NetworkException(""));
+
+                continue;
+            }
+
+            QueryPolicy policy = policies.get(q.getType());
+
+            if (policy == null || policy.getPolicyDecider().allow(getConnectionInfo())) {
+
+                runQuery(q);
+
+            } else {
+
+                completedQueries.put(id, QueryResponse.rejected(policy.getMessage()));
+            }
+        }
+
+        if (completedQueries.size() > 0 && (duplex || outbound.isEmpty())) {
+
+            queueOutgoingPacket(createQueryCarrier());
+        }
+
+        // Responses can arrive in any order, and each one is matched by its correlation id
+        for (Object value : queryValues) {
+
+            if (!(value instanceof QueryResponse)) {
+
+                continue;
+            }
+
+            QueryResponse response = (QueryResponse) value;
+            Query q = queries.remove(response.getCorrelationId());
+
+            if (q != null) {
+
+                if (response.isRejected()) {
+
+                    q.setValue(null);
+                    q.setStatus(QueryStatus.getRejectedStatus(response.getRejectionMessage()));
+
+                } else {
+
+                    q.setValue(response.getValue());
+                    q.setStatus(QueryStatus.getSuccessfulStatus(""));
+                }
+            }
+        }
+
+        if (p.hasData(":QRYONLY:")) {
+
+            p.clearData();
+            state = State.SENDING;
+
+        } else {
+
+            if (firstReceive && !serverSide) {
+
+                if (p.hasData(PacketKeys.CODEC)) {
+
+                    if (listenable.getCodec() == Codec.BINARY && Codec.BINARY.name().equalsIgnoreCase(String.valueOf(p.getData(PacketKeys.CODEC)))) {
+
+                        codec = Codec.BINARY;
+                    }
+
+                    p.removeData(PacketKeys.CODEC);
+                }
+
+                if (p.hasData(PacketKeys.KEY_DICTIONARY)) {
+
+                    int capacity = listenable.getKeyDictionaryCapacity();
+                    int remoteCapacity = p.getInt(PacketKeys.KEY_DICTIONARY, 0);
+
+                    if (codec == Codec.BINARY && capacity > 0 && remoteCapacity > 0) {
+
+                        // Keys are read up to this side's capacity and written up to the smaller of both
+                        binaryReader.setKeyDictionary(new KeyDictionary(capacity));
+                        announceKeyDictionary = true;
+                        keyDictionary = new KeyDictionary(Math.min(capacity, remoteCapacity));
+                    }
+
+                    p.removeData(PacketKeys.KEY_DICTIONARY);
+                }
+
+                if (p.hasData(PacketKeys.ENCRYPTION_MODE)) {
+
+                    if (getEncrypted() && listenable.getEncryptionMode() == EncryptionMode.AES_GCM && EncryptionMode.AES_GCM.isSupported()
+                            && EncryptionMode.AES_GCM.name().equalsIgnoreCase(String.valueOf(p.getData(PacketKeys.ENCRYPTION_MODE)))) {
+
+                        encryptionMode = EncryptionMode.AES_GCM;
                     }
 
-                } else if (state == State.RECEIVING && socket != null && !socket.isInputShutdown()) {
+                    p.removeData(PacketKeys.ENCRYPTION_MODE);
+                }
 
-                    InputStream stream = socket.getInputStream();
-                    BufferedReader reader = new BufferedReader(new InputStreamReader(stream));
-                    StringBuilder read = new StringBuilder();
-                    String inTemp;
+                ((ClientListenable) listenable).fireListenerOnConnect(p);
 
-                    try {
+                state = State.SENDING;
+                firstReceive = false;
 
-                        if (shouldRespond) {
+            } else {
 
-                            shouldRespond = false;
-                            socket.setSoTimeout(readTimeout);
+                listenable.fireListenerOnReceive(this, p);
 
-                        } else {
+                if (nextState != null) {
 
-                            socket.setSoTimeout(0);
-                        }
+                    state = nextState;
+                    nextState = null;
 
-                        if ((inTemp = reader.readLine()) != null) {
+                } else {
 
-                            read.append(inTemp);
+                    state = State.SENDING;
+                }
+            }
+        }
+    }
 
-                        } else {
+    SocketChannel getChannel() {
 
-                            remoteClosed = true;
-                        }
+        return channel;
+    }
 
-                        if (pingShouldRespond) {
+    /**
+     * Called by the {@code EventLoop} once the channel of this {@code Connection} is registered with its {@code Selector}
+     */
+    void channelRegistered(SelectionKey key) {
 
-                            ping = System.currentTimeMillis() - pingStart;
-                            pingTotal += ping;
-                            pingTimes++;
-                        }
+        selectionKey = key;
 
-                    } catch (Exception e) {
+        if (shouldRespond) {
 
-                        if (e instanceof SocketTimeoutException) {
+            shouldRespond = false;
+            responseDeadline = System.currentTimeMillis() + readTimeout;
+        }
 
-                            timeoutQueries();
-                            listenable.fireListenerOnTimeout(this);
+        flushChannel();
+    }
 
-                        } else if (!(e instanceof SocketException)) {
+    /**
+     * Called by the {@code EventLoop} when the channel of this {@code Connection} has data to be read
+     */
+    void channelReadable() {
 
-                            listenable.report(e);
-                        }
-                    }
+        try {
 
-                    String readStr = read.toString();
+            int read;
 
-                    if (!readStr.equals("")) {
+            do {
 
-                        Packet p;
-                        Throwable[] errors;
+                read = tls != null ? decoder.read(tls) : decoder.read(channel);
 
-                        if (readStr.startsWith(PacketUtils.ENCRYPTED_DATA_PREFIX)) {
+                if (read < 0) {
 
-                            p = encryptedReader.getPacketFromString(this, readStr);
-                            errors = encryptedReader.getErrors();
+                    remoteClosed = true;
+                    close();
 
-                        } else {
+                    return;
+                }
 
-                            p = packetReader.getPacketFromString(this, readStr);
-                            errors = packetReader.getErrors();
-                        }
+                while (running && decoder.next()) {
 
-                        for (Throwable t : errors) {
+                    Packet p = decodeCurrentFrame();
 
-                            listenable.report(t);
-                        }
+                    responseDeadline = 0;
+                    updatePing();
 
-                        if (p.getData().length == 1 && p.getData()[0] == Packet.EMPTY_PACKET) {
+                    if (p != null) {
 
-                            p.clearData();
-                        }
+                        receivePacket(p);
+                    }
+                }
 
-                        // Handle branching requests
-                        if (p.hasData(PacketKeys.BRANCH_CONNECTION)) {
+                // TLS may have decrypted more than fit in the decoder
+            } while (running && tls != null && read > 0 && tls.hasBufferedInput());
 
-                            branchConnection(p.getData(PacketKeys.BRANCH_CONNECTION).toString());
-                        }
+            flushChannel();
+
+        } catch (Exception e) {
+
+            channelFailed(e);
+        }
+    }
 
-                        // Handle queries
-                        Map<String, Object> requests = p.getAllForType(Query.class);
+    /**
+     * Called by the {@code EventLoop} when the channel of this {@code Connection} can accept more data
+     */
+    void channelWritable() {
 
-                        if (requests != null) {
+        // Writing the remaining bytes may leave room for more queued Packets
+        flushChannel();
+    }
 
-                            for (String s : requests.keySet()) {
+    /**
+     * Called by the {@code EventLoop} to encode and write all waiting {@code Packets}
+     */
+    void flushChannel() {
 
-                                Query q = (Query) requests.get(s);
-                                Object result;
-                                QueryPolicy policy = policies.get(q.getType());
+        if (!running || selectionKey == null || !channel.isOpen()) {
 
-                                if (policy == null || policy.getPolicyDecider().allow(getConnectionInfo())) {
+            return;
+        }
 
-                                    result = q.getType().query(this, listenable, q.getParameters());
+        try {
 
-                                } else {
+            Packet p;
+            int batched = 0;
 
-                                    result = "qry-rej:" + policy.getMessage();
-                                }
+            // Only take as many Packets as fit in one batch, so that a slow remote side leaves them queued
+            while (batched < maxBatchPackets && writeBuffer.position() < maxBatchBytes && (p = takeOutgoingPacket()) != null) {
 
-                                completedQueries.put(q.getId(), result);
-                            }
-                        }
+                batched++;
 
-                        p.removeAllForType(Query.class);
+                frameOutput.reset();
+                encodeOutgoingPacket(p, frameOutput);
 
-                        if (completedQueries.size() > 0 && waiting == null) {
+                if (writeBuffer.remaining() < frameOutput.size()) {
 
-                            waiting = new Packet();
-                            waiting.setVital(true);
-                            shouldRespond = false;
-                            qrySent = true;
-                        }
+                    ByteBuffer larger = ByteBuffer.allocate(Math.max(writeBuffer.capacity() * 2, writeBuffer.position() + frameOutput.size()));
+                    writeBuffer.flip();
+                    larger.put(writeBuffer);
+                    writeBuffer = larger;
+                }
+
+                writeBuffer.put(frameOutput.array(), 0, frameOutput.size());
+
+                packetSent();
+
+                if (shouldRespond) {
+
+                    shouldRespond = false;
+                    responseDeadline = System.currentTimeMillis() + readTimeout;
+                }
+            }
+
+            writeChannel();
+
+            // Keep going if everything was written but Packets were left queued
+            if (writeBuffer.position() == 0 && !outbound.isEmpty()) {
 
-                        Map<String, Object> completions = p.getAllForNamePrefix("qry-resp:");
+                eventLoop.flush(this);
+            }
 
-                        if (completions != null) {
+        } catch (Exception e) {
 
-                            for (String id : completions.keySet()) {
+            channelFailed(e);
+        }
+    }
 
-                                if (queries.containsKey(id)) {
+    /**
+     * Called by the {@code EventLoop} to time out this {@code Connection} if an expected response has not arrived
+     */
+    void checkResponseTimeout(long now) {
 
-                                    Query q = queries.get(id);
+        if (responseDeadline > 0 && now >= responseDeadline) {
 
-                                    if (q != null) {
+            responseDeadline = 0;
 
-                                        Object result = completions.get(id);
+            timeoutQueries();
+            listenable.fireListenerOnTimeout(this);
+        }
+    }
 
-                                        if (result instanceof String && ((String) result).startsWith("qry-rej:")) {
+    private void writeChannel() throws IOException {
 
-                                            q.setValue(null);
-                                            q.setStatus(QueryStatus.getRejectedStatus(((String) result).substring("qry-rej:".length())));
+        writeBuffer.flip();
 
-                                        } else {
+        boolean pending;
 
-                                            q.setValue(result);
-                                            q.setStatus(QueryStatus.getSuccessfulStatus(""));
-                                        }
-                                    }
+        if (tls != null) {
 
-                                    queries.remove(id);
-                                }
-                            }
-                        }
+            tls.write(writeBuffer);
 
-                        p.removeAllForNamePrefix("qry-resp:");
+            // Bytes held back until the TLS handshake gets a response are written once it is read
+            pending = tls.hasPendingOutput();
 
-                        if (p.hasData(":QRYONLY:")) {
+        } else {
 
-                            p.clearData();
-                            state = State.SENDING;
+            channel.write(writeBuffer);
 
-                        } else {
+            pending = writeBuffer.hasRemaining();
+        }
 
-                            if (firstReceive && !serverSide) {
+        writeBuffer.compact();
 
-                                ((ClientListenable) listenable).fireListenerOnConnect(p);
+        if (selectionKey.isValid()) {
 
-                                state = State.SENDING;
-                                firstReceive = false;
+            selectionKey.interestOps(pending ? SelectionKey.OP_READ | SelectionKey.OP_WRITE : SelectionKey.OP_READ);
+        }
+    }
 
-                            } else {
+    private void channelFailed(Exception e) {
 
-                                listenable.fireListenerOnReceive(this, p);
+        if (running) {
 
-                                if (nextState != null) {
+            if (e instanceof IOException) {
 
-                                    state = nextState;
-                                    nextState = null;
+                remoteClosed = true;
 
-                                } else {
+            } else {
 
-                                    state = State.SENDING;
-                                }
-                            }
-                        }
-                    }
-                }
+                listenable.report(e);
             }
+        }
+
+        try {
 
             close();
 
-        } catch (Exception e) {
+        } catch (Exception e1) {
 
-            boolean close = false;
+            listenable.report(e1);
+        }
+    }
 
-            if (e instanceof SocketException) {
+    /**
+     * Times out the {@code Queries} that have no deadline of their own when this {@code Connection} times out.
+     * {@code Queries} with a deadline are left to the {@code TimerWheel}.
+     */
+    private void timeoutQueries() {
 
-                if (socket.isClosed() || e.getMessage().equalsIgnoreCase("socket closed")) {
+        failQueries((serverSide ? "Client" : "Server") + " timed out!", false);
+    }
 
-                    close = true;
-                }
+    private void failQueries(String message, boolean all) {
 
-            } else if (e instanceof IOException) {
+        failQueries(toQuery, message, all);
+        failQueries(queries, message, all);
+    }
 
-                if (socket.isClosed() || e.getMessage().equalsIgnoreCase("socket closed")) {
+    private static void failQueries(ConcurrentMap<Long, Query> map, String message, boolean all) {
 
-                    close = true;
+        for (Query q : map.values()) {
 
-                } else {
+            if ((all || q.getTimeout() <= 0) && map.remove(q.getCorrelationId(), q)) {
 
-                    remoteClosed = true;
-                }
+                q.setStatus(QueryStatus.getTimedOutStatus(message));
             }
+        }
+    }
 
-            listenable.report(e);
+    /**
+     * Called by the {@code TimerWheel} once a {@code Query} has passed its deadline
+     */
+    private void expireQuery(Query q) {
 
-            try {
+        if (toQuery.remove(q.getCorrelationId(), q) | queries.remove(q.getCorrelationId(), q)) {
+
+            q.setStatus(QueryStatus.getTimedOutStatus("No response within " + q.getTimeout() + " ms!"));
+        }
+    }
+
+    /**
+     * Creates a vital {@code Packet} that only carries query requests and results.  It is marked as query-only
+     * itself, since other {@code Packets} may be queued alongside it and it may leave empty if one of them carries
+     * the queries first.
+     */
+    private static Packet createQueryCarrier() {
+
+        Packet p = new Packet();
+        p.putData(":QRYONLY:", "null");
+        p.setVital(true);
+
+        return p;
+    }
+
+    /**
+     * Runs the {@code QueryListener} of a received {@code Query} on the query executor if this {@code Connection}
+     * can keep reading while it runs, or on this {@code Thread} otherwise
+     */
+    private void runQuery(final Query q) {
+
+        final QueryCache cache = listenable.getQueryCache(q.getType());
+        final Object cacheKey = cache != null ? cache.getKey(q.getParameters()) : null;
+
+        if (cache != null) {
+
+            QueryResponse cached = cache.get(cacheKey);
 
-                close(close);
+            // Cached results are sent without calling the QueryListener at all
+            if (cached != null) {
 
-            } catch (Exception e1) {
+                completedQueries.put(q.getCorrelationId(), cached);
 
-                listenable.report(e1);
+                return;
             }
         }
-    }
 
-    private void timeoutQueries() {
+        Executor executor = duplex || eventLoop != null || mainState == State.MUTUAL ? listenable.getQueryExecutor() : null;
 
-        for (String id : toQuery.keySet()) {
+        if (executor == null) {
 
-            Query q = toQuery.get(id);
-            q.setStatus(QueryStatus.getTimedOutStatus((serverSide ? "Client" : "Server") + " timed out!"));
-            toQuery.remove(id);
+            completedQueries.put(q.getCorrelationId(), callQueryListener(q, cache, cacheKey));
+
+            return;
         }
 
-        for (String id : queries.keySet()) {
+        try {
+
+            executor.execute(new Runnable() {
+
+                @Override
+                public void run() {
+
+                    QueryResponse response;
+
+                    try {
+
+                        response = callQueryListener(q, cache, cacheKey);
+
+                    } catch (RuntimeException e) {
+
+                        listenable.report(e);
+
+                        response = QueryResponse.rejected(e.toString());
+                    }
+
+                    completedQueries.put(q.getCorrelationId(), response);
+
+                    // The result leaves with the next Packet, or with a carrier if nothing else is waiting
+                    if (running && (duplex || outbound.isEmpty())) {
+
+                        queueOutgoingPacket(createQueryCarrier());
+                    }
+                }
+            });
+
+        } catch (RejectedExecutionException e) {
+
+            if (listenable.getQueryRejectionPolicy() == QueryRejectionPolicy.CALLER_RUNS) {
+
+                completedQueries.put(q.getCorrelationId(), callQueryListener(q, cache, cacheKey));
 
-            Query q = queries.get(id);
-            q.setStatus(QueryStatus.getTimedOutStatus((serverSide ? "Client" : "Server") + " timed out!"));
-            queries.remove(id);
+            } else {
+
+                completedQueries.put(q.getCorrelationId(), QueryResponse.rejected("Too many queries are running!"));
+            }
         }
     }
 
-    private Packet handleQueries(Packet p) {
+    /**
+     * Calls the {@code QueryListener} of a received {@code Query} and caches the result if its {@code QueryType} is cached
+     */
+    private QueryResponse callQueryListener(Query q, QueryCache cache, Object cacheKey) {
 
-        if (qrySent) {
+        QueryResponse response = new QueryResponse(q.getType().query(this, listenable, q.getParameters()));
 
-            p.putData(":QRYONLY:", "null");
+        if (cache != null) {
+
+            cache.put(cacheKey, response);
         }
 
-        for (String id : toQuery.keySet()) {
+        return response;
+    }
+
+    /**
+     * Checks whether a {@code Packet} is a query carrier whose queries and results have already left with another
+     * {@code Packet}.  Sending it would make a ping-pong remote side wait for a response that never comes.
+     */
+    private boolean isSpentQueryCarrier(Packet p) {
+
+        return !(p instanceof EncodedPacket) && p.hasData(":QRYONLY:") && toQuery.isEmpty() && completedQueries.isEmpty();
+    }
+
+    /**
+     * Moves the waiting requests and responses into a {@code Packet}.  They are all sent as one {@code List} under
+     * {@code PacketKeys.QUERIES}, and each one carries its own correlation id.
+     */
+    private Packet handleQueries(Packet p) {
+
+        List<Object> queryValues = new ArrayList<Object>();
+
+        for (Long id : toQuery.keySet()) {
 
             Query q = toQuery.get(id);
 
-            if (q != null) {
+            if (q != null && !q.isDone()) {
 
-                p.putData(q.getId(), q);
+                queryValues.add(q);
                 queries.put(id, q);
+
+                // The Query may have expired while it was being moved
+                if (q.isDone()) {
+
+                    queries.remove(id, q);
+                }
             }
 
             toQuery.remove(id);
         }
 
-        for (String id : completedQueries.keySet()) {
+        for (Long id : completedQueries.keySet()) {
+
+            QueryResponse response = completedQueries.remove(id);
+
+            if (response != null) {
+
+                queryValues.add(response.withCorrelationId(id));
+            }
+        }
+
+        if (!queryValues.isEmpty()) {
 
-            Object result = completedQueries.get(id);
-            p.putData("qry-resp:" + id, result);
-            completedQueries.remove(id);
+            p.putData(PacketKeys.QUERIES, queryValues);
         }
 
         if (queries.size() > 0) {
@@ -1017,42 +2166,201 @@ public class Connection {
         return p;
     }
 
-    private void send(String data) throws IOException {
+    private void send(BinaryOutput data) throws IOException {
 
         if (socket != null && !socket.isClosed() && !socket.isOutputShutdown()) {
 
             OutputStream stream = socket.getOutputStream();
 
-            PrintWriter out = new PrintWriter(stream, true);
-
-            out.println(data);
+            stream.write(data.array(), 0, data.size());
+            stream.flush();
         }
     }
 
+    /**
+     * Creates and executes a {@code Query} against the remote side of this {@code Connection}.  Every {@code Query}
+     * gets a correlation id from this {@code Connection}, so any number of them can be waiting for a response at
+     * once and their responses can arrive in any order.
+     *
+     * @param type   The type of query to request
+     * @param params The parameters to pass to the {@code Query}
+     * @return A {@code Query} object to be used to obtain the results of the query request
+     */
+    public Query query(QueryType type, Map<String, Object> params) {
+
+        return query(new Query(type, params), getDefaultQueryTimeout());
+    }
+
     /**
      * Creates and executes a {@code Query} against the remote side of this {@code Connection}
      *
-     * @param id     The id to use for the {@code Query}
+     * @param id     A label for the {@code Query}, which does not need to be unique
      * @param type   The type of query to request
      * @param params The parameters to pass to the {@code Query}
      * @return A {@code Query} object to be used to obtain the results of the query request
      */
     public Query query(String id, QueryType type, Map<String, Object> params) {
 
-        Query q = new Query(id, type, params);
-        toQuery.put(id, q);
+        return query(id, type, params, getDefaultQueryTimeout());
+    }
+
+    /**
+     * Creates and executes a {@code Query} against the remote side of this {@code Connection}, which times out
+     * if no response arrives within the specified time
+     *
+     * @param id      A label for the {@code Query}, which does not need to be unique
+     * @param type    The type of query to request
+     * @param params  The parameters to pass to the {@code Query}
+     * @param timeout The timeout in milliseconds, or {@code 0} to only time out along with this {@code Connection}
+     * @return A {@code Query} object to be used to obtain the results of the query request
+     */
+    public Query query(String id, QueryType type, Map<String, Object> params, long timeout) {
+
+        return query(new Query(id, type, params), timeout);
+    }
+
+    private Query query(final Query q, long timeout) {
+
+        q.setTimeout(timeout);
+        q.setCorrelationId(nextCorrelationId.getAndIncrement());
+        q.setListenable(listenable);
+
+        toQuery.put(q.getCorrelationId(), q);
+
+        if (timeout > 0 && listenable != null) {
+
+            final TimerWheel.Timeout deadline = listenable.getTimerWheel().schedule(new Runnable() {
+
+                @Override
+                public void run() {
+
+                    expireQuery(q);
+                }
+            }, timeout, TimeUnit.MILLISECONDS);
+
+            q.addCallback(new QueryCallback() {
+
+                @Override
+                public void onComplete(Query query) {
+
+                    deadline.cancel();
+                }
+            });
+        }
 
-        if (waiting == null) {
+        if (duplex || outbound.isEmpty()) {
 
-            waiting = new Packet();
-            waiting.setVital(true);
             shouldRespond = true;
-            qrySent = true;
+
+            queueOutgoingPacket(createQueryCarrier());
         }
 
         return q;
     }
 
+    /**
+     * Creates and executes a {@code Query} against the remote side of this {@code Connection} without waiting for it
+     *
+     * @param type   The type of query to request
+     * @param params The parameters to pass to the {@code Query}
+     * @return A {@code QueryFuture} for the result of the query request
+     * @see #queryAsync(String, QueryType, Map)
+     */
+    public QueryFuture queryAsync(QueryType type, Map<String, Object> params) {
+
+        return query(type, params).getFuture();
+    }
+
+    /**
+     * Creates and executes a {@code Query} against the remote side of this {@code Connection}, calling the specified
+     * {@code QueryCallback} once it completes
+     *
+     * @param type     The type of query to request
+     * @param params   The parameters to pass to the {@code Query}
+     * @param callback The {@code QueryCallback} to call when the {@code Query} completes
+     * @return A {@code QueryFuture} for the result of the query request
+     * @see #queryAsync(String, QueryType, Map, QueryCallback)
+     */
+    public QueryFuture queryAsync(QueryType type, Map<String, Object> params, QueryCallback callback) {
+
+        Query q = new Query(type, params);
+        q.addCallback(callback);
+
+        return query(q, getDefaultQueryTimeout()).getFuture();
+    }
+
+    /**
+     * Creates and executes a {@code Query} against the remote side of this {@code Connection} without waiting for it.
+     * The returned {@code QueryFuture} completes as soon as the response arrives, fails with a {@code QueryException}
+     * if the {@code Query} is rejected or times out, and fails if this {@code Connection} closes first.
+     *
+     * @param id     A label for the {@code Query}, which does not need to be unique
+     * @param type   The type of query to request
+     * @param params The parameters to pass to the {@code Query}
+     * @return A {@code QueryFuture} for the result of the query request
+     */
+    public QueryFuture queryAsync(String id, QueryType type, Map<String, Object> params) {
+
+        return query(id, type, params).getFuture();
+    }
+
+    /**
+     * Creates and executes a {@code Query} against the remote side of this {@code Connection} without waiting for it,
+     * timing it out if no response arrives within the specified time
+     *
+     * @param id      A label for the {@code Query}, which does not need to be unique
+     * @param type    The type of query to request
+     * @param params  The parameters to pass to the {@code Query}
+     * @param timeout The timeout in milliseconds, or {@code 0} to only time out along with this {@code Connection}
+     * @return A {@code QueryFuture} for the result of the query request
+     * @see #queryAsync(String, QueryType, Map)
+     */
+    public QueryFuture queryAsync(String id, QueryType type, Map<String, Object> params, long timeout) {
+
+        return query(id, type, params, timeout).getFuture();
+    }
+
+    /**
+     * Creates and executes a {@code Query} against the remote side of this {@code Connection}, calling the specified
+     * {@code QueryCallback} once it completes.  The callback is called from the thread that reads from this
+     * {@code Connection}, so it should not block.
+     *
+     * @param id       A label for the {@code Query}, which does not need to be unique
+     * @param type     The type of query to request
+     * @param params   The parameters to pass to the {@code Query}
+     * @param callback The {@code QueryCallback} to call when the {@code Query} completes
+     * @return A {@code QueryFuture} for the result of the query request
+     */
+    public QueryFuture queryAsync(String id, QueryType type, Map<String, Object> params, QueryCallback callback) {
+
+        return queryAsync(id, type, params, getDefaultQueryTimeout(), callback);
+    }
+
+    /**
+     * Creates and executes a {@code Query} against the remote side of this {@code Connection}, calling the specified
+     * {@code QueryCallback} once it completes or times out after the specified time
+     *
+     * @param id       A label for the {@code Query}, which does not need to be unique
+     * @param type     The type of query to request
+     * @param params   The parameters to pass to the {@code Query}
+     * @param timeout  The timeout in milliseconds, or {@code 0} to only time out along with this {@code Connection}
+     * @param callback The {@code QueryCallback} to call when the {@code Query} completes
+     * @return A {@code QueryFuture} for the result of the query request
+     * @see #queryAsync(String, QueryType, Map, QueryCallback)
+     */
+    public QueryFuture queryAsync(String id, QueryType type, Map<String, Object> params, long timeout, QueryCallback callback) {
+
+        Query q = new Query(id, type, params);
+        q.addCallback(callback);
+
+        return query(q, timeout).getFuture();
+    }
+
+    private long getDefaultQueryTimeout() {
+
+        return listenable != null ? listenable.getQueryTimeout() : DEFAULT_QUERY_TIMEOUT;
+    }
+
     /**
      * Retrieves a {@code ConnectionInfo} object containing data about this {@code Connection}<br>
      * This data includes:<br>
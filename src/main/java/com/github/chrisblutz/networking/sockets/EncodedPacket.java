@@ -0,0 +1,26 @@
+package com.github.chrisblutz.networking.sockets;
+
+import com.github.chrisblutz.networking.packets.Packet;
+
+
+/**
+ * A {@code Packet} that has already been encoded into the exact bytes that are
+ * written to the socket.  The frame is never modified after it is created, so a
+ * single {@code EncodedPacket} can be queued by many {@code Connections} at once.
+ *
+ * @author Christopher Lutz
+ */
+class EncodedPacket extends Packet {
+
+    private final byte[] frame;
+
+    EncodedPacket(byte[] frame) {
+
+        this.frame = frame;
+    }
+
+    byte[] getFrame() {
+
+        return frame;
+    }
+}
@@ -0,0 +1,225 @@
+package com.github.chrisblutz.networking.sockets;
+
+import com.github.chrisblutz.networking.Listenable;
+import com.github.chrisblutz.networking.exceptions.Errors;
+
+import java.io.IOException;
+import java.lang.Thread.UncaughtExceptionHandler;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+
+/**
+ * A single {@code Thread} and {@code Selector} that serves many non-blocking
+ * {@code Connections}.  All reads, writes and packet encoding for a
+ * {@code Connection} happen on the {@code EventLoop} it is registered with.
+ *
+ * @author Christopher Lutz
+ */
+class EventLoop implements Runnable {
+
+    private static final long CHECK_INTERVAL = 100;
+
+    private Listenable listenable;
+
+    private Selector selector;
+
+    private Thread thread;
+
+    private volatile boolean running = true;
+
+    private Queue<Connection> registrations = new ConcurrentLinkedQueue<Connection>();
+    private Queue<Connection> flushes = new ConcurrentLinkedQueue<Connection>();
+
+    private long lastCheck = 0;
+
+    EventLoop(final Listenable listenable, String name) throws IOException {
+
+        this.listenable = listenable;
+        this.selector = Selector.open();
+
+        thread = new Thread(this);
+        thread.setUncaughtExceptionHandler(new UncaughtExceptionHandler() {
+
+            @Override
+            public void uncaughtException(Thread t, Throwable e) {
+
+                Errors.threadErrored(t.getName(), listenable, e);
+            }
+        });
+        thread.setName(name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Queues a {@code Connection} to be registered with this loop's {@code Selector}
+     *
+     * @param connection The {@code Connection} to register
+     */
+    void register(Connection connection) {
+
+        registrations.add(connection);
+        selector.wakeup();
+    }
+
+    /**
+     * Queues a {@code Connection} to have its waiting {@code Packets} written on this loop.
+     * A {@code Connection} that is already queued is not queued again, since the flush
+     * writes every {@code Packet} waiting at that time.
+     *
+     * @param connection The {@code Connection} to flush
+     */
+    void flush(Connection connection) {
+
+        if (!connection.flushScheduled.compareAndSet(false, true)) {
+
+            return;
+        }
+
+        flushes.add(connection);
+
+        if (Thread.currentThread() != thread) {
+
+            selector.wakeup();
+        }
+    }
+
+    /**
+     * Checks whether the calling {@code Thread} is the one running this loop
+     */
+    boolean inEventLoop() {
+
+        return Thread.currentThread() == thread;
+    }
+
+    int getConnectionCount() {
+
+        return selector.keys().size();
+    }
+
+    void shutdown() {
+
+        running = false;
+        selector.wakeup();
+    }
+
+    @Override
+    public void run() {
+
+        try {
+
+            while (running) {
+
+                selector.select(CHECK_INTERVAL);
+
+                processRegistrations();
+
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+
+                while (keys.hasNext()) {
+
+                    SelectionKey key = keys.next();
+                    keys.remove();
+
+                    Connection c = (Connection) key.attachment();
+
+                    if (key.isValid() && key.isReadable()) {
+
+                        c.channelReadable();
+                    }
+
+                    if (key.isValid() && key.isWritable()) {
+
+                        c.channelWritable();
+                    }
+                }
+
+                processFlushes();
+
+                long now = System.currentTimeMillis();
+
+                if (now - lastCheck >= CHECK_INTERVAL) {
+
+                    lastCheck = now;
+
+                    for (SelectionKey key : selector.keys()) {
+
+                        if (key.isValid()) {
+
+                            ((Connection) key.attachment()).checkResponseTimeout(now);
+                        }
+                    }
+                }
+            }
+
+        } catch (IOException e) {
+
+            listenable.report(e);
+        }
+
+        for (SelectionKey key : selector.keys()) {
+
+            try {
+
+                ((Connection) key.attachment()).close();
+
+            } catch (IOException e) {
+
+                listenable.report(e);
+            }
+        }
+
+        try {
+
+            selector.close();
+
+        } catch (IOException e) {
+
+            listenable.report(e);
+        }
+    }
+
+    private void processRegistrations() {
+
+        Connection c;
+
+        while ((c = registrations.poll()) != null) {
+
+            SocketChannel channel = c.getChannel();
+
+            try {
+
+                channel.configureBlocking(false);
+                SelectionKey key = channel.register(selector, SelectionKey.OP_READ, c);
+
+                c.channelRegistered(key);
+
+            } catch (ClosedChannelException e) {
+
+                // The Connection was closed before it could be registered
+
+            } catch (IOException e) {
+
+                listenable.report(e);
+            }
+        }
+    }
+
+    private void processFlushes() {
+
+        Connection c;
+
+        while ((c = flushes.poll()) != null) {
+
+            // Cleared first, so Packets sent while flushing queue the Connection again
+            c.flushScheduled.set(false);
+            c.flushChannel();
+        }
+    }
+}
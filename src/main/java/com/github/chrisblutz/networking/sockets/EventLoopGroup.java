@@ -0,0 +1,87 @@
+package com.github.chrisblutz.networking.sockets;
+
+import com.github.chrisblutz.networking.Listenable;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * A fixed group of {@code EventLoops} that serves all of the {@code NIO}
+ * {@code Connections} of a {@code Server} or {@code Client}.  The number of
+ * {@code Threads} used by the group does not change as {@code Connections} are added.
+ *
+ * @author Christopher Lutz
+ */
+public class EventLoopGroup {
+
+    private EventLoop[] loops;
+
+    private AtomicInteger next = new AtomicInteger(0);
+
+    /**
+     * Creates a new {@code EventLoopGroup} and starts all of its {@code EventLoops}
+     *
+     * @param listenable The {@code Listenable} that owns this group
+     * @param name       The name used for the {@code Threads} of this group
+     * @param threads    The number of {@code EventLoops} (and {@code Threads}) to use
+     * @throws IOException If an I/O error occurs while opening the {@code Selectors}
+     */
+    public EventLoopGroup(Listenable listenable, String name, int threads) throws IOException {
+
+        loops = new EventLoop[Math.max(1, threads)];
+
+        for (int i = 0; i < loops.length; i++) {
+
+            loops[i] = new EventLoop(listenable, "Event Loop " + (i + 1) + ": " + name);
+        }
+    }
+
+    /**
+     * Gets the next {@code EventLoop} that a {@code Connection} should be registered with
+     *
+     * @return The next {@code EventLoop} in this group
+     */
+    EventLoop next() {
+
+        return loops[Math.abs(next.getAndIncrement() % loops.length)];
+    }
+
+    /**
+     * Gets the number of {@code EventLoops} (and {@code Threads}) used by this group
+     *
+     * @return The number of {@code EventLoops} in this group
+     */
+    public int getThreadCount() {
+
+        return loops.length;
+    }
+
+    /**
+     * Gets the number of {@code Connections} currently registered across all {@code EventLoops} in this group
+     *
+     * @return The number of registered {@code Connections}
+     */
+    public int getConnectionCount() {
+
+        int count = 0;
+
+        for (EventLoop loop : loops) {
+
+            count += loop.getConnectionCount();
+        }
+
+        return count;
+    }
+
+    /**
+     * Stops all {@code EventLoops} in this group and closes their {@code Selectors}
+     */
+    public void shutdown() {
+
+        for (EventLoop loop : loops) {
+
+            loop.shutdown();
+        }
+    }
+}
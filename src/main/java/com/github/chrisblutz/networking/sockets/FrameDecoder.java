@@ -0,0 +1,261 @@
+package com.github.chrisblutz.networking.sockets;
+
+import com.github.chrisblutz.networking.exceptions.Errors;
+import com.github.chrisblutz.networking.exceptions.NetworkException;
+import com.github.chrisblutz.networking.packets.PacketUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+
+/**
+ * An incremental decoder that splits the bytes read by a {@code Connection} into
+ * text lines and binary frames.  All bytes are read into a single buffer that is
+ * kept for the life of the {@code Connection}, and each frame is handed out as a
+ * region of that buffer, so partial frames and multiple frames per read are
+ * handled without copying.
+ *
+ * @author Christopher Lutz
+ */
+class FrameDecoder {
+
+    // Keeps every frame, and the buffer holding it, well inside the range of an int
+    private static final int MAX_FRAME_LENGTH_LIMIT = Integer.MAX_VALUE / 4;
+
+    private byte[] buffer;
+    private ByteBuffer view;
+
+    private int start = 0, end = 0, scanned = 0;
+
+    private boolean binary = false, encrypted = false, keyed = false;
+    private int frameOffset = 0, frameLength = 0;
+    private int maxFrameLength;
+
+    FrameDecoder(int capacity, int maxFrameLength) {
+
+        buffer = new byte[capacity];
+        view = ByteBuffer.wrap(buffer);
+
+        setMaxFrameLength(maxFrameLength);
+    }
+
+    /**
+     * Sets the largest binary frame body or text line this decoder accepts.  Longer frames are rejected
+     * before any room is made for them, so the remote side cannot make the buffer grow without bound.
+     */
+    void setMaxFrameLength(int maxFrameLength) {
+
+        this.maxFrameLength = Math.max(1, Math.min(maxFrameLength, MAX_FRAME_LENGTH_LIMIT));
+    }
+
+    /**
+     * Reads as many bytes as are available from a blocking stream, blocking until at least one arrives
+     *
+     * @return The number of bytes read, or {@code -1} if the end of the stream was reached
+     */
+    int read(InputStream in) throws IOException {
+
+        makeRoom();
+
+        int read = in.read(buffer, end, buffer.length - end);
+
+        if (read > 0) {
+
+            end += read;
+        }
+
+        return read;
+    }
+
+    /**
+     * Reads as many bytes as are available from a channel
+     *
+     * @return The number of bytes read, or {@code -1} if the end of the stream was reached
+     */
+    int read(ReadableByteChannel channel) throws IOException {
+
+        makeRoom();
+
+        view.limit(buffer.length);
+        view.position(end);
+
+        int read = channel.read(view);
+
+        if (read > 0) {
+
+            end += read;
+        }
+
+        return read;
+    }
+
+    /**
+     * Checks if there are bytes that have been read but not yet handed out as a frame
+     */
+    boolean hasRemaining() {
+
+        return end > start;
+    }
+
+    /**
+     * Moves to the next complete frame.  The region returned by {@code array()}, {@code offset()} and
+     * {@code length()} is only valid until the next call to this method or one of the {@code read()} methods.
+     *
+     * @return Whether or not a complete frame was available
+     */
+    boolean next() {
+
+        if (start == end) {
+
+            start = end = scanned = 0;
+
+            return false;
+        }
+
+        if (buffer[start] == PacketUtils.BINARY_FRAME_MARKER || buffer[start] == PacketUtils.ENCRYPTED_FRAME_MARKER
+                || buffer[start] == PacketUtils.KEYED_FRAME_MARKER) {
+
+            if (end - start < PacketUtils.BINARY_FRAME_HEADER_LENGTH) {
+
+                return false;
+            }
+
+            long header = ((buffer[start + 1] & 0xFFL) << 24) | ((buffer[start + 2] & 0xFFL) << 16)
+                    | ((buffer[start + 3] & 0xFFL) << 8) | (buffer[start + 4] & 0xFFL);
+
+            if (header > maxFrameLength) {
+
+                throw Errors.getUnreadableData(new NetworkException("Frame length " + header + " exceeds the maximum of " + maxFrameLength + " bytes"));
+            }
+
+            int length = (int) header;
+            int frameEnd = start + PacketUtils.BINARY_FRAME_HEADER_LENGTH + length;
+
+            if (frameEnd > end) {
+
+                // Make sure the rest of the frame fits with a single read
+                ensureCapacity(PacketUtils.BINARY_FRAME_HEADER_LENGTH + length);
+
+                return false;
+            }
+
+            binary = true;
+            encrypted = buffer[start] == PacketUtils.ENCRYPTED_FRAME_MARKER;
+            keyed = buffer[start] == PacketUtils.KEYED_FRAME_MARKER;
+            frameOffset = start + PacketUtils.BINARY_FRAME_HEADER_LENGTH;
+            frameLength = length;
+            start = scanned = frameEnd;
+
+        } else {
+
+            // Only scan bytes that have not already been checked for a line break
+            int i = Math.max(scanned, start);
+
+            while (i < end && buffer[i] != '\n') {
+
+                i++;
+            }
+
+            if (i == end) {
+
+                if (i - start > maxFrameLength) {
+
+                    throw Errors.getUnreadableData(new NetworkException("Line length exceeds the maximum of " + maxFrameLength + " bytes"));
+                }
+
+                scanned = i;
+
+                return false;
+            }
+
+            binary = false;
+            encrypted = false;
+            keyed = false;
+            frameOffset = start;
+            frameLength = (i > start && buffer[i - 1] == '\r' ? i - 1 : i) - start;
+            start = scanned = i + 1;
+        }
+
+        return true;
+    }
+
+    /**
+     * Checks whether the current frame is a binary frame or a line of text
+     */
+    boolean isBinary() {
+
+        return binary;
+    }
+
+    /**
+     * Checks whether the current frame is a binary frame containing encrypted data
+     */
+    boolean isEncrypted() {
+
+        return encrypted;
+    }
+
+    /**
+     * Checks whether the current frame is a binary frame whose keys were written with a {@code KeyDictionary}
+     */
+    boolean isKeyed() {
+
+        return keyed;
+    }
+
+    byte[] array() {
+
+        return buffer;
+    }
+
+    int offset() {
+
+        return frameOffset;
+    }
+
+    int length() {
+
+        return frameLength;
+    }
+
+    private void makeRoom() {
+
+        if (end == buffer.length) {
+
+            ensureCapacity(end - start + 1);
+        }
+    }
+
+    /**
+     * Makes sure that the specified number of bytes fit in the buffer from the start of the unread bytes,
+     * moving the unread bytes to the front of the buffer or growing it if needed
+     */
+    private void ensureCapacity(int length) {
+
+        if (length <= buffer.length - start) {
+
+            return;
+        }
+
+        int remaining = end - start;
+
+        if (length > buffer.length) {
+
+            byte[] larger = new byte[Math.max(buffer.length * 2, length)];
+            System.arraycopy(buffer, start, larger, 0, remaining);
+
+            buffer = larger;
+            view = ByteBuffer.wrap(buffer);
+
+        } else {
+
+            System.arraycopy(buffer, start, buffer, 0, remaining);
+        }
+
+        scanned = Math.max(scanned - start, 0);
+        end = remaining;
+        start = 0;
+    }
+}
@@ -0,0 +1,300 @@
+package com.github.chrisblutz.networking.sockets;
+
+import com.github.chrisblutz.networking.packets.Packet;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+
+/**
+ * A bounded queue of the {@code Packets} waiting to be written by a {@code Connection}.
+ * Any number of {@code Threads} can add {@code Packets} at once, while the
+ * {@code Connection} takes them from the single {@code Thread} that writes to its
+ * socket.  Vital {@code Packets} may use {@link #VITAL_RESERVE} slots past the capacity,
+ * since dropping them would lose query requests or results, but once those are
+ * used up the {@code OverflowPolicy} applies to them as well.
+ *
+ * @author Christopher Lutz
+ */
+class OutboundQueue {
+
+    /**
+     * The number of {@code Packets} past the capacity that only vital {@code Packets} may use
+     */
+    static final int VITAL_RESERVE = 16;
+
+    private final ArrayDeque<Packet> packets = new ArrayDeque<Packet>();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+
+    private final int capacity;
+    private final OverflowPolicy policy;
+
+    private long dropped = 0;
+    private boolean closed = false;
+
+    OutboundQueue(int capacity, OverflowPolicy policy) {
+
+        this.capacity = Math.max(1, capacity);
+        this.policy = policy;
+    }
+
+    /**
+     * Adds a {@code Packet} to the end of the queue, applying the {@code OverflowPolicy} if the queue is full
+     *
+     * @param p       The {@code Packet} to add
+     * @param canWait Whether or not the calling {@code Thread} may wait for room when the policy is {@code BLOCK}
+     * @return Whether or not the {@code Packet} was queued
+     */
+    boolean offer(Packet p, boolean canWait) {
+
+        lock.lock();
+
+        try {
+
+            int limit = p.isVital() ? capacity + VITAL_RESERVE : capacity;
+
+            if (!closed && packets.size() >= limit) {
+
+                switch (policy) {
+
+                    case BLOCK:
+
+                        if (!canWait) {
+
+                            dropped++;
+
+                            return false;
+                        }
+
+                        while (!closed && packets.size() >= limit) {
+
+                            try {
+
+                                notFull.await();
+
+                            } catch (InterruptedException e) {
+
+                                Thread.currentThread().interrupt();
+                                dropped++;
+
+                                return false;
+                            }
+                        }
+
+                        break;
+
+                    case DROP_OLDEST:
+
+                        dropped++;
+
+                        if (!removeOldest()) {
+
+                            return false;
+                        }
+
+                        break;
+
+                    default:
+
+                        dropped++;
+
+                        return false;
+                }
+            }
+
+            if (closed) {
+
+                return false;
+            }
+
+            packets.addLast(p);
+            notEmpty.signal();
+
+            return true;
+
+        } finally {
+
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes the oldest {@code Packet} that is not vital
+     *
+     * @return Whether or not there was a {@code Packet} that could be removed
+     */
+    private boolean removeOldest() {
+
+        Iterator<Packet> iterator = packets.iterator();
+
+        while (iterator.hasNext()) {
+
+            if (!iterator.next().isVital()) {
+
+                iterator.remove();
+
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Removes the first {@code Packet} in the queue without waiting
+     *
+     * @return The first {@code Packet}, or {@code null} if the queue is empty
+     */
+    Packet poll() {
+
+        lock.lock();
+
+        try {
+
+            Packet p = packets.pollFirst();
+
+            if (p != null) {
+
+                notFull.signalAll();
+            }
+
+            return p;
+
+        } finally {
+
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes the first {@code Packet} in the queue, waiting up to the specified time for one to be added
+     *
+     * @param timeout The maximum time to wait in nanoseconds
+     * @return The first {@code Packet}, or {@code null} if none was added in time
+     * @throws InterruptedException If the {@code Thread} is interrupted while waiting
+     */
+    Packet poll(long timeout) throws InterruptedException {
+
+        lock.lockInterruptibly();
+
+        try {
+
+            while (!closed && packets.isEmpty() && timeout > 0) {
+
+                timeout = notEmpty.awaitNanos(timeout);
+            }
+
+            Packet p = packets.pollFirst();
+
+            if (p != null) {
+
+                notFull.signalAll();
+            }
+
+            return p;
+
+        } finally {
+
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes the first {@code Packet} in the queue, waiting until one is added if the queue is empty
+     *
+     * @return The first {@code Packet}, or {@code null} if the queue was closed
+     * @throws InterruptedException If the {@code Thread} is interrupted while waiting
+     */
+    Packet take() throws InterruptedException {
+
+        lock.lockInterruptibly();
+
+        try {
+
+            while (!closed && packets.isEmpty()) {
+
+                notEmpty.await();
+            }
+
+            Packet p = packets.pollFirst();
+
+            if (p != null) {
+
+                notFull.signalAll();
+            }
+
+            return p;
+
+        } finally {
+
+            lock.unlock();
+        }
+    }
+
+    boolean isEmpty() {
+
+        return size() == 0;
+    }
+
+    int size() {
+
+        lock.lock();
+
+        try {
+
+            return packets.size();
+
+        } finally {
+
+            lock.unlock();
+        }
+    }
+
+    int getCapacity() {
+
+        return capacity;
+    }
+
+    OverflowPolicy getPolicy() {
+
+        return policy;
+    }
+
+    long getDroppedCount() {
+
+        lock.lock();
+
+        try {
+
+            return dropped;
+
+        } finally {
+
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stops accepting {@code Packets} and wakes up every {@code Thread} waiting on this queue
+     */
+    void close() {
+
+        lock.lock();
+
+        try {
+
+            closed = true;
+            notEmpty.signalAll();
+            notFull.signalAll();
+
+        } finally {
+
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.github.chrisblutz.networking.sockets;
+
+/**
+ * The ways a {@code Connection} can handle a {@code Packet} that is sent while its
+ * outbound queue is full.  Vital {@code Packets}, which carry query requests and
+ * results, are never dropped.
+ *
+ * @author Christopher Lutz
+ */
+public enum OverflowPolicy {
+
+    /**
+     * The policy used to make the sending {@code Thread} wait until there is room in
+     * the queue.  If the {@code Packet} is sent from the {@code Thread} that writes
+     * the {@code Connection}'s {@code Packets}, it cannot wait, so it is dropped and
+     * an error is reported instead.
+     */
+    BLOCK,
+    /**
+     * The policy used to drop the oldest queued {@code Packet} to make room for the
+     * new one
+     */
+    DROP_OLDEST,
+    /**
+     * The policy used to drop the new {@code Packet}, keeping the ones already
+     * queued
+     */
+    DROP_NEWEST,
+    /**
+     * The policy used to throw a {@code NetworkException} from {@code sendPacket()}
+     * so that the sender can decide what to do
+     */
+    FAIL;
+}
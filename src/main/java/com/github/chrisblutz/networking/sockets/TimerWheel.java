@@ -0,0 +1,395 @@
+package com.github.chrisblutz.networking.sockets;
+
+import com.github.chrisblutz.networking.Listenable;
+import com.github.chrisblutz.networking.exceptions.Errors;
+
+import java.lang.Thread.UncaughtExceptionHandler;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * A hashed timer wheel that runs tasks after a delay on a single {@code Thread}.
+ * Timeouts are hashed into a fixed ring of buckets by the tick they expire on, so
+ * scheduling and cancelling a timeout take constant time no matter how many are
+ * pending, and a {@code Server} or {@code Client} can track hundreds of thousands of
+ * deadlines without a {@code Thread} for each.  Timeouts expire up to one tick late.
+ *
+ * @author Christopher Lutz
+ */
+public class TimerWheel implements Runnable {
+
+    /**
+     * The length of a tick in milliseconds used by default
+     */
+    public static final long DEFAULT_TICK = 10;
+
+    /**
+     * The number of buckets in the wheel used by default
+     */
+    public static final int DEFAULT_WHEEL_SIZE = 512;
+
+    // Limits the work done by a single tick if timeouts are scheduled faster than they can be moved into the wheel
+    private static final int MAX_TRANSFERS_PER_TICK = 100000;
+
+    private final Listenable listenable;
+
+    private final long tickNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+
+    private final Queue<Timeout> added = new ConcurrentLinkedQueue<Timeout>();
+    private final Queue<Timeout> cancelled = new ConcurrentLinkedQueue<Timeout>();
+    private final AtomicInteger pending = new AtomicInteger(0);
+
+    private final Thread thread;
+    private final long startTime;
+    private long tick = 0;
+
+    private volatile boolean running = true;
+
+    /**
+     * Creates a new {@code TimerWheel} with the default tick length and wheel size and starts its {@code Thread}
+     *
+     * @param listenable The {@code Listenable} that owns this wheel and receives errors from its tasks
+     * @param name       The name used for the {@code Thread} of this wheel
+     */
+    public TimerWheel(Listenable listenable, String name) {
+
+        this(listenable, name, DEFAULT_TICK, DEFAULT_WHEEL_SIZE);
+    }
+
+    /**
+     * Creates a new {@code TimerWheel} and starts its {@code Thread}
+     *
+     * @param listenable The {@code Listenable} that owns this wheel and receives errors from its tasks
+     * @param name       The name used for the {@code Thread} of this wheel
+     * @param tick       The length of a tick in milliseconds
+     * @param wheelSize  The number of buckets in the wheel, rounded up to a power of two
+     */
+    public TimerWheel(final Listenable listenable, String name, long tick, int wheelSize) {
+
+        this.listenable = listenable;
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, tick));
+
+        int size = 1;
+
+        while (size < wheelSize) {
+
+            size <<= 1;
+        }
+
+        wheel = new Bucket[size];
+        mask = size - 1;
+
+        for (int i = 0; i < size; i++) {
+
+            wheel[i] = new Bucket();
+        }
+
+        startTime = System.nanoTime();
+
+        thread = new Thread(this);
+        thread.setUncaughtExceptionHandler(new UncaughtExceptionHandler() {
+
+            @Override
+            public void uncaughtException(Thread t, Throwable e) {
+
+                Errors.threadErrored(t.getName(), listenable, e);
+            }
+        });
+        thread.setName(name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Schedules a task to run once the specified delay has passed.  The task runs on the
+     * {@code Thread} of this wheel, so it should not block.
+     *
+     * @param task  The task to run
+     * @param delay The delay before the task runs
+     * @param unit  The unit of the delay
+     * @return A {@code Timeout} that can be used to cancel the task
+     */
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+
+        Timeout timeout = new Timeout(this, task, System.nanoTime() - startTime + unit.toNanos(Math.max(0, delay)));
+
+        pending.incrementAndGet();
+        added.add(timeout);
+
+        return timeout;
+    }
+
+    /**
+     * Gets the number of tasks that have been scheduled and have neither run nor been cancelled
+     *
+     * @return The number of pending tasks
+     */
+    public int getPendingCount() {
+
+        return pending.get();
+    }
+
+    /**
+     * Stops this wheel.  Tasks that have not run yet are dropped.
+     */
+    public void shutdown() {
+
+        running = false;
+        thread.interrupt();
+    }
+
+    @Override
+    public void run() {
+
+        while (running) {
+
+            long deadline = waitForNextTick();
+
+            if (deadline < 0) {
+
+                break;
+            }
+
+            processCancelled();
+            transferAdded();
+
+            wheel[(int) (tick & mask)].expire(deadline);
+
+            tick++;
+        }
+    }
+
+    /**
+     * Sleeps until the current tick ends
+     *
+     * @return The time the tick ended at relative to the start of this wheel, or {@code -1} if the wheel was stopped
+     */
+    private long waitForNextTick() {
+
+        long deadline = tickNanos * (tick + 1);
+
+        while (running) {
+
+            long sleep = deadline - (System.nanoTime() - startTime);
+
+            if (sleep <= 0) {
+
+                return deadline;
+            }
+
+            try {
+
+                Thread.sleep(TimeUnit.NANOSECONDS.toMillis(sleep + 999999));
+
+            } catch (InterruptedException e) {
+
+                // shutdown() interrupts the wheel, and running is checked again
+            }
+        }
+
+        return -1;
+    }
+
+    private void transferAdded() {
+
+        for (int i = 0; i < MAX_TRANSFERS_PER_TICK; i++) {
+
+            Timeout timeout = added.poll();
+
+            if (timeout == null) {
+
+                return;
+
+            } else if (timeout.state.get() != Timeout.WAITING) {
+
+                continue;
+            }
+
+            long expiresOn = timeout.deadline / tickNanos;
+
+            timeout.remainingRounds = (expiresOn - tick) / wheel.length;
+
+            // Timeouts that are already overdue expire on the current tick
+            wheel[(int) (Math.max(expiresOn, tick) & mask)].add(timeout);
+        }
+    }
+
+    private void processCancelled() {
+
+        Timeout timeout;
+
+        while ((timeout = cancelled.poll()) != null) {
+
+            if (timeout.bucket != null) {
+
+                timeout.bucket.remove(timeout);
+            }
+        }
+    }
+
+    private void run(Timeout timeout) {
+
+        if (!timeout.state.compareAndSet(Timeout.WAITING, Timeout.EXPIRED)) {
+
+            return;
+        }
+
+        pending.decrementAndGet();
+
+        try {
+
+            timeout.task.run();
+
+        } catch (Throwable t) {
+
+            listenable.report(t);
+        }
+    }
+
+    /**
+     * A task scheduled on a {@code TimerWheel}
+     */
+    public static final class Timeout {
+
+        private static final int WAITING = 0, CANCELLED = 1, EXPIRED = 2;
+
+        private final TimerWheel wheel;
+        private final Runnable task;
+        private final long deadline;
+        private final AtomicInteger state = new AtomicInteger(WAITING);
+
+        // Only used by the Thread of the wheel
+        private long remainingRounds;
+        private Bucket bucket;
+        private Timeout previous, next;
+
+        private Timeout(TimerWheel wheel, Runnable task, long deadline) {
+
+            this.wheel = wheel;
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Cancels the task if it has not run yet
+         *
+         * @return {@code true} if the task was cancelled, {@code false} if it already ran or was cancelled before
+         */
+        public boolean cancel() {
+
+            if (!state.compareAndSet(WAITING, CANCELLED)) {
+
+                return false;
+            }
+
+            wheel.pending.decrementAndGet();
+            wheel.cancelled.add(this);
+
+            return true;
+        }
+
+        /**
+         * Checks whether or not the task was cancelled
+         *
+         * @return Whether or not the task was cancelled
+         */
+        public boolean isCancelled() {
+
+            return state.get() == CANCELLED;
+        }
+
+        /**
+         * Checks whether or not the task has run
+         *
+         * @return Whether or not the task has run
+         */
+        public boolean isExpired() {
+
+            return state.get() == EXPIRED;
+        }
+    }
+
+    /**
+     * A doubly-linked list of the {@code Timeouts} that hash to one slot of the wheel
+     */
+    private final class Bucket {
+
+        private Timeout head, tail;
+
+        void add(Timeout timeout) {
+
+            timeout.bucket = this;
+
+            if (head == null) {
+
+                head = tail = timeout;
+
+            } else {
+
+                tail.next = timeout;
+                timeout.previous = tail;
+                tail = timeout;
+            }
+        }
+
+        void expire(long deadline) {
+
+            Timeout timeout = head;
+
+            while (timeout != null) {
+
+                Timeout next = timeout.next;
+
+                if (timeout.remainingRounds <= 0 && timeout.deadline <= deadline) {
+
+                    remove(timeout);
+                    run(timeout);
+
+                } else if (timeout.state.get() == Timeout.CANCELLED) {
+
+                    remove(timeout);
+
+                } else if (timeout.remainingRounds > 0) {
+
+                    timeout.remainingRounds--;
+                }
+
+                timeout = next;
+            }
+        }
+
+        void remove(Timeout timeout) {
+
+            if (timeout.bucket != this) {
+
+                return;
+            }
+
+            if (timeout.previous != null) {
+
+                timeout.previous.next = timeout.next;
+
+            } else {
+
+                head = timeout.next;
+            }
+
+            if (timeout.next != null) {
+
+                timeout.next.previous = timeout.previous;
+
+            } else {
+
+                tail = timeout.previous;
+            }
+
+            timeout.previous = timeout.next = null;
+            timeout.bucket = null;
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package com.github.chrisblutz.networking.sockets;
+
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLEngineResult;
+import javax.net.ssl.SSLEngineResult.HandshakeStatus;
+import javax.net.ssl.SSLSession;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SocketChannel;
+
+
+/**
+ * Runs TLS over the non-blocking channel of a {@code Connection} using an
+ * {@code SSLEngine}.  Reading from a {@code TlsSession} returns the decrypted
+ * bytes received on the channel, and writing to it encrypts bytes before they
+ * are written to the channel.  The handshake is driven by the same calls, so a
+ * {@code Connection} can queue {@code Packets} before it has finished.  All
+ * methods must be called from the {@code EventLoop} that the {@code Connection}
+ * is registered with.
+ *
+ * @author Christopher Lutz
+ */
+class TlsSession implements ReadableByteChannel {
+
+    private static final ByteBuffer EMPTY = ByteBuffer.allocate(0);
+
+    private final SSLEngine engine;
+    private final SocketChannel channel;
+
+    // netIn and appIn are kept ready for writing, netOut is kept ready for reading
+    private ByteBuffer netIn, appIn, netOut;
+
+    private boolean closed = false;
+
+    TlsSession(SSLEngine engine, SocketChannel channel) throws IOException {
+
+        this.engine = engine;
+        this.channel = channel;
+
+        SSLSession session = engine.getSession();
+
+        netIn = ByteBuffer.allocate(session.getPacketBufferSize());
+        appIn = ByteBuffer.allocate(session.getApplicationBufferSize());
+        netOut = ByteBuffer.allocate(session.getPacketBufferSize());
+        netOut.flip();
+
+        engine.beginHandshake();
+    }
+
+    SSLSession getSession() {
+
+        return engine.getSession();
+    }
+
+    /**
+     * Reads decrypted bytes into the specified buffer, reading from the channel and
+     * continuing the handshake as needed
+     *
+     * @return The number of bytes read, or {@code -1} if the remote side closed the connection
+     */
+    @Override
+    public int read(ByteBuffer dst) throws IOException {
+
+        if (appIn.position() == 0) {
+
+            unwrap();
+
+            if (appIn.position() == 0) {
+
+                return closed ? -1 : 0;
+            }
+        }
+
+        appIn.flip();
+
+        int length = Math.min(appIn.remaining(), dst.remaining());
+        int limit = appIn.limit();
+
+        appIn.limit(appIn.position() + length);
+        dst.put(appIn);
+        appIn.limit(limit);
+
+        appIn.compact();
+
+        return length;
+    }
+
+    /**
+     * Checks whether or not there are bytes that were received but have not been read yet
+     */
+    boolean hasBufferedInput() {
+
+        return appIn.position() > 0 || netIn.position() > 0;
+    }
+
+    /**
+     * Unwraps records until there is decrypted data or nothing more can be read from the channel
+     */
+    private void unwrap() throws IOException {
+
+        boolean readChannel = netIn.position() == 0;
+
+        while (!closed) {
+
+            if (readChannel) {
+
+                int read = channel.read(netIn);
+
+                if (read < 0) {
+
+                    closed = true;
+
+                    return;
+
+                } else if (read == 0) {
+
+                    return;
+                }
+            }
+
+            netIn.flip();
+            SSLEngineResult result = engine.unwrap(netIn, appIn);
+            netIn.compact();
+
+            runDelegatedTasks();
+
+            switch (result.getStatus()) {
+
+                case BUFFER_UNDERFLOW:
+
+                    if (!netIn.hasRemaining()) {
+
+                        netIn = enlarge(netIn, engine.getSession().getPacketBufferSize());
+                    }
+
+                    readChannel = true;
+                    break;
+
+                case BUFFER_OVERFLOW:
+
+                    appIn = enlarge(appIn, engine.getSession().getApplicationBufferSize());
+                    readChannel = false;
+                    break;
+
+                case CLOSED:
+
+                    closed = true;
+
+                    return;
+
+                default:
+
+                    if (engine.getHandshakeStatus() == HandshakeStatus.NEED_WRAP) {
+
+                        write(EMPTY);
+                    }
+
+                    // Stop if the engine is waiting to write before it can read again
+                    if (appIn.position() > 0 || (result.bytesConsumed() == 0 && result.bytesProduced() == 0)) {
+
+                        return;
+                    }
+
+                    readChannel = netIn.position() == 0;
+            }
+        }
+    }
+
+    /**
+     * Encrypts as many bytes as possible from the specified buffer and writes them to
+     * the channel, continuing the handshake as needed.  Bytes are left in the buffer if
+     * the handshake is waiting for the remote side or the channel cannot accept more.
+     *
+     * @param src The bytes to write
+     * @return The number of bytes taken from the buffer
+     */
+    int write(ByteBuffer src) throws IOException {
+
+        int consumed = 0;
+
+        while (flushNetOut()) {
+
+            HandshakeStatus status = engine.getHandshakeStatus();
+
+            if (status == HandshakeStatus.NEED_UNWRAP || (!src.hasRemaining() && status != HandshakeStatus.NEED_WRAP)) {
+
+                break;
+            }
+
+            netOut.clear();
+            SSLEngineResult result = engine.wrap(src, netOut);
+            netOut.flip();
+
+            runDelegatedTasks();
+
+            if (result.getStatus() == SSLEngineResult.Status.BUFFER_OVERFLOW) {
+
+                netOut = enlarge(netOut, engine.getSession().getPacketBufferSize());
+                netOut.flip();
+
+            } else if (result.getStatus() == SSLEngineResult.Status.CLOSED) {
+
+                flushNetOut();
+
+                break;
+
+            } else {
+
+                consumed += result.bytesConsumed();
+
+                if (result.bytesConsumed() == 0 && result.bytesProduced() == 0) {
+
+                    break;
+                }
+            }
+        }
+
+        return consumed;
+    }
+
+    /**
+     * Checks whether or not encrypted bytes are waiting for the channel to accept them
+     */
+    boolean hasPendingOutput() {
+
+        return netOut.hasRemaining();
+    }
+
+    private boolean flushNetOut() throws IOException {
+
+        while (netOut.hasRemaining()) {
+
+            if (channel.write(netOut) == 0) {
+
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private void runDelegatedTasks() {
+
+        Runnable task;
+
+        while ((task = engine.getDelegatedTask()) != null) {
+
+            task.run();
+        }
+    }
+
+    private static ByteBuffer enlarge(ByteBuffer buffer, int size) {
+
+        ByteBuffer larger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + size));
+        buffer.flip();
+        larger.put(buffer);
+
+        return larger;
+    }
+
+    @Override
+    public boolean isOpen() {
+
+        return !closed && channel.isOpen();
+    }
+
+    /**
+     * Tells the remote side that no more data will be sent, as far as the channel can accept it without waiting
+     */
+    @Override
+    public void close() throws IOException {
+
+        engine.closeOutbound();
+        write(EMPTY);
+    }
+}
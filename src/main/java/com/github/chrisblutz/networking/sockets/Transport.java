@@ -0,0 +1,20 @@
+package com.github.chrisblutz.networking.sockets;
+
+/**
+ * The transports used by {@code Connections} to move data across their sockets
+ *
+ * @author Christopher Lutz
+ */
+public enum Transport {
+
+    /**
+     * The transport used for {@code Connections} that read and write on their own
+     * {@code Threads} using blocking {@code Socket} streams
+     */
+    BLOCKING,
+    /**
+     * The transport used for {@code Connections} that are served by a fixed group of
+     * {@code EventLoops} using non-blocking {@code SocketChannels}
+     */
+    NIO;
+}
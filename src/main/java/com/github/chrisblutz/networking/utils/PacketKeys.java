@@ -6,4 +6,9 @@ package com.github.chrisblutz.networking.utils;
 public class PacketKeys {
 
     public static final String BRANCH_CONNECTION = "net:branch_conn";
+    public static final String CODEC = "net:codec";
+    public static final String ENCRYPTION_MODE = "net:enc_mode";
+    public static final String MESSAGE = "net:msg";
+    public static final String KEY_DICTIONARY = "net:key_dict";
+    public static final String QUERIES = "net:q";
 }
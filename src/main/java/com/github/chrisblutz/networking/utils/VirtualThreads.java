@@ -0,0 +1,56 @@
+package com.github.chrisblutz.networking.utils;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadFactory;
+
+
+/**
+ * A utility class for creating virtual {@code Threads} on JVMs that support them.
+ * All lookups are done reflectively so that this library still runs on JVMs
+ * without virtual threads.
+ *
+ * @author Christopher Lutz
+ */
+public class VirtualThreads {
+
+    private static ThreadFactory factory = null;
+    private static boolean checked = false;
+
+    /**
+     * Checks whether or not the running JVM supports virtual {@code Threads}
+     *
+     * @return Whether or not virtual {@code Threads} can be created
+     */
+    public static boolean isSupported() {
+
+        return getThreadFactory() != null;
+    }
+
+    /**
+     * Gets a {@code ThreadFactory} that creates virtual {@code Threads}
+     *
+     * @return A {@code ThreadFactory} for virtual {@code Threads}, or {@code null} if the running JVM does not support them
+     */
+    public static synchronized ThreadFactory getThreadFactory() {
+
+        if (!checked) {
+
+            checked = true;
+
+            try {
+
+                Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+                Method factoryMethod = Class.forName("java.lang.Thread$Builder").getMethod("factory");
+
+                factory = (ThreadFactory) factoryMethod.invoke(builder);
+
+            } catch (Exception e) {
+
+                // Virtual threads are not available (or are still a preview feature) on this JVM
+                factory = null;
+            }
+        }
+
+        return factory;
+    }
+}
@@ -0,0 +1,105 @@
+package com.github.chrisblutz.networking;
+
+import com.github.chrisblutz.networking.packets.Packet;
+import com.github.chrisblutz.networking.packets.PacketReader;
+import com.github.chrisblutz.networking.packets.PacketUtils;
+import com.github.chrisblutz.networking.packets.PacketWriter;
+import com.github.chrisblutz.networking.packets.binary.BinaryPacketReader;
+import com.github.chrisblutz.networking.packets.binary.BinaryPacketWriter;
+import com.github.chrisblutz.networking.sockets.Connection;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import java.util.Arrays;
+import java.util.Random;
+
+
+public class ArrayTypeTest extends TestCase {
+
+    private static final int ELEMENTS = 10000;
+
+    public ArrayTypeTest(String name) {
+
+        super(name);
+    }
+
+    public static TestSuite suite() {
+
+        return new TestSuite(ArrayTypeTest.class);
+    }
+
+    public void testBinaryRoundTrip() {
+
+        Packet packet = createPacket();
+
+        byte[] frame = new BinaryPacketWriter().getPacketAsFrame(Connection.getUninitializedConnection(), packet);
+        Packet read = new BinaryPacketReader().getPacketFromFrame(Connection.getUninitializedConnection(), frame,
+                PacketUtils.BINARY_FRAME_HEADER_LENGTH, frame.length - PacketUtils.BINARY_FRAME_HEADER_LENGTH);
+
+        checkPacket(packet, read);
+
+        // Numbers are written at their fixed width, so the frame is barely larger than the arrays themselves
+        assertTrue("Frame is " + frame.length + " bytes", frame.length < ELEMENTS * 26 + 1024);
+    }
+
+    public void testTextRoundTrip() {
+
+        Packet packet = createPacket();
+
+        String text = new PacketWriter().getPacketAsWriteableString(Connection.getUninitializedConnection(), packet);
+        Packet read = new PacketReader().getPacketFromString(Connection.getUninitializedConnection(), text);
+
+        checkPacket(packet, read);
+    }
+
+    private static Packet createPacket() {
+
+        Random random = new Random(22);
+
+        byte[] bytes = new byte[ELEMENTS];
+        int[] ints = new int[ELEMENTS];
+        long[] longs = new long[ELEMENTS];
+        float[] floats = new float[ELEMENTS];
+        double[] doubles = new double[ELEMENTS];
+
+        random.nextBytes(bytes);
+
+        for (int i = 0; i < ELEMENTS; i++) {
+
+            ints[i] = random.nextInt();
+            longs[i] = random.nextLong();
+            floats[i] = random.nextFloat() * i - 1000;
+            doubles[i] = random.nextGaussian() * 1e6;
+        }
+
+        ints[0] = Integer.MIN_VALUE;
+        longs[0] = Long.MAX_VALUE;
+        floats[0] = Float.NaN;
+        doubles[0] = Double.NEGATIVE_INFINITY;
+        doubles[1] = Double.MIN_VALUE;
+
+        Packet p = new Packet();
+        p.putData("bytes", bytes);
+        p.putData("ints", ints);
+        p.putData("longs", longs);
+        p.putData("floats", floats);
+        p.putData("doubles", doubles);
+        p.putData("empty-bytes", new byte[0]);
+        p.putData("empty-ints", new int[0]);
+        p.putData("empty-doubles", new double[0]);
+
+        return p;
+    }
+
+    private static void checkPacket(Packet expected, Packet actual) {
+
+        assertTrue(Arrays.equals((byte[]) expected.getData("bytes"), (byte[]) actual.getData("bytes")));
+        assertTrue(Arrays.equals((int[]) expected.getData("ints"), (int[]) actual.getData("ints")));
+        assertTrue(Arrays.equals((long[]) expected.getData("longs"), (long[]) actual.getData("longs")));
+        assertTrue(Arrays.equals((float[]) expected.getData("floats"), (float[]) actual.getData("floats")));
+        assertTrue(Arrays.equals((double[]) expected.getData("doubles"), (double[]) actual.getData("doubles")));
+        assertEquals(0, ((byte[]) actual.getData("empty-bytes")).length);
+        assertEquals(0, ((int[]) actual.getData("empty-ints")).length);
+        assertEquals(0, ((double[]) actual.getData("empty-doubles")).length);
+    }
+}
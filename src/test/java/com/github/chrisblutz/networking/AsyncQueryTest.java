@@ -0,0 +1,249 @@
+package com.github.chrisblutz.networking;
+
+import com.github.chrisblutz.networking.exceptions.reporters.ErrorReporter;
+import com.github.chrisblutz.networking.exceptions.reporters.ErrorReporterFactory;
+import com.github.chrisblutz.networking.listeners.ClientListener;
+import com.github.chrisblutz.networking.listeners.ServerListener;
+import com.github.chrisblutz.networking.packets.Packet;
+import com.github.chrisblutz.networking.packets.encryption.EncryptionKey;
+import com.github.chrisblutz.networking.query.Query;
+import com.github.chrisblutz.networking.query.QueryCallback;
+import com.github.chrisblutz.networking.query.QueryException;
+import com.github.chrisblutz.networking.query.QueryFuture;
+import com.github.chrisblutz.networking.query.QueryPolicy;
+import com.github.chrisblutz.networking.query.QueryStatus;
+import com.github.chrisblutz.networking.query.QueryType;
+import com.github.chrisblutz.networking.sockets.Connection;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+public class AsyncQueryTest extends TestCase {
+
+    private boolean errored = false;
+    private String errorMessage = "";
+
+    public AsyncQueryTest(String name) {
+
+        super(name);
+    }
+
+    public static TestSuite suite() {
+
+        return new TestSuite(AsyncQueryTest.class);
+    }
+
+    public void testThrowingCallback() {
+
+        final List<Throwable> reported = new ArrayList<Throwable>();
+        final AtomicInteger called = new AtomicInteger(0);
+
+        Server server = new Server(12391, "AsyncQueryTest");
+        server.addErrorReporter(new ErrorReporter() {
+
+            @Override
+            protected void report(String toReport) {
+
+            }
+
+            @Override
+            public void report(Throwable t) {
+
+                reported.add(t);
+            }
+        });
+
+        Query query = new Query("throwing", QueryType.CONNECTED_IPS, new HashMap<String, Object>());
+        query.setListenable(server);
+
+        query.addCallback(new QueryCallback() {
+
+            @Override
+            public void onComplete(Query query) {
+
+                throw new IllegalStateException("Callback failed!");
+            }
+        });
+        query.addCallback(new QueryCallback() {
+
+            @Override
+            public void onComplete(Query query) {
+
+                called.incrementAndGet();
+            }
+        });
+
+        query.setStatus(QueryStatus.getSuccessfulStatus(""));
+
+        // The failure is reported, and neither the later callback nor the completion are skipped
+        assertEquals(1, called.get());
+        assertTrue(query.isDone());
+        assertEquals(1, reported.size());
+        assertEquals("Callback failed!", reported.get(0).getMessage());
+    }
+
+    public void testAsyncQuery() {
+
+        final Server server = new Server(12376, "AsyncQueryTest");
+        server.addErrorReporter(ErrorReporterFactory.newInstance());
+        server.addNetworkListener(new ServerListener() {
+
+            @Override
+            public void onReceive(Connection connection, Packet packet) {
+
+            }
+
+            @Override
+            public Packet onConnect(Connection c, Packet data) {
+
+                return data;
+            }
+
+            @Override
+            public void onTimeout(Connection connection) {
+
+            }
+
+            @Override
+            public void onClientFailure(Connection c) {
+
+            }
+        });
+        server.setQueryPolicy(QueryType.CONNECTED_IPS, QueryPolicy.getAcceptancePolicy());
+        server.setQueryPolicy(QueryType.NUMBER_OF_CURRENT_CONNECTIONS, QueryPolicy.getRejectionPolicy("Test rejection!"));
+
+        final Client client = new Client("0.0.0.0", 12376, "TestClient");
+        client.addErrorReporter(ErrorReporterFactory.newInstance());
+        client.addNetworkListener(new ClientListener() {
+
+            @Override
+            public void onReceive(Connection connection, Packet packet) {
+
+            }
+
+            @Override
+            public void onConnect(Packet packet) {
+
+            }
+
+            @Override
+            public void onTimeout(Connection connection) {
+
+            }
+        });
+
+        try {
+
+            System.out.println("Starting server...");
+
+            server.start();
+
+            System.out.println("Starting client...");
+
+            client.connect();
+
+            System.out.println("Waiting on CONNECTED_IPS, expecting acceptance...");
+
+            QueryFuture future = client.getConnection().queryAsync("async-query", QueryType.CONNECTED_IPS, new HashMap<String, Object>());
+            Object result = future.get(10, TimeUnit.SECONDS);
+
+            if (!(result instanceof String[]) || ((String[]) result).length != 1) {
+
+                errored = true;
+                errorMessage = "Unexpected result " + result + "!";
+            }
+
+            System.out.println("Waiting on NUMBER_OF_CURRENT_CONNECTIONS, expecting rejection...");
+
+            try {
+
+                client.getConnection().queryAsync("async-query2", QueryType.NUMBER_OF_CURRENT_CONNECTIONS, new HashMap<String, Object>()).get(10, TimeUnit.SECONDS);
+
+                errored = true;
+                errorMessage = "Expected rejection!";
+
+            } catch (ExecutionException e) {
+
+                if (!(e.getCause() instanceof QueryException) || ((QueryException) e.getCause()).getQuery().getStatus() != QueryStatus.Status.REJECTED
+                        || !"Test rejection!".equals(((QueryException) e.getCause()).getQuery().getStatusMessage())) {
+
+                    errored = true;
+                    errorMessage = "Unexpected failure " + e.getCause() + "!";
+                }
+            }
+
+            System.out.println("Waiting for a callback...");
+
+            final CountDownLatch called = new CountDownLatch(1);
+            final Query[] completed = new Query[1];
+
+            client.getConnection().queryAsync("async-query3", QueryType.CONNECTED_IPS, new HashMap<String, Object>(), new QueryCallback() {
+
+                @Override
+                public void onComplete(Query query) {
+
+                    completed[0] = query;
+                    called.countDown();
+                }
+            });
+
+            if (!called.await(10, TimeUnit.SECONDS)) {
+
+                errored = true;
+                errorMessage = "The callback was never called!";
+
+            } else if (completed[0].getStatus() != QueryStatus.Status.SUCCESSFUL || !"async-query3".equals(completed[0].getId())) {
+
+                errored = true;
+                errorMessage = "The callback received " + completed[0].getId() + " with status " + completed[0].getStatus() + " (" + completed[0].getStatusMessage() + ")!";
+            }
+
+            System.out.println("Resetting an encryption key that the server does not have...");
+
+            // The server has no EncryptionKey, so it refuses and the reset returns false instead of waiting forever
+            if (EncryptionKey.resetEncryptionKey(client.getConnection())) {
+
+                errored = true;
+                errorMessage = "The encryption key reset should have failed!";
+            }
+
+        } catch (Exception e) {
+
+            e.printStackTrace();
+
+            errored = true;
+            errorMessage = e.getClass().getName();
+        }
+
+        try {
+
+            client.close();
+            server.close();
+
+        } catch (Exception e) {
+
+            e.printStackTrace();
+
+            errored = true;
+            errorMessage = e.getClass().getName();
+        }
+
+        if (errored) {
+
+            System.out.println("Errored - " + errorMessage);
+            fail(errorMessage);
+
+        } else {
+
+            System.out.println("Success!");
+        }
+    }
+}
@@ -0,0 +1,331 @@
+package com.github.chrisblutz.networking;
+
+import com.github.chrisblutz.networking.exceptions.reporters.ErrorReporterFactory;
+import com.github.chrisblutz.networking.listeners.ClientListener;
+import com.github.chrisblutz.networking.listeners.ServerListener;
+import com.github.chrisblutz.networking.packets.Codec;
+import com.github.chrisblutz.networking.packets.Packet;
+import com.github.chrisblutz.networking.packets.PacketUtils;
+import com.github.chrisblutz.networking.packets.binary.BinaryPacketReader;
+import com.github.chrisblutz.networking.packets.binary.BinaryPacketWriter;
+import com.github.chrisblutz.networking.sockets.Connection;
+import com.github.chrisblutz.networking.utils.PacketKeys;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.net.Socket;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+public class BinaryCodecTest extends TestCase {
+
+    private static final String TRICKY = "a|b=c:d\ne\rf,g h \u00e9\u4e2d\ud83d\ude00";
+    // The text codec cannot carry its own escape sequences, so this is only checked in binary
+    private static final String ESCAPES = PacketUtils.VERTICAL_LINE_ESCAPE + PacketUtils.NEW_LINE_ESCAPE + PacketUtils.COMMA_ESCAPE;
+
+    private boolean errored = false;
+    private String errorMessage = "";
+    private AtomicInteger responses = new AtomicInteger(0);
+
+    public BinaryCodecTest(String name) {
+
+        super(name);
+    }
+
+    public static TestSuite suite() {
+
+        return new TestSuite(BinaryCodecTest.class);
+    }
+
+    public void testBinaryRoundTrip() {
+
+        Packet packet = createPacket();
+        packet.putData("escapes", ESCAPES);
+
+        byte[] frame = new BinaryPacketWriter().getPacketAsFrame(Connection.getUninitializedConnection(), packet);
+
+        assertEquals(PacketUtils.BINARY_FRAME_MARKER, frame[0]);
+
+        Packet read = new BinaryPacketReader().getPacketFromFrame(Connection.getUninitializedConnection(), frame,
+                PacketUtils.BINARY_FRAME_HEADER_LENGTH, frame.length - PacketUtils.BINARY_FRAME_HEADER_LENGTH);
+
+        String error = checkPacket(read);
+
+        if (error != null) {
+
+            fail(error);
+        }
+
+        assertEquals(ESCAPES, read.getData("escapes"));
+    }
+
+    public void testNoOfferByDefault() {
+
+        final Server server = new Server(12387, "BinaryCodecTest");
+        server.addErrorReporter(ErrorReporterFactory.newInstance());
+        server.addNetworkListener(new ServerListener() {
+
+            @Override
+            public void onReceive(Connection connection, Packet packet) {
+
+            }
+
+            @Override
+            public Packet onConnect(Connection c, Packet data) {
+
+                return data;
+            }
+
+            @Override
+            public void onTimeout(Connection connection) {
+
+            }
+
+            @Override
+            public void onClientFailure(Connection c) {
+
+            }
+        });
+
+        String line = null;
+
+        try {
+
+            server.start();
+
+            // Read the connection packet the way a client that predates the binary codec would
+            Socket socket = new Socket("0.0.0.0", 12387);
+            socket.setSoTimeout(5000);
+
+            line = new BufferedReader(new InputStreamReader(socket.getInputStream(), "UTF-8")).readLine();
+
+            socket.close();
+            server.close();
+
+        } catch (Exception e) {
+
+            e.printStackTrace();
+            fail(e.getClass().getName());
+        }
+
+        assertNotNull(line);
+        assertFalse("The codec was offered to a client by default!", line.contains(PacketKeys.CODEC));
+        assertFalse("Keyed frames were offered to a client by default!", line.contains(PacketKeys.KEY_DICTIONARY));
+    }
+
+    public void testCodecNegotiation() {
+
+        final Server server = new Server(12362, "BinaryCodecTest");
+        server.setCodec(Codec.BINARY);
+        server.addErrorReporter(ErrorReporterFactory.newInstance());
+        server.addNetworkListener(new ServerListener() {
+
+            @Override
+            public void onReceive(Connection connection, Packet packet) {
+
+                String error = checkPacket(packet);
+
+                if (error != null) {
+
+                    errored = true;
+                    errorMessage = "Server: " + error;
+                }
+
+                Codec expected = Codec.valueOf(packet.getData("codec").toString());
+
+                if (connection.getCodec() != expected) {
+
+                    errored = true;
+                    errorMessage = "Server: Expected codec " + expected + ", found " + connection.getCodec() + "!";
+                }
+
+                Packet response = createPacket();
+                response.putData("codec", expected.name());
+
+                connection.sendPacket(response, false);
+            }
+
+            @Override
+            public Packet onConnect(Connection c, Packet data) {
+
+                return data;
+            }
+
+            @Override
+            public void onTimeout(Connection connection) {
+
+            }
+
+            @Override
+            public void onClientFailure(Connection c) {
+
+            }
+        });
+
+        Client binaryClient = createClient(Codec.BINARY);
+        Client textClient = createClient(Codec.TEXT);
+
+        try {
+
+            System.out.println("Starting server...");
+
+            server.start();
+
+            System.out.println("Starting clients...");
+
+            binaryClient.connect();
+            textClient.connect();
+
+        } catch (Exception e) {
+
+            e.printStackTrace();
+
+            errored = true;
+            errorMessage = e.getClass().getName();
+        }
+
+        long deadline = System.currentTimeMillis() + 10000;
+
+        while (!errored && responses.get() < 2 && System.currentTimeMillis() < deadline) {
+
+            try {
+
+                Thread.sleep(100);
+
+            } catch (InterruptedException e) {
+            }
+        }
+
+        if (!errored && responses.get() < 2) {
+
+            errored = true;
+            errorMessage = "Only " + responses.get() + " of 2 clients received a response!";
+        }
+
+        try {
+
+            binaryClient.close();
+            textClient.close();
+            server.close();
+
+        } catch (Exception e) {
+
+            e.printStackTrace();
+
+            errored = true;
+            errorMessage = e.getClass().getName();
+        }
+
+        if (errored) {
+
+            System.out.println("Errored - " + errorMessage);
+            fail(errorMessage);
+
+        } else {
+
+            System.out.println("Success!");
+        }
+    }
+
+    private Client createClient(final Codec codec) {
+
+        final Client client = new Client("0.0.0.0", 12362, "TestClient-" + codec);
+        client.setCodec(codec);
+        client.addErrorReporter(ErrorReporterFactory.newInstance());
+        client.addNetworkListener(new ClientListener() {
+
+            @Override
+            public void onReceive(Connection connection, Packet packet) {
+
+                String error = checkPacket(packet);
+
+                if (error != null) {
+
+                    errored = true;
+                    errorMessage = "Client: " + error;
+
+                } else if (connection.getCodec() != codec) {
+
+                    errored = true;
+                    errorMessage = "Client: Expected codec " + codec + ", found " + connection.getCodec() + "!";
+
+                } else {
+
+                    System.out.println("Client received " + codec + " response!");
+
+                    responses.incrementAndGet();
+                }
+            }
+
+            @Override
+            public void onConnect(Packet packet) {
+
+                Packet p = createPacket();
+                p.putData("codec", codec.name());
+
+                client.sendPacket(p, true);
+            }
+
+            @Override
+            public void onTimeout(Connection connection) {
+
+                errored = true;
+                errorMessage = "Connection timed out!";
+            }
+        });
+
+        return client;
+    }
+
+    private static Packet createPacket() {
+
+        Packet p = new Packet();
+        p.putData("int", -123456);
+        p.putData("long", Long.MAX_VALUE);
+        p.putData("short", (short) -7);
+        p.putData("double", 3.5);
+        p.putData("float", -1.25f);
+        p.putData("bool", true);
+        p.putData("byte", (byte) -2);
+        p.putData("char", '\u00e9');
+        p.putData("string", TRICKY);
+        p.putData("string-array", new String[]{"x,y", TRICKY});
+        p.putData("key|with\nescapes", "value");
+
+        return p;
+    }
+
+    private static String checkPacket(Packet p) {
+
+        Object[][] expected = new Object[][]{
+                {"int", -123456},
+                {"long", Long.MAX_VALUE},
+                {"short", (short) -7},
+                {"double", 3.5},
+                {"float", -1.25f},
+                {"bool", true},
+                {"byte", (byte) -2},
+                {"char", '\u00e9'},
+                {"string", TRICKY},
+                {"key|with\nescapes", "value"}
+        };
+
+        for (Object[] pair : expected) {
+
+            if (!pair[1].equals(p.getData((String) pair[0]))) {
+
+                return "Expected '" + pair[1] + "' for key '" + pair[0] + "', found '" + p.getData((String) pair[0]) + "'!";
+            }
+        }
+
+        if (!Arrays.equals(new String[]{"x,y", TRICKY}, (String[]) p.getData("string-array"))) {
+
+            return "String array did not match!";
+        }
+
+        return null;
+    }
+}
@@ -0,0 +1,207 @@
+package com.github.chrisblutz.networking;
+
+import com.github.chrisblutz.networking.exceptions.reporters.ErrorReporterFactory;
+import com.github.chrisblutz.networking.listeners.ClientListener;
+import com.github.chrisblutz.networking.listeners.ServerListener;
+import com.github.chrisblutz.networking.packets.Codec;
+import com.github.chrisblutz.networking.packets.Packet;
+import com.github.chrisblutz.networking.sockets.Broadcast;
+import com.github.chrisblutz.networking.sockets.Connection;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+public class BroadcastTest extends TestCase {
+
+    private static final int CLIENTS = 10;
+
+    private boolean errored = false;
+    private String errorMessage = "";
+    private AtomicInteger hellos = new AtomicInteger(0);
+    private AtomicInteger received = new AtomicInteger(0);
+
+    public BroadcastTest(String name) {
+
+        super(name);
+    }
+
+    public static TestSuite suite() {
+
+        return new TestSuite(BroadcastTest.class);
+    }
+
+    public void testBroadcast() {
+
+        final Server server = new Server(12370, "BroadcastTest", CLIENTS + 1);
+        server.setCodec(Codec.BINARY);
+        server.setFullDuplex(true);
+        server.addErrorReporter(ErrorReporterFactory.newInstance());
+        server.addNetworkListener(new ServerListener() {
+
+            @Override
+            public void onReceive(Connection connection, Packet packet) {
+
+                hellos.incrementAndGet();
+            }
+
+            @Override
+            public Packet onConnect(Connection c, Packet data) {
+
+                return data;
+            }
+
+            @Override
+            public void onTimeout(Connection connection) {
+
+            }
+
+            @Override
+            public void onClientFailure(Connection c) {
+
+            }
+        });
+
+        Client[] clients = new Client[CLIENTS];
+
+        for (int i = 0; i < CLIENTS; i++) {
+
+            // Half of the clients use each codec, so the packet has to be encoded in two forms
+            clients[i] = createClient(i % 2 == 0 ? Codec.BINARY : Codec.TEXT);
+        }
+
+        try {
+
+            System.out.println("Starting server...");
+
+            server.start();
+
+            System.out.println("Starting " + CLIENTS + " clients...");
+
+            for (Client client : clients) {
+
+                client.connect();
+            }
+
+            waitFor(hellos, CLIENTS);
+
+            System.out.println("Broadcasting packet...");
+
+            Packet p = new Packet();
+            p.putData("broadcast", "Hello, everyone!");
+
+            Broadcast broadcast = new Broadcast(p);
+
+            for (Connection c : server.getConnections()) {
+
+                broadcast.sendTo(c, false);
+            }
+
+            if (!errored && broadcast.getEncodeCount() != 2) {
+
+                errored = true;
+                errorMessage = "Packet was encoded " + broadcast.getEncodeCount() + " times for " + CLIENTS + " clients!";
+            }
+
+            waitFor(received, CLIENTS);
+
+            System.out.println("Broadcasting packet through the server...");
+
+            server.sendPacket(p, false);
+
+            waitFor(received, CLIENTS * 2);
+
+        } catch (Exception e) {
+
+            e.printStackTrace();
+
+            errored = true;
+            errorMessage = e.getClass().getName();
+        }
+
+        try {
+
+            for (Client client : clients) {
+
+                client.close();
+            }
+
+            server.close();
+
+        } catch (Exception e) {
+
+            e.printStackTrace();
+
+            errored = true;
+            errorMessage = e.getClass().getName();
+        }
+
+        if (errored) {
+
+            System.out.println("Errored - " + errorMessage);
+            fail(errorMessage);
+
+        } else {
+
+            System.out.println("Success!");
+        }
+    }
+
+    private void waitFor(AtomicInteger counter, int expected) throws InterruptedException {
+
+        long deadline = System.currentTimeMillis() + 10000;
+
+        while (!errored && counter.get() < expected && System.currentTimeMillis() < deadline) {
+
+            Thread.sleep(50);
+        }
+
+        if (!errored && counter.get() < expected) {
+
+            errored = true;
+            errorMessage = "Expected " + expected + " packets, found " + counter.get() + "!";
+        }
+    }
+
+    private Client createClient(final Codec codec) {
+
+        final Client client = new Client("0.0.0.0", 12370, "TestClient-" + codec);
+        client.setCodec(codec);
+        client.setFullDuplex(true);
+        client.addErrorReporter(ErrorReporterFactory.newInstance());
+        client.addNetworkListener(new ClientListener() {
+
+            @Override
+            public void onReceive(Connection connection, Packet packet) {
+
+                if (!"Hello, everyone!".equals(packet.getData("broadcast"))) {
+
+                    errored = true;
+                    errorMessage = "Client received '" + packet.getData("broadcast") + "'!";
+
+                } else {
+
+                    received.incrementAndGet();
+                }
+            }
+
+            @Override
+            public void onConnect(Packet packet) {
+
+                // Sending a packet lets the server switch to the codec the client agreed to
+                Packet hello = new Packet();
+                hello.putData("hello", codec.name());
+
+                client.sendPacket(hello, false);
+            }
+
+            @Override
+            public void onTimeout(Connection connection) {
+
+            }
+        });
+
+        return client;
+    }
+}
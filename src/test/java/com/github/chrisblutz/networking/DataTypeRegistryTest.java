@@ -0,0 +1,165 @@
+package com.github.chrisblutz.networking;
+
+import com.github.chrisblutz.networking.packets.datatypes.DataType;
+import com.github.chrisblutz.networking.packets.datatypes.DataTypes;
+import com.github.chrisblutz.networking.packets.datatypes.defaults.IntegerType;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+
+public class DataTypeRegistryTest extends TestCase {
+
+    private static final int REGISTRATIONS = 200;
+
+    public DataTypeRegistryTest(String name) {
+
+        super(name);
+    }
+
+    public static TestSuite suite() {
+
+        return new TestSuite(DataTypeRegistryTest.class);
+    }
+
+    public void testAbbreviationLookup() {
+
+        DataType integer = DataTypes.getDataType(Integer.class);
+
+        assertSame(integer, DataTypes.getDataType("int"));
+        assertSame(integer, DataTypes.getDataType("INT"));
+        assertSame(integer, DataTypes.getDataType("Int"));
+        assertNull(DataTypes.getDataType("missing"));
+        assertNull(DataTypes.getDataType((String) null));
+    }
+
+    public void testClassResolution() {
+
+        DataType base = new NamedType(Base.class, "test-base");
+        DataType marker = new NamedType(Marker.class, "test-marker");
+
+        DataTypes.registerDataType(base);
+        DataTypes.registerDataType(marker);
+
+        assertSame(base, DataTypes.getDataType(Base.class));
+        assertSame(base, DataTypes.getDataType(Sub.class));
+        assertSame(marker, DataTypes.getDataType(Marked.class));
+        assertSame(DataTypes.getDataType(Sub.class), DataTypes.getDataType(Sub.class));
+
+        // Classes without a data type are written as Strings, without creating a new DataType each time
+        DataType fallback = DataTypes.getDataType(Thread.class);
+
+        assertEquals(String.class, fallback.getTypeClass());
+        assertSame(fallback, DataTypes.getDataType(Thread.class));
+        assertNull(DataTypes.getDataType((Class<?>) null));
+    }
+
+    public void testReplaceKeepsId() {
+
+        DataType first = new NamedType(Replaced.class, "test-first");
+        DataTypes.registerDataType(first);
+
+        int id = DataTypes.getDataTypeId(first);
+
+        DataType second = new NamedType(Replaced.class, "test-second");
+        DataTypes.registerDataType(second);
+
+        assertEquals(id, DataTypes.getDataTypeId(second));
+        assertSame(second, DataTypes.getDataType(id));
+        assertSame(second, DataTypes.getDataType("test-second"));
+        assertNull(DataTypes.getDataType("test-first"));
+        assertTrue(DataTypes.getDataTypeId(new IntegerType()) < id);
+    }
+
+    public void testConcurrentRegistration() throws InterruptedException {
+
+        final DataType integer = DataTypes.getDataType(Integer.class);
+        final CountDownLatch done = new CountDownLatch(1);
+        final AtomicReference<String> error = new AtomicReference<String>();
+
+        Thread reader = new Thread(new Runnable() {
+
+            @Override
+            public void run() {
+
+                while (done.getCount() > 0) {
+
+                    if (DataTypes.getDataType("INT") != integer || DataTypes.getDataType(Integer.class) != integer) {
+
+                        error.set("A lookup missed a default data type during a registration!");
+                    }
+                }
+            }
+        });
+        reader.start();
+
+        // Every registration publishes a new table while the reader is looking up
+        for (int i = 0; i < REGISTRATIONS; i++) {
+
+            DataTypes.registerDataType(new NamedType(i % 2 == 0 ? Base.class : Replaced.class, "test-concurrent" + i));
+        }
+
+        done.countDown();
+        reader.join();
+
+        assertNull(error.get(), error.get());
+    }
+
+    private static class Base {
+
+    }
+
+    private static class Sub extends Base {
+
+    }
+
+    private interface Marker {
+
+    }
+
+    private static class Marked implements Marker {
+
+    }
+
+    private static class Replaced {
+
+    }
+
+    private static class NamedType extends DataType {
+
+        private final Class<?> type;
+        private final String abbreviation;
+
+        private NamedType(Class<?> type, String abbreviation) {
+
+            this.type = type;
+            this.abbreviation = abbreviation;
+        }
+
+        @Override
+        public Class<?> getTypeClass() {
+
+            return type;
+        }
+
+        @Override
+        public String getAbbreviation() {
+
+            return abbreviation;
+        }
+
+        @Override
+        public Object readType(String toRead) {
+
+            return null;
+        }
+
+        @Override
+        public String writeType(Object toWrite) {
+
+            return "";
+        }
+    }
+}
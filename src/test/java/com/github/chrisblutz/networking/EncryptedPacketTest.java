@@ -4,6 +4,8 @@ import com.github.chrisblutz.networking.exceptions.reporters.ErrorReporterFactor
 import com.github.chrisblutz.networking.listeners.ClientListener;
 import com.github.chrisblutz.networking.listeners.ServerListener;
 import com.github.chrisblutz.networking.packets.Packet;
+import com.github.chrisblutz.networking.packets.encryption.EncryptedPacketReader;
+import com.github.chrisblutz.networking.packets.encryption.EncryptedPacketWriter;
 import com.github.chrisblutz.networking.packets.encryption.EncryptionKey;
 import com.github.chrisblutz.networking.sockets.Connection;
 import junit.framework.TestCase;
@@ -152,4 +154,36 @@ public class EncryptedPacketTest extends TestCase {
             System.out.println("Success!");
         }
     }
+
+    public void testKeyChange() {
+
+        EncryptionKey key = new EncryptionKey("THISISATESTKEY12", null);
+
+        Connection connection = Connection.getUninitializedConnection();
+        connection.setEncrypted(true, key);
+
+        EncryptedPacketWriter writer = new EncryptedPacketWriter();
+        EncryptedPacketReader reader = new EncryptedPacketReader();
+
+        Packet p = new Packet();
+        p.putData("testKey", "testValue");
+
+        String first = writer.getPacketAsWriteableString(connection, p);
+
+        assertEquals("testValue", reader.getPacketFromString(connection, first).getData("testKey"));
+
+        // The writer and reader have cached ciphers for the first key, which must not be used for the new one
+        key.setKey("ANOTHERTESTKEY34", null);
+
+        String second = writer.getPacketAsWriteableString(connection, p);
+
+        assertFalse("The packet was encrypted with the old key!", first.equals(second));
+        assertEquals("testValue", reader.getPacketFromString(connection, second).getData("testKey"));
+
+        // Switching to a different EncryptionKey object must also replace the ciphers
+        connection.setEncrypted(true, new EncryptionKey("THISISATESTKEY12", null));
+
+        assertEquals(first, writer.getPacketAsWriteableString(connection, p));
+        assertEquals("testValue", reader.getPacketFromString(connection, first).getData("testKey"));
+    }
 }
@@ -0,0 +1,245 @@
+package com.github.chrisblutz.networking;
+
+import com.github.chrisblutz.networking.exceptions.reporters.ErrorReporterFactory;
+import com.github.chrisblutz.networking.listeners.ClientListener;
+import com.github.chrisblutz.networking.listeners.ServerListener;
+import com.github.chrisblutz.networking.packets.Packet;
+import com.github.chrisblutz.networking.query.Query;
+import com.github.chrisblutz.networking.query.QueryStatus;
+import com.github.chrisblutz.networking.query.QueryType;
+import com.github.chrisblutz.networking.sockets.Connection;
+import com.github.chrisblutz.networking.sockets.Transport;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+
+public class FullDuplexTest extends TestCase {
+
+    private static final int PACKETS = 500;
+
+    private boolean errored = false;
+    private String errorMessage = "";
+    private final List<Integer> serverReceived = new ArrayList<Integer>();
+    private final List<Integer> clientReceived = new ArrayList<Integer>();
+
+    public FullDuplexTest(String name) {
+
+        super(name);
+    }
+
+    public static TestSuite suite() {
+
+        return new TestSuite(FullDuplexTest.class);
+    }
+
+    public void testBlockingFullDuplex() {
+
+        runDuplexTest(Transport.BLOCKING, 12365);
+    }
+
+    public void testNioFullDuplex() {
+
+        runDuplexTest(Transport.NIO, 12366);
+    }
+
+    private void runDuplexTest(Transport transport, int port) {
+
+        final Server server = new Server(port, "FullDuplexTest");
+        server.setTransport(transport);
+        server.setEventLoopThreads(1);
+        server.setFullDuplex(true);
+        server.addErrorReporter(ErrorReporterFactory.newInstance());
+        server.addNetworkListener(new ServerListener() {
+
+            @Override
+            public void onReceive(final Connection connection, Packet packet) {
+
+                int n = (Integer) packet.getData("n");
+
+                synchronized (serverReceived) {
+
+                    serverReceived.add(n);
+                }
+
+                // Stream packets back while the client is still sending, without waiting for a turn
+                if (n == 0) {
+
+                    new Thread(new Runnable() {
+
+                        @Override
+                        public void run() {
+
+                            for (int i = 0; i < PACKETS; i++) {
+
+                                Packet p = new Packet();
+                                p.putData("s", i);
+
+                                connection.sendPacket(p, false);
+                            }
+                        }
+                    }).start();
+                }
+            }
+
+            @Override
+            public Packet onConnect(Connection c, Packet data) {
+
+                return data;
+            }
+
+            @Override
+            public void onTimeout(Connection connection) {
+
+            }
+
+            @Override
+            public void onClientFailure(Connection c) {
+
+            }
+        });
+
+        final Client client = new Client("0.0.0.0", port, "TestClient");
+        client.setTransport(transport);
+        client.setFullDuplex(true);
+        client.addErrorReporter(ErrorReporterFactory.newInstance());
+        client.addNetworkListener(new ClientListener() {
+
+            @Override
+            public void onReceive(Connection connection, Packet packet) {
+
+                if (!packet.hasData("s")) {
+
+                    errored = true;
+                    errorMessage = "Client: Received unexpected packet!";
+
+                    return;
+                }
+
+                synchronized (clientReceived) {
+
+                    clientReceived.add((Integer) packet.getData("s"));
+                }
+            }
+
+            @Override
+            public void onConnect(Packet packet) {
+
+            }
+
+            @Override
+            public void onTimeout(Connection connection) {
+
+                errored = true;
+                errorMessage = "Connection timed out!";
+            }
+        });
+
+        try {
+
+            System.out.println("Starting " + transport + " server...");
+
+            server.start();
+
+            System.out.println("Starting client...");
+
+            client.connect();
+
+            if (!client.getConnection().isFullDuplex()) {
+
+                errored = true;
+                errorMessage = "Client connection is not full-duplex!";
+            }
+
+            System.out.println("Sending " + PACKETS + " packets each way...");
+
+            for (int i = 0; i < PACKETS; i++) {
+
+                Packet p = new Packet();
+                p.putData("n", i);
+
+                client.sendPacket(p, false);
+            }
+
+            Query q = client.getConnection().query("duplex-query", QueryType.CONNECTED_IPS, new HashMap<String, Object>());
+
+            long deadline = System.currentTimeMillis() + 10000;
+
+            while (!errored && (q.isWorking() || getCount(serverReceived) < PACKETS || getCount(clientReceived) < PACKETS) && System.currentTimeMillis() < deadline) {
+
+                Thread.sleep(100);
+            }
+
+            if (!errored && q.getStatus() != QueryStatus.Status.SUCCESSFUL) {
+
+                errored = true;
+                errorMessage = "Query finished with status " + q.getStatus() + "!";
+            }
+
+        } catch (Exception e) {
+
+            e.printStackTrace();
+
+            errored = true;
+            errorMessage = e.getClass().getName();
+        }
+
+        checkOrder("Server", serverReceived);
+        checkOrder("Client", clientReceived);
+
+        try {
+
+            client.close();
+            server.close();
+
+        } catch (Exception e) {
+
+            e.printStackTrace();
+
+            errored = true;
+            errorMessage = e.getClass().getName();
+        }
+
+        if (errored) {
+
+            System.out.println("Errored - " + errorMessage);
+            fail(errorMessage);
+
+        } else {
+
+            System.out.println("Success!");
+        }
+    }
+
+    private void checkOrder(String side, List<Integer> received) {
+
+        synchronized (received) {
+
+            if (!errored && received.size() < PACKETS) {
+
+                errored = true;
+                errorMessage = side + ": Only " + received.size() + " of " + PACKETS + " packets were received!";
+            }
+
+            for (int i = 0; !errored && i < received.size(); i++) {
+
+                if (received.get(i) != i) {
+
+                    errored = true;
+                    errorMessage = side + ": Packet " + i + " was received as packet " + received.get(i) + "!";
+                }
+            }
+        }
+    }
+
+    private static int getCount(List<Integer> received) {
+
+        synchronized (received) {
+
+            return received.size();
+        }
+    }
+}
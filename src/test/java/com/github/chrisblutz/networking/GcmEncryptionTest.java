@@ -0,0 +1,270 @@
+package com.github.chrisblutz.networking;
+
+import com.github.chrisblutz.networking.exceptions.NetworkException;
+import com.github.chrisblutz.networking.exceptions.reporters.ErrorReporterFactory;
+import com.github.chrisblutz.networking.listeners.ClientListener;
+import com.github.chrisblutz.networking.listeners.ServerListener;
+import com.github.chrisblutz.networking.packets.Packet;
+import com.github.chrisblutz.networking.packets.PacketUtils;
+import com.github.chrisblutz.networking.packets.binary.BinaryOutput;
+import com.github.chrisblutz.networking.packets.encryption.EncryptedPacketReader;
+import com.github.chrisblutz.networking.packets.encryption.EncryptedPacketWriter;
+import com.github.chrisblutz.networking.packets.encryption.EncryptionKey;
+import com.github.chrisblutz.networking.packets.encryption.EncryptionMode;
+import com.github.chrisblutz.networking.sockets.Connection;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+public class GcmEncryptionTest extends TestCase {
+
+    private static final String KEY = "THISISATESTKEY12";
+
+    private boolean errored = false;
+    private String errorMessage = "";
+    private AtomicInteger responses = new AtomicInteger(0);
+
+    public GcmEncryptionTest(String name) {
+
+        super(name);
+    }
+
+    public static TestSuite suite() {
+
+        return new TestSuite(GcmEncryptionTest.class);
+    }
+
+    public void testGcmRoundTrip() {
+
+        Connection connection = Connection.getUninitializedConnection();
+        connection.setEncrypted(true, new EncryptionKey(KEY, null));
+
+        EncryptedPacketWriter writer = new EncryptedPacketWriter();
+        EncryptedPacketReader reader = new EncryptedPacketReader();
+        BinaryOutput output = new BinaryOutput();
+
+        Packet p = createPacket();
+
+        writer.writeFrame(connection, p, output);
+        byte[] first = output.toByteArray();
+
+        assertEquals(PacketUtils.ENCRYPTED_FRAME_MARKER, first[0]);
+
+        Packet read = reader.getPacketFromFrame(connection, first, PacketUtils.BINARY_FRAME_HEADER_LENGTH,
+                first.length - PacketUtils.BINARY_FRAME_HEADER_LENGTH);
+
+        assertEquals("testValue", read.getData("testKey"));
+        assertEquals(12345, read.getData("int"));
+
+        // Every frame gets a new nonce, so the same Packet never encrypts to the same bytes
+        output.reset();
+        writer.writeFrame(connection, p, output);
+
+        assertFalse("A nonce was reused!", Arrays.equals(first, output.toByteArray()));
+
+        // Raw ciphertext is smaller than the Base64 line written in the AES mode
+        String line = writer.getPacketAsWriteableString(connection, p);
+
+        System.out.println("AES-GCM frame: " + first.length + " bytes, AES line: " + (line.length() + 1) + " bytes");
+
+        assertTrue("The AES-GCM frame was larger than the AES line!", first.length < line.length() + 1);
+    }
+
+    public void testTamperedFrame() {
+
+        Connection connection = Connection.getUninitializedConnection();
+        connection.setEncrypted(true, new EncryptionKey(KEY, null));
+
+        BinaryOutput output = new BinaryOutput();
+        new EncryptedPacketWriter().writeFrame(connection, createPacket(), output);
+
+        byte[] frame = output.toByteArray();
+        frame[frame.length / 2] ^= 1;
+
+        try {
+
+            new EncryptedPacketReader().getPacketFromFrame(connection, frame, PacketUtils.BINARY_FRAME_HEADER_LENGTH,
+                    frame.length - PacketUtils.BINARY_FRAME_HEADER_LENGTH);
+
+            fail("A tampered frame was decrypted!");
+
+        } catch (NetworkException e) {
+
+            System.out.println("Tampered frame rejected: " + e.getMessage());
+        }
+    }
+
+    public void testModeNegotiation() {
+
+        final Server server = new Server(12371, "GcmEncryptionTest");
+        server.setEncryptionMode(EncryptionMode.AES_GCM);
+        server.setEncrypted(true, new EncryptionKey(KEY, null));
+        server.addErrorReporter(ErrorReporterFactory.newInstance());
+        server.addNetworkListener(new ServerListener() {
+
+            @Override
+            public void onReceive(Connection connection, Packet packet) {
+
+                EncryptionMode expected = EncryptionMode.valueOf(packet.getData("mode").toString());
+
+                if (!"testValue".equals(packet.getData("testKey"))) {
+
+                    errored = true;
+                    errorMessage = "Server: Incorrect value received!";
+
+                } else if (connection.getEncryptionMode() != expected) {
+
+                    errored = true;
+                    errorMessage = "Server: Expected mode " + expected + ", found " + connection.getEncryptionMode() + "!";
+                }
+
+                Packet response = createPacket();
+                response.putData("mode", expected.name());
+
+                connection.sendPacket(response, false);
+            }
+
+            @Override
+            public Packet onConnect(Connection c, Packet data) {
+
+                return data;
+            }
+
+            @Override
+            public void onTimeout(Connection connection) {
+
+            }
+
+            @Override
+            public void onClientFailure(Connection c) {
+
+            }
+        });
+
+        Client gcmClient = createClient(EncryptionMode.AES_GCM);
+        Client aesClient = createClient(EncryptionMode.AES);
+
+        try {
+
+            System.out.println("Starting server...");
+
+            server.start();
+
+            System.out.println("Starting clients...");
+
+            gcmClient.connect();
+            aesClient.connect();
+
+        } catch (Exception e) {
+
+            e.printStackTrace();
+
+            errored = true;
+            errorMessage = e.getClass().getName();
+        }
+
+        long deadline = System.currentTimeMillis() + 10000;
+
+        while (!errored && responses.get() < 2 && System.currentTimeMillis() < deadline) {
+
+            try {
+
+                Thread.sleep(100);
+
+            } catch (InterruptedException e) {
+            }
+        }
+
+        if (!errored && responses.get() < 2) {
+
+            errored = true;
+            errorMessage = "Only " + responses.get() + " of 2 clients received a response!";
+        }
+
+        try {
+
+            gcmClient.close();
+            aesClient.close();
+            server.close();
+
+        } catch (Exception e) {
+
+            e.printStackTrace();
+
+            errored = true;
+            errorMessage = e.getClass().getName();
+        }
+
+        if (errored) {
+
+            System.out.println("Errored - " + errorMessage);
+            fail(errorMessage);
+
+        } else {
+
+            System.out.println("Success!");
+        }
+    }
+
+    private Client createClient(final EncryptionMode mode) {
+
+        final Client client = new Client("0.0.0.0", 12371, "TestClient-" + mode);
+        client.setEncryptionMode(mode);
+        client.setEncrypted(true, new EncryptionKey(KEY, null));
+        client.addErrorReporter(ErrorReporterFactory.newInstance());
+        client.addNetworkListener(new ClientListener() {
+
+            @Override
+            public void onReceive(Connection connection, Packet packet) {
+
+                if (!"testValue".equals(packet.getData("testKey"))) {
+
+                    errored = true;
+                    errorMessage = "Client: Incorrect value received!";
+
+                } else if (connection.getEncryptionMode() != mode) {
+
+                    errored = true;
+                    errorMessage = "Client: Expected mode " + mode + ", found " + connection.getEncryptionMode() + "!";
+
+                } else {
+
+                    System.out.println("Client received " + mode + " response!");
+
+                    responses.incrementAndGet();
+                }
+            }
+
+            @Override
+            public void onConnect(Packet packet) {
+
+                Packet p = createPacket();
+                p.putData("mode", mode.name());
+
+                client.sendPacket(p, true);
+            }
+
+            @Override
+            public void onTimeout(Connection connection) {
+
+                errored = true;
+                errorMessage = "Connection timed out!";
+            }
+        });
+
+        return client;
+    }
+
+    private static Packet createPacket() {
+
+        Packet p = new Packet();
+        p.putData("testKey", "testValue");
+        p.putData("int", 12345);
+        p.putData("escapes", PacketUtils.ENCRYPTED_DATA_PREFIX + "|\n");
+
+        return p;
+    }
+}
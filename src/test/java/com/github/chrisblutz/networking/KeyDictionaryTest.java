@@ -0,0 +1,426 @@
+package com.github.chrisblutz.networking;
+
+import com.github.chrisblutz.networking.exceptions.NetworkException;
+import com.github.chrisblutz.networking.exceptions.reporters.ErrorReporterFactory;
+import com.github.chrisblutz.networking.listeners.ClientListener;
+import com.github.chrisblutz.networking.listeners.ServerListener;
+import com.github.chrisblutz.networking.messages.Field;
+import com.github.chrisblutz.networking.messages.NetworkMessage;
+import com.github.chrisblutz.networking.packets.Codec;
+import com.github.chrisblutz.networking.packets.Packet;
+import com.github.chrisblutz.networking.packets.PacketStorage;
+import com.github.chrisblutz.networking.packets.PacketUtils;
+import com.github.chrisblutz.networking.packets.binary.BinaryOutput;
+import com.github.chrisblutz.networking.packets.binary.BinaryPacketReader;
+import com.github.chrisblutz.networking.packets.binary.BinaryPacketWriter;
+import com.github.chrisblutz.networking.packets.binary.KeyDictionary;
+import com.github.chrisblutz.networking.sockets.Connection;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+
+public class KeyDictionaryTest extends TestCase {
+
+    private static final int FIELDS = 20;
+    private static final int PACKETS = 50;
+
+    private boolean errored = false;
+    private String errorMessage = "";
+
+    public KeyDictionaryTest(String name) {
+
+        super(name);
+    }
+
+    public static TestSuite suite() {
+
+        return new TestSuite(KeyDictionaryTest.class);
+    }
+
+    public void testKeyedFrames() {
+
+        Connection connection = Connection.getUninitializedConnection();
+        BinaryPacketWriter plainWriter = new BinaryPacketWriter();
+        BinaryPacketWriter writer = new BinaryPacketWriter();
+        writer.setKeyDictionary(new KeyDictionary(Connection.DEFAULT_KEY_DICTIONARY_CAPACITY));
+        BinaryPacketReader reader = new BinaryPacketReader();
+        reader.setKeyDictionary(new KeyDictionary(Connection.DEFAULT_KEY_DICTIONARY_CAPACITY));
+
+        int plainLength = plainWriter.getPacketAsFrame(connection, createTelemetry(0)).length;
+        int[] lengths = new int[3];
+
+        for (int i = 0; i < lengths.length; i++) {
+
+            byte[] frame = writer.getPacketAsFrame(connection, createTelemetry(i));
+            lengths[i] = frame.length;
+
+            assertEquals(PacketUtils.KEYED_FRAME_MARKER, frame[0]);
+
+            Packet read = reader.getPacketFromKeyedFrame(connection, frame, PacketUtils.BINARY_FRAME_HEADER_LENGTH,
+                    frame.length - PacketUtils.BINARY_FRAME_HEADER_LENGTH);
+
+            checkTelemetry(read, i);
+
+            // Keys are defined by the second frame, so from then on every frame returns the same interned keys
+            if (i > 0) {
+
+                PacketStorage storage = read.getStorage();
+
+                for (int j = 0; j < storage.size(); j++) {
+
+                    assertSame(storage.getKey(j), storage.getKey(j).intern());
+                }
+            }
+        }
+
+        // The first two frames carry the keys, and every later one only their ids
+        assertEquals(plainLength, lengths[0]);
+        assertEquals(plainLength, lengths[1]);
+        assertTrue("Keyed frame is " + lengths[2] + " bytes, plain frame is " + plainLength, lengths[2] * 2 < plainLength);
+        assertEquals(FIELDS, writer.getKeyDictionary().size());
+        assertEquals(FIELDS, reader.getKeyDictionary().size());
+    }
+
+    public void testCapacity() {
+
+        KeyDictionary keys = new KeyDictionary(2);
+        BinaryOutput output = new BinaryOutput();
+
+        for (int i = 0; i < 2; i++) {
+
+            keys.writeKey("a", output);
+            keys.writeKey("b", output);
+            keys.writeKey("c", output);
+        }
+
+        assertEquals(2, keys.size());
+        assertEquals(KeyDictionary.MAX_CAPACITY, new KeyDictionary(KeyDictionary.MAX_CAPACITY + 1).getCapacity());
+    }
+
+    public void testFailedFrameIsForgotten() {
+
+        Connection connection = Connection.getUninitializedConnection();
+        BinaryPacketWriter writer = new BinaryPacketWriter();
+        writer.setKeyDictionary(new KeyDictionary(Connection.DEFAULT_KEY_DICTIONARY_CAPACITY));
+        BinaryPacketReader reader = new BinaryPacketReader();
+        reader.setKeyDictionary(new KeyDictionary(Connection.DEFAULT_KEY_DICTIONARY_CAPACITY));
+
+        Packet failing = createTelemetry(0);
+        failing.putData("invalid", new InvalidMessage());
+
+        read(reader, writer.getPacketAsFrame(connection, createTelemetry(0)));
+
+        try {
+
+            writer.getPacketAsFrame(connection, failing);
+            fail("A Packet holding an invalid network message was written!");
+
+        } catch (NetworkException e) {
+
+            // Expected
+        }
+
+        // The keys defined by the failed frame are not used by the next one, which the reader never saw
+        assertEquals(0, writer.getKeyDictionary().size());
+
+        for (int i = 1; i < 3; i++) {
+
+            checkTelemetry(read(reader, writer.getPacketAsFrame(connection, createTelemetry(i))), i);
+        }
+    }
+
+    public void testUnknownId() {
+
+        BinaryOutput output = new BinaryOutput();
+        output.writeByte(0);
+        output.writeVarint(5 << 1);
+
+        checkRejected(new KeyDictionary(Connection.DEFAULT_KEY_DICTIONARY_CAPACITY), output.toByteArray(), "A key id that was never defined was read!");
+
+        // Keyed frames are not read at all without a dictionary
+        checkRejected(null, output.toByteArray(), "A keyed frame was read without a dictionary!");
+    }
+
+    public void testReaderCapacity() {
+
+        Connection connection = Connection.getUninitializedConnection();
+        BinaryPacketWriter writer = new BinaryPacketWriter();
+        writer.setKeyDictionary(new KeyDictionary(FIELDS));
+        BinaryPacketReader reader = new BinaryPacketReader();
+        reader.setKeyDictionary(new KeyDictionary(FIELDS - 1));
+
+        read(reader, writer.getPacketAsFrame(connection, createTelemetry(0)));
+
+        // The second frame defines every key, one more than the reader accepts
+        try {
+
+            read(reader, writer.getPacketAsFrame(connection, createTelemetry(1)));
+            fail("More keys were defined than the reader accepts!");
+
+        } catch (NetworkException e) {
+
+            // Expected
+        }
+    }
+
+    public void testKeyLength() {
+
+        Connection connection = Connection.getUninitializedConnection();
+        BinaryPacketWriter writer = new BinaryPacketWriter();
+        writer.setKeyDictionary(new KeyDictionary(Connection.DEFAULT_KEY_DICTIONARY_CAPACITY));
+        BinaryPacketReader reader = new BinaryPacketReader();
+        reader.setKeyDictionary(new KeyDictionary(Connection.DEFAULT_KEY_DICTIONARY_CAPACITY));
+
+        char[] chars = new char[KeyDictionary.MAX_KEY_LENGTH + 1];
+        Arrays.fill(chars, 'k');
+        String longKey = new String(chars);
+
+        // Long keys are still sent, but always in full
+        for (int i = 0; i < 3; i++) {
+
+            Packet p = new Packet();
+            p.putInt(longKey, i);
+
+            assertEquals(i, read(reader, writer.getPacketAsFrame(connection, p)).getInt(longKey, -1));
+        }
+
+        assertEquals(0, writer.getKeyDictionary().size());
+
+        // A definition of a long key is rejected
+        BinaryOutput output = new BinaryOutput();
+        output.writeByte(0);
+        output.writeVarint(((long) longKey.length() << 2) | 3);
+        output.writeUtf8(longKey);
+
+        checkRejected(new KeyDictionary(Connection.DEFAULT_KEY_DICTIONARY_CAPACITY), output.toByteArray(), "A key longer than the maximum was defined!");
+    }
+
+    public void testNegotiation() {
+
+        runNegotiationTest(12384, Connection.DEFAULT_KEY_DICTIONARY_CAPACITY, Connection.DEFAULT_KEY_DICTIONARY_CAPACITY);
+    }
+
+    public void testSmallerClientCapacity() {
+
+        runNegotiationTest(12389, Connection.DEFAULT_KEY_DICTIONARY_CAPACITY, FIELDS / 4);
+    }
+
+    private void runNegotiationTest(int port, int serverCapacity, int clientCapacity) {
+
+        final int capacity = Math.min(serverCapacity, clientCapacity);
+        final CountDownLatch received = new CountDownLatch(PACKETS);
+        final CountDownLatch responded = new CountDownLatch(PACKETS);
+        final CountDownLatch connected = new CountDownLatch(1);
+
+        final Server server = new Server(port, "KeyDictionaryTest");
+        server.setCodec(Codec.BINARY);
+        server.setKeyDictionaryCapacity(serverCapacity);
+        server.setFullDuplex(true);
+        server.addErrorReporter(ErrorReporterFactory.newInstance());
+        server.addNetworkListener(new ServerListener() {
+
+            @Override
+            public void onReceive(Connection connection, Packet packet) {
+
+                int index = packet.getInt("index", -1);
+
+                if (index < 0) {
+
+                    return;
+                }
+
+                check("Server", packet, index);
+
+                if (connection.getKeyDictionary() == null || connection.getKeyDictionary().getCapacity() != capacity) {
+
+                    errored = true;
+                    errorMessage = "The server did not agree to keyed frames with " + capacity + " keys!";
+                }
+
+                connection.sendPacket(createTelemetry(index), false);
+                received.countDown();
+            }
+
+            @Override
+            public Packet onConnect(Connection c, Packet data) {
+
+                return data;
+            }
+
+            @Override
+            public void onTimeout(Connection connection) {
+
+            }
+
+            @Override
+            public void onClientFailure(Connection c) {
+
+            }
+        });
+
+        final Client client = new Client("localhost", port, "TestClient");
+        client.setCodec(Codec.BINARY);
+        client.setKeyDictionaryCapacity(clientCapacity);
+        client.setFullDuplex(true);
+        client.addErrorReporter(ErrorReporterFactory.newInstance());
+        client.addNetworkListener(new ClientListener() {
+
+            @Override
+            public void onReceive(Connection connection, Packet packet) {
+
+                int index = packet.getInt("index", -1);
+
+                if (index >= 0) {
+
+                    check("Client", packet, index);
+                    responded.countDown();
+                }
+            }
+
+            @Override
+            public void onConnect(Packet packet) {
+
+                connected.countDown();
+            }
+
+            @Override
+            public void onTimeout(Connection connection) {
+
+            }
+        });
+
+        try {
+
+            System.out.println("Starting server...");
+
+            server.start();
+
+            System.out.println("Starting client...");
+
+            client.connect();
+
+            // Packets sent before the connection packet arrives are still written as text
+            if (!connected.await(10, TimeUnit.SECONDS)) {
+
+                errored = true;
+                errorMessage = "The client did not connect!";
+            }
+
+            for (int i = 0; i < PACKETS; i++) {
+
+                client.sendPacket(createTelemetry(i), false);
+            }
+
+            if (!received.await(10, TimeUnit.SECONDS) || !responded.await(10, TimeUnit.SECONDS)) {
+
+                errored = true;
+                errorMessage = "Only " + (PACKETS - received.getCount()) + " packets were received and " + (PACKETS - responded.getCount()) + " responses!";
+
+            } else if (client.getConnection().getKeyDictionary() == null || client.getConnection().getKeyDictionary().size() < Math.min(FIELDS, capacity)) {
+
+                errored = true;
+                errorMessage = "The client did not write keyed frames!";
+            }
+
+        } catch (Exception e) {
+
+            e.printStackTrace();
+
+            errored = true;
+            errorMessage = e.getClass().getName();
+        }
+
+        try {
+
+            client.close();
+            server.close();
+
+        } catch (Exception e) {
+
+            e.printStackTrace();
+
+            errored = true;
+            errorMessage = e.getClass().getName();
+        }
+
+        if (errored) {
+
+            System.out.println("Errored - " + errorMessage);
+            fail(errorMessage);
+
+        } else {
+
+            System.out.println("Success!");
+        }
+    }
+
+    private void check(String side, Packet packet, int index) {
+
+        try {
+
+            checkTelemetry(packet, index);
+
+        } catch (Throwable t) {
+
+            errored = true;
+            errorMessage = side + ": " + t.getMessage();
+        }
+    }
+
+    private static void checkRejected(KeyDictionary keys, byte[] frame, String message) {
+
+        BinaryPacketReader reader = new BinaryPacketReader();
+        reader.setKeyDictionary(keys);
+
+        try {
+
+            reader.getPacketFromKeyedFrame(Connection.getUninitializedConnection(), frame, 0, frame.length);
+            fail(message);
+
+        } catch (NetworkException e) {
+
+            // Expected
+        }
+    }
+
+    private static Packet read(BinaryPacketReader reader, byte[] frame) {
+
+        return reader.getPacketFromKeyedFrame(Connection.getUninitializedConnection(), frame, PacketUtils.BINARY_FRAME_HEADER_LENGTH,
+                frame.length - PacketUtils.BINARY_FRAME_HEADER_LENGTH);
+    }
+
+    private static Packet createTelemetry(int index) {
+
+        Packet p = new Packet();
+        p.putInt("index", index);
+
+        for (int i = 1; i < FIELDS; i++) {
+
+            p.putInt("telemetry:sensor_" + i, index * i);
+        }
+
+        return p;
+    }
+
+    private static void checkTelemetry(Packet packet, int index) {
+
+        assertEquals(FIELDS, packet.getStorage().size());
+        assertEquals(index, packet.getInt("index", -1));
+
+        for (int i = 1; i < FIELDS; i++) {
+
+            assertEquals(index * i, packet.getInt("telemetry:sensor_" + i, -1));
+        }
+    }
+
+    @NetworkMessage(id = 2001)
+    public static class InvalidMessage {
+
+        @Field(id = 1)
+        private final int x = 0;
+    }
+}
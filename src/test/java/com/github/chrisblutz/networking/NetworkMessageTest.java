@@ -0,0 +1,411 @@
+package com.github.chrisblutz.networking;
+
+import com.github.chrisblutz.networking.exceptions.NetworkException;
+import com.github.chrisblutz.networking.exceptions.reporters.ErrorReporterFactory;
+import com.github.chrisblutz.networking.listeners.ClientListener;
+import com.github.chrisblutz.networking.listeners.ServerListener;
+import com.github.chrisblutz.networking.messages.Field;
+import com.github.chrisblutz.networking.messages.MessageCodec;
+import com.github.chrisblutz.networking.messages.MessageListener;
+import com.github.chrisblutz.networking.messages.NetworkMessage;
+import com.github.chrisblutz.networking.messages.NetworkMessages;
+import com.github.chrisblutz.networking.packets.Packet;
+import com.github.chrisblutz.networking.packets.PacketReader;
+import com.github.chrisblutz.networking.packets.PacketUtils;
+import com.github.chrisblutz.networking.packets.PacketWriter;
+import com.github.chrisblutz.networking.packets.binary.BinaryInput;
+import com.github.chrisblutz.networking.packets.binary.BinaryOutput;
+import com.github.chrisblutz.networking.packets.binary.BinaryPacketReader;
+import com.github.chrisblutz.networking.packets.binary.BinaryPacketWriter;
+import com.github.chrisblutz.networking.sockets.Connection;
+import com.github.chrisblutz.networking.utils.PacketKeys;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+
+public class NetworkMessageTest extends TestCase {
+
+    private static final String TRICKY = "a|b=c:d\ne\rf,g 3:h \u4e2d\ud83d\ude00";
+
+    private boolean errored = false;
+    private String errorMessage = "";
+
+    public NetworkMessageTest(String name) {
+
+        super(name);
+    }
+
+    public static TestSuite suite() {
+
+        return new TestSuite(NetworkMessageTest.class);
+    }
+
+    public void testBinaryRoundTrip() {
+
+        Position position = createPosition();
+
+        byte[] frame = new BinaryPacketWriter().getPacketAsFrame(Connection.getUninitializedConnection(), NetworkMessages.toPacket(position));
+        Packet read = new BinaryPacketReader().getPacketFromFrame(Connection.getUninitializedConnection(), frame,
+                PacketUtils.BINARY_FRAME_HEADER_LENGTH, frame.length - PacketUtils.BINARY_FRAME_HEADER_LENGTH);
+
+        checkPosition(position, (Position) read.getData(PacketKeys.MESSAGE));
+    }
+
+    public void testTextRoundTrip() {
+
+        Position position = createPosition();
+
+        String text = new PacketWriter().getPacketAsWriteableString(Connection.getUninitializedConnection(), NetworkMessages.toPacket(position));
+        Packet read = new PacketReader().getPacketFromString(Connection.getUninitializedConnection(), text);
+
+        checkPosition(position, (Position) read.getData(PacketKeys.MESSAGE));
+    }
+
+    public void testReuseAndDefaults() {
+
+        MessageCodec<Position> codec = NetworkMessages.getCodec(Position.class);
+        BinaryOutput output = new BinaryOutput();
+
+        codec.writeBinary(createPosition(), output);
+
+        Position reused = codec.newMessage();
+        assertSame(reused, codec.readBinary(new BinaryInput(output.toByteArray()), reused));
+        checkPosition(createPosition(), reused);
+
+        // Only the end of the message is written when every field holds its default value
+        output.reset();
+        codec.writeBinary(codec.newMessage(), output);
+
+        assertEquals(1, output.size());
+
+        // Reading into a message resets the fields that were not written
+        assertSame(reused, codec.readBinary(new BinaryInput(output.toByteArray()), reused));
+        assertEquals(0, reused.x);
+        assertEquals(0.0, reused.heading);
+        assertFalse(reused.moving);
+        assertNull(reused.name);
+        assertNull(reused.child);
+    }
+
+    public void testUnknownFieldsAreSkipped() {
+
+        PositionV2 newer = new PositionV2();
+        newer.x = -17;
+        newer.name = TRICKY;
+        newer.extraInt = 99;
+        newer.extraDouble = 4.75;
+        newer.extraTags = Arrays.asList("x", "y");
+
+        BinaryOutput output = new BinaryOutput();
+        NetworkMessages.getCodec(PositionV2.class).writeBinary(newer, output);
+        output.writeVarint(7);
+
+        // An older class with fewer fields can still read the message
+        BinaryInput input = new BinaryInput(output.toByteArray());
+        Position older = NetworkMessages.getCodec(Position.class).readBinary(input);
+
+        assertEquals(-17, older.x);
+        assertEquals(TRICKY, older.name);
+        assertEquals(7, input.readVarint());
+    }
+
+    public void testInvalidMessages() {
+
+        NetworkMessages.register(Position.class);
+
+        checkInvalid(Unannotated.class);
+        checkInvalid(FinalField.class);
+        checkInvalid(DuplicateField.class);
+        checkInvalid(DuplicateId.class);
+
+        try {
+
+            NetworkMessages.toPacket(new Unannotated());
+            fail("A class without @NetworkMessage was sent!");
+
+        } catch (NetworkException e) {
+
+            // Expected
+        }
+    }
+
+    public void testSendMessage() {
+
+        final CountDownLatch received = new CountDownLatch(2);
+        final List<Object> messages = new ArrayList<Object>();
+
+        final Server server = new Server(12383, "NetworkMessageTest");
+        server.setFullDuplex(true);
+        server.addErrorReporter(ErrorReporterFactory.newInstance());
+        server.addNetworkListener(new ServerListener() {
+
+            @Override
+            public void onReceive(Connection connection, Packet packet) {
+
+            }
+
+            @Override
+            public Packet onConnect(Connection c, Packet data) {
+
+                return data;
+            }
+
+            @Override
+            public void onTimeout(Connection connection) {
+
+            }
+
+            @Override
+            public void onClientFailure(Connection c) {
+
+            }
+        });
+        server.addMessageListener(Position.class, new MessageListener<Position>() {
+
+            @Override
+            public void onMessage(Connection connection, Position message) {
+
+                synchronized (messages) {
+
+                    messages.add(message);
+                }
+
+                received.countDown();
+            }
+        });
+        server.addMessageListener(PositionV2.class, new MessageListener<Object>() {
+
+            @Override
+            public void onMessage(Connection connection, Object message) {
+
+                synchronized (messages) {
+
+                    messages.add(message);
+                }
+
+                received.countDown();
+            }
+        });
+
+        Client client = new Client("localhost", 12383, "TestClient");
+        client.setFullDuplex(true);
+        client.addErrorReporter(ErrorReporterFactory.newInstance());
+        client.addNetworkListener(new ClientListener() {
+
+            @Override
+            public void onReceive(Connection connection, Packet packet) {
+
+            }
+
+            @Override
+            public void onConnect(Packet packet) {
+
+            }
+
+            @Override
+            public void onTimeout(Connection connection) {
+
+            }
+        });
+
+        try {
+
+            System.out.println("Starting server...");
+
+            server.start();
+
+            System.out.println("Starting client...");
+
+            client.connect();
+
+            PositionV2 newer = new PositionV2();
+            newer.extraInt = 5;
+
+            client.sendMessage(createPosition());
+            client.sendMessage(newer);
+
+            if (!received.await(10, TimeUnit.SECONDS)) {
+
+                errored = true;
+                errorMessage = "Only " + (2 - received.getCount()) + " of 2 messages were received!";
+
+            } else {
+
+                synchronized (messages) {
+
+                    checkPosition(createPosition(), (Position) messages.get(0));
+                    assertEquals(5, ((PositionV2) messages.get(1)).extraInt);
+                }
+            }
+
+        } catch (Exception e) {
+
+            e.printStackTrace();
+
+            errored = true;
+            errorMessage = e.getClass().getName();
+        }
+
+        try {
+
+            client.close();
+            server.close();
+
+        } catch (Exception e) {
+
+            e.printStackTrace();
+
+            errored = true;
+            errorMessage = e.getClass().getName();
+        }
+
+        if (errored) {
+
+            System.out.println("Errored - " + errorMessage);
+            fail(errorMessage);
+
+        } else {
+
+            System.out.println("Success!");
+        }
+    }
+
+    private static void checkInvalid(Class<?> type) {
+
+        try {
+
+            NetworkMessages.register(type);
+            fail(type.getName() + " was registered as a network message!");
+
+        } catch (NetworkException e) {
+
+            // Expected
+        }
+    }
+
+    private static Position createPosition() {
+
+        Position child = new Position();
+        child.x = 1;
+        child.name = "child";
+
+        Position p = new Position();
+        p.x = Integer.MIN_VALUE;
+        p.timestamp = 1L << 50;
+        p.heading = -0.125;
+        p.speed = 3.5f;
+        p.moving = true;
+        p.zone = -300;
+        p.flags = 7;
+        p.marker = '\u4e2d';
+        p.name = TRICKY;
+        p.tags = new ArrayList<Object>();
+        p.tags.add("a");
+        p.tags.add(2);
+        p.tags.add(TRICKY);
+        p.child = child;
+
+        return p;
+    }
+
+    private static void checkPosition(Position expected, Position actual) {
+
+        assertNotNull(actual);
+        assertEquals(expected.x, actual.x);
+        assertEquals(expected.timestamp, actual.timestamp);
+        assertEquals(expected.heading, actual.heading);
+        assertEquals(expected.speed, actual.speed);
+        assertEquals(expected.moving, actual.moving);
+        assertEquals(expected.zone, actual.zone);
+        assertEquals(expected.flags, actual.flags);
+        assertEquals(expected.marker, actual.marker);
+        assertEquals(expected.name, actual.name);
+        assertEquals(expected.tags, actual.tags);
+
+        if (expected.child == null) {
+
+            assertNull(actual.child);
+
+        } else {
+
+            checkPosition(expected.child, actual.child);
+        }
+    }
+
+    @NetworkMessage(id = 1001)
+    public static class Position {
+
+        @Field(id = 1)
+        private int x;
+        @Field(id = 2)
+        private long timestamp;
+        @Field(id = 3)
+        private double heading;
+        @Field(id = 4)
+        private float speed;
+        @Field(id = 5)
+        private boolean moving;
+        @Field(id = 6)
+        private short zone;
+        @Field(id = 7)
+        private byte flags;
+        @Field(id = 8)
+        private char marker;
+        @Field(id = 9)
+        private String name;
+        @Field(id = 10)
+        private List<Object> tags;
+        @Field(id = 11)
+        private Position child;
+    }
+
+    @NetworkMessage(id = 1002)
+    public static class PositionV2 {
+
+        @Field(id = 1)
+        private int x;
+        @Field(id = 9)
+        private String name;
+        @Field(id = 20)
+        private int extraInt;
+        @Field(id = 21)
+        private double extraDouble;
+        @Field(id = 22)
+        private List<String> extraTags;
+    }
+
+    public static class Unannotated {
+
+        @Field(id = 1)
+        private int x;
+    }
+
+    @NetworkMessage(id = 1003)
+    public static class FinalField {
+
+        @Field(id = 1)
+        private final int x = 0;
+    }
+
+    @NetworkMessage(id = 1004)
+    public static class DuplicateField {
+
+        @Field(id = 1)
+        private int x;
+        @Field(id = 1)
+        private int y;
+    }
+
+    @NetworkMessage(id = 1001)
+    public static class DuplicateId {
+
+        @Field(id = 1)
+        private int x;
+    }
+}
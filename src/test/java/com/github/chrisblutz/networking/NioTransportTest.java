@@ -0,0 +1,196 @@
+package com.github.chrisblutz.networking;
+
+import com.github.chrisblutz.networking.exceptions.reporters.ErrorReporterFactory;
+import com.github.chrisblutz.networking.listeners.ClientListener;
+import com.github.chrisblutz.networking.listeners.ServerListener;
+import com.github.chrisblutz.networking.packets.Packet;
+import com.github.chrisblutz.networking.sockets.Connection;
+import com.github.chrisblutz.networking.sockets.Transport;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+public class NioTransportTest extends TestCase {
+
+    private static final int CLIENTS = 10;
+
+    private boolean errored = false;
+    private String errorMessage = "";
+    private AtomicInteger responses = new AtomicInteger(0);
+
+    public NioTransportTest(String name) {
+
+        super(name);
+    }
+
+    public static TestSuite suite() {
+
+        return new TestSuite(NioTransportTest.class);
+    }
+
+    public void testNioTransport() {
+
+        final Server server = new Server(12360, "NioTransportTest", CLIENTS + 1);
+        server.setTransport(Transport.NIO);
+        server.setEventLoopThreads(2);
+        server.addErrorReporter(ErrorReporterFactory.newInstance());
+        server.addNetworkListener(new ServerListener() {
+
+            @Override
+            public void onReceive(Connection connection, Packet packet) {
+
+                Packet response = new Packet();
+                response.putData("echo", packet.getData("client-name"));
+
+                connection.sendPacket(response, false);
+            }
+
+            @Override
+            public Packet onConnect(Connection c, Packet data) {
+
+                return data;
+            }
+
+            @Override
+            public void onTimeout(Connection connection) {
+
+            }
+
+            @Override
+            public void onClientFailure(Connection c) {
+
+            }
+        });
+
+        Client[] clients = new Client[CLIENTS];
+
+        for (int i = 0; i < CLIENTS; i++) {
+
+            final String name = "TestClient" + i;
+
+            final Client client = new Client("0.0.0.0", 12360, name);
+            client.setTransport(Transport.NIO);
+            client.addErrorReporter(ErrorReporterFactory.newInstance());
+            client.addNetworkListener(new ClientListener() {
+
+                @Override
+                public void onReceive(Connection connection, Packet packet) {
+
+                    if (name.equals(packet.getData("echo"))) {
+
+                        responses.incrementAndGet();
+
+                    } else {
+
+                        errored = true;
+                        errorMessage = "Client: Received incorrect echo '" + packet.getData("echo") + "'!";
+                    }
+                }
+
+                @Override
+                public void onConnect(Packet packet) {
+
+                    Packet p = new Packet();
+                    p.putData("client-name", name);
+
+                    client.sendPacket(p, true);
+                }
+
+                @Override
+                public void onTimeout(Connection connection) {
+
+                    errored = true;
+                    errorMessage = "Connection timed out!";
+                }
+            });
+
+            clients[i] = client;
+        }
+
+        int threadsBefore = Thread.activeCount();
+
+        try {
+
+            System.out.println("Starting server...");
+
+            server.start();
+
+            System.out.println("Starting clients...");
+
+            for (Client client : clients) {
+
+                client.connect();
+            }
+
+        } catch (Exception e) {
+
+            e.printStackTrace();
+
+            errored = true;
+            errorMessage = e.getClass().getName();
+        }
+
+        long deadline = System.currentTimeMillis() + 30000;
+
+        while (!errored && responses.get() < CLIENTS && System.currentTimeMillis() < deadline) {
+
+            try {
+
+                Thread.sleep(100);
+
+            } catch (InterruptedException e) {
+            }
+        }
+
+        if (!errored && responses.get() < CLIENTS) {
+
+            errored = true;
+            errorMessage = "Only " + responses.get() + " of " + CLIENTS + " clients received a response!";
+        }
+
+        // Server event loops, incoming/failed client monitors and one event loop per client
+        int expectedThreads = 2 + 2 + CLIENTS;
+        int threadsAdded = Thread.activeCount() - threadsBefore;
+
+        if (threadsAdded > expectedThreads) {
+
+            errored = true;
+            errorMessage = "Expected at most " + expectedThreads + " new threads, found " + threadsAdded + "!";
+        }
+
+        if (server.getEventLoopGroup().getThreadCount() != 2) {
+
+            errored = true;
+            errorMessage = "Server used " + server.getEventLoopGroup().getThreadCount() + " event loop threads!";
+        }
+
+        try {
+
+            for (Client client : clients) {
+
+                client.close();
+            }
+
+            server.close();
+
+        } catch (Exception e) {
+
+            e.printStackTrace();
+
+            errored = true;
+            errorMessage = e.getClass().getName();
+        }
+
+        if (errored) {
+
+            System.out.println("Errored - " + errorMessage);
+            fail(errorMessage);
+
+        } else {
+
+            System.out.println("Success!");
+        }
+    }
+}
@@ -0,0 +1,367 @@
+package com.github.chrisblutz.networking;
+
+import com.github.chrisblutz.networking.exceptions.NetworkException;
+import com.github.chrisblutz.networking.exceptions.reporters.ErrorReporterFactory;
+import com.github.chrisblutz.networking.listeners.ClientListener;
+import com.github.chrisblutz.networking.listeners.ServerListener;
+import com.github.chrisblutz.networking.packets.Packet;
+import com.github.chrisblutz.networking.sockets.Connection;
+import com.github.chrisblutz.networking.sockets.OverflowPolicy;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import java.net.ServerSocket;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+public class OutboundQueueTest extends TestCase {
+
+    private static final int CAPACITY = 4;
+    private static final int PRODUCERS = 8;
+    private static final int PACKETS_PER_PRODUCER = 500;
+    // Matches OutboundQueue.VITAL_RESERVE
+    private static final int VITAL_RESERVE = 16;
+
+    private boolean errored = false;
+    private String errorMessage = "";
+
+    public OutboundQueueTest(String name) {
+
+        super(name);
+    }
+
+    public static TestSuite suite() {
+
+        return new TestSuite(OutboundQueueTest.class);
+    }
+
+    public void testOverflowPolicies() throws Exception {
+
+        // A server that never answers, so the client keeps waiting for the connection packet and never sends
+        ServerSocket silent = new ServerSocket(12367);
+
+        try {
+
+            checkDroppingPolicy(silent, OverflowPolicy.DROP_OLDEST);
+            checkDroppingPolicy(silent, OverflowPolicy.DROP_NEWEST);
+
+            Client client = connect(silent, OverflowPolicy.FAIL);
+
+            fill(client, CAPACITY);
+
+            try {
+
+                client.sendPacket(new Packet(), false);
+
+                fail("FAIL policy did not throw an exception!");
+
+            } catch (NetworkException e) {
+
+                System.out.println("FAIL policy threw: " + e.getMessage());
+            }
+
+            assertEquals(CAPACITY, client.getConnection().getOutboundQueueDepth());
+            client.close();
+
+            checkBlockingPolicy(silent);
+
+        } finally {
+
+            silent.close();
+        }
+    }
+
+    public void testVitalPacketBound() throws Exception {
+
+        ServerSocket silent = new ServerSocket(12392);
+
+        try {
+
+            for (OverflowPolicy policy : new OverflowPolicy[]{OverflowPolicy.DROP_OLDEST, OverflowPolicy.DROP_NEWEST}) {
+
+                Client client = connect(silent, 12392, policy);
+
+                fill(client, CAPACITY);
+                fillVital(client, VITAL_RESERVE);
+
+                // Vital packets may use the reserve past the capacity
+                assertEquals(policy + " depth", CAPACITY + VITAL_RESERVE, client.getConnection().getOutboundQueueDepth());
+                assertEquals(policy + " dropped", 0, client.getConnection().getDroppedPacketCount());
+
+                // But past the reserve they follow the overflow policy
+                fillVital(client, 3);
+
+                assertEquals(policy + " depth", CAPACITY + VITAL_RESERVE, client.getConnection().getOutboundQueueDepth());
+                assertEquals(policy + " dropped", 3, client.getConnection().getDroppedPacketCount());
+
+                client.close();
+            }
+
+            Client client = connect(silent, 12392, OverflowPolicy.FAIL);
+
+            fillVital(client, CAPACITY + VITAL_RESERVE);
+
+            try {
+
+                fillVital(client, 1);
+
+                fail("FAIL policy did not throw an exception for a vital packet!");
+
+            } catch (NetworkException e) {
+
+                System.out.println("FAIL policy threw: " + e.getMessage());
+            }
+
+            assertEquals(CAPACITY + VITAL_RESERVE, client.getConnection().getOutboundQueueDepth());
+            client.close();
+
+        } finally {
+
+            silent.close();
+        }
+    }
+
+    private void checkDroppingPolicy(ServerSocket silent, OverflowPolicy policy) throws Exception {
+
+        Client client = connect(silent, policy);
+
+        fill(client, CAPACITY * 3);
+
+        assertEquals(policy + " depth", CAPACITY, client.getConnection().getOutboundQueueDepth());
+        assertEquals(policy + " dropped", CAPACITY * 2, client.getConnection().getDroppedPacketCount());
+
+        client.close();
+    }
+
+    private void checkBlockingPolicy(ServerSocket silent) throws Exception {
+
+        final Client client = connect(silent, OverflowPolicy.BLOCK);
+
+        fill(client, CAPACITY);
+
+        Thread producer = new Thread(new Runnable() {
+
+            @Override
+            public void run() {
+
+                client.sendPacket(new Packet(), false);
+            }
+        });
+        producer.start();
+        producer.join(500);
+
+        assertTrue("BLOCK policy did not wait for room!", producer.isAlive());
+        assertEquals(CAPACITY, client.getConnection().getOutboundQueueDepth());
+
+        // Closing the Connection releases any waiting senders
+        client.close();
+        producer.join(5000);
+
+        assertFalse("Closing did not release the waiting sender!", producer.isAlive());
+    }
+
+    private static Client connect(ServerSocket silent, OverflowPolicy policy) throws Exception {
+
+        return connect(silent, 12367, policy);
+    }
+
+    private static Client connect(ServerSocket silent, int port, OverflowPolicy policy) throws Exception {
+
+        Client client = new Client("0.0.0.0", port, "TestClient-" + policy);
+        client.setOutboundQueueCapacity(CAPACITY);
+        client.setOverflowPolicy(policy);
+        client.connect();
+
+        silent.accept();
+
+        return client;
+    }
+
+    private static void fill(Client client, int count) {
+
+        for (int i = 0; i < count; i++) {
+
+            Packet p = new Packet();
+            p.putData("n", i);
+
+            client.sendPacket(p, false);
+        }
+    }
+
+    private static void fillVital(Client client, int count) {
+
+        for (int i = 0; i < count; i++) {
+
+            Packet p = new Packet();
+            p.putData("n", i);
+            p.setVital(true);
+
+            client.sendPacket(p, false);
+        }
+    }
+
+    public void testConcurrentProducers() {
+
+        final AtomicInteger received = new AtomicInteger(0);
+        final int[] next = new int[PRODUCERS];
+
+        final Server server = new Server(12368, "OutboundQueueTest");
+        server.setFullDuplex(true);
+        server.addErrorReporter(ErrorReporterFactory.newInstance());
+        server.addNetworkListener(new ServerListener() {
+
+            @Override
+            public void onReceive(Connection connection, Packet packet) {
+
+                int producer = (Integer) packet.getData("producer");
+                int n = (Integer) packet.getData("n");
+
+                // Packets from each producer must arrive in the order that producer sent them
+                if (next[producer] != n) {
+
+                    errored = true;
+                    errorMessage = "Producer " + producer + " sent packet " + next[producer] + " but " + n + " was received!";
+                }
+
+                next[producer] = n + 1;
+                received.incrementAndGet();
+            }
+
+            @Override
+            public Packet onConnect(Connection c, Packet data) {
+
+                return data;
+            }
+
+            @Override
+            public void onTimeout(Connection connection) {
+
+            }
+
+            @Override
+            public void onClientFailure(Connection c) {
+
+            }
+        });
+
+        final Client client = new Client("0.0.0.0", 12368, "TestClient");
+        client.setFullDuplex(true);
+        client.setOutboundQueueCapacity(16);
+        client.setOverflowPolicy(OverflowPolicy.BLOCK);
+        client.addErrorReporter(ErrorReporterFactory.newInstance());
+        client.addNetworkListener(new ClientListener() {
+
+            @Override
+            public void onReceive(Connection connection, Packet packet) {
+
+            }
+
+            @Override
+            public void onConnect(Packet packet) {
+
+            }
+
+            @Override
+            public void onTimeout(Connection connection) {
+
+            }
+        });
+
+        try {
+
+            System.out.println("Starting server...");
+
+            server.start();
+
+            System.out.println("Starting client...");
+
+            client.connect();
+
+            System.out.println("Sending " + PACKETS_PER_PRODUCER + " packets from each of " + PRODUCERS + " threads...");
+
+            Thread[] producers = new Thread[PRODUCERS];
+
+            for (int i = 0; i < PRODUCERS; i++) {
+
+                final int producer = i;
+
+                producers[i] = new Thread(new Runnable() {
+
+                    @Override
+                    public void run() {
+
+                        for (int n = 0; n < PACKETS_PER_PRODUCER; n++) {
+
+                            Packet p = new Packet();
+                            p.putData("producer", producer);
+                            p.putData("n", n);
+
+                            client.sendPacket(p, false);
+
+                            if (client.getConnection().getOutboundQueueDepth() > client.getConnection().getOutboundQueueCapacity()) {
+
+                                errored = true;
+                                errorMessage = "Outbound queue grew past its capacity!";
+                            }
+                        }
+                    }
+                });
+                producers[i].start();
+            }
+
+            for (Thread producer : producers) {
+
+                producer.join();
+            }
+
+            long deadline = System.currentTimeMillis() + 10000;
+
+            while (!errored && received.get() < PRODUCERS * PACKETS_PER_PRODUCER && System.currentTimeMillis() < deadline) {
+
+                Thread.sleep(100);
+            }
+
+            if (!errored && received.get() < PRODUCERS * PACKETS_PER_PRODUCER) {
+
+                errored = true;
+                errorMessage = "Only " + received.get() + " of " + PRODUCERS * PACKETS_PER_PRODUCER + " packets were received!";
+            }
+
+            if (!errored && client.getConnection().getDroppedPacketCount() != 0) {
+
+                errored = true;
+                errorMessage = client.getConnection().getDroppedPacketCount() + " packets were dropped!";
+            }
+
+        } catch (Exception e) {
+
+            e.printStackTrace();
+
+            errored = true;
+            errorMessage = e.getClass().getName();
+        }
+
+        try {
+
+            client.close();
+            server.close();
+
+        } catch (Exception e) {
+
+            e.printStackTrace();
+
+            errored = true;
+            errorMessage = e.getClass().getName();
+        }
+
+        if (errored) {
+
+            System.out.println("Errored - " + errorMessage);
+            fail(errorMessage);
+
+        } else {
+
+            System.out.println("Success!");
+        }
+    }
+}
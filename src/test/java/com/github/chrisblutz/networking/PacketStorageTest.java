@@ -0,0 +1,251 @@
+package com.github.chrisblutz.networking;
+
+import com.github.chrisblutz.networking.packets.Packet;
+import com.github.chrisblutz.networking.packets.PacketStorage;
+import com.github.chrisblutz.networking.packets.PacketUtils;
+import com.github.chrisblutz.networking.packets.binary.BinaryPacketReader;
+import com.github.chrisblutz.networking.packets.binary.BinaryPacketWriter;
+import com.github.chrisblutz.networking.sockets.Connection;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import java.util.Map;
+
+
+public class PacketStorageTest extends TestCase {
+
+    private static final int ENTRIES = 1000;
+
+    public PacketStorageTest(String name) {
+
+        super(name);
+    }
+
+    public static TestSuite suite() {
+
+        return new TestSuite(PacketStorageTest.class);
+    }
+
+    public void testPutAndGet() {
+
+        Packet p = new Packet();
+
+        for (int i = 0; i < ENTRIES; i++) {
+
+            p.putData("key" + i, value(i));
+        }
+
+        assertEquals(ENTRIES, p.getStorage().size());
+
+        for (int i = 0; i < ENTRIES; i++) {
+
+            assertTrue(p.hasData("key" + i));
+            assertEquals(value(i), p.getData("key" + i));
+        }
+
+        assertFalse(p.hasData("missing"));
+        assertNull(p.getData("missing"));
+
+        // Keys keep the order they were added in
+        Packet.PacketData[] data = p.getData();
+
+        for (int i = 0; i < ENTRIES; i++) {
+
+            assertEquals("key" + i, data[i].getKey());
+        }
+    }
+
+    public void testPrimitiveSlots() {
+
+        Packet p = new Packet();
+        p.putData("int", 123456);
+        p.putData("long", 9876543210L);
+        p.putData("double", -2.5);
+        p.putData("bool", true);
+        p.putData("string", "text");
+
+        PacketStorage storage = p.getStorage();
+
+        assertEquals(PacketStorage.INT, storage.getTag(storage.indexOf("int")));
+        assertEquals(PacketStorage.LONG, storage.getTag(storage.indexOf("long")));
+        assertEquals(PacketStorage.DOUBLE, storage.getTag(storage.indexOf("double")));
+        assertEquals(PacketStorage.BOOLEAN, storage.getTag(storage.indexOf("bool")));
+        assertEquals(PacketStorage.OBJECT, storage.getTag(storage.indexOf("string")));
+
+        assertEquals(123456, p.getData("int"));
+        assertEquals(9876543210L, p.getData("long"));
+        assertEquals(-2.5, p.getData("double"));
+        assertEquals(true, p.getData("bool"));
+        assertEquals(Long.class, storage.getType(storage.indexOf("long")));
+    }
+
+    public void testTypedAccessors() {
+
+        Packet p = createTypedPacket();
+
+        assertEquals(-42, p.getInt("int", 0));
+        assertEquals(Long.MIN_VALUE, p.getLong("long", 0));
+        assertEquals(0.1, p.getDouble("double", 0), 0);
+        assertTrue(p.getBoolean("bool", false));
+        assertEquals((short) -300, p.getShort("short", (short) 0));
+        assertEquals(2.5f, p.getFloat("float", 0), 0);
+        assertEquals((byte) -7, p.getByte("byte", (byte) 0));
+        assertEquals('\u4e2d', p.getChar("char", ' '));
+
+        // Numbers are converted between types, anything else falls back to the default
+        assertEquals(-42L, p.getLong("int", 0));
+        assertEquals(2, p.getInt("float", 0));
+        assertEquals(-300.0, p.getDouble("short", 0), 0);
+        assertEquals(5, p.getInt("string", 5));
+        assertEquals(5, p.getInt("missing", 5));
+        assertEquals(5, p.getInt("bool", 5));
+        assertFalse(p.getBoolean("int", false));
+        assertEquals('x', p.getChar("string", 'x'));
+
+        // Typed values are the same data pieces as boxed ones
+        assertEquals(-42, p.getData("int"));
+        assertEquals(Float.class, p.getStorage().getType(p.getStorage().indexOf("float")));
+
+        p.putData("boxed", 7L);
+
+        assertEquals(7, p.getInt("boxed", 0));
+        assertEquals(PacketStorage.LONG, p.getStorage().getTag(p.getStorage().indexOf("boxed")));
+    }
+
+    public void testTypedBinaryRoundTrip() {
+
+        Packet packet = createTypedPacket();
+
+        byte[] frame = new BinaryPacketWriter().getPacketAsFrame(Connection.getUninitializedConnection(), packet);
+        Packet read = new BinaryPacketReader().getPacketFromFrame(Connection.getUninitializedConnection(), frame,
+                PacketUtils.BINARY_FRAME_HEADER_LENGTH, frame.length - PacketUtils.BINARY_FRAME_HEADER_LENGTH);
+
+        PacketStorage expected = packet.getStorage();
+        PacketStorage actual = read.getStorage();
+
+        assertEquals(expected.size(), actual.size());
+
+        // Primitive values are decoded straight into primitive slots
+        for (int i = 0; i < expected.size(); i++) {
+
+            assertEquals(expected.getKey(i), actual.getKey(i));
+            assertEquals(expected.getTag(i), actual.getTag(i));
+            assertEquals(expected.getValue(i), actual.getValue(i));
+        }
+    }
+
+    public void testReplaceAcrossTypes() {
+
+        Packet p = new Packet();
+        p.putData("a", 1);
+        p.putData("b", "b");
+        p.putData("a", "one");
+        p.putData("b", null);
+
+        assertEquals(2, p.getStorage().size());
+        assertEquals("one", p.getData("a"));
+        assertTrue(p.hasData("b"));
+        assertNull(p.getData("b"));
+        assertNull(p.getAllForType(Integer.class));
+        assertEquals(1, p.getAllForType(String.class).size());
+    }
+
+    public void testRemove() {
+
+        Packet p = new Packet();
+
+        for (int i = 0; i < ENTRIES; i++) {
+
+            p.putData("key" + i, value(i));
+        }
+
+        p.removeData("key0");
+        p.removeAllForType(String.class);
+        p.removeAllForNamePrefix("key1");
+
+        for (int i = 0; i < ENTRIES; i++) {
+
+            boolean removed = i == 0 || value(i) instanceof String || ("key" + i).startsWith("key1");
+
+            assertEquals("key" + i, !removed, p.hasData("key" + i));
+
+            if (!removed) {
+
+                assertEquals(value(i), p.getData("key" + i));
+            }
+        }
+
+        Map<String, Object> integers = p.getAllForType(Integer.class);
+
+        for (String key : integers.keySet()) {
+
+            assertEquals(p.getData(key), integers.get(key));
+        }
+
+        p.clearData();
+
+        assertTrue(p.isEmpty());
+        assertFalse(p.hasData("key2"));
+
+        p.putData("key2", 2);
+
+        assertEquals(2, p.getData("key2"));
+    }
+
+    public void testEmptyPacket() {
+
+        Packet p = new Packet();
+
+        assertTrue(p.isEmpty());
+
+        p.putData(Packet.EMPTY_PACKET);
+
+        assertTrue(p.isEmpty());
+
+        p.putData("data", 1);
+
+        assertFalse(p.isEmpty());
+    }
+
+    private static Packet createTypedPacket() {
+
+        Packet p = new Packet();
+        p.putInt("int", -42);
+        p.putLong("long", Long.MIN_VALUE);
+        p.putDouble("double", 0.1);
+        p.putBoolean("bool", true);
+        p.putShort("short", (short) -300);
+        p.putFloat("float", 2.5f);
+        p.putByte("byte", (byte) -7);
+        p.putChar("char", '\u4e2d');
+        p.putData("string", "text");
+
+        return p;
+    }
+
+    private static Object value(int i) {
+
+        switch (i % 5) {
+
+            case 0:
+
+                return i;
+
+            case 1:
+
+                return (long) i * 1000000000L;
+
+            case 2:
+
+                return i / 4.0;
+
+            case 3:
+
+                return i % 2 == 0;
+
+            default:
+
+                return "value" + i;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.github.chrisblutz.networking;
+
+import com.github.chrisblutz.networking.packets.Packet;
+import com.github.chrisblutz.networking.packets.PacketWriter;
+import com.github.chrisblutz.networking.packets.binary.BinaryOutput;
+import com.github.chrisblutz.networking.packets.binary.BinaryPacketWriter;
+import com.github.chrisblutz.networking.sockets.Connection;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
+
+
+public class PacketWriterAllocationTest extends TestCase {
+
+    private static final int WARMUP = 500000;
+    private static final int ITERATIONS = 100000;
+    private static final int WINDOWS = 5;
+    // Well below a single String per data piece, which is what the old writer allocated many times over
+    private static final long MAX_BYTES_PER_PACKET = 64;
+
+    public PacketWriterAllocationTest(String name) {
+
+        super(name);
+    }
+
+    public static TestSuite suite() {
+
+        return new TestSuite(PacketWriterAllocationTest.class);
+    }
+
+    public void testTextAllocation() {
+
+        final Connection connection = Connection.getUninitializedConnection();
+        final Packet packet = createPacket();
+        final PacketWriter writer = new PacketWriter();
+        final StringBuilder builder = new StringBuilder();
+        final BinaryOutput output = new BinaryOutput();
+
+        // Some JVMs allocate while appending primitives to a StringBuilder (JDK 21 does for doubles),
+        // which the writer cannot avoid, so that is measured on its own and not counted against it
+        Runnable baseline = new Runnable() {
+
+            @Override
+            public void run() {
+
+                builder.setLength(0);
+                builder.append(123456).append(9876543210L).append(2.5).append(false).append('c');
+            }
+        };
+
+        checkAllocation("Text", baseline, new Runnable() {
+
+            @Override
+            public void run() {
+
+                builder.setLength(0);
+                writer.writePacket(connection, packet, builder);
+
+                output.reset();
+                output.writeUtf8(builder);
+            }
+        });
+    }
+
+    public void testBinaryAllocation() {
+
+        final Connection connection = Connection.getUninitializedConnection();
+        final Packet packet = createPacket();
+        final BinaryPacketWriter writer = new BinaryPacketWriter();
+        final BinaryOutput output = new BinaryOutput();
+
+        checkAllocation("Binary", null, new Runnable() {
+
+            @Override
+            public void run() {
+
+                output.reset();
+                writer.writeFrame(connection, packet, output);
+            }
+        });
+    }
+
+    private void checkAllocation(String name, Runnable baseline, Runnable encode) {
+
+        Method allocatedBytes = getAllocatedBytesMethod();
+
+        if (allocatedBytes == null) {
+
+            System.out.println("Thread allocation counters are not supported by this JVM, skipping...");
+
+            return;
+        }
+
+        long baselineBytes = baseline == null ? 0 : measure(allocatedBytes, baseline);
+        long perPacket = measure(allocatedBytes, encode) - baselineBytes;
+
+        System.out.println(name + " encode allocated " + perPacket + " bytes per packet (beyond " + baselineBytes + " bytes of the JVM's own)");
+
+        assertTrue(name + " encode allocated " + perPacket + " bytes per packet!", perPacket <= MAX_BYTES_PER_PACKET);
+    }
+
+    /**
+     * Measures the steady-state allocation of a task, as the fewest bytes allocated per run in any of several
+     * windows after a warmup, so that allocations made while the JIT is still compiling are not counted
+     */
+    private static long measure(Method allocatedBytes, Runnable task) {
+
+        for (int i = 0; i < WARMUP; i++) {
+
+            task.run();
+        }
+
+        long min = Long.MAX_VALUE;
+
+        for (int w = 0; w < WINDOWS; w++) {
+
+            long before = getAllocatedBytes(allocatedBytes);
+
+            for (int i = 0; i < ITERATIONS; i++) {
+
+                task.run();
+            }
+
+            min = Math.min(min, (getAllocatedBytes(allocatedBytes) - before) / ITERATIONS);
+        }
+
+        return min;
+    }
+
+    private static Packet createPacket() {
+
+        Packet p = new Packet();
+        p.putData("int", 123456);
+        p.putData("long", 9876543210L);
+        p.putData("double", 2.5);
+        p.putData("bool", false);
+        p.putData("char", 'c');
+        p.putData("name", "TestClient");
+        p.putData("message", "A|message\nwith characters that need escaping");
+        p.putData("list", new String[]{"a", "b,c"});
+
+        return p;
+    }
+
+    private static Method getAllocatedBytesMethod() {
+
+        try {
+
+            Method method = Class.forName("com.sun.management.ThreadMXBean").getMethod("getThreadAllocatedBytes", long.class);
+
+            if (getAllocatedBytes(method) < 0) {
+
+                return null;
+            }
+
+            return method;
+
+        } catch (Exception e) {
+
+            return null;
+        }
+    }
+
+    private static long getAllocatedBytes(Method method) {
+
+        try {
+
+            return (Long) method.invoke(ManagementFactory.getThreadMXBean(), Thread.currentThread().getId());
+
+        } catch (Exception e) {
+
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.github.chrisblutz.networking;
+
+import com.github.chrisblutz.networking.exceptions.reporters.ErrorReporterFactory;
+import com.github.chrisblutz.networking.listeners.ClientListener;
+import com.github.chrisblutz.networking.listeners.ServerListener;
+import com.github.chrisblutz.networking.packets.Packet;
+import com.github.chrisblutz.networking.query.QueryCache;
+import com.github.chrisblutz.networking.query.QueryCachePolicy;
+import com.github.chrisblutz.networking.query.QueryListener;
+import com.github.chrisblutz.networking.query.QueryResponse;
+import com.github.chrisblutz.networking.query.QueryType;
+import com.github.chrisblutz.networking.sockets.Connection;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+public class QueryCacheTest extends TestCase {
+
+    private static final AtomicInteger calls = new AtomicInteger(0);
+
+    private static final QueryType CACHED_TYPE = QueryType.createQueryType("test:cached", new QueryListener() {
+
+        @Override
+        public Object onQuery(Connection connection, Listenable listenable, Map<String, Object> params) {
+
+            return params.get("k") + ":" + calls.incrementAndGet();
+        }
+    }, new QueryCachePolicy(1000, 2));
+
+    private boolean errored = false;
+    private String errorMessage = "";
+    private Client client;
+
+    public QueryCacheTest(String name) {
+
+        super(name);
+    }
+
+    public static TestSuite suite() {
+
+        return new TestSuite(QueryCacheTest.class);
+    }
+
+    public void testQueryCache() {
+
+        final Server server = new Server(12382, "QueryCacheTest");
+        server.addErrorReporter(ErrorReporterFactory.newInstance());
+        server.addNetworkListener(new ServerListener() {
+
+            @Override
+            public void onReceive(Connection connection, Packet packet) {
+
+            }
+
+            @Override
+            public Packet onConnect(Connection c, Packet data) {
+
+                return data;
+            }
+
+            @Override
+            public void onTimeout(Connection connection) {
+
+            }
+
+            @Override
+            public void onClientFailure(Connection c) {
+
+            }
+        });
+
+        client = new Client("localhost", 12382, "TestClient");
+        client.addErrorReporter(ErrorReporterFactory.newInstance());
+        client.addNetworkListener(new ClientListener() {
+
+            @Override
+            public void onReceive(Connection connection, Packet packet) {
+
+            }
+
+            @Override
+            public void onConnect(Packet packet) {
+
+            }
+
+            @Override
+            public void onTimeout(Connection connection) {
+
+            }
+        });
+
+        try {
+
+            System.out.println("Starting server...");
+
+            server.start();
+
+            System.out.println("Starting client...");
+
+            client.connect();
+
+            // Only the first query runs the listener
+            for (int i = 0; i < 5; i++) {
+
+                expect("a", "a:1");
+            }
+
+            QueryCache cache = server.getQueryCache(CACHED_TYPE);
+
+            if (!errored && (cache.getHitCount() != 4 || cache.getMissCount() != 1)) {
+
+                errored = true;
+                errorMessage = "Expected 4 hits and 1 miss, found " + cache.getHitCount() + " hits and " + cache.getMissCount() + " misses!";
+            }
+
+            // The cache holds two results, so 'a' is evicted as the least recently used
+            expect("b", "b:2");
+            expect("c", "c:3");
+            expect("b", "b:2");
+            expect("a", "a:4");
+
+            if (!errored && cache.size() != 2) {
+
+                errored = true;
+                errorMessage = "The cache holds " + cache.size() + " results instead of 2!";
+            }
+
+            System.out.println("Waiting for the cached results to expire...");
+
+            Thread.sleep(1200);
+
+            expect("a", "a:5");
+
+            if (client.getQueryCache(CACHED_TYPE).getMissCount() != 0) {
+
+                errored = true;
+                errorMessage = "The client cache was used by the server!";
+            }
+
+            System.out.println(cache.getHitCount() + " hits and " + cache.getMissCount() + " misses");
+
+        } catch (Exception e) {
+
+            e.printStackTrace();
+
+            errored = true;
+            errorMessage = e.getClass().getName();
+        }
+
+        try {
+
+            client.close();
+            server.close();
+
+        } catch (Exception e) {
+
+            e.printStackTrace();
+
+            errored = true;
+            errorMessage = e.getClass().getName();
+        }
+
+        if (errored) {
+
+            System.out.println("Errored - " + errorMessage);
+            fail(errorMessage);
+
+        } else {
+
+            System.out.println("Success!");
+        }
+    }
+
+    public void testArrayParameters() {
+
+        QueryCache cache = new QueryCache(new QueryCachePolicy(0, 10));
+
+        cache.put(cache.getKey(arrayParams(new int[]{1, 2, 3}, new byte[]{4, 5})), new QueryResponse("ints"));
+        cache.put(cache.getKey(arrayParams(new double[]{1.5}, Arrays.asList(new long[]{6L}))), new QueryResponse("doubles"));
+
+        // Equal contents in new arrays must find the cached results
+        QueryResponse ints = cache.get(cache.getKey(arrayParams(new int[]{1, 2, 3}, new byte[]{4, 5})));
+        QueryResponse doubles = cache.get(cache.getKey(arrayParams(new double[]{1.5}, Arrays.asList(new long[]{6L}))));
+
+        assertNotNull("int[] parameters were not compared by value", ints);
+        assertEquals("ints", ints.getValue());
+        assertNotNull("Arrays inside a List were not compared by value", doubles);
+        assertEquals("doubles", doubles.getValue());
+
+        assertNull(cache.get(cache.getKey(arrayParams(new int[]{1, 2, 4}, new byte[]{4, 5}))));
+        assertNull(cache.get(cache.getKey(arrayParams(new long[]{1, 2, 3}, new byte[]{4, 5}))));
+
+        assertEquals(2, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+    }
+
+    private static Map<String, Object> arrayParams(Object first, Object second) {
+
+        Map<String, Object> params = new HashMap<String, Object>();
+        params.put("first", first);
+        params.put("second", second);
+
+        return params;
+    }
+
+    private void expect(String key, String expected) throws Exception {
+
+        if (errored) {
+
+            return;
+        }
+
+        Map<String, Object> params = new HashMap<String, Object>();
+        params.put("k", key);
+
+        Object value = client.getConnection().queryAsync(CACHED_TYPE, params).get(10, TimeUnit.SECONDS);
+
+        if (!expected.equals(value)) {
+
+            errored = true;
+            errorMessage = "Expected '" + expected + "', found '" + value + "'!";
+        }
+    }
+}
@@ -0,0 +1,444 @@
+package com.github.chrisblutz.networking;
+
+import com.github.chrisblutz.networking.exceptions.reporters.ErrorReporterFactory;
+import com.github.chrisblutz.networking.listeners.ClientListener;
+import com.github.chrisblutz.networking.listeners.ServerListener;
+import com.github.chrisblutz.networking.packets.Codec;
+import com.github.chrisblutz.networking.packets.Packet;
+import com.github.chrisblutz.networking.packets.PacketReader;
+import com.github.chrisblutz.networking.packets.PacketUtils;
+import com.github.chrisblutz.networking.packets.PacketWriter;
+import com.github.chrisblutz.networking.packets.binary.BinaryPacketReader;
+import com.github.chrisblutz.networking.packets.binary.BinaryPacketWriter;
+import com.github.chrisblutz.networking.query.Query;
+import com.github.chrisblutz.networking.query.QueryCallback;
+import com.github.chrisblutz.networking.query.QueryFuture;
+import com.github.chrisblutz.networking.query.QueryListener;
+import com.github.chrisblutz.networking.query.QueryResponse;
+import com.github.chrisblutz.networking.query.QueryType;
+import com.github.chrisblutz.networking.sockets.Connection;
+import com.github.chrisblutz.networking.sockets.Transport;
+import com.github.chrisblutz.networking.utils.PacketKeys;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+
+public class QueryCorrelationTest extends TestCase {
+
+    private static final int QUERIES = 2000;
+
+    private static final QueryType DOUBLE_TYPE = QueryType.createQueryType("test:double", new QueryListener() {
+
+        @Override
+        public Object onQuery(Connection connection, Listenable listenable, Map<String, Object> params) {
+
+            int n = (Integer) params.get("n");
+
+            if (n % 500 == 0) {
+
+                return null;
+            }
+
+            // Slow down some queries so the responses come back out of order
+            if (n % 7 == 0) {
+
+                try {
+
+                    Thread.sleep(1);
+
+                } catch (InterruptedException e) {
+
+                    // Answer early
+                }
+            }
+
+            return n * 2;
+        }
+    });
+
+    private boolean errored = false;
+    private String errorMessage = "";
+
+    public QueryCorrelationTest(String name) {
+
+        super(name);
+    }
+
+    public static TestSuite suite() {
+
+        return new TestSuite(QueryCorrelationTest.class);
+    }
+
+    public void testBinaryCodec() {
+
+        runCorrelationTest(Codec.BINARY, 12380);
+    }
+
+    public void testTextCodec() {
+
+        runCorrelationTest(Codec.TEXT, 12381);
+    }
+
+    public void testCorrelationIdsInValues() {
+
+        Map<String, Object> params = new HashMap<String, Object>();
+        params.put("n", 1);
+
+        Query query = new Query(DOUBLE_TYPE, params);
+        query.setCorrelationId(300);
+
+        List<Object> values = new ArrayList<Object>();
+        values.add(query);
+        values.add(new QueryResponse(2).withCorrelationId(301));
+        values.add(QueryResponse.rejected("No").withCorrelationId(302));
+
+        Packet packet = new Packet();
+        packet.putData(PacketKeys.QUERIES, values);
+
+        byte[] frame = new BinaryPacketWriter().getPacketAsFrame(Connection.getUninitializedConnection(), packet);
+        checkCorrelationIds(new BinaryPacketReader().getPacketFromFrame(Connection.getUninitializedConnection(), frame,
+                PacketUtils.BINARY_FRAME_HEADER_LENGTH, frame.length - PacketUtils.BINARY_FRAME_HEADER_LENGTH));
+
+        String text = new PacketWriter().getPacketAsWriteableString(Connection.getUninitializedConnection(), packet);
+        checkCorrelationIds(new PacketReader().getPacketFromString(Connection.getUninitializedConnection(), text));
+    }
+
+    private static void checkCorrelationIds(Packet read) {
+
+        // Every request and response is sent under one key, each with its own correlation id
+        assertEquals(1, read.getData().length);
+
+        List<?> values = (List<?>) read.getData(PacketKeys.QUERIES);
+
+        assertEquals(3, values.size());
+        assertEquals(300, ((Query) values.get(0)).getCorrelationId());
+        assertEquals(1, ((Query) values.get(0)).getParameters().get("n"));
+
+        QueryResponse response = (QueryResponse) values.get(1);
+
+        assertEquals(301, response.getCorrelationId());
+        assertEquals(2, response.getValue());
+
+        QueryResponse rejected = (QueryResponse) values.get(2);
+
+        assertEquals(302, rejected.getCorrelationId());
+        assertEquals("No", rejected.getRejectionMessage());
+    }
+
+    public void testUserKeys() {
+
+        final AtomicReference<QueryFuture> future = new AtomicReference<QueryFuture>();
+        final CountDownLatch queried = new CountDownLatch(1);
+        final CountDownLatch received = new CountDownLatch(1);
+
+        final Server server = new Server(12388, "QueryCorrelationTest");
+        server.addErrorReporter(ErrorReporterFactory.newInstance());
+        server.addNetworkListener(new ServerListener() {
+
+            @Override
+            public void onReceive(Connection connection, Packet packet) {
+
+                if (packet.hasData("hello")) {
+
+                    // The Query is not sent on its own, since a Packet is already waiting, so both share keys "0" and "1"
+                    connection.sendPacket(createUserPacket(), false);
+
+                    future.set(connection.queryAsync(DOUBLE_TYPE, createParameters(21)));
+                    queried.countDown();
+                }
+            }
+
+            @Override
+            public Packet onConnect(Connection c, Packet data) {
+
+                return data;
+            }
+
+            @Override
+            public void onTimeout(Connection connection) {
+
+            }
+
+            @Override
+            public void onClientFailure(Connection c) {
+
+            }
+        });
+
+        final Client client = new Client("localhost", 12388, "TestClient");
+        client.addErrorReporter(ErrorReporterFactory.newInstance());
+        client.addNetworkListener(new ClientListener() {
+
+            @Override
+            public void onReceive(Connection connection, Packet packet) {
+
+                if (packet.hasData("user")) {
+
+                    if (!"zero".equals(packet.getData("0")) || !"one".equals(packet.getData("1")) || packet.getStorage().size() != 3) {
+
+                        errored = true;
+                        errorMessage = "User data was replaced by the Query!";
+                    }
+
+                    received.countDown();
+                }
+            }
+
+            @Override
+            public void onConnect(Packet packet) {
+
+                Packet p = new Packet();
+                p.putBoolean("hello", true);
+
+                client.sendPacket(p, false);
+            }
+
+            @Override
+            public void onTimeout(Connection connection) {
+
+            }
+        });
+
+        try {
+
+            System.out.println("Starting server...");
+
+            server.start();
+
+            System.out.println("Starting client...");
+
+            client.connect();
+
+            if (!queried.await(10, TimeUnit.SECONDS) || !received.await(10, TimeUnit.SECONDS)) {
+
+                errored = true;
+                errorMessage = "The user data did not arrive!";
+
+            } else {
+
+                Object value = future.get().get(10, TimeUnit.SECONDS);
+
+                if (!Integer.valueOf(42).equals(value)) {
+
+                    errored = true;
+                    errorMessage = "The Query returned " + value + " instead of 42!";
+                }
+            }
+
+        } catch (Exception e) {
+
+            e.printStackTrace();
+
+            errored = true;
+            errorMessage = e.getClass().getName();
+        }
+
+        try {
+
+            client.close();
+            server.close();
+
+        } catch (Exception e) {
+
+            e.printStackTrace();
+
+            errored = true;
+            errorMessage = e.getClass().getName();
+        }
+
+        if (errored) {
+
+            System.out.println("Errored - " + errorMessage);
+            fail(errorMessage);
+
+        } else {
+
+            System.out.println("Success!");
+        }
+    }
+
+    private void runCorrelationTest(Codec codec, int port) {
+
+        final Server server = new Server(port, "QueryCorrelationTest");
+        server.setCodec(codec);
+        server.setTransport(Transport.NIO);
+        server.setEventLoopThreads(1);
+        server.setFullDuplex(true);
+        server.setQueryQueueCapacity(QUERIES);
+        server.addErrorReporter(ErrorReporterFactory.newInstance());
+        server.addNetworkListener(new ServerListener() {
+
+            @Override
+            public void onReceive(Connection connection, Packet packet) {
+
+            }
+
+            @Override
+            public Packet onConnect(Connection c, Packet data) {
+
+                return data;
+            }
+
+            @Override
+            public void onTimeout(Connection connection) {
+
+            }
+
+            @Override
+            public void onClientFailure(Connection c) {
+
+            }
+        });
+
+        final Client client = new Client("localhost", port, "TestClient");
+        client.setCodec(codec);
+        client.setTransport(Transport.NIO);
+        client.setEventLoopThreads(1);
+        client.setFullDuplex(true);
+        client.addErrorReporter(ErrorReporterFactory.newInstance());
+        client.addNetworkListener(new ClientListener() {
+
+            @Override
+            public void onReceive(Connection connection, Packet packet) {
+
+            }
+
+            @Override
+            public void onConnect(Packet packet) {
+
+            }
+
+            @Override
+            public void onTimeout(Connection connection) {
+
+            }
+        });
+
+        try {
+
+            System.out.println("Starting " + codec + " server...");
+
+            server.start();
+
+            System.out.println("Starting client...");
+
+            client.connect();
+
+            System.out.println("Sending " + QUERIES + " queries...");
+
+            final AtomicInteger outOfOrder = new AtomicInteger(0);
+            final AtomicInteger lastCompleted = new AtomicInteger(-1);
+
+            QueryFuture[] futures = new QueryFuture[QUERIES];
+            Set<Long> correlationIds = new HashSet<Long>();
+
+            for (int i = 0; i < QUERIES; i++) {
+
+                Map<String, Object> params = new HashMap<String, Object>();
+                params.put("n", i);
+
+                // Every query uses the same label, which must not mix up their responses
+                futures[i] = client.getConnection().queryAsync("same", DOUBLE_TYPE, params, new QueryCallback() {
+
+                    @Override
+                    public void onComplete(Query query) {
+
+                        int n = (Integer) query.getParameters().get("n");
+
+                        if (lastCompleted.getAndSet(n) > n) {
+
+                            outOfOrder.incrementAndGet();
+                        }
+                    }
+                });
+
+                correlationIds.add(futures[i].getQuery().getCorrelationId());
+            }
+
+            if (correlationIds.size() != QUERIES) {
+
+                errored = true;
+                errorMessage = "Only " + correlationIds.size() + " of " + QUERIES + " correlation ids were unique!";
+            }
+
+            for (int i = 0; i < QUERIES && !errored; i++) {
+
+                Object value = futures[i].get(10, TimeUnit.SECONDS);
+                Object expected = i % 500 == 0 ? null : i * 2;
+
+                if (expected == null ? value != null : !expected.equals(value)) {
+
+                    errored = true;
+                    errorMessage = "Query " + i + " returned " + value + " instead of " + expected + "!";
+
+                } else if (!"same".equals(futures[i].getQuery().getId())) {
+
+                    errored = true;
+                    errorMessage = "Query " + i + " lost its id!";
+                }
+            }
+
+            System.out.println(outOfOrder.get() + " responses arrived out of order");
+
+        } catch (Exception e) {
+
+            e.printStackTrace();
+
+            errored = true;
+            errorMessage = e.getClass().getName();
+        }
+
+        try {
+
+            client.close();
+            server.close();
+
+        } catch (Exception e) {
+
+            e.printStackTrace();
+
+            errored = true;
+            errorMessage = e.getClass().getName();
+        }
+
+        if (errored) {
+
+            System.out.println("Errored - " + errorMessage);
+            fail(errorMessage);
+
+        } else {
+
+            System.out.println("Success!");
+        }
+    }
+
+    private static Packet createUserPacket() {
+
+        // These keys are the same as the correlation ids of the first Queries, written in base 36
+        Packet p = new Packet();
+        p.putData("user", true);
+        p.putData("0", "zero");
+        p.putData("1", "one");
+
+        return p;
+    }
+
+    private static Map<String, Object> createParameters(int n) {
+
+        Map<String, Object> params = new HashMap<String, Object>();
+        params.put("n", n);
+
+        return params;
+    }
+}
@@ -0,0 +1,182 @@
+package com.github.chrisblutz.networking;
+
+import com.github.chrisblutz.networking.exceptions.reporters.ErrorReporterFactory;
+import com.github.chrisblutz.networking.listeners.ClientListener;
+import com.github.chrisblutz.networking.listeners.ServerListener;
+import com.github.chrisblutz.networking.packets.Packet;
+import com.github.chrisblutz.networking.query.Query;
+import com.github.chrisblutz.networking.query.QueryListener;
+import com.github.chrisblutz.networking.query.QueryStatus;
+import com.github.chrisblutz.networking.query.QueryType;
+import com.github.chrisblutz.networking.sockets.Connection;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+
+public class QueryDeadlineTest extends TestCase {
+
+    private static final QueryType SLOW_TYPE = QueryType.createQueryType("test:slow", new QueryListener() {
+
+        @Override
+        public Object onQuery(Connection connection, Listenable listenable, Map<String, Object> params) {
+
+            try {
+
+                Thread.sleep(1500);
+
+            } catch (InterruptedException e) {
+
+                // Answer early
+            }
+
+            return "slow";
+        }
+    });
+
+    private boolean errored = false;
+    private String errorMessage = "";
+
+    public QueryDeadlineTest(String name) {
+
+        super(name);
+    }
+
+    public static TestSuite suite() {
+
+        return new TestSuite(QueryDeadlineTest.class);
+    }
+
+    public void testQueryDeadlines() {
+
+        final Server server = new Server(12377, "QueryDeadlineTest");
+        server.addErrorReporter(ErrorReporterFactory.newInstance());
+        server.addNetworkListener(new ServerListener() {
+
+            @Override
+            public void onReceive(Connection connection, Packet packet) {
+
+            }
+
+            @Override
+            public Packet onConnect(Connection c, Packet data) {
+
+                return data;
+            }
+
+            @Override
+            public void onTimeout(Connection connection) {
+
+            }
+
+            @Override
+            public void onClientFailure(Connection c) {
+
+            }
+        });
+
+        final Client client = new Client("0.0.0.0", 12377, "TestClient");
+        client.addErrorReporter(ErrorReporterFactory.newInstance());
+        client.addNetworkListener(new ClientListener() {
+
+            @Override
+            public void onReceive(Connection connection, Packet packet) {
+
+            }
+
+            @Override
+            public void onConnect(Packet packet) {
+
+            }
+
+            @Override
+            public void onTimeout(Connection connection) {
+
+            }
+        });
+
+        try {
+
+            System.out.println("Starting server...");
+
+            server.start();
+
+            System.out.println("Starting client...");
+
+            client.connect();
+
+            System.out.println("Sending a slow query with a short deadline and a fast query with a long one...");
+
+            long start = System.currentTimeMillis();
+
+            Query slow = client.getConnection().query("slow-query", SLOW_TYPE, new HashMap<String, Object>(), 300);
+            Query fast = client.getConnection().query("fast-query", QueryType.CONNECTED_IPS, new HashMap<String, Object>(), 10000);
+
+            try {
+
+                slow.getFuture().get(5, TimeUnit.SECONDS);
+
+            } catch (Exception e) {
+
+                // Checked below
+            }
+
+            long elapsed = System.currentTimeMillis() - start;
+
+            if (slow.getStatus() != QueryStatus.Status.TIMED_OUT) {
+
+                errored = true;
+                errorMessage = "Slow query finished with " + slow.getStatus() + "!";
+
+            } else if (elapsed > 1000) {
+
+                errored = true;
+                errorMessage = "Slow query took " + elapsed + " ms to time out!";
+            }
+
+            System.out.println("Slow query timed out after " + elapsed + " ms: " + slow.getStatusMessage());
+
+            // The slow query timing out must not fail the fast one, which is answered once the server is done
+            fast.getFuture().get(10, TimeUnit.SECONDS);
+
+            if (fast.getStatus() != QueryStatus.Status.SUCCESSFUL) {
+
+                errored = true;
+                errorMessage = "Fast query finished with " + fast.getStatus() + "!";
+            }
+
+        } catch (Exception e) {
+
+            e.printStackTrace();
+
+            errored = true;
+            errorMessage = e.getClass().getName();
+        }
+
+        try {
+
+            client.close();
+            server.close();
+
+        } catch (Exception e) {
+
+            e.printStackTrace();
+
+            errored = true;
+            errorMessage = e.getClass().getName();
+        }
+
+        if (errored) {
+
+            System.out.println("Errored - " + errorMessage);
+            fail(errorMessage);
+
+        } else {
+
+            System.out.println("Success!");
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package com.github.chrisblutz.networking;
+
+import com.github.chrisblutz.networking.exceptions.reporters.ErrorReporterFactory;
+import com.github.chrisblutz.networking.listeners.ClientListener;
+import com.github.chrisblutz.networking.listeners.ServerListener;
+import com.github.chrisblutz.networking.packets.Packet;
+import com.github.chrisblutz.networking.query.Query;
+import com.github.chrisblutz.networking.query.QueryListener;
+import com.github.chrisblutz.networking.query.QueryStatus;
+import com.github.chrisblutz.networking.query.QueryType;
+import com.github.chrisblutz.networking.sockets.Connection;
+import com.github.chrisblutz.networking.sockets.Transport;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+public class QueryExecutorTest extends TestCase {
+
+    private static final int PACKETS = 50;
+
+    private static final QueryType BLOCKING_TYPE = QueryType.createQueryType("test:blocking", new QueryListener() {
+
+        @Override
+        public Object onQuery(Connection connection, Listenable listenable, Map<String, Object> params) {
+
+            try {
+
+                Thread.sleep(1000);
+
+            } catch (InterruptedException e) {
+
+                // Answer early
+            }
+
+            return Thread.currentThread().getName();
+        }
+    });
+
+    private boolean errored = false;
+    private String errorMessage = "";
+    private AtomicInteger echoes = new AtomicInteger(0);
+
+    public QueryExecutorTest(String name) {
+
+        super(name);
+    }
+
+    public static TestSuite suite() {
+
+        return new TestSuite(QueryExecutorTest.class);
+    }
+
+    public void testBlockingTransport() {
+
+        runExecutorTest(Transport.BLOCKING, 12378);
+    }
+
+    public void testNioTransport() {
+
+        runExecutorTest(Transport.NIO, 12379);
+    }
+
+    private void runExecutorTest(Transport transport, int port) {
+
+        final Server server = new Server(port, "QueryExecutorTest");
+        server.setTransport(transport);
+        server.setEventLoopThreads(1);
+        server.setFullDuplex(true);
+        server.setQueryThreads(1);
+        server.setQueryQueueCapacity(1);
+        server.addErrorReporter(ErrorReporterFactory.newInstance());
+        server.addNetworkListener(new ServerListener() {
+
+            @Override
+            public void onReceive(Connection connection, Packet packet) {
+
+                connection.sendPacket(packet, false);
+            }
+
+            @Override
+            public Packet onConnect(Connection c, Packet data) {
+
+                return data;
+            }
+
+            @Override
+            public void onTimeout(Connection connection) {
+
+            }
+
+            @Override
+            public void onClientFailure(Connection c) {
+
+            }
+        });
+
+        final Client client = new Client("localhost", port, "TestClient");
+        client.setTransport(transport);
+        client.setEventLoopThreads(1);
+        client.setFullDuplex(true);
+        client.addErrorReporter(ErrorReporterFactory.newInstance());
+        client.addNetworkListener(new ClientListener() {
+
+            @Override
+            public void onReceive(Connection connection, Packet packet) {
+
+                echoes.incrementAndGet();
+            }
+
+            @Override
+            public void onConnect(Packet packet) {
+
+            }
+
+            @Override
+            public void onTimeout(Connection connection) {
+
+            }
+        });
+
+        try {
+
+            System.out.println("Starting " + transport + " server...");
+
+            server.start();
+
+            System.out.println("Starting client...");
+
+            client.connect();
+
+            System.out.println("Sending blocking queries and " + PACKETS + " packets...");
+
+            // One query runs, one waits in the queue and the rest are rejected
+            Query[] queries = new Query[4];
+
+            for (int i = 0; i < queries.length; i++) {
+
+                queries[i] = client.getConnection().query("blocking-" + i, BLOCKING_TYPE, new HashMap<String, Object>());
+            }
+
+            for (int i = 0; i < PACKETS; i++) {
+
+                Packet p = new Packet();
+                p.putData("n", i);
+
+                client.sendPacket(p, false);
+            }
+
+            long deadline = System.currentTimeMillis() + 5000;
+
+            while (echoes.get() < PACKETS && System.currentTimeMillis() < deadline) {
+
+                Thread.sleep(10);
+            }
+
+            // The echoes must not have waited for the first query to finish
+            if (echoes.get() < PACKETS) {
+
+                errored = true;
+                errorMessage = "Only " + echoes.get() + " of " + PACKETS + " packets came back!";
+
+            } else if (queries[0].isDone()) {
+
+                errored = true;
+                errorMessage = "The packets waited for the query to finish!";
+            }
+
+            int successful = 0, rejected = 0;
+
+            for (Query q : queries) {
+
+                try {
+
+                    q.getFuture().get(10, TimeUnit.SECONDS);
+
+                } catch (Exception e) {
+
+                    // Checked below
+                }
+
+                if (q.getStatus() == QueryStatus.Status.SUCCESSFUL) {
+
+                    successful++;
+
+                    if (!String.valueOf(q.getValue()).startsWith("Query Worker")) {
+
+                        errored = true;
+                        errorMessage = "Query ran on " + q.getValue() + "!";
+                    }
+
+                } else if (q.getStatus() == QueryStatus.Status.REJECTED) {
+
+                    rejected++;
+                }
+            }
+
+            System.out.println(successful + " queries succeeded and " + rejected + " were rejected");
+
+            if (!errored && (successful < 1 || rejected < 1 || successful + rejected != queries.length)) {
+
+                errored = true;
+                errorMessage = successful + " queries succeeded and " + rejected + " were rejected!";
+            }
+
+        } catch (Exception e) {
+
+            e.printStackTrace();
+
+            errored = true;
+            errorMessage = e.getClass().getName();
+        }
+
+        try {
+
+            client.close();
+            server.close();
+
+        } catch (Exception e) {
+
+            e.printStackTrace();
+
+            errored = true;
+            errorMessage = e.getClass().getName();
+        }
+
+        if (errored) {
+
+            System.out.println("Errored - " + errorMessage);
+            fail(errorMessage);
+
+        } else {
+
+            System.out.println("Success!");
+        }
+    }
+}
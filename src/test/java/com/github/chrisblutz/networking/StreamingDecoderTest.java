@@ -0,0 +1,393 @@
+package com.github.chrisblutz.networking;
+
+import com.github.chrisblutz.networking.exceptions.reporters.ErrorReporterFactory;
+import com.github.chrisblutz.networking.listeners.ServerListener;
+import com.github.chrisblutz.networking.packets.Packet;
+import com.github.chrisblutz.networking.packets.PacketWriter;
+import com.github.chrisblutz.networking.packets.binary.BinaryPacketWriter;
+import com.github.chrisblutz.networking.sockets.Connection;
+import com.github.chrisblutz.networking.sockets.Transport;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.List;
+
+
+public class StreamingDecoderTest extends TestCase {
+
+    private static final int PACKETS = 40;
+    private static final int[] CHUNK_SIZES = new int[]{1, 2, 3, 5, 7, 11, 64, 1000};
+
+    private boolean errored = false;
+    private String errorMessage = "";
+    private final List<Integer> received = new ArrayList<Integer>();
+
+    public StreamingDecoderTest(String name) {
+
+        super(name);
+    }
+
+    public static TestSuite suite() {
+
+        return new TestSuite(StreamingDecoderTest.class);
+    }
+
+    public void testBlockingDecoder() {
+
+        runDecoderTest(Transport.BLOCKING, 12363);
+    }
+
+    public void testNioDecoder() {
+
+        runDecoderTest(Transport.NIO, 12364);
+    }
+
+    public void testBlockingFrameLimit() {
+
+        runFrameLimitTest(Transport.BLOCKING, 12385);
+    }
+
+    public void testNioFrameLimit() {
+
+        runFrameLimitTest(Transport.NIO, 12386);
+    }
+
+    private void runFrameLimitTest(Transport transport, int port) {
+
+        final Server server = new Server(port, "StreamingDecoderTest");
+        server.setTransport(transport);
+        server.setEventLoopThreads(1);
+        server.setMaxFrameLength(64 * 1024);
+        server.addErrorReporter(ErrorReporterFactory.newInstance());
+        server.addNetworkListener(new ServerListener() {
+
+            @Override
+            public void onReceive(Connection connection, Packet packet) {
+
+            }
+
+            @Override
+            public Packet onConnect(Connection c, Packet data) {
+
+                return data;
+            }
+
+            @Override
+            public void onTimeout(Connection connection) {
+
+            }
+
+            @Override
+            public void onClientFailure(Connection c) {
+
+            }
+        });
+
+        try {
+
+            System.out.println("Starting " + transport + " server...");
+
+            server.start();
+
+            // A length that overflows the end of the frame, and one that would need a 2 GB buffer
+            expectClosed(port, new byte[]{0x00, 0x7F, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 1, 2, 3});
+            expectClosed(port, new byte[]{0x00, 0x7F, (byte) 0xFF, (byte) 0xFF, (byte) 0xF0, 1, 2, 3});
+
+            // Text lines are held to the same limit while their end is missing
+            byte[] line = new byte[128 * 1024];
+            Arrays.fill(line, (byte) 'a');
+
+            expectClosed(port, line);
+
+            // The server keeps serving other connections
+            Socket socket = new Socket("0.0.0.0", port);
+            socket.setSoTimeout(5000);
+
+            if (readLine(socket.getInputStream()) < 0) {
+
+                errored = true;
+                errorMessage = "The server stopped accepting connections!";
+            }
+
+            socket.close();
+
+        } catch (Exception e) {
+
+            e.printStackTrace();
+
+            errored = true;
+            errorMessage = e.getClass().getName();
+        }
+
+        try {
+
+            server.close();
+
+        } catch (Exception e) {
+
+            e.printStackTrace();
+
+            errored = true;
+            errorMessage = e.getClass().getName();
+        }
+
+        if (errored) {
+
+            System.out.println("Errored - " + errorMessage);
+            fail(errorMessage);
+
+        } else {
+
+            System.out.println("Success!");
+        }
+    }
+
+    private void expectClosed(int port, byte[] data) throws Exception {
+
+        Socket socket = new Socket("0.0.0.0", port);
+        socket.setSoTimeout(5000);
+
+        InputStream in = socket.getInputStream();
+        readLine(in);
+
+        OutputStream out = socket.getOutputStream();
+        out.write(data);
+        out.flush();
+
+        try {
+
+            if (!errored && in.read() >= 0) {
+
+                errored = true;
+                errorMessage = "The server did not close a connection that sent " + data.length + " bytes of an oversized frame!";
+            }
+
+        } catch (SocketException e) {
+
+            // The server closed the connection while data was still unread
+        }
+
+        socket.close();
+    }
+
+    /**
+     * Reads and discards a line, such as the information packet
+     *
+     * @return The last byte read, or {@code -1} if the stream ended first
+     */
+    private static int readLine(InputStream in) throws Exception {
+
+        int b;
+
+        while ((b = in.read()) != '\n' && b >= 0) {
+
+            // Discard the line
+        }
+
+        return b;
+    }
+
+    private void runDecoderTest(Transport transport, int port) {
+
+        final Server server = new Server(port, "StreamingDecoderTest");
+        server.setTransport(transport);
+        server.setEventLoopThreads(1);
+        server.addErrorReporter(ErrorReporterFactory.newInstance());
+        server.addNetworkListener(new ServerListener() {
+
+            @Override
+            public void onReceive(Connection connection, Packet packet) {
+
+                synchronized (received) {
+
+                    received.add((Integer) packet.getData("n"));
+                }
+
+                if (!("value|" + packet.getData("n") + "\r\n\u00e9").equals(packet.getData("text"))) {
+
+                    errored = true;
+                    errorMessage = "Server: Received incorrect text '" + packet.getData("text") + "'!";
+                }
+
+                connection.sendPacket(new Packet(), false);
+            }
+
+            @Override
+            public Packet onConnect(Connection c, Packet data) {
+
+                return data;
+            }
+
+            @Override
+            public void onTimeout(Connection connection) {
+
+            }
+
+            @Override
+            public void onClientFailure(Connection c) {
+
+            }
+        });
+
+        Socket socket = null;
+
+        try {
+
+            System.out.println("Starting " + transport + " server...");
+
+            server.start();
+
+            socket = new Socket("0.0.0.0", port);
+
+            // Wait for the information packet before sending anything
+            InputStream in = socket.getInputStream();
+
+            int b;
+
+            while ((b = in.read()) != '\n' && b >= 0) {
+
+                // Discard the information packet
+            }
+
+            byte[] stream = createStream();
+            OutputStream out = socket.getOutputStream();
+
+            System.out.println("Writing " + PACKETS + " packets (" + stream.length + " bytes) in uneven chunks...");
+
+            int offset = 0;
+
+            for (int i = 0; offset < stream.length; i++) {
+
+                int length = Math.min(CHUNK_SIZES[i % CHUNK_SIZES.length], stream.length - offset);
+
+                out.write(stream, offset, length);
+                out.flush();
+
+                offset += length;
+
+                Thread.sleep(1);
+            }
+
+        } catch (Exception e) {
+
+            e.printStackTrace();
+
+            errored = true;
+            errorMessage = e.getClass().getName();
+        }
+
+        long deadline = System.currentTimeMillis() + 10000;
+
+        while (!errored && getReceivedCount() < PACKETS && System.currentTimeMillis() < deadline) {
+
+            try {
+
+                Thread.sleep(100);
+
+            } catch (InterruptedException e) {
+            }
+        }
+
+        synchronized (received) {
+
+            if (!errored && received.size() < PACKETS) {
+
+                errored = true;
+                errorMessage = "Only " + received.size() + " of " + PACKETS + " packets were received!";
+            }
+
+            for (int i = 0; !errored && i < received.size(); i++) {
+
+                if (received.get(i) != i) {
+
+                    errored = true;
+                    errorMessage = "Packet " + i + " was received as packet " + received.get(i) + "!";
+                }
+            }
+        }
+
+        try {
+
+            if (socket != null) {
+
+                socket.close();
+            }
+
+            server.close();
+
+        } catch (Exception e) {
+
+            e.printStackTrace();
+
+            errored = true;
+            errorMessage = e.getClass().getName();
+        }
+
+        if (errored) {
+
+            System.out.println("Errored - " + errorMessage);
+            fail(errorMessage);
+
+        } else {
+
+            System.out.println("Success!");
+        }
+    }
+
+    private int getReceivedCount() {
+
+        synchronized (received) {
+
+            return received.size();
+        }
+    }
+
+    /**
+     * Creates a stream of alternating text lines (some ending in CRLF) and binary frames
+     */
+    private static byte[] createStream() throws Exception {
+
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        PacketWriter textWriter = new PacketWriter();
+        BinaryPacketWriter binaryWriter = new BinaryPacketWriter();
+
+        for (int i = 0; i < PACKETS; i++) {
+
+            Packet p = new Packet();
+            p.putData("n", i);
+            p.putData("text", "value|" + i + "\r\n\u00e9");
+
+            // Make a couple of packets larger than the read buffer of a Connection
+            if (i == PACKETS / 2 || i == PACKETS / 2 + 1) {
+
+                StringBuilder large = new StringBuilder();
+
+                for (int c = 0; c < 20000; c++) {
+
+                    large.append((char) ('a' + c % 26));
+                }
+
+                p.putData("large", large.toString());
+            }
+
+            if (i % 2 == 0) {
+
+                stream.write(textWriter.getPacketAsWriteableString(Connection.getUninitializedConnection(), p).getBytes("UTF-8"));
+                stream.write(i % 4 == 0 ? "\r\n".getBytes("UTF-8") : "\n".getBytes("UTF-8"));
+
+            } else {
+
+                stream.write(binaryWriter.getPacketAsFrame(Connection.getUninitializedConnection(), p));
+            }
+        }
+
+        return stream.toByteArray();
+    }
+}
@@ -0,0 +1,138 @@
+package com.github.chrisblutz.networking;
+
+import com.github.chrisblutz.networking.packets.Packet;
+import com.github.chrisblutz.networking.packets.PacketReader;
+import com.github.chrisblutz.networking.packets.PacketUtils;
+import com.github.chrisblutz.networking.packets.PacketWriter;
+import com.github.chrisblutz.networking.packets.binary.BinaryPacketReader;
+import com.github.chrisblutz.networking.packets.binary.BinaryPacketWriter;
+import com.github.chrisblutz.networking.query.Query;
+import com.github.chrisblutz.networking.query.QueryPacketHandler;
+import com.github.chrisblutz.networking.query.QueryType;
+import com.github.chrisblutz.networking.sockets.Connection;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+
+public class StructuredTypeTest extends TestCase {
+
+    // Every separator used by the text codec and by the length prefixes of nested values
+    private static final String TRICKY = "a|b=c:d\ne\rf,g 3:h \u4e2d\ud83d\ude00";
+    // The text codec cannot carry its own escape sequences, so this is only checked in binary
+    private static final String ESCAPES = PacketUtils.VERTICAL_LINE_ESCAPE + PacketUtils.NEW_LINE_ESCAPE + PacketUtils.COMMA_ESCAPE;
+
+    public StructuredTypeTest(String name) {
+
+        super(name);
+    }
+
+    public static TestSuite suite() {
+
+        return new TestSuite(StructuredTypeTest.class);
+    }
+
+    public void testBinaryRoundTrip() {
+
+        Packet packet = createPacket();
+        packet.putData("escapes", Arrays.asList(ESCAPES));
+
+        byte[] frame = new BinaryPacketWriter().getPacketAsFrame(Connection.getUninitializedConnection(), packet);
+        Packet read = new BinaryPacketReader().getPacketFromFrame(Connection.getUninitializedConnection(), frame,
+                PacketUtils.BINARY_FRAME_HEADER_LENGTH, frame.length - PacketUtils.BINARY_FRAME_HEADER_LENGTH);
+
+        checkPacket(read);
+        assertEquals(Arrays.asList(ESCAPES), read.getData("escapes"));
+    }
+
+    public void testTextRoundTrip() {
+
+        Packet packet = createPacket();
+
+        String text = new PacketWriter().getPacketAsWriteableString(Connection.getUninitializedConnection(), packet);
+        Packet read = new PacketReader().getPacketFromString(Connection.getUninitializedConnection(), text);
+
+        checkPacket(read);
+    }
+
+    public void testQueryParameters() {
+
+        Map<String, Object> params = new HashMap<String, Object>();
+        params.put(TRICKY, createMap());
+        params.put("list", createList());
+        params.put("null", null);
+
+        Query query = QueryPacketHandler.read(QueryPacketHandler.write(new Query(QueryType.CONNECTED_IPS, params)));
+
+        assertSame(QueryType.CONNECTED_IPS, query.getType());
+        assertEquals(createMap(), query.getParameters().get(TRICKY));
+        assertEquals(createList(), query.getParameters().get("list"));
+        assertTrue(query.getParameters().containsKey("null"));
+        assertNull(query.getParameters().get("null"));
+    }
+
+    private static Packet createPacket() {
+
+        Packet inner = new Packet();
+        inner.putInt("int", 42);
+        inner.putData(TRICKY, TRICKY);
+        inner.putData("null", null);
+        inner.putData("list", createList());
+
+        Packet p = new Packet();
+        p.putData("packet", inner);
+        p.putData("map", createMap());
+        p.putData("list", createList());
+        p.putData("empty", new ArrayList<Object>());
+
+        return p;
+    }
+
+    private static Map<String, Object> createMap() {
+
+        Map<String, Object> nested = new LinkedHashMap<String, Object>();
+        nested.put("doubles", Arrays.asList(1.5, -2.25));
+        nested.put(TRICKY, TRICKY);
+
+        Map<String, Object> map = new LinkedHashMap<String, Object>();
+        map.put("long", 1L << 40);
+        map.put("nested", nested);
+        map.put("null", null);
+        map.put("empty", new HashMap<String, Object>());
+
+        return map;
+    }
+
+    private static List<Object> createList() {
+
+        List<Object> list = new ArrayList<Object>();
+        list.add(1);
+        list.add(TRICKY);
+        list.add(null);
+        list.add(Arrays.asList("a", Arrays.asList("b", TRICKY)));
+        list.add(true);
+
+        return list;
+    }
+
+    private static void checkPacket(Packet read) {
+
+        Packet inner = (Packet) read.getData("packet");
+
+        assertEquals(42, inner.getInt("int", 0));
+        assertEquals(TRICKY, inner.getData(TRICKY));
+        assertTrue(inner.hasData("null"));
+        assertNull(inner.getData("null"));
+        assertEquals(createList(), inner.getData("list"));
+
+        assertEquals(createMap(), read.getData("map"));
+        assertEquals(createList(), read.getData("list"));
+        assertEquals(new ArrayList<Object>(), read.getData("empty"));
+    }
+}
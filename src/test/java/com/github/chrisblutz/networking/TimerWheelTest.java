@@ -0,0 +1,133 @@
+package com.github.chrisblutz.networking;
+
+import com.github.chrisblutz.networking.exceptions.reporters.ErrorReporterFactory;
+import com.github.chrisblutz.networking.sockets.TimerWheel;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+public class TimerWheelTest extends TestCase {
+
+    private static final int TIMEOUTS = 200000;
+
+    public TimerWheelTest(String name) {
+
+        super(name);
+    }
+
+    public static TestSuite suite() {
+
+        return new TestSuite(TimerWheelTest.class);
+    }
+
+    public void testExpiry() throws InterruptedException {
+
+        Listenable listenable = new Listenable();
+        listenable.addErrorReporter(ErrorReporterFactory.newInstance());
+
+        // A small wheel, so the long timeout has to wait for several turns
+        TimerWheel wheel = new TimerWheel(listenable, "TimerWheelTest", 5, 8);
+
+        try {
+
+            final CountDownLatch expired = new CountDownLatch(2);
+            final long start = System.nanoTime();
+            final long[] elapsed = new long[2];
+
+            wheel.schedule(new Runnable() {
+
+                @Override
+                public void run() {
+
+                    elapsed[0] = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    expired.countDown();
+                }
+            }, 20, TimeUnit.MILLISECONDS);
+
+            wheel.schedule(new Runnable() {
+
+                @Override
+                public void run() {
+
+                    elapsed[1] = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    expired.countDown();
+                }
+            }, 200, TimeUnit.MILLISECONDS);
+
+            assertTrue("Timeouts did not expire!", expired.await(5, TimeUnit.SECONDS));
+            assertTrue("Short timeout expired after " + elapsed[0] + " ms!", elapsed[0] >= 20);
+            assertTrue("Long timeout expired after " + elapsed[1] + " ms!", elapsed[1] >= 200);
+            assertEquals(0, wheel.getPendingCount());
+
+        } finally {
+
+            wheel.shutdown();
+        }
+    }
+
+    public void testCancel() throws InterruptedException {
+
+        Listenable listenable = new Listenable();
+        listenable.addErrorReporter(ErrorReporterFactory.newInstance());
+
+        TimerWheel wheel = new TimerWheel(listenable, "TimerWheelTest");
+
+        try {
+
+            final AtomicInteger runs = new AtomicInteger(0);
+            final CountDownLatch last = new CountDownLatch(1);
+
+            Runnable count = new Runnable() {
+
+                @Override
+                public void run() {
+
+                    runs.incrementAndGet();
+                }
+            };
+
+            TimerWheel.Timeout[] timeouts = new TimerWheel.Timeout[TIMEOUTS];
+
+            for (int i = 0; i < TIMEOUTS; i++) {
+
+                timeouts[i] = wheel.schedule(count, 1000 + (i % 100), TimeUnit.MILLISECONDS);
+            }
+
+            assertEquals(TIMEOUTS, wheel.getPendingCount());
+
+            // Cancel every other timeout, then wait for one scheduled after all of them
+            for (int i = 0; i < TIMEOUTS; i += 2) {
+
+                assertTrue(timeouts[i].cancel());
+            }
+
+            wheel.schedule(new Runnable() {
+
+                @Override
+                public void run() {
+
+                    last.countDown();
+                }
+            }, 1500, TimeUnit.MILLISECONDS);
+
+            assertTrue("Timeouts did not expire!", last.await(10, TimeUnit.SECONDS));
+            assertEquals(TIMEOUTS / 2, runs.get());
+            assertEquals(0, wheel.getPendingCount());
+
+            for (int i = 0; i < TIMEOUTS; i++) {
+
+                assertEquals(i % 2 == 0, timeouts[i].isCancelled());
+                assertEquals(i % 2 != 0, timeouts[i].isExpired());
+                assertFalse(timeouts[i].cancel());
+            }
+
+        } finally {
+
+            wheel.shutdown();
+        }
+    }
+}
@@ -0,0 +1,304 @@
+package com.github.chrisblutz.networking;
+
+import com.github.chrisblutz.networking.exceptions.reporters.ErrorReporterFactory;
+import com.github.chrisblutz.networking.listeners.ClientListener;
+import com.github.chrisblutz.networking.listeners.ServerListener;
+import com.github.chrisblutz.networking.packets.Packet;
+import com.github.chrisblutz.networking.sockets.Connection;
+import com.github.chrisblutz.networking.sockets.Transport;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManagerFactory;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.security.KeyStore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+public class TlsTest extends TestCase {
+
+    private static final String PASSWORD = "changeit";
+    private static final int PACKETS = 200;
+
+    private boolean errored = false;
+    private String errorMessage = "";
+    private AtomicInteger received = new AtomicInteger(0);
+    private StringBuilder large = new StringBuilder();
+
+    public TlsTest(String name) {
+
+        super(name);
+    }
+
+    public static TestSuite suite() {
+
+        return new TestSuite(TlsTest.class);
+    }
+
+    @Override
+    protected void setUp() {
+
+        // Large enough to be split across several TLS records
+        while (large.length() < 40000) {
+
+            large.append("TLS record data ").append(large.length()).append('|');
+        }
+    }
+
+    public void testBlockingTls() throws Exception {
+
+        runTlsTest(Transport.BLOCKING, false, 12372);
+    }
+
+    public void testNioTls() throws Exception {
+
+        runTlsTest(Transport.NIO, false, 12373);
+    }
+
+    public void testFullDuplexTls() throws Exception {
+
+        runTlsTest(Transport.BLOCKING, true, 12374);
+    }
+
+    public void testNioFullDuplexTls() throws Exception {
+
+        runTlsTest(Transport.NIO, true, 12375);
+    }
+
+    private void runTlsTest(Transport transport, boolean fullDuplex, int port) throws Exception {
+
+        SSLContext context = createContext();
+
+        final Server server = new Server(port, "TlsTest");
+        server.setSSLContext(context);
+        server.setTransport(transport);
+        server.setEventLoopThreads(1);
+        server.setFullDuplex(fullDuplex);
+        server.addErrorReporter(ErrorReporterFactory.newInstance());
+        server.addNetworkListener(new ServerListener() {
+
+            @Override
+            public void onReceive(Connection connection, Packet packet) {
+
+                if (!connection.isSecure()) {
+
+                    errored = true;
+                    errorMessage = "Server: The connection is not secure!";
+                }
+
+                connection.sendPacket(packet, false);
+            }
+
+            @Override
+            public Packet onConnect(Connection c, Packet data) {
+
+                return data;
+            }
+
+            @Override
+            public void onTimeout(Connection connection) {
+
+            }
+
+            @Override
+            public void onClientFailure(Connection c) {
+
+            }
+        });
+
+        final Client client = new Client("localhost", port, "TestClient");
+        client.setSSLContext(context);
+        client.setTransport(transport);
+        client.setEventLoopThreads(1);
+        client.setFullDuplex(fullDuplex);
+        client.addErrorReporter(ErrorReporterFactory.newInstance());
+        client.addNetworkListener(new ClientListener() {
+
+            @Override
+            public void onReceive(Connection connection, Packet packet) {
+
+                int n = (Integer) packet.getData("n");
+
+                if (n != received.get()) {
+
+                    errored = true;
+                    errorMessage = "Expected packet " + received.get() + ", found " + n + "!";
+
+                } else if (n == 0 && !large.toString().equals(packet.getData("large"))) {
+
+                    errored = true;
+                    errorMessage = "The large packet was corrupted!";
+                }
+
+                received.incrementAndGet();
+
+                // Ping-pong Connections send the next packet once the last one came back
+                if (!client.getConnection().isFullDuplex() && received.get() < PACKETS) {
+
+                    client.sendPacket(createPacket(received.get()), false);
+                }
+            }
+
+            @Override
+            public void onConnect(Packet packet) {
+
+                if (client.getConnection().isFullDuplex()) {
+
+                    for (int i = 0; i < PACKETS; i++) {
+
+                        client.sendPacket(createPacket(i), false);
+                    }
+
+                } else {
+
+                    client.sendPacket(createPacket(0), false);
+                }
+            }
+
+            @Override
+            public void onTimeout(Connection connection) {
+
+            }
+        });
+
+        try {
+
+            System.out.println("Starting server...");
+
+            server.start();
+
+            System.out.println("Starting client...");
+
+            client.connect();
+
+            long deadline = System.currentTimeMillis() + 20000;
+
+            while (!errored && received.get() < PACKETS && System.currentTimeMillis() < deadline) {
+
+                Thread.sleep(50);
+            }
+
+            if (!errored && received.get() < PACKETS) {
+
+                errored = true;
+                errorMessage = "Only " + received.get() + " of " + PACKETS + " packets came back!";
+            }
+
+            if (!errored) {
+
+                String protocol = client.getConnection().getSSLSession().getProtocol();
+
+                System.out.println("Connected with " + protocol + " using " + client.getConnection().getSSLSession().getCipherSuite());
+
+                if (!protocol.startsWith("TLS")) {
+
+                    errored = true;
+                    errorMessage = "Unexpected protocol " + protocol + "!";
+                }
+            }
+
+        } catch (Exception e) {
+
+            e.printStackTrace();
+
+            errored = true;
+            errorMessage = e.getClass().getName();
+        }
+
+        try {
+
+            client.close();
+            server.close();
+
+        } catch (Exception e) {
+
+            e.printStackTrace();
+
+            errored = true;
+            errorMessage = e.getClass().getName();
+        }
+
+        if (errored) {
+
+            System.out.println("Errored - " + errorMessage);
+            fail(errorMessage);
+
+        } else {
+
+            System.out.println("Success!");
+        }
+    }
+
+    private Packet createPacket(int n) {
+
+        Packet p = new Packet();
+        p.putData("n", n);
+
+        if (n == 0) {
+
+            p.putData("large", large.toString());
+        }
+
+        return p;
+    }
+
+    /**
+     * Generates a self-signed certificate with keytool and creates an {@code SSLContext} that uses and trusts it
+     */
+    private static SSLContext createContext() throws Exception {
+
+        File keyStoreFile = File.createTempFile("tlstest", ".p12");
+
+        if (!keyStoreFile.delete()) {
+
+            throw new IllegalStateException("Could not prepare " + keyStoreFile);
+        }
+
+        keyStoreFile.deleteOnExit();
+
+        String keytool = System.getProperty("java.home") + File.separator + "bin" + File.separator + "keytool";
+
+        Process process = new ProcessBuilder(keytool, "-genkeypair", "-alias", "test", "-keyalg", "RSA", "-keysize", "2048",
+                "-validity", "1", "-dname", "CN=localhost", "-storetype", "PKCS12", "-keystore", keyStoreFile.getAbsolutePath(),
+                "-storepass", PASSWORD, "-keypass", PASSWORD).redirectErrorStream(true).start();
+
+        InputStream output = process.getInputStream();
+
+        while (output.read() >= 0) {
+
+            // Drain the output so keytool cannot block
+        }
+
+        if (process.waitFor() != 0) {
+
+            throw new IllegalStateException("keytool failed to generate a key pair!");
+        }
+
+        KeyStore keyStore = KeyStore.getInstance("PKCS12");
+        FileInputStream in = new FileInputStream(keyStoreFile);
+
+        try {
+
+            keyStore.load(in, PASSWORD.toCharArray());
+
+        } finally {
+
+            in.close();
+        }
+
+        KeyManagerFactory keyManagers = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+        keyManagers.init(keyStore, PASSWORD.toCharArray());
+
+        TrustManagerFactory trustManagers = TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+        trustManagers.init(keyStore);
+
+        SSLContext context = SSLContext.getInstance("TLS");
+        context.init(keyManagers.getKeyManagers(), trustManagers.getTrustManagers(), null);
+
+        return context;
+    }
+}
@@ -0,0 +1,209 @@
+package com.github.chrisblutz.networking;
+
+import com.github.chrisblutz.networking.exceptions.reporters.ErrorReporterFactory;
+import com.github.chrisblutz.networking.listeners.ClientListener;
+import com.github.chrisblutz.networking.listeners.ServerListener;
+import com.github.chrisblutz.networking.packets.Packet;
+import com.github.chrisblutz.networking.sockets.Connection;
+import com.github.chrisblutz.networking.utils.VirtualThreads;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+public class VirtualThreadTest extends TestCase {
+
+    // Every Connection uses a descriptor on each side, so 10000 Connections (-Dnetworking.test.connections=10000) need a raised open file limit
+    private static final int CONNECTIONS = Integer.getInteger("networking.test.connections", 1000);
+    private static final int FACTORY_CONNECTIONS = 200;
+
+    private boolean errored = false;
+    private String errorMessage = "";
+    private AtomicInteger connected = new AtomicInteger(0);
+
+    public VirtualThreadTest(String name) {
+
+        super(name);
+    }
+
+    public static TestSuite suite() {
+
+        return new TestSuite(VirtualThreadTest.class);
+    }
+
+    public void testVirtualThreads() {
+
+        if (!VirtualThreads.isSupported()) {
+
+            System.out.println("SKIPPED testVirtualThreads: virtual threads need Java 21 or later, running on Java " + System.getProperty("java.version"));
+
+            return;
+        }
+
+        runConnectionTest(12361, CONNECTIONS, null);
+    }
+
+    public void testThreadFactory() {
+
+        // JVMs without virtual threads run the Connection loops through a custom ThreadFactory instead
+        final AtomicInteger created = new AtomicInteger(0);
+
+        ThreadFactory factory = new ThreadFactory() {
+
+            @Override
+            public Thread newThread(Runnable r) {
+
+                Thread thread = new Thread(r, "Counted Thread " + created.incrementAndGet());
+                thread.setDaemon(true);
+
+                return thread;
+            }
+        };
+
+        runConnectionTest(12390, FACTORY_CONNECTIONS, factory);
+
+        // Both sides run at least a listener loop for each Connection
+        assertTrue("Only " + created.get() + " Threads were created by the ThreadFactory!", created.get() >= FACTORY_CONNECTIONS * 2);
+    }
+
+    /**
+     * Opens the specified number of {@code Connections}, running their loops on virtual {@code Threads}
+     * if no {@code ThreadFactory} is given
+     */
+    private void runConnectionTest(int port, int connections, ThreadFactory factory) {
+
+        final Server server = new Server(port, "VirtualThreadTest", connections + 1);
+        server.setVirtualThreads(factory == null);
+        server.setThreadFactory(factory);
+        server.addErrorReporter(ErrorReporterFactory.newInstance());
+        server.addNetworkListener(new ServerListener() {
+
+            @Override
+            public void onReceive(Connection connection, Packet packet) {
+
+            }
+
+            @Override
+            public Packet onConnect(Connection c, Packet data) {
+
+                return data;
+            }
+
+            @Override
+            public void onTimeout(Connection connection) {
+
+            }
+
+            @Override
+            public void onClientFailure(Connection c) {
+
+            }
+        });
+
+        ClientListener listener = new ClientListener() {
+
+            @Override
+            public void onReceive(Connection connection, Packet packet) {
+
+            }
+
+            @Override
+            public void onConnect(Packet packet) {
+
+                connected.incrementAndGet();
+            }
+
+            @Override
+            public void onTimeout(Connection connection) {
+
+                errored = true;
+                errorMessage = "Connection timed out!";
+            }
+        };
+
+        Client[] clients = new Client[connections];
+
+        try {
+
+            System.out.println("Starting server...");
+
+            server.start();
+
+            System.out.println("Opening " + connections + " connections...");
+
+            for (int i = 0; i < connections; i++) {
+
+                Client client = new Client("0.0.0.0", port, "TestClient" + i);
+                client.setVirtualThreads(factory == null);
+                client.setThreadFactory(factory);
+                client.addErrorReporter(ErrorReporterFactory.newInstance());
+                client.addNetworkListener(listener);
+                client.connect();
+
+                clients[i] = client;
+            }
+
+        } catch (Exception e) {
+
+            e.printStackTrace();
+
+            errored = true;
+            errorMessage = e.getClass().getName();
+        }
+
+        long deadline = System.currentTimeMillis() + 120000;
+
+        while (!errored && connected.get() < connections && System.currentTimeMillis() < deadline) {
+
+            try {
+
+                Thread.sleep(100);
+
+            } catch (InterruptedException e) {
+            }
+        }
+
+        if (!errored && connected.get() < connections) {
+
+            errored = true;
+            errorMessage = "Only " + connected.get() + " of " + connections + " connections were opened!";
+
+        } else if (!errored && server.getConnections().size() != connections) {
+
+            errored = true;
+            errorMessage = "Server has " + server.getConnections().size() + " connections, expected " + connections + "!";
+        }
+
+        try {
+
+            for (Client client : clients) {
+
+                if (client != null) {
+
+                    client.close();
+                }
+            }
+
+            server.close();
+
+        } catch (Exception e) {
+
+            e.printStackTrace();
+
+            errored = true;
+            errorMessage = e.getClass().getName();
+        }
+
+        if (errored) {
+
+            System.out.println("Errored - " + errorMessage);
+            fail(errorMessage);
+
+        } else {
+
+            System.out.println("Success!");
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.github.chrisblutz.networking;
+
+import com.github.chrisblutz.networking.exceptions.reporters.ErrorReporterFactory;
+import com.github.chrisblutz.networking.listeners.ClientListener;
+import com.github.chrisblutz.networking.packets.Packet;
+import com.github.chrisblutz.networking.sockets.Connection;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import java.io.InputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+
+
+public class WriteBatchingTest extends TestCase {
+
+    private static final int PACKETS = 2000;
+
+    public WriteBatchingTest(String name) {
+
+        super(name);
+    }
+
+    public static TestSuite suite() {
+
+        return new TestSuite(WriteBatchingTest.class);
+    }
+
+    public void testBatchedWrites() throws Exception {
+
+        ServerSocket serverSocket = new ServerSocket(12369);
+        Client client = createClient(256, 65536, 200000);
+        Socket socket = null;
+
+        try {
+
+            client.connect();
+            socket = serverSocket.accept();
+            socket.setSoTimeout(10000);
+
+            // The second packet is sent well within the linger time, so both must leave in the same write
+            Packet first = new Packet();
+            first.putData("n", 0);
+            client.sendPacket(first, false);
+
+            Thread.sleep(20);
+
+            Packet second = new Packet();
+            second.putData("n", 1);
+            client.sendPacket(second, false);
+
+            byte[] expected = "INT:n=0\nINT:n=1\n".getBytes("UTF-8");
+            byte[] buffer = new byte[expected.length];
+            int read = socket.getInputStream().read(buffer);
+
+            assertEquals("The packets were not written together!", expected.length, read);
+            assertEquals(new String(expected, "UTF-8"), new String(buffer, "UTF-8"));
+
+        } finally {
+
+            client.close();
+
+            if (socket != null) {
+
+                socket.close();
+            }
+
+            serverSocket.close();
+        }
+    }
+
+    public void testLargeBatches() throws Exception {
+
+        int reads = sendBurst(256, 65536, 1000);
+
+        System.out.println("Large batches: " + PACKETS + " packets arrived in " + reads + " reads");
+    }
+
+    public void testSmallBatches() throws Exception {
+
+        // Batches that only fit a few packets must still deliver every packet in order
+        int reads = sendBurst(3, 64, 0);
+
+        System.out.println("Small batches: " + PACKETS + " packets arrived in " + reads + " reads");
+    }
+
+    /**
+     * Sends a burst of packets from a full-duplex client and reads them from a plain socket
+     *
+     * @return The number of reads it took to receive every packet
+     */
+    private static int sendBurst(int maxPackets, int maxBytes, long maxLinger) throws Exception {
+
+        ServerSocket serverSocket = new ServerSocket(12369);
+        Client client = createClient(maxPackets, maxBytes, maxLinger);
+        Socket socket = null;
+
+        try {
+
+            client.connect();
+            socket = serverSocket.accept();
+
+            for (int i = 0; i < PACKETS; i++) {
+
+                Packet p = new Packet();
+                p.putData("n", i);
+
+                client.sendPacket(p, false);
+            }
+
+            // The client has not received the connection packet, so it writes one line of text per packet
+            InputStream in = socket.getInputStream();
+            byte[] buffer = new byte[65536];
+            StringBuilder line = new StringBuilder();
+            int lines = 0, reads = 0;
+
+            socket.setSoTimeout(10000);
+
+            while (lines < PACKETS) {
+
+                int read = in.read(buffer);
+
+                assertTrue("Stream ended after " + lines + " packets!", read > 0);
+
+                reads++;
+
+                for (int i = 0; i < read; i++) {
+
+                    if (buffer[i] == '\n') {
+
+                        assertEquals("INT:n=" + lines, line.toString());
+
+                        lines++;
+                        line.setLength(0);
+
+                    } else {
+
+                        line.append((char) buffer[i]);
+                    }
+                }
+            }
+
+            return reads;
+
+        } finally {
+
+            client.close();
+
+            if (socket != null) {
+
+                socket.close();
+            }
+
+            serverSocket.close();
+        }
+    }
+
+    private static Client createClient(int maxPackets, int maxBytes, long maxLinger) {
+
+        Client client = new Client("0.0.0.0", 12369, "TestClient");
+        client.setFullDuplex(true);
+        client.setMaxBatchPackets(maxPackets);
+        client.setMaxBatchBytes(maxBytes);
+        client.setMaxLinger(maxLinger);
+        client.addErrorReporter(ErrorReporterFactory.newInstance());
+        client.addNetworkListener(new ClientListener() {
+
+            @Override
+            public void onReceive(Connection connection, Packet packet) {
+
+            }
+
+            @Override
+            public void onConnect(Packet packet) {
+
+            }
+
+            @Override
+            public void onTimeout(Connection connection) {
+
+            }
+        });
+
+        return client;
+    }
+}